@@ -16,13 +16,18 @@
 
 package manifold.api.fs.cache;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Supplier;
 import manifold.api.fs.IDirectory;
 import manifold.api.fs.IFile;
@@ -32,6 +37,7 @@ import manifold.api.host.IModule;
 import manifold.api.host.RefreshRequest;
 import manifold.rt.api.util.ManIdentifierUtil;
 import manifold.rt.api.util.ManClassUtil;
+import manifold.rt.api.util.Pair;
 import manifold.api.util.cache.FqnCache;
 import manifold.util.concurrent.ConcurrentHashSet;
 
@@ -39,6 +45,12 @@ import manifold.util.concurrent.ConcurrentHashSet;
  */
 public class PathCache
 {
+  /**
+   * Set this system property to an int greater than 1 to scan the source path with that many threads. Source path
+   * roots and their package directories are scanned concurrently, while the results are still merged in path order.
+   */
+  public static final String PARALLELISM = "manifold.pathcache.parallelism";
+
   @SuppressWarnings({"FieldCanBeLocal", "UnusedDeclaration"})
   private CacheClearer _clearer;
   private final IModule _module;
@@ -46,27 +58,47 @@ public class PathCache
   private final Runnable _clearHandler;
   private Map<IFile, Set<String>> _reverseMap;
   private Map<String, FqnCache<IFile>> _filesByExtension;
+  private PathCacheIndex _index;
 
   public PathCache( IModule module, Supplier<Collection<IDirectory>> pathSupplier, Runnable clearHandler )
+  {
+    this( module, pathSupplier, clearHandler, getParallelism() );
+  }
+
+  PathCache( IModule module, Supplier<Collection<IDirectory>> pathSupplier, Runnable clearHandler, int parallelism )
   {
     _module = module;
     _pathSupplier = pathSupplier;
     _clearHandler = clearHandler;
     _reverseMap = new ConcurrentHashMap<>();
-    init();
+    init( parallelism );
     _module.getHost().addTypeSystemListenerAsWeakRef( module, _clearer = new CacheClearer() );
   }
 
-  private void init()
+  private void init( int parallelism )
   {
     Map<String, FqnCache<IFile>> filesByExtension = new ConcurrentHashMap<>();
-    for( IDirectory sourceEntry : _pathSupplier.get() )
+    Collection<IDirectory> sourcePath = _pathSupplier.get();
+    _index = PathCacheIndex.load( sourcePath );
+    if( parallelism > 1 )
     {
-      if( IFileUtil.hasSourceFiles( sourceEntry ) )
+      addTypesForFilesInParallel( sourcePath, filesByExtension, parallelism );
+    }
+    else
+    {
+      for( IDirectory sourceEntry : sourcePath )
       {
-        addTypesForFiles( "", sourceEntry, filesByExtension );
+        if( IFileUtil.hasSourceFiles( sourceEntry ) )
+        {
+          addTypesForFiles( "", sourceEntry, filesByExtension );
+        }
       }
     }
+    if( _index != null )
+    {
+      _index.save();
+      _index = null;
+    }
     _filesByExtension = filesByExtension;
   }
 
@@ -113,13 +145,13 @@ public class PathCache
   {
     if( !_module.getHost().isPathIgnored( pkg ) )
     {
-      for( IFile file : dir.listFiles() )
+      for( IFile file : listFiles( dir ) )
       {
         String fqn = qualifyName( pkg, file.getName() );
         addToExtension( fqn, file, filesByExtension );
         addToReverseMap( file, fqn );
       }
-      for( IDirectory subdir : dir.listDirs() )
+      for( IDirectory subdir : listDirs( dir ) )
       {
         if( isValidPackage( subdir ) )
         {
@@ -130,6 +162,61 @@ public class PathCache
     }
   }
 
+  private static int getParallelism()
+  {
+    String value = System.getProperty( PARALLELISM );
+    if( value == null || value.isEmpty() )
+    {
+      return 0;
+    }
+    try
+    {
+      return Math.min( Integer.parseInt( value.trim() ), Runtime.getRuntime().availableProcessors() );
+    }
+    catch( NumberFormatException e )
+    {
+      return 0;
+    }
+  }
+
+  private void addTypesForFilesInParallel( Collection<IDirectory> sourcePath,
+                                           Map<String, FqnCache<IFile>> filesByExtension, int parallelism )
+  {
+    ForkJoinPool pool = new ForkJoinPool( parallelism );
+    try
+    {
+      List<ForkJoinTask<List<Pair<String, IFile>>>> scans = new ArrayList<>();
+      for( IDirectory sourceEntry : sourcePath )
+      {
+        scans.add( pool.submit( new ScanTask( sourceEntry ) ) );
+      }
+
+      // Merge in path order, the first file for a given fqn wins, same as with the sequential scan
+      for( ForkJoinTask<List<Pair<String, IFile>>> scan : scans )
+      {
+        for( Pair<String, IFile> entry : scan.join() )
+        {
+          addToExtension( entry.getFirst(), entry.getSecond(), filesByExtension );
+          addToReverseMap( entry.getSecond(), entry.getFirst() );
+        }
+      }
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+  private List<? extends IFile> listFiles( IDirectory dir )
+  {
+    return _index == null ? dir.listFiles() : _index.listFiles( dir );
+  }
+
+  private List<? extends IDirectory> listDirs( IDirectory dir )
+  {
+    return _index == null ? dir.listDirs() : _index.listDirs( dir );
+  }
+
   private boolean isValidPackage( IDirectory subdir )
   {
     // Exclude directories that are not actual packages such as META-INF that exist in jar files
@@ -207,6 +294,59 @@ public class PathCache
     _reverseMap = new ConcurrentHashMap<>();
   }
 
+  /**
+   * Scans a directory and its package subdirectories, forking a task per subdirectory. The resulting (fqn, file) list
+   * is in the same order the sequential scan visits files.
+   */
+  private class ScanTask extends RecursiveTask<List<Pair<String, IFile>>>
+  {
+    private final String _pkg;
+    private final IDirectory _dir;
+    private final boolean _root;
+
+    private ScanTask( IDirectory root )
+    {
+      this( "", root, true );
+    }
+
+    private ScanTask( String pkg, IDirectory dir, boolean root )
+    {
+      _pkg = pkg;
+      _dir = dir;
+      _root = root;
+    }
+
+    @Override
+    protected List<Pair<String, IFile>> compute()
+    {
+      if( (_root && !IFileUtil.hasSourceFiles( _dir )) || _module.getHost().isPathIgnored( _pkg ) )
+      {
+        return Collections.emptyList();
+      }
+
+      List<ScanTask> subtasks = new ArrayList<>();
+      for( IDirectory subdir : listDirs( _dir ) )
+      {
+        if( isValidPackage( subdir ) )
+        {
+          subtasks.add( new ScanTask( qualifyName( _pkg, subdir.getName() ), subdir, false ) );
+        }
+      }
+      invokeAll( subtasks );
+
+      List<Pair<String, IFile>> result = new ArrayList<>();
+      for( IFile file : listFiles( _dir ) )
+      {
+        result.add( new Pair<>( qualifyName( _pkg, file.getName() ), file ) );
+      }
+      for( ScanTask subtask : subtasks )
+      {
+        result.addAll( subtask.join() );
+      }
+      return result;
+    }
+  }
+
   private class CacheClearer extends AbstractTypeSystemListener
   {
     @Override
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.api.fs.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import manifold.api.fs.IDirectory;
+import manifold.api.fs.IFile;
+import manifold.api.fs.IResource;
+import manifold.api.util.fingerprint.Fingerprint;
+
+/**
+ * A persistent listing of the source path directories scanned by {@link PathCache}. Each directory entry records the
+ * directory's last-modified time along with the names of its files and subdirectories. Since adding, removing, or
+ * renaming a directory's children changes the directory's timestamp, an entry with a matching timestamp can stand in
+ * for a {@code listFiles()}/{@code listDirs()} call. Directories with stale entries are listed as usual and their
+ * entries are replaced, so the index revalidates incrementally as the path cache initializes.
+ * <p/>
+ * A directory changed within the file system's timestamp granularity of being listed may keep its timestamp through the
+ * change. Such a <i>racy</i> entry, where the timestamp is not safely older than the listing, is not trusted and the
+ * directory is listed again the next time the index is loaded.
+ * <p/>
+ * The index is enabled by setting the {@code manifold.pathcache.index} system property to a directory where index
+ * files are kept, one per distinct set of source path roots. A missing, corrupt, or version-mismatched index file is
+ * ignored, in which case the path cache performs a full scan and writes a fresh index.
+ * <p/>
+ * Only directories on the physical file system are indexed. Jar file listings are read from the jar's central
+ * directory, which is already held in memory, so there is nothing to gain from indexing them.
+ */
+public class PathCacheIndex
+{
+  public static final String INDEX_DIR = "manifold.pathcache.index";
+
+  private static final int MAGIC = 0x4D504349; // "MPCI"
+  private static final int VERSION = 2;
+  // the coarsest timestamp granularity of common file systems (FAT)
+  private static final long RACY_MILLIS = 2000;
+
+  private final File _indexFile;
+  private final Map<String, DirEntry> _entries;
+  private final Map<String, DirEntry> _visited;
+  private volatile boolean _dirty;
+
+  /**
+   * @return The index corresponding with {@code roots}, or null if the index is not enabled
+   */
+  public static PathCacheIndex load( Collection<IDirectory> roots )
+  {
+    String indexDir = System.getProperty( INDEX_DIR );
+    if( indexDir == null || indexDir.isEmpty() )
+    {
+      return null;
+    }
+
+    Fingerprint fp = new Fingerprint();
+    for( IDirectory root : roots )
+    {
+      fp.extend( root.getPath().getFileSystemPathString() );
+    }
+    return new PathCacheIndex( new File( indexDir, "pathcache-" + fp.toHexString() + ".idx" ) );
+  }
+
+  PathCacheIndex( File indexFile )
+  {
+    _indexFile = indexFile;
+    _entries = read( indexFile );
+    _visited = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return The files in {@code dir}, using the index entry for {@code dir} if it is current
+   */
+  public List<? extends IFile> listFiles( IDirectory dir )
+  {
+    DirEntry entry = revalidate( dir );
+    if( entry == null )
+    {
+      return dir.listFiles();
+    }
+    List<IFile> files = new ArrayList<>( entry._files.length );
+    for( String name : entry._files )
+    {
+      files.add( dir.file( name ) );
+    }
+    return files;
+  }
+
+  /**
+   * @return The subdirectories of {@code dir}, using the index entry for {@code dir} if it is current
+   */
+  public List<? extends IDirectory> listDirs( IDirectory dir )
+  {
+    DirEntry entry = revalidate( dir );
+    if( entry == null )
+    {
+      return dir.listDirs();
+    }
+    List<IDirectory> dirs = new ArrayList<>( entry._dirs.length );
+    for( String name : entry._dirs )
+    {
+      dirs.add( dir.dir( name ) );
+    }
+    return dirs;
+  }
+
+  private DirEntry revalidate( IDirectory dir )
+  {
+    if( dir.isInJar() || !dir.isJavaFile() )
+    {
+      return null;
+    }
+
+    File javaDir = dir.toJavaFile();
+    String key = javaDir.getAbsolutePath();
+    DirEntry entry = _visited.get( key );
+    if( entry != null )
+    {
+      return entry;
+    }
+
+    long timestamp = javaDir.lastModified();
+    entry = _entries.get( key );
+    if( entry == null || entry._timestamp != timestamp || timestamp == 0 || entry.isRacy() )
+    {
+      long listed = System.currentTimeMillis();
+      entry = new DirEntry( timestamp, listed, names( dir.listFiles() ), names( dir.listDirs() ) );
+      _dirty = true;
+    }
+    _visited.put( key, entry );
+    return entry;
+  }
+
+  private static String[] names( List<? extends IResource> resources )
+  {
+    String[] names = new String[resources.size()];
+    for( int i = 0; i < names.length; i++ )
+    {
+      names[i] = resources.get( i ).getName();
+    }
+    return names;
+  }
+
+  /**
+   * Writes the entries visited since the index was loaded, dropping entries for directories that no longer exist on
+   * the path. Does nothing if every visited entry was current.
+   */
+  public void save()
+  {
+    if( !_dirty && _visited.size() == _entries.size() )
+    {
+      return;
+    }
+
+    File tmp = new File( _indexFile.getPath() + ".tmp" );
+    //noinspection ResultOfMethodCallIgnored
+    _indexFile.getParentFile().mkdirs();
+    try( DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) ) )
+    {
+      out.writeInt( MAGIC );
+      out.writeInt( VERSION );
+      out.writeInt( _visited.size() );
+      for( Map.Entry<String, DirEntry> e : _visited.entrySet() )
+      {
+        out.writeUTF( e.getKey() );
+        DirEntry entry = e.getValue();
+        out.writeLong( entry._timestamp );
+        out.writeLong( entry._listed );
+        writeNames( out, entry._files );
+        writeNames( out, entry._dirs );
+      }
+    }
+    catch( IOException e )
+    {
+      // the index is only an optimization, failing to write it must not fail the build
+      //noinspection ResultOfMethodCallIgnored
+      tmp.delete();
+      return;
+    }
+
+    //noinspection ResultOfMethodCallIgnored
+    _indexFile.delete();
+    if( !tmp.renameTo( _indexFile ) )
+    {
+      //noinspection ResultOfMethodCallIgnored
+      tmp.delete();
+    }
+    _dirty = false;
+  }
+
+  private static void writeNames( DataOutputStream out, String[] names ) throws IOException
+  {
+    out.writeInt( names.length );
+    for( String name : names )
+    {
+      out.writeUTF( name );
+    }
+  }
+
+  private static Map<String, DirEntry> read( File indexFile )
+  {
+    if( !indexFile.isFile() )
+    {
+      return Collections.emptyMap();
+    }
+
+    try( DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( indexFile ) ) ) )
+    {
+      if( in.readInt() != MAGIC || in.readInt() != VERSION )
+      {
+        return Collections.emptyMap();
+      }
+      int count = in.readInt();
+      Map<String, DirEntry> entries = new ConcurrentHashMap<>( count );
+      for( int i = 0; i < count; i++ )
+      {
+        String key = in.readUTF();
+        long timestamp = in.readLong();
+        long listed = in.readLong();
+        entries.put( key, new DirEntry( timestamp, listed, readNames( in ), readNames( in ) ) );
+      }
+      return entries;
+    }
+    catch( IOException | RuntimeException e )
+    {
+      // corrupt or truncated, fall back to a full scan
+      return Collections.emptyMap();
+    }
+  }
+
+  private static String[] readNames( DataInputStream in ) throws IOException
+  {
+    int count = in.readInt();
+    if( count < 0 )
+    {
+      throw new IOException( "Corrupt index" );
+    }
+    String[] names = new String[count];
+    for( int i = 0; i < count; i++ )
+    {
+      names[i] = in.readUTF();
+    }
+    return names;
+  }
+
+  private static class DirEntry
+  {
+    private final long _timestamp;
+    private final long _listed;
+    private final String[] _files;
+    private final String[] _dirs;
+
+    private DirEntry( long timestamp, long listed, String[] files, String[] dirs )
+    {
+      _timestamp = timestamp;
+      _listed = listed;
+      _files = files;
+      _dirs = dirs;
+    }
+
+    /**
+     * @return True if the directory's timestamp is not safely older than the listing, in which case a change made
+     * after the listing may not have changed the timestamp
+     */
+    private boolean isRacy()
+    {
+      return _timestamp + RACY_MILLIS > _listed;
+    }
+  }
+}
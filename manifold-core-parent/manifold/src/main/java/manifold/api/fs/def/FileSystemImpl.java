@@ -23,9 +23,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import manifold.api.fs.IDirectory;
 import manifold.api.fs.IFile;
@@ -51,7 +51,8 @@ public class FileSystemImpl extends BaseService implements IFileSystem
   public FileSystemImpl( IManifoldHost host, CachingMode cachingMode )
   {
     _host = host;
-    _cachedDirInfo = new HashMap<>();
+    // concurrent: getIDirectory() reads outside the lock, possibly from several path scanning threads
+    _cachedDirInfo = new ConcurrentHashMap<>();
     _cachingMode = cachingMode;
     _iDirectoryResourceExtractor = new IDirectoryResourceExtractor();
     _iFileResourceExtractor = new IFileResourceExtractor();
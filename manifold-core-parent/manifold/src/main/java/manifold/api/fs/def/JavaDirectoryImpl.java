@@ -203,8 +203,8 @@ public class JavaDirectoryImpl extends JavaResourceImpl implements IDirectory
 
   private abstract class CachingFileRetrievalStrategy implements FileRetrievalStrategy
   {
-    protected List<IDirectory> _directories;
-    protected List<IFile> _files;
+    protected volatile List<IDirectory> _directories;
+    protected volatile List<IFile> _files;
 
     public void clearCache()
     {
@@ -245,44 +245,42 @@ public class JavaDirectoryImpl extends JavaResourceImpl implements IDirectory
 
     protected void refreshInfo()
     {
-      _files = new ArrayList<IFile>();
-      _directories = new ArrayList<IDirectory>();
       File javaFile = toJavaFile();
       maybeSetTimestamp( javaFile );
+      List<IDirectory> directories = new ArrayList<IDirectory>();
+      List<IFile> files = new ArrayList<IFile>();
+      listChildren( javaFile, directories, files );
+      _directories = trim( directories );
+      _files = trim( files );
+    }
 
-      File[] files = javaFile.listFiles();
-      if( files != null )
+    protected void listChildren( File javaFile, List<IDirectory> directories, List<IFile> files )
+    {
+      File[] children = javaFile.listFiles();
+      if( children != null )
       {
-        for( File f : files )
+        for( File f : children )
         {
           if( FileSystemImpl.isDirectory( f ) )
           {
-            _directories.add( getFileSystem().getIDirectory( f ) );
+            directories.add( getFileSystem().getIDirectory( f ) );
           }
           else
           {
-            _files.add( getFileSystem().getIFile( f ) );
+            files.add( getFileSystem().getIFile( f ) );
           }
         }
       }
+    }
 
-      if( _directories.isEmpty() )
-      {
-        _directories = Collections.emptyList();
-      }
-      else
-      {
-        ((ArrayList)_directories).trimToSize();
-      }
-
-      if( _files.isEmpty() )
-      {
-        _files = Collections.emptyList();
-      }
-      else
+    protected <T> List<T> trim( List<T> list )
+    {
+      if( list.isEmpty() )
       {
-        ((ArrayList)_files).trimToSize();
+        return Collections.emptyList();
       }
+      ((ArrayList)list).trimToSize();
+      return list;
     }
 
     protected abstract void refreshIfNecessary();
@@ -390,6 +388,50 @@ public class JavaDirectoryImpl extends JavaResourceImpl implements IDirectory
 
   private class FullyCachedFileRetrievalStrategy extends CachingFileRetrievalStrategy
   {
+    @Override
+    public List<IDirectory> listDirs()
+    {
+      listOutsideLock();
+      return super.listDirs();
+    }
+
+    @Override
+    public List<IFile> listFiles()
+    {
+      listOutsideLock();
+      return super.listFiles();
+    }
+
+    /**
+     * List the directory before acquiring the file system lock so that separate directories can be listed
+     * concurrently, see PathCache's parallel scan.
+     */
+    private void listOutsideLock()
+    {
+      if( _files != null )
+      {
+        return;
+      }
+
+      List<IDirectory> directories = new ArrayList<IDirectory>();
+      List<IFile> files = new ArrayList<IFile>();
+      listChildren( toJavaFile(), directories, files );
+
+      getFileSystem().getLock().lock();
+      try
+      {
+        if( _files == null )
+        {
+          _directories = trim( directories );
+          _files = trim( files );
+        }
+      }
+      finally
+      {
+        getFileSystem().getLock().unlock();
+      }
+    }
+
     @Override
     protected void refreshIfNecessary()
     {
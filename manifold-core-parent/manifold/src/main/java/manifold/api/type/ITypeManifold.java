@@ -122,6 +122,27 @@ public interface ITypeManifold extends IFileConnected, ISelfCompiled
    */
   void clear();
 
+  /**
+   * Can {@link #contribute} be called concurrently for different types? If so, static compilation with the
+   * {@code manifold.pregen.threads} option may produce this type manifold's source on worker threads before javac
+   * requests it. Return true only if contributing a type neither mutates state shared with other types nor uses javac.
+   */
+  default boolean isContributeThreadSafe()
+  {
+    return false;
+  }
+
+  /**
+   * Is the source contributed for a type determined entirely by the content and location of the type's resource
+   * files, see {@link #findFilesForType(String)}? If so, the source may be cached across builds when the
+   * {@code manifold.generated.cache} system property is set. Return false if the source depends on other types, other
+   * files, or the environment.
+   */
+  default boolean isContributeCacheable()
+  {
+    return false;
+  }
+
   /**
    * Signals that normal javac compilation is complete with respect to the supplied Java source file list passed
    * to javac. Any "other" source files passed in (via other.source.files property using -Akey=value arg) are
@@ -42,6 +42,7 @@ import manifold.rt.api.util.ManClassUtil;
 import manifold.rt.api.util.StreamUtil;
 import manifold.api.util.cache.FqnCache;
 import manifold.api.util.cache.IllegalTypeNameException;
+import manifold.api.util.PerfLogUtil;
 import manifold.util.concurrent.ConcurrentHashSet;
 import manifold.util.concurrent.LocklessLazyVar;
 
@@ -91,6 +92,22 @@ public abstract class ResourceFileTypeManifold<M extends IModel> extends BaseSer
   }
 
   private FqnCache<LocklessLazyVar<M>> buildFqnToModelCache()
+  {
+    try( PerfLogUtil.Span ignore = PerfLogUtil.span( getClass().getSimpleName() + ".buildFqnToModelCache", null ) )
+    {
+      return buildFqnToModelCacheImpl();
+    }
+  }
+
+  private M createModel( String fqn, Set<IFile> files )
+  {
+    try( PerfLogUtil.Span ignore = PerfLogUtil.span( getClass().getSimpleName() + ".createModel", fqn ) )
+    {
+      return _modelMapper.apply( fqn, files );
+    }
+  }
+
+  private FqnCache<LocklessLazyVar<M>> buildFqnToModelCacheImpl()
   {
     FqnCache<LocklessLazyVar<M>> fqnToModel = new FqnCache<>();
     Map<String, Set<IFile>> primaryFqnToFiles = buildPrimaryFqnToFilesMap();
@@ -105,7 +122,7 @@ public abstract class ResourceFileTypeManifold<M extends IModel> extends BaseSer
       // Map primary type to model
       if( primaryFqn.charAt( 0 ) != '-' )
       {
-        model = LocklessLazyVar.make( () -> _modelMapper.apply( primaryFqn, files ) );
+        model = LocklessLazyVar.make( () -> createModel( primaryFqn, files ) );
         fqnToModel.add( primaryFqn, model );
         primaryFqnNoMinus = primaryFqn;
       }
@@ -121,7 +138,7 @@ public abstract class ResourceFileTypeManifold<M extends IModel> extends BaseSer
         {
           if( model == null )
           {
-            model = LocklessLazyVar.make( () -> _modelMapper.apply( primaryFqnNoMinus, files ) );
+            model = LocklessLazyVar.make( () -> createModel( primaryFqnNoMinus, files ) );
           }
           fqnToModel.add( addFqn, model ); // use same model as base fqn
         }
@@ -16,15 +16,134 @@
 
 package manifold.api.util;
 
-import manifold.util.concurrent.LocklessLazyVar;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Compile-time and runtime instrumentation for Manifold.
+ * <p/>
+ * <ul>
+ * <li>{@code -Dmanifold.perf=true} prints labeled timings as they complete and a summary of span totals and counters
+ * when the VM exits</li>
+ * <li>{@code -Dmanifold.perf.trace=<file>} records every span and writes them to {@code file} in Chrome trace event
+ * format, load the file in {@code chrome://tracing} or Perfetto to browse nested spans per thread. Recorded spans are
+ * buffered and appended to the file whenever {@code -Dmanifold.perf.trace.buffer} spans are pending (default 10000),
+ * the file is complete when the VM exits</li>
+ * </ul>
+ * Spans nest naturally: a span opened while another span is open on the same thread appears as its child in the
+ * trace. When neither property is set, spans and counters are no-ops.
+ */
 public class PerfLogUtil
 {
-  private static final LocklessLazyVar<Boolean> PERF =
-    LocklessLazyVar.make( () -> {
-      String value = System.getProperty( "manifold.perf", "false" );
-      return Boolean.valueOf( value );
-    } );
+  public static final String PERF = "manifold.perf";
+  public static final String PERF_TRACE = "manifold.perf.trace";
+  public static final String PERF_TRACE_BUFFER = "manifold.perf.trace.buffer";
+
+  private static final boolean PRINT = Boolean.valueOf( System.getProperty( PERF, "false" ) );
+  private static final Recorder RECORDER = makeRecorder();
+
+  private static final Span NONE = () -> {};
+
+  /**
+   * A timed region of work, closing the span records it. Use with try-with-resources:
+   * <pre><code>
+   *   try( PerfLogUtil.Span span = PerfLogUtil.span( "contribute", fqn ) ) {...}
+   * </code></pre>
+   */
+  public interface Span extends AutoCloseable
+  {
+    @Override
+    void close();
+  }
+
+  private static Recorder makeRecorder()
+  {
+    String file = System.getProperty( PERF_TRACE );
+    File traceFile = file == null || file.isEmpty() ? null : new File( file );
+    if( !PRINT && traceFile == null )
+    {
+      return null;
+    }
+
+    Recorder recorder = new Recorder( traceFile, Integer.getInteger( PERF_TRACE_BUFFER, 10_000 ) );
+    Runtime.getRuntime().addShutdownHook( new Thread( recorder::report, "manifold.perf" ) );
+    return recorder;
+  }
+
+  public static boolean isEnabled()
+  {
+    return RECORDER != null;
+  }
+
+  /**
+   * @param name   The name of the span, spans are aggregated by name in the summary
+   * @param detail Additional information for this instance of the span such as a type name, may be null
+   */
+  public static Span span( String name, String detail )
+  {
+    return RECORDER == null ? NONE : new SpanImpl( name, detail );
+  }
+
+  /**
+   * Opens a span that is closed from a different call frame on the same thread via {@link #end(String, String)}, for
+   * instance from a pair of listener callbacks.
+   */
+  public static void begin( String name, String detail )
+  {
+    if( RECORDER != null )
+    {
+      RECORDER._open.get().push( new SpanImpl( name, detail ) );
+    }
+  }
+
+  /**
+   * Closes the most recent span opened on this thread via {@link #begin(String, String)} with the same name and
+   * detail. Note javac's listener events are not always nested, for instance all compilation units start ENTER before
+   * any finish it.
+   */
+  public static void end( String name, String detail )
+  {
+    if( RECORDER != null )
+    {
+      for( Iterator<SpanImpl> iter = RECORDER._open.get().iterator(); iter.hasNext(); )
+      {
+        SpanImpl span = iter.next();
+        if( span._name.equals( name ) && Objects.equals( span._detail, detail ) )
+        {
+          iter.remove();
+          span.close();
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Increments the named counter e.g., a cache hit or miss.
+   */
+  public static void count( String counter )
+  {
+    if( RECORDER != null )
+    {
+      RECORDER.count( counter );
+    }
+  }
 
   public static void log( String label, Runnable run )
   {
@@ -41,12 +160,277 @@ public class PerfLogUtil
 
   public static void log( String label, long nanosBefore )
   {
-    //noinspection ConstantConditions
-    if( !PERF.get() )
+    if( RECORDER == null )
     {
       return;
     }
 
-    System.out.println( label + ": " + ((System.nanoTime() - nanosBefore) / 1_000_000) + "ms" );
+    long now = System.nanoTime();
+    RECORDER.record( label, null, nanosBefore, now - nanosBefore );
+    if( PRINT )
+    {
+      System.out.println( label + ": " + ((now - nanosBefore) / 1_000_000) + "ms" );
+    }
+  }
+
+  private static class SpanImpl implements Span
+  {
+    private final String _name;
+    private final String _detail;
+    private final long _start;
+
+    private SpanImpl( String name, String detail )
+    {
+      _name = name;
+      _detail = detail;
+      _start = System.nanoTime();
+    }
+
+    @Override
+    public void close()
+    {
+      RECORDER.record( _name, _detail, _start, System.nanoTime() - _start );
+    }
+  }
+
+  private static class Event
+  {
+    private final String _name;
+    private final String _detail;
+    private final long _tid;
+    private final long _start;
+    private final long _duration;
+
+    private Event( String name, String detail, long tid, long start, long duration )
+    {
+      _name = name;
+      _detail = detail;
+      _tid = tid;
+      _start = start;
+      _duration = duration;
+    }
+  }
+
+  /**
+   * Aggregates span totals and counters, and streams trace events to the trace file. At most about
+   * {@code bufferSize} events are held in memory, when that many are pending the recording thread appends them to the
+   * file.
+   */
+  static class Recorder
+  {
+    private final long _epoch = System.nanoTime();
+    private final File _traceFile;
+    private final int _bufferSize;
+    private final ConcurrentLinkedQueue<Event> _events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _pending = new AtomicInteger();
+    private final ReentrantLock _writeLock = new ReentrantLock();
+    private final Map<String, LongAdder> _counters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> _totals = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<SpanImpl>> _open = ThreadLocal.withInitial( ArrayDeque::new );
+
+    // guarded by _writeLock
+    private Writer _out;
+    private boolean _first = true;
+    private boolean _closed;
+    private long _end;
+
+    Recorder( File traceFile, int bufferSize )
+    {
+      _traceFile = traceFile;
+      _bufferSize = Math.max( 1, bufferSize );
+    }
+
+    void record( String name, String detail, long start, long duration )
+    {
+      LongAdder[] total = _totals.computeIfAbsent( name, k -> new LongAdder[] {new LongAdder(), new LongAdder()} );
+      total[0].increment();
+      total[1].add( duration );
+      if( _traceFile != null )
+      {
+        _events.add( new Event( name, detail, Thread.currentThread().getId(), start, duration ) );
+        if( _pending.incrementAndGet() >= _bufferSize && _writeLock.tryLock() )
+        {
+          // if another thread is already writing, it drains this event too
+          try
+          {
+            drain();
+          }
+          finally
+          {
+            _writeLock.unlock();
+          }
+        }
+      }
+    }
+
+    int getPendingCount()
+    {
+      return _pending.get();
+    }
+
+    void count( String counter )
+    {
+      _counters.computeIfAbsent( counter, k -> new LongAdder() ).increment();
+    }
+
+    void report()
+    {
+      if( PRINT )
+      {
+        printSummary();
+      }
+      if( _traceFile != null )
+      {
+        finishTrace();
+      }
+    }
+
+    private void printSummary()
+    {
+      System.out.println( "manifold.perf summary" );
+      new TreeMap<>( _totals ).forEach( ( name, total ) ->
+        System.out.println( "  " + name + ": " + total[0].sum() + " spans, " + (total[1].sum() / 1_000_000) + "ms" ) );
+      new TreeMap<>( _counters ).forEach( ( name, count ) ->
+        System.out.println( "  " + name + ": " + count.sum() ) );
+    }
+
+    void finishTrace()
+    {
+      _writeLock.lock();
+      try
+      {
+        drain();
+        if( _closed )
+        {
+          return;
+        }
+        Writer out = getWriter();
+        for( Map.Entry<String, LongAdder> counter : new TreeMap<>( _counters ).entrySet() )
+        {
+          writeSeparator( out );
+          out.write( "{\"name\":" );
+          writeString( out, counter.getKey() );
+          out.write( ",\"ph\":\"C\",\"pid\":1,\"ts\":" + micros( _end ) +
+            ",\"args\":{\"value\":" + counter.getValue().sum() + "}}" );
+        }
+        out.write( "\n]}\n" );
+        out.close();
+        _closed = true;
+      }
+      catch( IOException e )
+      {
+        failed( e );
+      }
+      finally
+      {
+        _writeLock.unlock();
+      }
+    }
+
+    private void drain()
+    {
+      for( Event event; (event = _events.poll()) != null; )
+      {
+        _pending.decrementAndGet();
+        if( _closed )
+        {
+          // the trace is finished or failed, discard
+          continue;
+        }
+        try
+        {
+          writeEvent( getWriter(), event );
+        }
+        catch( IOException e )
+        {
+          failed( e );
+        }
+      }
+    }
+
+    private Writer getWriter() throws IOException
+    {
+      if( _out == null )
+      {
+        _out = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( _traceFile ), StandardCharsets.UTF_8 ) );
+        _out.write( "{\"traceEvents\":[\n" );
+      }
+      return _out;
+    }
+
+    private void failed( IOException e )
+    {
+      _closed = true;
+      System.err.println( "Failed to write " + PERF_TRACE + " file: " + _traceFile + " (" + e.getMessage() + ")" );
+      if( _out != null )
+      {
+        try
+        {
+          _out.close();
+        }
+        catch( IOException ignore )
+        {
+        }
+      }
+    }
+
+    private void writeEvent( Writer out, Event event ) throws IOException
+    {
+      writeSeparator( out );
+      out.write( "{\"name\":" );
+      writeString( out, event._name );
+      out.write( ",\"cat\":\"manifold\",\"ph\":\"X\",\"pid\":1,\"tid\":" + event._tid +
+        ",\"ts\":" + micros( event._start - _epoch ) + ",\"dur\":" + micros( event._duration ) );
+      if( event._detail != null )
+      {
+        out.write( ",\"args\":{\"detail\":" );
+        writeString( out, event._detail );
+        out.write( "}" );
+      }
+      out.write( "}" );
+      _end = Math.max( _end, event._start + event._duration - _epoch );
+    }
+
+    private void writeSeparator( Writer out ) throws IOException
+    {
+      if( !_first )
+      {
+        out.write( ",\n" );
+      }
+      _first = false;
+    }
+
+    private static String micros( long nanos )
+    {
+      return String.valueOf( nanos / 1000.0 );
+    }
+
+    private static void writeString( Writer out, String value ) throws IOException
+    {
+      out.write( '"' );
+      for( int i = 0; i < value.length(); i++ )
+      {
+        char c = value.charAt( i );
+        switch( c )
+        {
+          case '"':
+            out.write( "\\\"" );
+            break;
+          case '\\':
+            out.write( "\\\\" );
+            break;
+          default:
+            if( c < 0x20 )
+            {
+              out.write( String.format( "\\u%04x", (int)c ) );
+            }
+            else
+            {
+              out.write( c );
+            }
+        }
+      }
+      out.write( '"' );
+    }
   }
 }
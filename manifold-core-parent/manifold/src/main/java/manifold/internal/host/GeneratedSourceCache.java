@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.internal.host;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import manifold.api.fs.IFile;
+import manifold.api.fs.IFileFragment;
+import manifold.api.type.ContributorKind;
+import manifold.api.type.ITypeManifold;
+import manifold.api.util.fingerprint.Fingerprint;
+
+/**
+ * A content-addressed, on-disk cache of the primary source produced for resource types. It is enabled by setting the
+ * {@code manifold.generated.cache} system property to a directory where cached sources are kept.
+ * <p/>
+ * A type's key is the fingerprint of the type name, the content and location of the type's resource files, and the
+ * identity of the type manifold classes producing it along with the manifold core, where identity is the class's jar
+ * or directory stamp. Thus changing a resource file or upgrading manifold invalidates the cached source.
+ * <p/>
+ * Only types exclusively produced by type manifolds where {@link ITypeManifold#isContributeCacheable()} is true are
+ * cached. Supplemental contributions such as extensions are never cached since they depend on classes outside the
+ * type's resource files.
+ */
+class GeneratedSourceCache
+{
+  static final String CACHE_DIR = "manifold.generated.cache";
+
+  private static final int VERSION = 1;
+
+  private final File _dir;
+  private final Map<Class<?>, String> _classStamps;
+
+  /**
+   * @return The cache, or null if the cache is not enabled
+   */
+  static GeneratedSourceCache make()
+  {
+    String dir = System.getProperty( CACHE_DIR );
+    if( dir == null || dir.isEmpty() )
+    {
+      return null;
+    }
+    return new GeneratedSourceCache( new File( dir ) );
+  }
+
+  private GeneratedSourceCache( File dir )
+  {
+    _dir = dir;
+    _classStamps = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return The cache key for {@code fqn} produced by {@code sps}, or null if the type is not cacheable
+   */
+  String makeKey( String fqn, Collection<ITypeManifold> sps )
+  {
+    Fingerprint fp = new Fingerprint();
+    fp.extend( VERSION );
+    fp.extend( fqn );
+    fp.extend( stamp( GeneratedSourceCache.class ) );
+    boolean hasFiles = false;
+    for( ITypeManifold sp : sps )
+    {
+      if( sp.getContributorKind() == ContributorKind.Supplemental )
+      {
+        continue;
+      }
+      if( !sp.isContributeCacheable() )
+      {
+        return null;
+      }
+
+      fp.extend( stamp( sp.getClass() ) );
+      List<IFile> files = sp.findFilesForType( fqn );
+      for( IFile file : files )
+      {
+        if( file instanceof IFileFragment || !file.isJavaFile() )
+        {
+          return null;
+        }
+        fp.extend( file.getPath().getFileSystemPathString() );
+        try( InputStream content = file.openInputStream() )
+        {
+          fp.extend( content );
+        }
+        catch( IOException e )
+        {
+          return null;
+        }
+        hasFiles = true;
+      }
+    }
+    // types without resource files, such as system properties, depend on the environment
+    return hasFiles ? fp.toHexString() : null;
+  }
+
+  String get( String key, String fqn )
+  {
+    File file = new File( _dir, key + ".java" );
+    if( !file.isFile() )
+    {
+      return null;
+    }
+
+    try
+    {
+      String content = new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 );
+      String header = header( fqn );
+      // guard against fingerprint collisions
+      return content.startsWith( header ) ? content.substring( header.length() ) : null;
+    }
+    catch( IOException e )
+    {
+      return null;
+    }
+  }
+
+  void put( String key, String fqn, String source )
+  {
+    File file = new File( _dir, key + ".java" );
+    try
+    {
+      //noinspection ResultOfMethodCallIgnored
+      _dir.mkdirs();
+      File tmp = File.createTempFile( key, ".tmp", _dir );
+      Files.write( tmp.toPath(), (header( fqn ) + source).getBytes( StandardCharsets.UTF_8 ) );
+      Files.move( tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+    }
+    catch( IOException e )
+    {
+      // the cache is only an optimization, failing to write it must not fail the build
+    }
+  }
+
+  private static String header( String fqn )
+  {
+    return "//## " + fqn + '\n';
+  }
+
+  private String stamp( Class<?> cls )
+  {
+    return _classStamps.computeIfAbsent( cls, c -> {
+      CodeSource codeSource = c.getProtectionDomain().getCodeSource();
+      URL location = codeSource == null ? null : codeSource.getLocation();
+      if( location == null )
+      {
+        return c.getName();
+      }
+      try
+      {
+        File file = new File( location.toURI() );
+        if( file.isDirectory() )
+        {
+          // not a jar, stamp the class file itself
+          file = new File( file, c.getName().replace( '.', File.separatorChar ) + ".class" );
+        }
+        return c.getName() + ':' + file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+      }
+      catch( Exception e )
+      {
+        return c.getName() + ':' + location;
+      }
+    } );
+  }
+}
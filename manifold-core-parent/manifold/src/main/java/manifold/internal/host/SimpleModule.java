@@ -21,10 +21,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
@@ -41,6 +46,7 @@ import manifold.internal.javac.GeneratedJavaStubFileObject;
 import manifold.internal.javac.SourceJavaFileObject;
 import manifold.internal.javac.SourceSupplier;
 import manifold.api.util.JavacDiagnostic;
+import manifold.api.util.PerfLogUtil;
 import manifold.util.concurrent.LocklessLazyVar;
 
 
@@ -58,6 +64,8 @@ public abstract class SimpleModule implements IModule
   private List<IDirectory> _outputPath;
   private SortedSet<ITypeManifold> _typeManifolds;
   private LocklessLazyVar<PathCache> _pathCache;
+  private final Map<String, PregeneratedSource> _pregenerated = new ConcurrentHashMap<>();
+  private final LocklessLazyVar<GeneratedSourceCache> _sourceCache = LocklessLazyVar.make( GeneratedSourceCache::make );
 
   public SimpleModule( IManifoldHost host, List<IDirectory> classpath, List<IDirectory> sourcePath, List<IDirectory> outputPath )
   {
@@ -139,7 +147,128 @@ public abstract class SimpleModule implements IModule
     return sps.isEmpty() ? null : new GeneratedJavaStubFileObject( fqn, new SourceSupplier( fqn, sps, () -> compoundProduce( location, sps, fqn, errorHandler ) ) );
   }
 
+  private String contribute( ITypeManifold sp, JavaFileManager.Location location, String fqn, String result,
+                             DiagnosticListener<JavaFileObject> errorHandler )
+  {
+    try( PerfLogUtil.Span ignore = PerfLogUtil.span( sp.getClass().getSimpleName() + ".contribute", fqn ) )
+    {
+      return sp.contribute( location, fqn, false, result, errorHandler );
+    }
+  }
+
+  /**
+   * Produces the primary source for {@code fqns} on {@code threads} worker threads ahead of javac requesting the types.
+   * Only types exclusively produced by type manifolds where {@link ITypeManifold#isContributeThreadSafe()} is true are
+   * produced. Supplemental contributions are still made on javac's thread in {@link #produceFile}, where diagnostics
+   * collected during pregeneration are also reported.
+   */
+  public void pregenerate( Collection<String> fqns, JavaFileManager.Location location, int threads )
+  {
+    List<String> candidates = fqns.stream()
+      .filter( fqn -> !_pregenerated.containsKey( fqn ) && isContributeThreadSafe( findTypeManifoldsFor( fqn ) ) )
+      .collect( Collectors.toList() );
+    if( candidates.isEmpty() )
+    {
+      return;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool( threads );
+    try
+    {
+      pool.submit( () -> candidates.parallelStream().forEach( fqn -> pregenerate( fqn, location ) ) ).join();
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+  private void pregenerate( String fqn, JavaFileManager.Location location )
+  {
+    DiagnosticCollector<JavaFileObject> issues = new DiagnosticCollector<>();
+    try
+    {
+      String source = producePrimary( location, findTypeManifoldsFor( fqn ), fqn, issues );
+      _pregenerated.put( fqn, new PregeneratedSource( location, source, issues.getDiagnostics() ) );
+    }
+    catch( RuntimeException e )
+    {
+      // leave it to javac's thread, where the failure is reported normally
+    }
+  }
+
+  /**
+   * Discards pregenerated source javac did not request.
+   */
+  public void clearPregenerated()
+  {
+    _pregenerated.clear();
+  }
+
+  private boolean isContributeThreadSafe( Set<ITypeManifold> sps )
+  {
+    return sps.stream().anyMatch( sp -> sp.getContributorKind() != ContributorKind.Supplemental ) &&
+      sps.stream()
+        .filter( sp -> sp.getContributorKind() != ContributorKind.Supplemental )
+        .allMatch( ITypeManifold::isContributeThreadSafe );
+  }
+
   private String compoundProduce( JavaFileManager.Location location, Set<ITypeManifold> sps, String fqn, DiagnosticListener<JavaFileObject> errorHandler )
+  {
+    String result;
+    PregeneratedSource pregenerated = _pregenerated.remove( fqn );
+    if( pregenerated != null && Objects.equals( pregenerated._location, location ) )
+    {
+      pregenerated._diagnostics.forEach( errorHandler::report );
+      result = pregenerated._source;
+    }
+    else
+    {
+      result = producePrimary( location, sps, fqn, errorHandler );
+    }
+
+    for( ITypeManifold sp: sps )
+    {
+      if( sp.getContributorKind() == ContributorKind.Supplemental )
+      {
+        result = contribute( sp, location, fqn, result, errorHandler );
+      }
+    }
+
+    return result;
+  }
+
+  private String producePrimary( JavaFileManager.Location location, Set<ITypeManifold> sps, String fqn, DiagnosticListener<JavaFileObject> errorHandler )
+  {
+    GeneratedSourceCache cache = _sourceCache.get();
+    String key = cache == null ? null : cache.makeKey( fqn, sps );
+    if( key == null )
+    {
+      return producePrimaryImpl( location, sps, fqn, errorHandler );
+    }
+
+    String source = cache.get( key, fqn );
+    if( source != null )
+    {
+      PerfLogUtil.count( "generatedSourceCache.hit" );
+      return source;
+    }
+    PerfLogUtil.count( "generatedSourceCache.miss" );
+
+    // only cache clean results, diagnostics must be reported on every build
+    boolean[] reported = {false};
+    source = producePrimaryImpl( location, sps, fqn, diagnostic -> {
+      reported[0] = true;
+      errorHandler.report( diagnostic );
+    } );
+    if( !reported[0] )
+    {
+      cache.put( key, fqn, source );
+    }
+    return source;
+  }
+
+  private String producePrimaryImpl( JavaFileManager.Location location, Set<ITypeManifold> sps, String fqn, DiagnosticListener<JavaFileObject> errorHandler )
   {
     ITypeManifold found = null;
     String result = "";
@@ -163,18 +292,10 @@ public abstract class SimpleModule implements IModule
         else
         {
           found = sp;
-          result = sp.contribute( location, fqn, false, result, errorHandler );
+          result = contribute( sp, location, fqn, result, errorHandler );
         }
       }
     }
-    for( ITypeManifold sp: sps )
-    {
-      if( sp.getContributorKind() == ContributorKind.Supplemental )
-      {
-        result = sp.contribute( location, fqn, false, result, errorHandler );
-      }
-    }
-
     return result;
   }
 
@@ -220,4 +341,18 @@ public abstract class SimpleModule implements IModule
         .noneMatch( excludeDir -> excludeDir.equals( dir ) ) )
       .collect( Collectors.toList() );
   }
+
+  private static class PregeneratedSource
+  {
+    private final JavaFileManager.Location _location;
+    private final String _source;
+    private final List<Diagnostic<? extends JavaFileObject>> _diagnostics;
+
+    private PregeneratedSource( JavaFileManager.Location location, String source, List<Diagnostic<? extends JavaFileObject>> diagnostics )
+    {
+      _location = location;
+      _source = source;
+      _diagnostics = diagnostics;
+    }
+  }
 }
@@ -111,7 +111,9 @@ public class JavaDynamicJdk_8 implements IDynamicJdk
       Symtab.instance( ctx ).predefClass,
       (Symbol s) -> s instanceof Symbol.OperatorSymbol &&
                     s.name.toString().equals( op ) &&
-                    ((Symbol.MethodSymbol)s).params().get( 0 ).type.tsym == operandType )
+                    ((Symbol.MethodSymbol)s).params().size() == 2 &&
+                    ((Symbol.MethodSymbol)s).params().get( 0 ).type.tsym == operandType &&
+                    ((Symbol.MethodSymbol)s).params().get( 1 ).type.tsym == operandType )
       .iterator().next(); // should be just one
     setOperator( cond, operatorSym );
   }
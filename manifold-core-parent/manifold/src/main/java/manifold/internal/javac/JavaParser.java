@@ -33,11 +33,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaCompiler;
@@ -50,6 +53,8 @@ import manifold.api.fs.IFile;
 import manifold.api.fs.IResource;
 import manifold.api.host.IManifoldHost;
 import manifold.api.host.IModule;
+import manifold.api.type.ISelfCompiledFile;
+import manifold.api.util.PerfLogUtil;
 import manifold.util.JreUtil;
 import manifold.rt.api.util.Pair;
 import manifold.api.util.SourcePathUtil;
@@ -262,15 +267,93 @@ public class JavaParser implements IJavaParser
       return null;
     }
 
+    compileFiles( Collections.singletonList( fileObj.getFirst() ), Collections.singleton( fqn ), options, errorHandler );
+    return _mfm.findCompiledFile( fileObj.getSecond() );
+  }
+
+  /**
+   * Compiles specified Java class name together with the types in {@code batch} in a single compilation. As with
+   * {@link #compile(String, Iterable, DiagnosticCollector)} the resulting classes are cached, therefore subsequent calls
+   * for types in the batch return the previously compiled class without invoking the compiler. Since an error in any
+   * one of the batch's files prevents javac from generating classes for all of them, if the batch fails the class is
+   * compiled by itself. Diagnostics from the batch are reported to {@code errorHandler}, if the class is compiled by
+   * itself its own diagnostics are reported from that compilation instead.
+   */
+  public InMemoryClassJavaFileObject compile( String fqn, Collection<String> batch, Iterable<String> options, DiagnosticCollector<JavaFileObject> errorHandler )
+  {
+    init();
+
+    InMemoryClassJavaFileObject compiledClass = _mfm.findCompiledFile( fqn );
+    if( compiledClass != null )
+    {
+      return compiledClass;
+    }
+
+    Pair<JavaFileObject, String> fileObj = findJavaSource( fqn, errorHandler );
+    if( fileObj == null )
+    {
+      return null;
+    }
+
+    DiagnosticCollector<JavaFileObject> batchErrors = new DiagnosticCollector<>();
+    Map<String, JavaFileObject> files = new LinkedHashMap<>();
+    files.put( fileObj.getSecond(), fileObj.getFirst() );
+    for( String type : batch )
+    {
+      if( files.containsKey( type ) || _mfm.findCompiledFile( type ) != null )
+      {
+        continue;
+      }
+      JavaFileObject file = _mfm.getSourceFileForInput( StandardLocation.SOURCE_PATH, type, JavaFileObject.Kind.SOURCE, batchErrors );
+      if( file != null && !(file instanceof ISelfCompiledFile && ((ISelfCompiledFile)file).isSelfCompile( type )) )
+      {
+        files.put( type, file );
+      }
+    }
+    if( files.size() == 1 )
+    {
+      return compile( fqn, options, errorHandler );
+    }
+
+    try( PerfLogUtil.Span span = PerfLogUtil.span( "compileBatch", fqn + " +" + (files.size() - 1) ) )
+    {
+      compileFiles( new ArrayList<>( files.values() ), files.keySet(), options, batchErrors );
+    }
+    compiledClass = _mfm.findCompiledFile( fileObj.getSecond() );
+    if( compiledClass != null )
+    {
+      reportBatchDiagnostics( batchErrors, null, errorHandler );
+      return compiledClass;
+    }
+    reportBatchDiagnostics( batchErrors, fileObj.getFirst(), errorHandler );
+    return compile( fqn, options, errorHandler );
+  }
+
+  /**
+   * Reports the diagnostics from a batch compilation except those for {@code excluded}, if not null.
+   */
+  static void reportBatchDiagnostics( DiagnosticCollector<JavaFileObject> batchErrors, JavaFileObject excluded,
+                                      DiagnosticListener<? super JavaFileObject> errorHandler )
+  {
+    for( Diagnostic<? extends JavaFileObject> diagnostic : batchErrors.getDiagnostics() )
+    {
+      JavaFileObject source = diagnostic.getSource();
+      if( excluded == null || source == null || !source.toUri().equals( excluded.toUri() ) )
+      {
+        errorHandler.report( diagnostic );
+      }
+    }
+  }
+
+  private void compileFiles( List<JavaFileObject> files, Set<String> types, Iterable<String> options, DiagnosticCollector<JavaFileObject> errorHandler )
+  {
     int check = _mfm.pushRuntimeMode();
     try
     {
       StringWriter errors = new StringWriter();
-      BasicJavacTask javacTask = (BasicJavacTask)_javac.getTask(
-        errors, _mfm, errorHandler, options, null, Collections.singletonList( fileObj.getFirst() ) );
-      initTypeProcessing( javacTask, Collections.singleton( fqn ) );
+      BasicJavacTask javacTask = (BasicJavacTask)_javac.getTask( errors, _mfm, errorHandler, options, null, files );
+      initTypeProcessing( javacTask, types );
       javacTask.call();
-      return _mfm.findCompiledFile( fileObj.getSecond() );
     }
     finally
     {
@@ -78,6 +78,7 @@ import manifold.api.util.JavacUtil;
 import manifold.internal.host.JavacManifoldHost;
 import manifold.api.util.IssueMsg;
 import manifold.api.util.JavacDiagnostic;
+import manifold.api.util.PerfLogUtil;
 import manifold.util.JreUtil;
 import manifold.rt.api.util.ManClassUtil;
 import manifold.util.NecessaryEvilUtil;
@@ -109,6 +110,7 @@ public class JavacPlugin implements Plugin, TaskListener
   private static final String MANIFOLD_SOURCE_MAPPING = MANIFOLD_SOURCE + '.';
   private static final String OTHER_SOURCE_FILES = "other.source.files";
   private static final String OTHER_SOURCE_LIST = "other.source.list";
+  private static final String MANIFOLD_PREGEN_THREADS = "manifold.pregen.threads";
 
   private static Class<?> CLASSFINDER_CLASS = null;
   private static Class<?> MODULES_CLASS = null;
@@ -975,6 +977,33 @@ public class JavacPlugin implements Plugin, TaskListener
     }
     return manifoldSourceFiles;
   }
+  /**
+   * @return The number of threads to use for producing the source of resource types compiled via
+   * {@code -Amanifold.source.*} or {@code -Aother.source.*} ahead of javac requesting them, or 0 to produce them
+   * lazily on javac's thread
+   */
+  public int getPregenerateThreads()
+  {
+    Map<String, String> options = JavacProcessingEnvironment.instance( getContext() ).getOptions();
+    String threads = options.get( MANIFOLD_PREGEN_THREADS );
+    if( threads == null )
+    {
+      threads = System.getProperty( MANIFOLD_PREGEN_THREADS );
+    }
+    if( threads == null || threads.isEmpty() )
+    {
+      return 0;
+    }
+    try
+    {
+      return Integer.parseInt( threads.trim() );
+    }
+    catch( NumberFormatException e )
+    {
+      throw new IllegalArgumentException( String.format( "Expecting an integer value for %s, but found: %s", MANIFOLD_PREGEN_THREADS, threads ) );
+    }
+  }
+
   private String getOtherSourceFilesProperty( Map<String, String> options )
   {
     String otherSourceFiles = options.get( OTHER_SOURCE_FILES );
@@ -1024,6 +1053,10 @@ public class JavacPlugin implements Plugin, TaskListener
   @Override
   public void started( TaskEvent e )
   {
+    if( PerfLogUtil.isEnabled() )
+    {
+      PerfLogUtil.begin( "javac." + e.getKind(), getPerfDetail( e ) );
+    }
     switch( e.getKind() )
     {
       case PARSE:
@@ -1078,6 +1111,19 @@ public class JavacPlugin implements Plugin, TaskListener
         maybeDumpSourceFiles( e );
         break;
     }
+    if( PerfLogUtil.isEnabled() )
+    {
+      PerfLogUtil.end( "javac." + e.getKind(), getPerfDetail( e ) );
+    }
+  }
+
+  private String getPerfDetail( TaskEvent e )
+  {
+    if( e.getTypeElement() != null )
+    {
+      return e.getTypeElement().getQualifiedName().toString();
+    }
+    return e.getSourceFile() == null ? null : e.getSourceFile().getName();
   }
 
   private void addInputFile( TaskEvent e )
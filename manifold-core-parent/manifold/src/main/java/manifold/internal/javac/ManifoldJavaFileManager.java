@@ -52,6 +52,7 @@ import manifold.rt.api.util.ManClassUtil;
 import manifold.util.ReflectUtil;
 import manifold.api.util.cache.FqnCache;
 import manifold.api.util.cache.FqnCacheNode;
+import manifold.api.util.PerfLogUtil;
 
 
 import static manifold.api.type.ContributorKind.Primary;
@@ -356,6 +357,15 @@ class ManifoldJavaFileManager extends JavacFileManagerBridge<JavaFileManager> im
     return (Location)ReflectUtil.field( moduleElement, "classLocation" ).get();
   }
 
+  /**
+   * @return True if javac already requested the type, regardless of whether the type was found
+   */
+  public boolean isGeneratedFileCached( String fqn )
+  {
+    FqnCacheNode<JavaFileObject> node = _generatedFiles.getNode( fqn );
+    return node != null && node.getUserData() != null;
+  }
+
   public JavaFileObject findGeneratedFile( String fqn, Location location, IModule module, DiagnosticListener<JavaFileObject> errorHandler )
   {
     FqnCacheNode<JavaFileObject> node = _generatedFiles.getNode( fqn );
@@ -365,6 +375,7 @@ class ManifoldJavaFileManager extends JavacFileManagerBridge<JavaFileManager> im
       // note userdata can be null in the case where an innerclass is loaded before the enclosing
       if( fo != null )
       {
+        PerfLogUtil.count( "findGeneratedFile.hit" );
         return fo == MISS_FO ? null : fo;
       }
     }
@@ -374,9 +385,10 @@ class ManifoldJavaFileManager extends JavacFileManagerBridge<JavaFileManager> im
       return null;
     }
 
+    PerfLogUtil.count( "findGeneratedFile.miss" );
     JavaFileObject fo;
     pushLocation( location );
-    try
+    try( PerfLogUtil.Span ignore = PerfLogUtil.span( "findGeneratedFile", fqn ) )
     {
       fo = module.produceFile( fqn, location, errorHandler );
     }
@@ -35,10 +35,12 @@ import manifold.api.host.IModule;
 import manifold.api.type.ContributorKind;
 import manifold.api.type.ITypeManifold;
 import manifold.internal.host.JavacManifoldHost;
+import manifold.internal.host.SimpleModule;
 import manifold.util.JreUtil;
 import manifold.util.ReflectUtil;
 
 import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
 import javax.tools.StandardLocation;
 import java.io.File;
 import java.io.IOException;
@@ -47,6 +49,7 @@ import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static manifold.api.type.ContributorKind.Supplemental;
 
@@ -100,12 +103,13 @@ public class StaticCompiler
       JavacManifoldHost host = JavacPlugin.instance().getHost();
       IFileSystem fs = host.getFileSystem();
       Context ctx = JavacPlugin.instance().getContext();
+      IModule module = host.getSingleModule();
+      Map<ITypeManifold, List<String>> typesByManifold = new LinkedHashMap<>();
       for( String path : others )
       {
         IFile file = fs.getIFile( new File( path ) );
         if( file.exists() )
         {
-          IModule module = host.getSingleModule();
           Set<ITypeManifold> tms = module.findTypeManifoldsFor( file,
             tm -> tm.getContributorKind() != Supplemental );
           if( tms.isEmpty() )
@@ -122,12 +126,18 @@ public class StaticCompiler
           }
 
           tm.enterPostJavaCompilation();
+          typesByManifold.computeIfAbsent( tm, k -> new ArrayList<>() ).addAll( Arrays.asList( types ) );
+        }
+      }
 
-          // Cause the types to compile by entering ClassSymbols into javac's "todos"
-          if( !enterClassSymbols( module, ctx, Arrays.asList( types ) ) )
-          {
-            return;
-          }
+      pregenerate( module, ctx, typesByManifold.values() );
+
+      for( List<String> types : typesByManifold.values() )
+      {
+        // Cause the types to compile by entering ClassSymbols into javac's "todos"
+        if( !enterClassSymbols( module, ctx, types ) )
+        {
+          return;
         }
       }
 
@@ -141,6 +151,7 @@ public class StaticCompiler
     finally
     {
       _enterGuard = false;
+      clearPregenerated();
     }
   }
 
@@ -167,6 +178,7 @@ public class StaticCompiler
 
       IModule module = JavacPlugin.instance().getHost().getSingleModule();
       Context ctx = JavacPlugin.instance().getContext();
+      Map<ITypeManifold, Collection<String>> typesByManifold = new LinkedHashMap<>();
       for( Map.Entry<ITypeManifold, Set<String>> mapping : classToRegex.entrySet() )
       {
         ITypeManifold tm = mapping.getKey();
@@ -179,7 +191,13 @@ public class StaticCompiler
 
         // signal the type manifold for post Java compilation
         tm.enterPostJavaCompilation();
+        typesByManifold.put( tm, types );
+      }
+
+      pregenerate( module, ctx, typesByManifold.values() );
 
+      for( Collection<String> types : typesByManifold.values() )
+      {
         // Cause the types to compile by entering ClassSymbols into javac's "todos"
         if( !enterClassSymbols( module, ctx, types ) )
         {
@@ -197,6 +215,7 @@ public class StaticCompiler
     finally
     {
       _enterGuard = false;
+      clearPregenerated();
     }
   }
 
@@ -255,6 +274,38 @@ public class StaticCompiler
     }
   }
 
+  /**
+   * Produces the source for the types in parallel before entering them, see {@link JavacPlugin#getPregenerateThreads()}.
+   * Pregenerated sources are produced for the location javac searches for source files, otherwise they are not used.
+   */
+  private void pregenerate( IModule module, Context ctx, Collection<? extends Collection<String>> types )
+  {
+    int threads = JavacPlugin.instance().getPregenerateThreads();
+    if( threads <= 1 || JreUtil.isJava9Modular_compiler( ctx ) )
+    {
+      return;
+    }
+
+    JavaFileManager fileManager = ctx.get( JavaFileManager.class );
+    StandardLocation location = fileManager.hasLocation( StandardLocation.SOURCE_PATH )
+      ? StandardLocation.SOURCE_PATH
+      : StandardLocation.CLASS_PATH;
+    ManifoldJavaFileManager manFileManager = JavacPlugin.instance().getManifoldFileManager();
+    List<String> all = types.stream().flatMap( Collection::stream )
+      .filter( fqn -> !manFileManager.isGeneratedFileCached( fqn ) )
+      .collect( Collectors.toList() );
+    ((SimpleModule)module).pregenerate( all, location, threads );
+  }
+
+  private void clearPregenerated()
+  {
+    IModule module = JavacPlugin.instance().getHost().getSingleModule();
+    if( module instanceof SimpleModule )
+    {
+      ((SimpleModule)module).clearPregenerated();
+    }
+  }
+
   private boolean enterClassSymbols( IModule module, Context ctx, Collection<String> types )
   {
     //
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.internal.runtime.protocols;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.tools.JavaFileObject;
+import manifold.api.fs.IDirectory;
+import manifold.api.util.fingerprint.Fingerprint;
+import manifold.internal.host.RuntimeManifoldHost;
+import manifold.util.concurrent.LocklessLazyVar;
+
+/**
+ * An on-disk cache of class files compiled from source at runtime. It is enabled by setting the
+ * {@code manifold.classes.cache} system property to a directory where compiled classes are kept.
+ * <p/>
+ * A class's key is the fingerprint of the class name, the full content of the Java source it is compiled from, the
+ * compiler options, the Java version, and the module's class path where jar entries are stamped with their size and
+ * timestamp and directory entries with the number, total size, and newest timestamp of the files under them. Since the
+ * source of a resource type is generated from its resource files along with any extensions contributed to it, keying on
+ * the source covers changes to all of them. Thus a warm restart loads unchanged classes directly from the cache without
+ * running javac.
+ */
+class CompiledClassCache
+{
+  static final String CACHE_DIR = "manifold.classes.cache";
+
+  private static final int VERSION = 2;
+
+  private static final LocklessLazyVar<CompiledClassCache> INSTANCE = LocklessLazyVar.make( CompiledClassCache::make );
+
+  private final File _dir;
+  private final LocklessLazyVar<String> _classpathStamp;
+
+  /**
+   * @return The cache, or null if the cache is not enabled
+   */
+  static CompiledClassCache get()
+  {
+    return INSTANCE.get();
+  }
+
+  private static CompiledClassCache make()
+  {
+    String dir = System.getProperty( CACHE_DIR );
+    if( dir == null || dir.isEmpty() )
+    {
+      return null;
+    }
+    return new CompiledClassCache( new File( dir ) );
+  }
+
+  private CompiledClassCache( File dir )
+  {
+    this( dir, CompiledClassCache::getModuleClassPath );
+  }
+
+  CompiledClassCache( File dir, Supplier<List<File>> classPath )
+  {
+    _dir = dir;
+    _classpathStamp = LocklessLazyVar.make( () -> makeClasspathStamp( classPath.get() ) );
+  }
+
+  /**
+   * @return The cache key for class {@code fqn} compiled from {@code source}, or null if the source is not available
+   */
+  String makeKey( String fqn, JavaFileObject source, List<String> options )
+  {
+    CharSequence content;
+    try
+    {
+      content = source.getCharContent( true );
+    }
+    catch( IOException e )
+    {
+      return null;
+    }
+    if( content == null )
+    {
+      return null;
+    }
+
+    Fingerprint fp = new Fingerprint();
+    fp.extend( VERSION );
+    fp.extend( fqn );
+    fp.extend( content.toString() );
+    fp.extend( String.join( " ", options ) );
+    fp.extend( System.getProperty( "java.version" ) );
+    fp.extend( _classpathStamp.get() );
+    return fp.toHexString();
+  }
+
+  byte[] get( String key, String fqn )
+  {
+    File file = new File( _dir, key + ".class" );
+    if( !file.isFile() )
+    {
+      return null;
+    }
+
+    try( DataInputStream in = new DataInputStream( new ByteArrayInputStream( Files.readAllBytes( file.toPath() ) ) ) )
+    {
+      // guard against fingerprint collisions
+      if( !in.readUTF().equals( fqn ) )
+      {
+        return null;
+      }
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully( bytes );
+      return bytes;
+    }
+    catch( IOException | RuntimeException e )
+    {
+      // corrupt or truncated, compile as usual
+      return null;
+    }
+  }
+
+  void put( String key, String fqn, byte[] bytes )
+  {
+    File file = new File( _dir, key + ".class" );
+    try
+    {
+      ByteArrayOutputStream content = new ByteArrayOutputStream( bytes.length + fqn.length() + 8 );
+      DataOutputStream out = new DataOutputStream( content );
+      out.writeUTF( fqn );
+      out.writeInt( bytes.length );
+      out.write( bytes );
+
+      //noinspection ResultOfMethodCallIgnored
+      _dir.mkdirs();
+      File tmp = File.createTempFile( key, ".tmp", _dir );
+      Files.write( tmp.toPath(), content.toByteArray() );
+      Files.move( tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+    }
+    catch( IOException e )
+    {
+      // the cache is only an optimization, failing to write it must not fail class loading
+    }
+  }
+
+  private static List<File> getModuleClassPath()
+  {
+    List<File> classPath = new ArrayList<>();
+    for( IDirectory entry : RuntimeManifoldHost.get().getSingleModule().getJavaClassPath() )
+    {
+      classPath.add( entry.isJavaFile() ? entry.toJavaFile() : new File( entry.getPath().getFileSystemPathString() ) );
+    }
+    return classPath;
+  }
+
+  static String makeClasspathStamp( List<File> classPath )
+  {
+    Fingerprint fp = new Fingerprint();
+    for( File entry : classPath )
+    {
+      fp.extend( entry.getPath() );
+      if( entry.isFile() )
+      {
+        fp.extend( entry.length() );
+        fp.extend( entry.lastModified() );
+      }
+      else if( entry.isDirectory() )
+      {
+        // classes rebuilt in place, e.g. with changed constants, must not load class files compiled against
+        // the old ones
+        stampDirectory( entry, fp );
+      }
+    }
+    return fp.toHexString();
+  }
+
+  private static void stampDirectory( File dir, Fingerprint fp )
+  {
+    long[] countSizeNewest = new long[3];
+    try
+    {
+      Files.walkFileTree( dir.toPath(), new SimpleFileVisitor<Path>()
+      {
+        @Override
+        public FileVisitResult preVisitDirectory( Path path, BasicFileAttributes attrs )
+        {
+          // a removed file changes its directory's timestamp
+          countSizeNewest[2] = Math.max( countSizeNewest[2], attrs.lastModifiedTime().toMillis() );
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile( Path file, BasicFileAttributes attrs )
+        {
+          countSizeNewest[0]++;
+          countSizeNewest[1] += attrs.size();
+          countSizeNewest[2] = Math.max( countSizeNewest[2], attrs.lastModifiedTime().toMillis() );
+          return FileVisitResult.CONTINUE;
+        }
+      } );
+    }
+    catch( IOException e )
+    {
+      // an unreadable directory gets a stamp matching no other, which misses the cache
+      fp.extend( System.nanoTime() );
+    }
+    fp.extend( countSizeNewest[0] );
+    fp.extend( countSizeNewest[1] );
+    fp.extend( countSizeNewest[2] );
+  }
+}
@@ -25,14 +25,21 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaFileObject;
+import manifold.api.type.ContributorKind;
 import manifold.api.type.ISelfCompiledFile;
 import manifold.api.type.ITypeManifold;
+import manifold.api.type.TypeName;
 import manifold.internal.host.RuntimeManifoldHost;
 import manifold.internal.javac.InMemoryClassJavaFileObject;
 import manifold.internal.javac.JavaCompileIssuesException;
@@ -50,6 +57,14 @@ public class ManClassesUrlConnection extends URLConnection
     "java/", "javax/", "sun/"
   };
   private static final String META_INF_MANIFEST_MF = "META-INF/MANIFEST.MF";
+  /**
+   * When set to a number greater than one, compiling a resource type at runtime also compiles its siblings, the other
+   * types from the same type manifold and package, in batches of up to this many types per javac invocation. Classes
+   * for the siblings then load from the compiled batch.
+   */
+  public static final String COMPILE_BATCH = "manifold.compile.batch";
+  private static final int BATCH_SIZE = Integer.getInteger( COMPILE_BATCH, 0 );
+
   private static final ThreadLocal<Map<String, Supplier<String>>> _proxySupplierByFqn = ThreadLocal.withInitial( HashMap::new );
 
   public static Supplier<String> getProxySupplier( String fqnProxy )
@@ -185,6 +200,34 @@ public class ManClassesUrlConnection extends URLConnection
     }
   }
 
+  /**
+   * @return Up to {@code batchSize} - 1 types sharing a type manifold and package with {@code fqn}, which itself makes
+   * up the rest of the batch
+   */
+  static Set<String> findBatch( String fqn, Set<ITypeManifold> tms, int batchSize )
+  {
+    Set<String> batch = new LinkedHashSet<>();
+    for( ITypeManifold tm : tms )
+    {
+      if( tm.getContributorKind() == ContributorKind.Supplemental )
+      {
+        continue;
+      }
+      for( TypeName sibling : tm.getTypeNames( tm.getPackage( fqn ) ) )
+      {
+        if( batch.size() >= batchSize - 1 )
+        {
+          return batch;
+        }
+        if( !sibling.name.equals( fqn ) )
+        {
+          batch.add( sibling.name );
+        }
+      }
+    }
+    return batch;
+  }
+
   private boolean ignoreJavaClass( String strClass )
   {
     for( String namespace : JAVA_NAMESPACES_TO_IGNORE )
@@ -307,12 +350,33 @@ public class ManClassesUrlConnection extends URLConnection
         }
         else
         {
+          List<String> options = Arrays.asList( "-source", "8", "-g", "-nowarn", "-Xlint:none", "-proc:none", "-parameters" );
+          CompiledClassCache cache = CompiledClassCache.get();
+          String key = cache == null ? null : cache.makeKey( _javaFqn, _javaSrcFile, options );
+          if( key != null )
+          {
+            byte[] bytes = cache.get( key, _javaFqn );
+            PerfLogUtil.count( bytes == null ? "compiledClassCache.miss" : "compiledClassCache.hit" );
+            if( bytes != null )
+            {
+              return bytes;
+            }
+          }
+
           DiagnosticCollector<JavaFileObject> errorHandler = new DiagnosticCollector<>();
-          InMemoryClassJavaFileObject cls = RuntimeManifoldHost.get().getJavaParser().compile( _javaFqn,
-            Arrays.asList( "-source", "8", "-g", "-nowarn", "-Xlint:none", "-proc:none", "-parameters" ), errorHandler );
+          Set<String> batch = findBatch();
+          InMemoryClassJavaFileObject cls = batch.isEmpty()
+            ? RuntimeManifoldHost.get().getJavaParser().compile( _javaFqn, options, errorHandler )
+            : RuntimeManifoldHost.get().getJavaParser().compile( _javaFqn, batch, options, errorHandler );
           if( cls != null )
           {
-            return cls.getBytes();
+            reportBatchErrors( errorHandler );
+            byte[] bytes = cls.getBytes();
+            if( key != null )
+            {
+              cache.put( key, _javaFqn, bytes );
+            }
+            return bytes;
           }
           throw new JavaCompileIssuesException( _javaFqn, errorHandler );
         }
@@ -328,6 +392,43 @@ public class ManClassesUrlConnection extends URLConnection
       }
     }
 
+    /**
+     * @return The siblings to compile with the requested type, if batching is enabled via {@link #BATCH_SIZE}
+     */
+    private Set<String> findBatch()
+    {
+      if( BATCH_SIZE <= 1 )
+      {
+        return Collections.emptySet();
+      }
+      return ManClassesUrlConnection.findBatch( _javaFqn,
+        RuntimeManifoldHost.get().getSingleModule().findTypeManifoldsFor( _javaFqn ), BATCH_SIZE );
+    }
+
+    /**
+     * Errors in a sibling's source fail the batch and the requested type compiles by itself. The sibling's errors are
+     * reported if and when it loads, so here they are only counted and, with {@code -Dmanifold.perf=true}, logged.
+     */
+    private void reportBatchErrors( DiagnosticCollector<JavaFileObject> errorHandler )
+    {
+      if( !PerfLogUtil.isEnabled() )
+      {
+        return;
+      }
+      String errors = errorHandler.getDiagnostics().stream()
+        .filter( diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR )
+        .map( Object::toString )
+        .collect( Collectors.joining( "\n" ) );
+      if( !errors.isEmpty() )
+      {
+        PerfLogUtil.count( "compileJavaClass.batchFailed" );
+        if( Boolean.getBoolean( PerfLogUtil.PERF ) )
+        {
+          System.out.println( "Batch compilation with " + _javaFqn + " failed, compiled it separately:\n" + errors );
+        }
+      }
+    }
+
     private byte[] compileProxyClass( String source )
     {
       long before = System.nanoTime();
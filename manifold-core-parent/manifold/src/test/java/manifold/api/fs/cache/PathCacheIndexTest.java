@@ -0,0 +1,227 @@
+package manifold.api.fs.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import manifold.api.fs.DelegateDirectory;
+import manifold.api.fs.IDirectory;
+import manifold.api.fs.IFile;
+import manifold.api.fs.IFileSystem;
+import manifold.api.fs.IResource;
+import manifold.api.fs.def.FileSystemImpl;
+
+public class PathCacheIndexTest extends TestCase
+{
+  private File _root;
+  private File _src;
+  private File _indexFile;
+  private IFileSystem _fs;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _root = Files.createTempDirectory( "pathCacheIndex" ).toFile();
+    _src = new File( _root, "src" );
+    //noinspection ResultOfMethodCallIgnored
+    new File( _src, "sub" ).mkdirs();
+    write( new File( _src, "a.txt" ), "a" );
+    write( new File( _src, "b.txt" ), "b" );
+    write( new File( _src, "sub/c.txt" ), "c" );
+    // older than the racy window, so entries listed now are trusted
+    age( _src );
+    age( new File( _src, "sub" ) );
+    _indexFile = new File( _root, "index/pathcache.idx" );
+    _fs = new FileSystemImpl( null, IFileSystem.CachingMode.NO_CACHING );
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    delete( _root );
+  }
+
+  public void testHit()
+  {
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt", "b.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( Arrays.asList( "sub" ), names( index.listDirs( dir ) ) );
+    assertEquals( 1, dir._listed );
+    index.save();
+    assertTrue( _indexFile.isFile() );
+
+    dir = dir( _src );
+    index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt", "b.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( Arrays.asList( "sub" ), names( index.listDirs( dir ) ) );
+    assertEquals( 0, dir._listed );
+  }
+
+  public void testMissWithoutIndex()
+  {
+    write( _indexFile, "not an index" );
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt", "b.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( 1, dir._listed );
+  }
+
+  public void testInvalidatedByAddedFile()
+  {
+    saveIndex();
+    write( new File( _src, "d.txt" ), "d" );
+
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt", "b.txt", "d.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( 1, dir._listed );
+  }
+
+  public void testInvalidatedByRemovedFile()
+  {
+    saveIndex();
+    //noinspection ResultOfMethodCallIgnored
+    new File( _src, "b.txt" ).delete();
+
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( 1, dir._listed );
+  }
+
+  public void testModifiedFiles() throws IOException
+  {
+    saveIndex();
+
+    // a modified file keeps its name, the entry is still current and its files are read live
+    write( new File( _src, "a.txt" ), "modified" );
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    IFile a = null;
+    for( IFile file : index.listFiles( dir ) )
+    {
+      a = file.getName().equals( "a.txt" ) ? file : a;
+    }
+    assertEquals( 0, dir._listed );
+    assertNotNull( a );
+    assertEquals( "modified", new String( Files.readAllBytes( a.toJavaFile().toPath() ), StandardCharsets.UTF_8 ) );
+
+    // a file added to a subdirectory invalidates the subdirectory's entry only
+    write( new File( _src, "sub/e.txt" ), "e" );
+    dir = dir( _src );
+    CountingDirectory sub = dir( new File( _src, "sub" ) );
+    index = new PathCacheIndex( _indexFile );
+    index.listFiles( dir );
+    assertEquals( Arrays.asList( "c.txt", "e.txt" ), names( index.listFiles( sub ) ) );
+    assertEquals( 0, dir._listed );
+    assertEquals( 1, sub._listed );
+  }
+
+  public void testRacyEntryIsRelisted()
+  {
+    // listed in the same timestamp tick as the directory was changed
+    write( new File( _src, "d.txt" ), "d" );
+    long timestamp = _src.lastModified();
+    saveIndex();
+
+    // a change keeping the directory's timestamp, as with a coarse file system clock
+    write( new File( _src, "e.txt" ), "e" );
+    //noinspection ResultOfMethodCallIgnored
+    _src.setLastModified( timestamp );
+
+    CountingDirectory dir = dir( _src );
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    assertEquals( Arrays.asList( "a.txt", "b.txt", "d.txt", "e.txt" ), names( index.listFiles( dir ) ) );
+    assertEquals( 1, dir._listed );
+  }
+
+  private void saveIndex()
+  {
+    PathCacheIndex index = new PathCacheIndex( _indexFile );
+    IDirectory dir = dir( _src );
+    index.listFiles( dir );
+    index.listFiles( dir( new File( _src, "sub" ) ) );
+    index.save();
+  }
+
+  private CountingDirectory dir( File file )
+  {
+    return new CountingDirectory( _fs, _fs.getIDirectory( file ) );
+  }
+
+  private static List<String> names( List<? extends IResource> resources )
+  {
+    List<String> names = new ArrayList<>();
+    for( IResource resource : resources )
+    {
+      names.add( resource.getName() );
+    }
+    names.sort( null );
+    return names;
+  }
+
+  private static void write( File file, String content )
+  {
+    try
+    {
+      //noinspection ResultOfMethodCallIgnored
+      file.getParentFile().mkdirs();
+      Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  private static void age( File file )
+  {
+    //noinspection ResultOfMethodCallIgnored
+    file.setLastModified( System.currentTimeMillis() - 60_000 );
+  }
+
+  private static void delete( File file )
+  {
+    File[] children = file.listFiles();
+    if( children != null )
+    {
+      for( File child : children )
+      {
+        delete( child );
+      }
+    }
+    //noinspection ResultOfMethodCallIgnored
+    file.delete();
+  }
+
+  /**
+   * Counts the listings of the directory's children.
+   */
+  private static class CountingDirectory extends DelegateDirectory
+  {
+    private int _listed;
+
+    CountingDirectory( IFileSystem fs, IDirectory delegate )
+    {
+      super( fs, delegate );
+    }
+
+    @Override
+    public List<? extends IFile> listFiles()
+    {
+      _listed++;
+      return super.listFiles();
+    }
+
+    @Override
+    public boolean isAdditional()
+    {
+      return false;
+    }
+  }
+}
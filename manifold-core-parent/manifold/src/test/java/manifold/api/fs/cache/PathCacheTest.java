@@ -0,0 +1,183 @@
+package manifold.api.fs.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import junit.framework.TestCase;
+import manifold.api.fs.IDirectory;
+import manifold.api.fs.IFile;
+import manifold.api.fs.IFileSystem;
+import manifold.api.fs.def.FileSystemImpl;
+import manifold.api.host.IManifoldHost;
+import manifold.api.host.IModule;
+import manifold.api.util.cache.FqnCache;
+
+public class PathCacheTest extends TestCase
+{
+  private File _root;
+  private IFileSystem _fs;
+  private List<IDirectory> _sourcePath;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _root = Files.createTempDirectory( "pathCache" ).toFile();
+    File first = new File( _root, "first" );
+    File second = new File( _root, "second" );
+    write( new File( first, "abc/Foo.json" ) );
+    write( new File( first, "abc/def/Bar.json" ) );
+    write( new File( first, "abc/def/Bar.properties" ) );
+    write( new File( first, "abc/def/ghi/Deep.json" ) );
+    write( new File( first, "META-INF/NotAPackage.json" ) );
+    // shadowed by the first source path entry
+    write( new File( second, "abc/Foo.json" ) );
+    write( new File( second, "abc/def/Bar.properties" ) );
+    write( new File( second, "abc/Other.json" ) );
+    write( new File( second, "xyz/Only.json" ) );
+    _fs = new FileSystemImpl( null, IFileSystem.CachingMode.NO_CACHING );
+    _sourcePath = Arrays.asList( _fs.getIDirectory( first ), _fs.getIDirectory( second ) );
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    delete( _root );
+  }
+
+  public void testShadowing()
+  {
+    PathCache cache = makeCache( 1 );
+    assertEquals( "first", sourceRoot( cache.getExtensionCache( "json" ).get( "abc.Foo" ) ) );
+    assertEquals( "first", sourceRoot( cache.getExtensionCache( "properties" ).get( "abc.def.Bar" ) ) );
+    assertEquals( "second", sourceRoot( cache.getExtensionCache( "json" ).get( "abc.Other" ) ) );
+    assertEquals( "second", sourceRoot( cache.getExtensionCache( "json" ).get( "xyz.Only" ) ) );
+    assertFalse( cache.getExtensionCache( "json" ).contains( "META-INF.NotAPackage" ) );
+  }
+
+  public void testParallelScanMatchesSerialScan()
+  {
+    Map<String, Map<String, String>> serial = snapshot( makeCache( 1 ) );
+    assertEquals( serial, snapshot( makeCache( 2 ) ) );
+    assertEquals( serial, snapshot( makeCache( 4 ) ) );
+  }
+
+  public void testParallelScanMatchesSerialReverseMap()
+  {
+    Map<String, Set<String>> serial = reverseMap( makeCache( 1 ) );
+    assertEquals( new TreeSet<>( Arrays.asList( "abc.Foo" ) ), serial.get( "second/abc/Foo.json" ) );
+    assertEquals( serial, reverseMap( makeCache( 4 ) ) );
+  }
+
+  private PathCache makeCache( int parallelism )
+  {
+    return new PathCache( module(), () -> _sourcePath, () -> {}, parallelism );
+  }
+
+  /**
+   * extension -> fqn -> relative path of the file the fqn resolves to, in fqn order
+   */
+  private Map<String, Map<String, String>> snapshot( PathCache cache )
+  {
+    Map<String, Map<String, String>> snapshot = new TreeMap<>();
+    for( Map.Entry<String, FqnCache<IFile>> entry : cache.getExtensionCaches().entrySet() )
+    {
+      Map<String, String> files = new TreeMap<>();
+      for( String fqn : entry.getValue().getFqns() )
+      {
+        IFile file = entry.getValue().get( fqn );
+        if( file != null )
+        {
+          files.put( fqn, relativePath( file ) );
+        }
+      }
+      snapshot.put( entry.getKey(), files );
+    }
+    return snapshot;
+  }
+
+  /**
+   * relative path -> fqns, for every file on the source path including shadowed ones
+   */
+  private Map<String, Set<String>> reverseMap( PathCache cache )
+  {
+    Map<String, Set<String>> reverseMap = new TreeMap<>();
+    for( IDirectory root : _sourcePath )
+    {
+      collectFiles( root, cache, reverseMap );
+    }
+    return reverseMap;
+  }
+
+  private void collectFiles( IDirectory dir, PathCache cache, Map<String, Set<String>> reverseMap )
+  {
+    for( IFile file : dir.listFiles() )
+    {
+      Set<String> fqns = cache.getFqnForFile( file );
+      if( fqns != null )
+      {
+        reverseMap.put( relativePath( file ), new TreeSet<>( fqns ) );
+      }
+    }
+    for( IDirectory subdir : dir.listDirs() )
+    {
+      collectFiles( subdir, cache, reverseMap );
+    }
+  }
+
+  private String relativePath( IFile file )
+  {
+    return _root.toPath().relativize( file.toJavaFile().toPath() ).toString().replace( File.separatorChar, '/' );
+  }
+
+  private String sourceRoot( IFile file )
+  {
+    assertNotNull( file );
+    return relativePath( file ).substring( 0, relativePath( file ).indexOf( '/' ) );
+  }
+
+  private static IModule module()
+  {
+    IManifoldHost host = (IManifoldHost)Proxy.newProxyInstance( PathCacheTest.class.getClassLoader(),
+      new Class<?>[] {IManifoldHost.class},
+      ( proxy, method, args ) -> method.getName().equals( "isPathIgnored" ) ? false : null );
+    return (IModule)Proxy.newProxyInstance( PathCacheTest.class.getClassLoader(),
+      new Class<?>[] {IModule.class},
+      ( proxy, method, args ) -> method.getName().equals( "getHost" ) ? host : null );
+  }
+
+  private static void write( File file )
+  {
+    try
+    {
+      //noinspection ResultOfMethodCallIgnored
+      file.getParentFile().mkdirs();
+      Files.write( file.toPath(), file.getName().getBytes( StandardCharsets.UTF_8 ) );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  private static void delete( File file )
+  {
+    File[] children = file.listFiles();
+    if( children != null )
+    {
+      for( File child : children )
+      {
+        delete( child );
+      }
+    }
+    //noinspection ResultOfMethodCallIgnored
+    file.delete();
+  }
+}
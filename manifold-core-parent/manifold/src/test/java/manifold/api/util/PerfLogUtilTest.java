@@ -0,0 +1,89 @@
+package manifold.api.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import junit.framework.TestCase;
+
+public class PerfLogUtilTest extends TestCase
+{
+  private File _traceFile;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _traceFile = File.createTempFile( "trace", ".json" );
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    //noinspection ResultOfMethodCallIgnored
+    _traceFile.delete();
+  }
+
+  public void testTraceBufferIsBounded() throws IOException
+  {
+    PerfLogUtil.Recorder recorder = new PerfLogUtil.Recorder( _traceFile, 10 );
+    for( int i = 0; i < 25; i++ )
+    {
+      recorder.record( "span", "type" + i, System.nanoTime(), 1000 );
+      assertTrue( recorder.getPendingCount() < 10 );
+    }
+    recorder.count( "hits" );
+    recorder.count( "hits" );
+    recorder.finishTrace();
+
+    String trace = read();
+    assertTrue( trace.startsWith( "{\"traceEvents\":[\n" ) );
+    assertTrue( trace.endsWith( "\n]}\n" ) );
+    assertEquals( 25, occurrences( trace, "\"ph\":\"X\"" ) );
+    for( int i = 0; i < 25; i++ )
+    {
+      assertEquals( 1, occurrences( trace, "\"detail\":\"type" + i + "\"" ) );
+    }
+    assertEquals( 1, occurrences( trace, "{\"name\":\"hits\",\"ph\":\"C\"" ) );
+    assertTrue( trace.contains( "\"args\":{\"value\":2}" ) );
+  }
+
+  public void testEventsAfterFinishAreDiscarded() throws IOException
+  {
+    PerfLogUtil.Recorder recorder = new PerfLogUtil.Recorder( _traceFile, 2 );
+    recorder.record( "span", "a\"b", System.nanoTime(), 1000 );
+    recorder.finishTrace();
+    String trace = read();
+
+    recorder.record( "late", null, System.nanoTime(), 1000 );
+    recorder.record( "late", null, System.nanoTime(), 1000 );
+    assertEquals( 0, recorder.getPendingCount() );
+    recorder.finishTrace();
+    assertEquals( trace, read() );
+    assertTrue( trace.contains( "\"detail\":\"a\\\"b\"" ) );
+  }
+
+  public void testNothingBufferedWithoutTraceFile()
+  {
+    PerfLogUtil.Recorder recorder = new PerfLogUtil.Recorder( null, 10 );
+    for( int i = 0; i < 25; i++ )
+    {
+      recorder.record( "span", null, System.nanoTime(), 1000 );
+    }
+    assertEquals( 0, recorder.getPendingCount() );
+  }
+
+  private String read() throws IOException
+  {
+    return new String( Files.readAllBytes( _traceFile.toPath() ), StandardCharsets.UTF_8 );
+  }
+
+  private static int occurrences( String text, String part )
+  {
+    int count = 0;
+    for( int i = text.indexOf( part ); i >= 0; i = text.indexOf( part, i + 1 ) )
+    {
+      count++;
+    }
+    return count;
+  }
+}
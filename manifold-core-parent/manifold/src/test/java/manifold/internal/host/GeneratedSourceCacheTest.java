@@ -0,0 +1,166 @@
+package manifold.internal.host;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import junit.framework.TestCase;
+import manifold.api.fs.IFile;
+import manifold.api.fs.IFileSystem;
+import manifold.api.fs.def.FileSystemImpl;
+import manifold.api.type.ContributorKind;
+import manifold.api.type.ITypeManifold;
+
+public class GeneratedSourceCacheTest extends TestCase
+{
+  private static final String FQN = "abc.Foo";
+
+  private File _root;
+  private File _resource;
+  private IFile _file;
+  private AtomicInteger _contributions;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _root = Files.createTempDirectory( "generatedSourceCache" ).toFile();
+    _resource = new File( _root, "src/abc/Foo.txt" );
+    write( "one" );
+    _file = new FileSystemImpl( null, IFileSystem.CachingMode.NO_CACHING ).getIFile( _resource );
+    _contributions = new AtomicInteger();
+    System.setProperty( GeneratedSourceCache.CACHE_DIR, new File( _root, "cache" ).getAbsolutePath() );
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    System.clearProperty( GeneratedSourceCache.CACHE_DIR );
+    delete( _root );
+  }
+
+  public void testDisabledWithoutCacheDir()
+  {
+    System.clearProperty( GeneratedSourceCache.CACHE_DIR );
+    assertNull( GeneratedSourceCache.make() );
+  }
+
+  public void testHitReturnsIdenticalSource() throws IOException
+  {
+    String source = produce();
+    assertEquals( 1, _contributions.get() );
+
+    // a fresh module as with a new build
+    assertEquals( source, produce() );
+    assertEquals( 1, _contributions.get() );
+  }
+
+  public void testResourceChangeInvalidates() throws IOException
+  {
+    GeneratedSourceCache cache = GeneratedSourceCache.make();
+    Set<ITypeManifold> sps = Collections.singleton( typeManifold( true ) );
+    String key = cache.makeKey( FQN, sps );
+    assertEquals( key, cache.makeKey( FQN, sps ) );
+    assertEquals( "class Foo {/*one*/}", produce() );
+
+    write( "two" );
+    assertFalse( key.equals( cache.makeKey( FQN, sps ) ) );
+    assertEquals( "class Foo {/*two*/}", produce() );
+    assertEquals( 2, _contributions.get() );
+  }
+
+  public void testGuardsAgainstOtherTypeWithSameKey()
+  {
+    GeneratedSourceCache cache = GeneratedSourceCache.make();
+    cache.put( "key", FQN, "class Foo {}" );
+    assertEquals( "class Foo {}", cache.get( "key", FQN ) );
+    assertNull( cache.get( "key", "abc.Bar" ) );
+    assertNull( cache.get( "missing", FQN ) );
+  }
+
+  public void testNotCacheable()
+  {
+    GeneratedSourceCache cache = GeneratedSourceCache.make();
+    assertNull( cache.makeKey( FQN, Collections.singleton( typeManifold( false ) ) ) );
+  }
+
+  private String produce() throws IOException
+  {
+    Set<ITypeManifold> typeManifolds = Collections.singleton( typeManifold( true ) );
+    SimpleModule module = new SimpleModule( null, Collections.emptyList(), Collections.emptyList(), Collections.emptyList() )
+    {
+      @Override
+      public String getName()
+      {
+        return "test";
+      }
+
+      @Override
+      public Set<ITypeManifold> getTypeManifolds()
+      {
+        return typeManifolds;
+      }
+    };
+    DiagnosticListener<JavaFileObject> errorHandler = diagnostic -> fail( diagnostic.getMessage( null ) );
+    return module.produceFile( FQN, StandardLocation.CLASS_PATH, errorHandler ).getCharContent( true ).toString();
+  }
+
+  /**
+   * A type manifold producing {@code abc.Foo} from the resource file's content.
+   */
+  private ITypeManifold typeManifold( boolean cacheable )
+  {
+    List<IFile> files = Collections.singletonList( _file );
+    return (ITypeManifold)Proxy.newProxyInstance( getClass().getClassLoader(), new Class<?>[] {ITypeManifold.class},
+      ( proxy, method, args ) -> {
+        switch( method.getName() )
+        {
+          case "getContributorKind":
+            return ContributorKind.Primary;
+          case "isType":
+            return FQN.equals( args[0] );
+          case "isContributeCacheable":
+            return cacheable;
+          case "findFilesForType":
+            return files;
+          case "contribute":
+            _contributions.incrementAndGet();
+            return "class Foo {/*" + new String( Files.readAllBytes( _resource.toPath() ), StandardCharsets.UTF_8 ) + "*/}";
+          case "hashCode":
+            return System.identityHashCode( proxy );
+          case "equals":
+            return proxy == args[0];
+          default:
+            return null;
+        }
+      } );
+  }
+
+  private void write( String content ) throws IOException
+  {
+    //noinspection ResultOfMethodCallIgnored
+    _resource.getParentFile().mkdirs();
+    Files.write( _resource.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+  }
+
+  private static void delete( File file )
+  {
+    File[] children = file.listFiles();
+    if( children != null )
+    {
+      for( File child : children )
+      {
+        delete( child );
+      }
+    }
+    //noinspection ResultOfMethodCallIgnored
+    file.delete();
+  }
+}
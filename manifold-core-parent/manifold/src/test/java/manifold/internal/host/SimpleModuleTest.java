@@ -0,0 +1,167 @@
+package manifold.internal.host;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import junit.framework.TestCase;
+import manifold.api.type.ContributorKind;
+import manifold.api.type.ITypeManifold;
+import manifold.api.util.JavacDiagnostic;
+
+public class SimpleModuleTest extends TestCase
+{
+  private List<String> _contributions;
+  private List<Thread> _primaryThreads;
+  private ITypeManifold _primary;
+  private ITypeManifold _extension;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _contributions = new CopyOnWriteArrayList<>();
+    _primaryThreads = new CopyOnWriteArrayList<>();
+    _primary = typeManifold( ContributorKind.Primary, true );
+    _extension = typeManifold( ContributorKind.Supplemental, false );
+  }
+
+  public void testPregeneratedSourceIsUsed() throws IOException
+  {
+    SimpleModule module = module( _primary, _extension );
+    module.pregenerate( Arrays.asList( "abc.Foo", "abc.Bar" ), StandardLocation.CLASS_PATH, 2 );
+    assertEquals( Arrays.asList( "Primary:abc.Bar", "Primary:abc.Foo" ), sorted( _contributions ) );
+    assertFalse( _primaryThreads.contains( Thread.currentThread() ) );
+
+    List<Diagnostic<? extends JavaFileObject>> issues = new CopyOnWriteArrayList<>();
+    assertEquals( "/*Primary:abc.Foo*//*Supplemental:abc.Foo*/", produce( module, "abc.Foo", issues ) );
+    // supplemental contributions are made on the requesting thread
+    assertEquals( Arrays.asList( "Primary:abc.Bar", "Primary:abc.Foo", "Supplemental:abc.Foo" ), sorted( _contributions ) );
+    assertTrue( issues.isEmpty() );
+
+    // consumed, a second request produces the source again
+    produce( module, "abc.Foo", issues );
+    assertEquals( 2, Collections.frequency( _contributions, "Primary:abc.Foo" ) );
+  }
+
+  public void testPregeneratedDiagnosticsAreReported() throws IOException
+  {
+    SimpleModule module = module( _primary );
+    module.pregenerate( Collections.singletonList( "abc.Bad" ), StandardLocation.CLASS_PATH, 2 );
+
+    List<Diagnostic<? extends JavaFileObject>> issues = new CopyOnWriteArrayList<>();
+    assertEquals( "/*Primary:abc.Bad*/", produce( module, "abc.Bad", issues ) );
+    assertEquals( 1, Collections.frequency( _contributions, "Primary:abc.Bad" ) );
+    assertEquals( 1, issues.size() );
+    assertEquals( "bad abc.Bad", issues.get( 0 ).getMessage( null ) );
+  }
+
+  public void testDifferentLocationIsRegenerated() throws IOException
+  {
+    SimpleModule module = module( _primary );
+    module.pregenerate( Collections.singletonList( "abc.Foo" ), StandardLocation.SOURCE_PATH, 2 );
+    produce( module, "abc.Foo", new CopyOnWriteArrayList<>() );
+    assertEquals( 2, Collections.frequency( _contributions, "Primary:abc.Foo" ) );
+  }
+
+  public void testClearPregenerated() throws IOException
+  {
+    SimpleModule module = module( _primary );
+    module.pregenerate( Collections.singletonList( "abc.Foo" ), StandardLocation.CLASS_PATH, 2 );
+    module.clearPregenerated();
+    produce( module, "abc.Foo", new CopyOnWriteArrayList<>() );
+    assertEquals( 2, Collections.frequency( _contributions, "Primary:abc.Foo" ) );
+  }
+
+  public void testNotThreadSafeIsNotPregenerated()
+  {
+    SimpleModule module = module( typeManifold( ContributorKind.Primary, false ), _extension );
+    module.pregenerate( Collections.singletonList( "abc.Foo" ), StandardLocation.CLASS_PATH, 2 );
+    assertTrue( _contributions.isEmpty() );
+  }
+
+  private static String produce( SimpleModule module, String fqn, List<Diagnostic<? extends JavaFileObject>> issues ) throws IOException
+  {
+    DiagnosticListener<JavaFileObject> errorHandler = issues::add;
+    return module.produceFile( fqn, StandardLocation.CLASS_PATH, errorHandler ).getCharContent( true ).toString();
+  }
+
+  private static List<String> sorted( List<String> list )
+  {
+    String[] array = list.toArray( new String[0] );
+    Arrays.sort( array );
+    return Arrays.asList( array );
+  }
+
+  private static SimpleModule module( ITypeManifold... tms )
+  {
+    Set<ITypeManifold> typeManifolds = new LinkedHashSet<>( Arrays.asList( tms ) );
+    return new SimpleModule( null, Collections.emptyList(), Collections.emptyList(), Collections.emptyList() )
+    {
+      @Override
+      public String getName()
+      {
+        return "test";
+      }
+
+      @Override
+      public Set<ITypeManifold> getTypeManifolds()
+      {
+        return typeManifolds;
+      }
+    };
+  }
+
+  /**
+   * A type manifold for every type in package {@code abc}, contributing a comment naming itself and the type. Types
+   * named {@code Bad} also produce a warning.
+   */
+  private ITypeManifold typeManifold( ContributorKind kind, boolean threadSafe )
+  {
+    return (ITypeManifold)Proxy.newProxyInstance( getClass().getClassLoader(), new Class<?>[] {ITypeManifold.class},
+      ( proxy, method, args ) -> {
+        switch( method.getName() )
+        {
+          case "getContributorKind":
+            return kind;
+          case "isType":
+            return ((String)args[0]).startsWith( "abc." );
+          case "isContributeThreadSafe":
+            return threadSafe;
+          case "isContributeCacheable":
+            return false;
+          case "contribute":
+          {
+            String fqn = (String)args[1];
+            _contributions.add( kind + ":" + fqn );
+            if( kind == ContributorKind.Primary )
+            {
+              _primaryThreads.add( Thread.currentThread() );
+            }
+            if( fqn.endsWith( ".Bad" ) )
+            {
+              //noinspection unchecked
+              ((DiagnosticListener<JavaFileObject>)args[4]).report(
+                new JavacDiagnostic( null, Diagnostic.Kind.WARNING, 0, 1, 1, "bad " + fqn ) );
+            }
+            return args[3] + "/*" + kind + ":" + fqn + "*/";
+          }
+          case "hashCode":
+            return System.identityHashCode( proxy );
+          case "equals":
+            return proxy == args[0];
+          case "toString":
+            return kind.name();
+          default:
+            return null;
+        }
+      } );
+  }
+}
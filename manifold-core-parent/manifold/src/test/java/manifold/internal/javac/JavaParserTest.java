@@ -0,0 +1,32 @@
+package manifold.internal.javac;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import junit.framework.TestCase;
+import manifold.api.util.JavacDiagnostic;
+
+public class JavaParserTest extends TestCase
+{
+  public void testBatchDiagnosticsAreReported()
+  {
+    JavaFileObject requested = new StringJavaFileObject( "abc.A", "package abc; class A {}" );
+    JavaFileObject sibling = new StringJavaFileObject( "abc.B", "package abc; class B { x }" );
+    DiagnosticCollector<JavaFileObject> batchErrors = new DiagnosticCollector<>();
+    batchErrors.report( new JavacDiagnostic( requested, Diagnostic.Kind.WARNING, 0, 1, 1, "requested" ) );
+    batchErrors.report( new JavacDiagnostic( sibling, Diagnostic.Kind.ERROR, 0, 1, 1, "sibling" ) );
+    batchErrors.report( new JavacDiagnostic( null, Diagnostic.Kind.NOTE, 0, 1, 1, "general" ) );
+
+    // the batch compiled the requested type
+    List<String> reported = new ArrayList<>();
+    JavaParser.reportBatchDiagnostics( batchErrors, null, d -> reported.add( d.getMessage( null ) ) );
+    assertEquals( "[requested, sibling, general]", reported.toString() );
+
+    // the requested type is compiled by itself, which reports its own diagnostics
+    reported.clear();
+    JavaParser.reportBatchDiagnostics( batchErrors, requested, d -> reported.add( d.getMessage( null ) ) );
+    assertEquals( "[sibling, general]", reported.toString() );
+  }
+}
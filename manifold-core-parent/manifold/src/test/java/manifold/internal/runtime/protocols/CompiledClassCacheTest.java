@@ -0,0 +1,121 @@
+package manifold.internal.runtime.protocols;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import junit.framework.TestCase;
+
+public class CompiledClassCacheTest extends TestCase
+{
+  private static final String FQN = "abc.Foo";
+  private static final List<String> OPTIONS = Collections.singletonList( "-g" );
+
+  private File _root;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    _root = Files.createTempDirectory( "classCache" ).toFile();
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    delete( _root );
+  }
+
+  public void testHitWithUnchangedClassPath() throws IOException
+  {
+    File dependency = makeDependency();
+    CompiledClassCache cache = new CompiledClassCache( new File( _root, "cache" ), () -> Collections.singletonList( dependency ) );
+    String key = cache.makeKey( FQN, source(), OPTIONS );
+    assertNull( cache.get( key, FQN ) );
+    cache.put( key, FQN, new byte[] {1, 2, 3} );
+
+    // a warm restart
+    cache = new CompiledClassCache( new File( _root, "cache" ), () -> Collections.singletonList( dependency ) );
+    assertEquals( key, cache.makeKey( FQN, source(), OPTIONS ) );
+    assertEquals( 3, cache.get( key, FQN ).length );
+    assertNull( cache.get( key, "abc.Bar" ) );
+  }
+
+  public void testMissAfterDependencyDirectoryRebuilt() throws IOException
+  {
+    File dependency = makeDependency();
+    CompiledClassCache cache = new CompiledClassCache( new File( _root, "cache" ), () -> Collections.singletonList( dependency ) );
+    String key = cache.makeKey( FQN, source(), OPTIONS );
+    cache.put( key, FQN, new byte[] {1, 2, 3} );
+
+    // rebuild the dependency's classes in place, e.g. with a changed static final constant
+    File classFile = new File( dependency, "dep/Constants.class" );
+    Files.write( classFile.toPath(), new byte[] {(byte)0xCA, (byte)0xFE, 0, 2} );
+    //noinspection ResultOfMethodCallIgnored
+    classFile.setLastModified( classFile.lastModified() + 2000 );
+
+    cache = new CompiledClassCache( new File( _root, "cache" ), () -> Collections.singletonList( dependency ) );
+    String rebuiltKey = cache.makeKey( FQN, source(), OPTIONS );
+    assertFalse( key.equals( rebuiltKey ) );
+    assertNull( cache.get( rebuiltKey, FQN ) );
+  }
+
+  public void testDirectoryStamp() throws IOException
+  {
+    File dependency = makeDependency();
+    List<File> classPath = Collections.singletonList( dependency );
+    String stamp = CompiledClassCache.makeClasspathStamp( classPath );
+    assertEquals( stamp, CompiledClassCache.makeClasspathStamp( classPath ) );
+
+    // same size and timestamp, but an added file
+    File added = new File( dependency, "dep/Added.class" );
+    Files.write( added.toPath(), new byte[0] );
+    String addedStamp = CompiledClassCache.makeClasspathStamp( classPath );
+    assertFalse( stamp.equals( addedStamp ) );
+
+    //noinspection ResultOfMethodCallIgnored
+    added.delete();
+    //noinspection ResultOfMethodCallIgnored
+    added.getParentFile().setLastModified( added.getParentFile().lastModified() + 4000 );
+    assertFalse( addedStamp.equals( CompiledClassCache.makeClasspathStamp( classPath ) ) );
+  }
+
+  private File makeDependency() throws IOException
+  {
+    File dependency = new File( _root, "classes" );
+    File classFile = new File( dependency, "dep/Constants.class" );
+    //noinspection ResultOfMethodCallIgnored
+    classFile.getParentFile().mkdirs();
+    Files.write( classFile.toPath(), new byte[] {(byte)0xCA, (byte)0xFE, 0, 1} );
+    return dependency;
+  }
+
+  private static JavaFileObject source()
+  {
+    return new SimpleJavaFileObject( URI.create( "string:///abc/Foo.java" ), JavaFileObject.Kind.SOURCE )
+    {
+      @Override
+      public CharSequence getCharContent( boolean ignoreEncodingErrors )
+      {
+        return "package abc; public class Foo { int x = dep.Constants.X; }";
+      }
+    };
+  }
+
+  private static void delete( File file )
+  {
+    File[] children = file.listFiles();
+    if( children != null )
+    {
+      for( File child : children )
+      {
+        delete( child );
+      }
+    }
+    //noinspection ResultOfMethodCallIgnored
+    file.delete();
+  }
+}
@@ -0,0 +1,77 @@
+package manifold.internal.runtime.protocols;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import junit.framework.TestCase;
+import manifold.api.type.ContributorKind;
+import manifold.api.type.ITypeManifold;
+import manifold.api.type.TypeName;
+
+public class ManClassesUrlConnectionTest extends TestCase
+{
+  public void testBatchExcludesRequestedType()
+  {
+    Set<ITypeManifold> tms = set( typeManifold( ContributorKind.Primary, "abc.A", "abc.B", "abc.C" ) );
+    assertEquals( list( "abc.B", "abc.C" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.A", tms, 3 ) ) );
+    assertEquals( list( "abc.A", "abc.C" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.B", tms, 3 ) ) );
+  }
+
+  public void testBatchBudgetIncludesRequestedType()
+  {
+    Set<ITypeManifold> tms = set( typeManifold( ContributorKind.Primary, "abc.A", "abc.B", "abc.C", "abc.D" ) );
+    assertEquals( list( "abc.B" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.A", tms, 2 ) ) );
+    assertEquals( list( "abc.A", "abc.C" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.B", tms, 3 ) ) );
+    assertEquals( list( "abc.A", "abc.C", "abc.D" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.B", tms, 10 ) ) );
+  }
+
+  public void testBatchSkipsSupplemental()
+  {
+    Set<ITypeManifold> tms = set(
+      typeManifold( ContributorKind.Supplemental, "abc.X", "abc.Y" ),
+      typeManifold( ContributorKind.Primary, "abc.A", "abc.B" ) );
+    assertEquals( list( "abc.B" ), new ArrayList<>( ManClassesUrlConnection.findBatch( "abc.A", tms, 10 ) ) );
+  }
+
+  private static Set<ITypeManifold> set( ITypeManifold... tms )
+  {
+    return new LinkedHashSet<>( Arrays.asList( tms ) );
+  }
+
+  private static List<String> list( String... names )
+  {
+    return Arrays.asList( names );
+  }
+
+  private static ITypeManifold typeManifold( ContributorKind kind, String... types )
+  {
+    Collection<TypeName> typeNames = new ArrayList<>();
+    for( String type : types )
+    {
+      typeNames.add( new TypeName( type, null, TypeName.Kind.TYPE, TypeName.Visibility.PUBLIC ) );
+    }
+    return (ITypeManifold)Proxy.newProxyInstance( ManClassesUrlConnectionTest.class.getClassLoader(),
+      new Class<?>[] {ITypeManifold.class},
+      ( proxy, method, args ) -> {
+        switch( method.getName() )
+        {
+          case "getContributorKind":
+            return kind;
+          case "getPackage":
+            return ((String)args[0]).substring( 0, ((String)args[0]).lastIndexOf( '.' ) );
+          case "getTypeNames":
+            return "abc".equals( args[0] ) ? typeNames : new ArrayList<>();
+          case "hashCode":
+            return System.identityHashCode( proxy );
+          case "equals":
+            return proxy == args[0];
+          default:
+            return null;
+        }
+      } );
+  }
+}
@@ -16,10 +16,24 @@
 
 package manifold.collections.api;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import manifold.collections.api.range.BigIntegerRange;
+import manifold.collections.api.range.DoubleRange;
+import manifold.collections.api.range.IntegerRange;
+import manifold.collections.api.range.IterableRange;
+import manifold.collections.api.range.LongRange;
 import org.junit.Test;
 
 
 import static manifold.collections.api.range.RangeFun.to;
+import static manifold.collections.api.range.RangeFun._to;
+import static manifold.collections.api.range.RangeFun.to_;
+import static manifold.collections.api.range.RangeFun._to_;
 import static manifold.collections.api.range.RangeFun.step;
 import static manifold.collections.api.range.RangeFun.inside;
 import static manifold.collections.api.range.RangeFun.outside;
@@ -84,6 +98,181 @@ public class RangeFunTest
     assertEquals( dcheck, 11, 0 );
   }
 
+  @Test
+  public void testLoweredLoopsMatchIterator()
+  {
+    boolean[] bools = {true, false};
+    for( int left: new int[]{-3, 0, 5, Integer.MAX_VALUE - 1} )
+    {
+      for( int width: new int[]{0, 1, 6} )
+      {
+        int right = (int)Math.min( (long)left + width, Integer.MAX_VALUE );
+        for( int step: new int[]{1, 2, 4, Integer.MAX_VALUE} )
+        {
+          for( boolean leftClosed: bools )
+          {
+            for( boolean rightClosed: bools )
+            {
+              for( boolean reverse: bools )
+              {
+                int from = reverse ? right : left;
+                int to = reverse ? left : right;
+                IntegerRange ir = new IntegerRange( from, to, step, leftClosed, rightClosed, reverse );
+                List<Object> values = new ArrayList<>();
+                for( int i: ir )
+                {
+                  values.add( i );
+                }
+                assertEquals( ir.toString(), iterate( ir, reverse ), values );
+
+                LongRange lr = new LongRange( (long)from, (long)to, step, leftClosed, rightClosed, reverse );
+                values.clear();
+                for( long l: lr )
+                {
+                  values.add( l );
+                }
+                assertEquals( lr.toString(), iterate( lr, reverse ), values );
+
+                DoubleRange dr = new DoubleRange( from / 2d, to / 2d, step / 4d, leftClosed, rightClosed, reverse );
+                values.clear();
+                for( double d: dr )
+                {
+                  values.add( d );
+                  if( values.size() > 100 )
+                  {
+                    break;
+                  }
+                }
+                assertEquals( dr.toString(), iterate( dr, reverse ), values );
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private <E extends Comparable<E>> List<Object> iterate( IterableRange<E, ?, ?, ?> range, boolean reverse )
+  {
+    // the iterator wraps around on overflow where the lowered loop ends
+    List<Object> values = new ArrayList<>();
+    Iterator<E> iterator = reverse ? range.iterateFromRight() : range.iterateFromLeft();
+    while( iterator.hasNext() && values.size() <= 100 )
+    {
+      E value = iterator.next();
+      if( !range.contains( value ) || values.contains( value ) )
+      {
+        break;
+      }
+      values.add( value );
+    }
+    return values;
+  }
+
+  @Test
+  public void testLoweredLoopVariations()
+  {
+    StringBuilder sb = new StringBuilder();
+    outer:
+    for( Integer i: 1 _to_ 10 )
+    {
+      for( long l: 1 to_ 10 )
+      {
+        if( l > i )
+        {
+          continue outer;
+        }
+        if( i == 8 )
+        {
+          break outer;
+        }
+        sb.append( l );
+      }
+    }
+    assertEquals( "12" + "123" + "1234" + "12345" + "123456" + "1234567", sb.toString() );
+
+    List<Runnable> captured = new ArrayList<>();
+    int[] sum = {0};
+    for( final int i: 10 _to 1 )
+    {
+      captured.add( () -> sum[0] += i );
+    }
+    captured.forEach( Runnable::run );
+    assertEquals( 54, sum[0] );
+
+    double total = 0;
+    for( Number n: 0d to 1d step 0.25 )
+    {
+      total += n.doubleValue();
+    }
+    assertEquals( 2.5, total, 0 );
+  }
+
+  @Test
+  public void testSpliterators()
+  {
+    boolean[] bools = {true, false};
+    for( int width: new int[]{0, 1, 7, 60} )
+    {
+      for( int step: new int[]{1, 3} )
+      {
+        for( boolean leftClosed: bools )
+        {
+          for( boolean rightClosed: bools )
+          {
+            for( boolean reverse: bools )
+            {
+              int from = reverse ? width : -2;
+              int to = reverse ? -2 : width;
+              IntegerRange ir = new IntegerRange( from, to, step, leftClosed, rightClosed, reverse );
+              List<Object> expected = iterate( ir, reverse );
+              assertEquals( ir.toString(), expected.size(), ir.spliterator().getExactSizeIfKnown() );
+              assertEquals( ir.toString(), expected, ir.stream().collect( Collectors.toList() ) );
+              assertEquals( ir.toString(), expected, ir.parallelStream().collect( Collectors.toList() ) );
+              assertEquals( ir.toString(), expected, ir.intStream().parallel().boxed().collect( Collectors.toList() ) );
+
+              LongRange lr = new LongRange( (long)from, (long)to, step, leftClosed, rightClosed, reverse );
+              expected = iterate( lr, reverse );
+              assertEquals( lr.toString(), expected.size(), lr.spliterator().getExactSizeIfKnown() );
+              assertEquals( lr.toString(), expected, lr.parallelStream().collect( Collectors.toList() ) );
+              assertEquals( lr.toString(), expected, lr.longStream().parallel().boxed().collect( Collectors.toList() ) );
+
+              BigIntegerRange br = new BigIntegerRange( BigInteger.valueOf( from ), BigInteger.valueOf( to ),
+                BigInteger.valueOf( step ), leftClosed, rightClosed, reverse );
+              expected = iterate( br, reverse );
+              assertEquals( br.toString(), expected.size(), br.spliterator().getExactSizeIfKnown() );
+              assertEquals( br.toString(), expected, br.parallelStream().collect( Collectors.toList() ) );
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSpliteratorSplits()
+  {
+    Spliterator.OfInt ints = (0 _to 1000).spliterator();
+    Spliterator.OfInt prefix = ints.trySplit();
+    assertEquals( 500, prefix.estimateSize() );
+    assertEquals( 500, ints.estimateSize() );
+    assertTrue( ints.hasCharacteristics( Spliterator.SIZED | Spliterator.SUBSIZED ) );
+
+    assertEquals( 500500, (1 to 1000).intStream().parallel().sum() );
+    assertEquals( 500500L, (1L to 1000L).longStream().parallel().sum() );
+
+    // more values than fit in a long: unsized until split
+    long min = Long.MIN_VALUE;
+    long max = Long.MAX_VALUE;
+    Spliterator.OfLong longs = (min to max).spliterator();
+    assertFalse( longs.hasCharacteristics( Spliterator.SIZED ) );
+    Spliterator.OfLong low = longs.trySplit();
+    assertTrue( low.hasCharacteristics( Spliterator.SIZED ) );
+    long[] first = new long[1];
+    low.tryAdvance( (long l) -> first[0] = l );
+    assertEquals( Long.MIN_VALUE, first[0] );
+  }
+
   @Test
   public void testComparable()
   {
@@ -21,6 +21,9 @@ package manifold.collections.api.range;
 import java.math.BigInteger;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 public final class BigIntegerRange extends NumberRange<BigInteger, BigIntegerRange>
 {
@@ -96,6 +99,48 @@ public final class BigIntegerRange extends NumberRange<BigInteger, BigIntegerRan
     return null;
   }
 
+  /**
+   * @return A spliterator over the values in iteration order. If the range has no more than {@code Long.MAX_VALUE}
+   *   values, it knows its exact size and splits in halves so a parallel stream over the range divides the work evenly.
+   */
+  @Override
+  public Spliterator<BigInteger> spliterator()
+  {
+    BigInteger step = getStep();
+    BigInteger span = getRightEndpoint().subtract( getLeftEndpoint() );
+    if( !(isReversed() ? isLeftClosed() : isRightClosed()) )
+    {
+      if( span.signum() == 0 )
+      {
+        return Spliterators.emptySpliterator();
+      }
+      span = span.subtract( BigInteger.ONE );
+    }
+    boolean startClosed = isReversed() ? isRightClosed() : isLeftClosed();
+    BigInteger count = span.divide( step );
+    if( startClosed )
+    {
+      count = count.add( BigInteger.ONE );
+    }
+    if( count.bitLength() >= Long.SIZE )
+    {
+      return Spliterators.spliteratorUnknownSize( iterator(),
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE );
+    }
+
+    BigInteger start;
+    if( isReversed() )
+    {
+      start = startClosed ? getRightEndpoint() : getRightEndpoint().subtract( step );
+      step = step.negate();
+    }
+    else
+    {
+      start = startClosed ? getLeftEndpoint() : getLeftEndpoint().add( step );
+    }
+    return new RangeSpliterator( start, step, 0, count.longValue() );
+  }
+
   private class ForwardIterator implements Iterator<BigInteger>
   {
     private BigInteger _csr;
@@ -177,4 +222,77 @@ public final class BigIntegerRange extends NumberRange<BigInteger, BigIntegerRan
       throw new UnsupportedOperationException();
     }
   }
-}
\ No newline at end of file
+
+  private static class RangeSpliterator implements Spliterator<BigInteger>
+  {
+    private final BigInteger _start;
+    private final BigInteger _step;
+    private long _index;
+    private final long _fence;
+
+    RangeSpliterator( BigInteger start, BigInteger step, long index, long fence )
+    {
+      _start = start;
+      _step = step;
+      _index = index;
+      _fence = fence;
+    }
+
+    private BigInteger valueAt( long index )
+    {
+      return _start.add( _step.multiply( BigInteger.valueOf( index ) ) );
+    }
+
+    @Override
+    public boolean tryAdvance( Consumer<? super BigInteger> action )
+    {
+      if( _index < _fence )
+      {
+        action.accept( valueAt( _index++ ) );
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining( Consumer<? super BigInteger> action )
+    {
+      long index = _index;
+      if( index < _fence )
+      {
+        _index = _fence;
+        BigInteger value = valueAt( index );
+        for( long i = _fence - index; i > 0; i-- )
+        {
+          action.accept( value );
+          value = value.add( _step );
+        }
+      }
+    }
+
+    @Override
+    public Spliterator<BigInteger> trySplit()
+    {
+      long index = _index;
+      long mid = (index + _fence) >>> 1;
+      if( mid <= index )
+      {
+        return null;
+      }
+      _index = mid;
+      return new RangeSpliterator( _start, _step, index, mid );
+    }
+
+    @Override
+    public long estimateSize()
+    {
+      return _fence - _index;
+    }
+
+    @Override
+    public int characteristics()
+    {
+      return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+  }
+}
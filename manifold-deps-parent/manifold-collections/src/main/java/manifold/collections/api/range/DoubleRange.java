@@ -97,6 +97,42 @@ public final class DoubleRange extends NumberRange<Double, DoubleRange>
     return null;
   }
 
+  /**
+   * The first value iterated. The compiler uses this method along with {@link #iterationStep()} and
+   * {@link #iterationEnd()} to translate a for-each loop over the range to a primitive loop.
+   */
+  public double iterationStart()
+  {
+    if( isReversed() )
+    {
+      return isRightClosed() ? getRightEndpoint() : getRightEndpoint() - getStep();
+    }
+    return isLeftClosed() ? getLeftEndpoint() : getLeftEndpoint() + getStep();
+  }
+
+  /**
+   * The difference between consecutive values iterated, negative if the range is reversed.
+   */
+  public double iterationStep()
+  {
+    return isReversed() ? -getStep() : getStep();
+  }
+
+  /**
+   * The inclusive bound of the values iterated, the last endpoint if it is closed. Otherwise the adjacent double
+   * inside the range, or NaN if there is none.
+   */
+  public double iterationEnd()
+  {
+    if( isReversed() )
+    {
+      double left = getLeftEndpoint();
+      return isLeftClosed() ? left : left == Double.POSITIVE_INFINITY ? Double.NaN : Math.nextUp( left );
+    }
+    double right = getRightEndpoint();
+    return isRightClosed() ? right : right == Double.NEGATIVE_INFINITY ? Double.NaN : Math.nextDown( right );
+  }
+
   public class ForwardIterator implements Iterator<Double>
   {
     private double _csr;
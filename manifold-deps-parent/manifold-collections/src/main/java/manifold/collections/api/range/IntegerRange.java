@@ -20,6 +20,11 @@ package manifold.collections.api.range;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 public final class IntegerRange extends NumberRange<Integer, IntegerRange>
 {
@@ -95,6 +100,62 @@ public final class IntegerRange extends NumberRange<Integer, IntegerRange>
     return null;
   }
 
+  /**
+   * The first value iterated. The compiler uses this method along with {@link #iterationStep()} and
+   * {@link #iterationCount()} to translate a for-each loop over the range to a counted loop.
+   */
+  public int iterationStart()
+  {
+    if( isReversed() )
+    {
+      return isRightClosed() ? getRightEndpoint() : getRightEndpoint() - getStep();
+    }
+    return isLeftClosed() ? getLeftEndpoint() : getLeftEndpoint() + getStep();
+  }
+
+  /**
+   * The difference between consecutive values iterated, negative if the range is reversed.
+   */
+  public int iterationStep()
+  {
+    return isReversed() ? -getStep() : getStep();
+  }
+
+  /**
+   * The number of values iterated.
+   */
+  public long iterationCount()
+  {
+    long span = (long)getRightEndpoint() - getLeftEndpoint();
+    if( !(isReversed() ? isLeftClosed() : isRightClosed()) )
+    {
+      if( span == 0 )
+      {
+        return 0;
+      }
+      span--;
+    }
+    return span / getStep() + ((isReversed() ? isRightClosed() : isLeftClosed()) ? 1 : 0);
+  }
+
+  /**
+   * @return A spliterator over the values in iteration order. It knows its exact size and splits in halves, so a
+   *   parallel stream over the range divides the work evenly.
+   */
+  @Override
+  public Spliterator.OfInt spliterator()
+  {
+    return new RangeSpliterator( iterationStart(), iterationStep(), 0, iterationCount() );
+  }
+
+  /**
+   * @return A sequential stream of the values in iteration order, without boxing
+   */
+  public IntStream intStream()
+  {
+    return StreamSupport.intStream( spliterator(), false );
+  }
+
   public class ForwardIterator extends AbstractIntIterator
   {
     private int _csr;
@@ -182,4 +243,102 @@ public final class IntegerRange extends NumberRange<Integer, IntegerRange>
       throw new UnsupportedOperationException();
     }
   }
+
+  private static class RangeSpliterator implements Spliterator.OfInt
+  {
+    private final int _start;
+    private final int _step;
+    private long _index;
+    private final long _fence;
+
+    RangeSpliterator( int start, int step, long index, long fence )
+    {
+      _start = start;
+      _step = step;
+      _index = index;
+      _fence = fence;
+    }
+
+    private int valueAt( long index )
+    {
+      // the value is in range, so the low bits of the long result are exact
+      return (int)(_start + index * _step);
+    }
+
+    @Override
+    public boolean tryAdvance( IntConsumer action )
+    {
+      if( _index < _fence )
+      {
+        action.accept( valueAt( _index++ ) );
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean tryAdvance( Consumer<? super Integer> action )
+    {
+      if( action instanceof IntConsumer )
+      {
+        return tryAdvance( (IntConsumer)action );
+      }
+      return tryAdvance( (IntConsumer)action::accept );
+    }
+
+    @Override
+    public void forEachRemaining( IntConsumer action )
+    {
+      long index = _index;
+      if( index < _fence )
+      {
+        _index = _fence;
+        int value = valueAt( index );
+        int step = _step;
+        for( long i = _fence - index; i > 0; i-- )
+        {
+          action.accept( value );
+          value += step;
+        }
+      }
+    }
+
+    @Override
+    public void forEachRemaining( Consumer<? super Integer> action )
+    {
+      if( action instanceof IntConsumer )
+      {
+        forEachRemaining( (IntConsumer)action );
+      }
+      else
+      {
+        forEachRemaining( (IntConsumer)action::accept );
+      }
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit()
+    {
+      long index = _index;
+      long mid = (index + _fence) >>> 1;
+      if( mid <= index )
+      {
+        return null;
+      }
+      _index = mid;
+      return new RangeSpliterator( _start, _step, index, mid );
+    }
+
+    @Override
+    public long estimateSize()
+    {
+      return _fence - _index;
+    }
+
+    @Override
+    public int characteristics()
+    {
+      return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+  }
 }
@@ -19,6 +19,8 @@
 package manifold.collections.api.range;
 
 import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface IterableRange<E extends Comparable<E>, S, U, ME extends IterableRange<E, S, U, ME>> extends Iterable<E>, Range<E, ME>
 {
@@ -81,4 +83,23 @@ public interface IterableRange<E extends Comparable<E>, S, U, ME extends Iterabl
    * @thows IllegalArgumentException if iStepIndex is < 0
    */
   E getFromRight( int iStepIndex );
-}
\ No newline at end of file
+
+  /**
+   * @return A sequential stream of the elements in this range in iteration order. Ranges that know their size, such as
+   *   {@link IntegerRange}, provide a spliterator that splits evenly for parallel streams.
+   */
+  default Stream<E> stream()
+  {
+    return StreamSupport.stream( spliterator(), false );
+  }
+
+  /**
+   * @return A parallel stream of the elements in this range
+   *
+   * @see #stream()
+   */
+  default Stream<E> parallelStream()
+  {
+    return StreamSupport.stream( spliterator(), true );
+  }
+}
@@ -20,6 +20,11 @@ package manifold.collections.api.range;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 public final class LongRange extends NumberRange<Long, LongRange>
 {
@@ -93,6 +98,75 @@ public final class LongRange extends NumberRange<Long, LongRange>
     return null;
   }
 
+  /**
+   * The first value iterated. The compiler uses this method along with {@link #iterationStep()} and
+   * {@link #iterationCount()} to translate a for-each loop over the range to a counted loop.
+   */
+  public long iterationStart()
+  {
+    if( isReversed() )
+    {
+      return isRightClosed() ? getRightEndpoint() : getRightEndpoint() - getStep();
+    }
+    return isLeftClosed() ? getLeftEndpoint() : getLeftEndpoint() + getStep();
+  }
+
+  /**
+   * The difference between consecutive values iterated, negative if the range is reversed.
+   */
+  public long iterationStep()
+  {
+    return isReversed() ? -getStep() : getStep();
+  }
+
+  /**
+   * The number of values iterated as an unsigned long. A closed range spanning all long values returns
+   * {@code -1} (2<sup>64</sup> - 1) since its 2<sup>64</sup> values do not fit.
+   */
+  public long iterationCount()
+  {
+    // the unsigned distance between the endpoints
+    long span = getRightEndpoint() - getLeftEndpoint();
+    if( !(isReversed() ? isLeftClosed() : isRightClosed()) )
+    {
+      if( span == 0 )
+      {
+        return 0;
+      }
+      span--;
+    }
+    long count = Long.divideUnsigned( span, getStep() );
+    if( isReversed() ? isRightClosed() : isLeftClosed() )
+    {
+      count++;
+      if( count == 0 )
+      {
+        // overflow
+        count = -1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return A spliterator over the values in iteration order. It knows its exact size and splits in halves, so a
+   *   parallel stream over the range divides the work evenly. A range with more than {@code Long.MAX_VALUE} values
+   *   still splits, but reports its size as unknown until split.
+   */
+  @Override
+  public Spliterator.OfLong spliterator()
+  {
+    return new RangeSpliterator( iterationStart(), iterationStep(), 0, iterationCount() );
+  }
+
+  /**
+   * @return A sequential stream of the values in iteration order, without boxing
+   */
+  public LongStream longStream()
+  {
+    return StreamSupport.longStream( spliterator(), false );
+  }
+
   public class ForwardIterator extends AbstractLongIterator
   {
     private long _csr;
@@ -178,4 +252,102 @@ public final class LongRange extends NumberRange<Long, LongRange>
       throw new UnsupportedOperationException();
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Indexes are unsigned, the same as {@link #iterationCount()}
+   */
+  private static class RangeSpliterator implements Spliterator.OfLong
+  {
+    private final long _start;
+    private final long _step;
+    private long _index;
+    private final long _fence;
+
+    RangeSpliterator( long start, long step, long index, long fence )
+    {
+      _start = start;
+      _step = step;
+      _index = index;
+      _fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance( LongConsumer action )
+    {
+      if( _index != _fence )
+      {
+        action.accept( _start + _index++ * _step );
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean tryAdvance( Consumer<? super Long> action )
+    {
+      if( action instanceof LongConsumer )
+      {
+        return tryAdvance( (LongConsumer)action );
+      }
+      return tryAdvance( (LongConsumer)action::accept );
+    }
+
+    @Override
+    public void forEachRemaining( LongConsumer action )
+    {
+      long index = _index;
+      if( index != _fence )
+      {
+        _index = _fence;
+        long value = _start + index * _step;
+        long step = _step;
+        for( long i = _fence - index; i != 0; i-- )
+        {
+          action.accept( value );
+          value += step;
+        }
+      }
+    }
+
+    @Override
+    public void forEachRemaining( Consumer<? super Long> action )
+    {
+      if( action instanceof LongConsumer )
+      {
+        forEachRemaining( (LongConsumer)action );
+      }
+      else
+      {
+        forEachRemaining( (LongConsumer)action::accept );
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit()
+    {
+      long index = _index;
+      long mid = index + ((_fence - index) >>> 1);
+      if( mid == index )
+      {
+        return null;
+      }
+      _index = mid;
+      return new RangeSpliterator( _start, _step, index, mid );
+    }
+
+    @Override
+    public long estimateSize()
+    {
+      long size = _fence - _index;
+      return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    @Override
+    public int characteristics()
+    {
+      return _fence - _index < 0
+             ? ORDERED | DISTINCT | NONNULL | IMMUTABLE
+             : ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+  }
+}
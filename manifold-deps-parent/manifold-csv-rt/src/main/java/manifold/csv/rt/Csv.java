@@ -20,6 +20,7 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -31,6 +32,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import manifold.csv.rt.parser.*;
 import manifold.json.rt.api.DataBindings;
@@ -54,20 +56,36 @@ public class Csv
   public static String toCsv( Object jsonValue )
   {
     StringBuilder sb = new StringBuilder();
+    toCsv( jsonValue, sb );
+    return sb.toString();
+  }
+
+  /**
+   * Write the contents of the {@code jsonValue} to {@code target} in CSV format, as with {@link #toCsv(Object)}. The
+   * rows are written as they are produced, the CSV text is not built in memory first.
+   */
+  public static void toCsv( Object jsonValue, Appendable target )
+  {
     jsonValue = toBindings( jsonValue );
-    if( jsonValue instanceof Map )
+    try
     {
-      toCsv( jsonValue, null, sb, 0 );
-    }
-    else if( jsonValue instanceof Iterable )
-    {
-      toCsv( jsonValue, "list", sb, 0 );
+      if( jsonValue instanceof Map )
+      {
+        writeCsv( jsonValue, null, target );
+      }
+      else if( jsonValue instanceof Iterable )
+      {
+        writeCsv( jsonValue, "list", target );
+      }
+      else
+      {
+        writeCsv( jsonValue, "item", target );
+      }
     }
-    else
+    catch( IOException e )
     {
-      toCsv( jsonValue, "item", sb, 0 );
+      throw new RuntimeException( e );
     }
-    return sb.toString();
   }
 
   /**
@@ -80,6 +98,18 @@ public class Csv
    * a future revision.
    */
   public static void toCsv( Object jsonValue, String name, StringBuilder target, int indent )
+  {
+    try
+    {
+      writeCsv( jsonValue, name, target );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  private static void writeCsv( Object jsonValue, String name, Appendable target ) throws IOException
   {
     jsonValue = toBindings( jsonValue );
     if( jsonValue instanceof Map )
@@ -96,7 +126,7 @@ public class Csv
           {
             rootValue = ((Pair)rootValue).getSecond();
           }
-          toCsv( rootValue, rootKey.toString(), target, indent );
+          writeCsv( rootValue, rootKey.toString(), target );
           return;
         }
         else
@@ -106,23 +136,23 @@ public class Csv
         }
       }
       // a single row of data consisting of the name/value pairs in the map
-      toCsv( Collections.singletonList( jsonValue ), name, target, indent );
+      writeCsv( Collections.singletonList( jsonValue ), name, target );
     }
     else if( jsonValue instanceof Iterable )
     {
       // A list of data
 
-      toCsv( (Iterable)jsonValue, name, target, indent );
+      writeCsv( (Iterable)jsonValue, name, target );
     }
     else
     {
       // a single row of data consisting of just one column of the name/value pair
 
-      toCsv( Collections.singletonList( jsonValue ), name, target, indent );
+      writeCsv( Collections.singletonList( jsonValue ), name, target );
     }
   }
 
-  private static void toCsv( Iterable value, String name, StringBuilder target, int indent )
+  private static void writeCsv( Iterable value, String name, Appendable target ) throws IOException
   {
     Iterator iterator = value.iterator();
     if( iterator.hasNext() )
@@ -193,7 +223,10 @@ public class Csv
       {
         // Lists of lists not supported with CSV, just dumping text for each element to a single value
         target.append( '"' );
-        ((Iterable<?>)comp).forEach( e -> target.append( "\"\"" ).append( value ).append( "\"\"," ) );
+        for( Object ignored: (Iterable<?>)comp )
+        {
+          target.append( "\"\"" ).append( String.valueOf( value ) ).append( "\"\"," );
+        }
         target.append( "\"\n" );
       }
       else
@@ -204,9 +237,17 @@ public class Csv
     }
   }
 
-  private static StringBuilder appendCsvValue( StringBuilder target, Object value )
+  private static Appendable appendCsvValue( Appendable target, Object value ) throws IOException
   {
-    target.append( '"' ).append( String.valueOf( value ).replace( "\"", "\"\"" ) ).append( '"' );
+    String text = String.valueOf( value );
+    target.append( '"' );
+    int start = 0;
+    for( int quote = text.indexOf( '"' ); quote >= 0; quote = text.indexOf( '"', start ) )
+    {
+      target.append( text, start, quote + 1 ).append( '"' );
+      start = quote + 1;
+    }
+    target.append( text, start, text.length() ).append( '"' );
     return target;
   }
 
@@ -228,6 +269,55 @@ public class Csv
     }
   }
 
+  /**
+   * Stream the rows of CSV content read from {@code reader}. Rows are parsed as the stream advances, therefore the
+   * content is not held in memory. As with {@link #fromCsv(String)} each row is a {@link DataBindings} of field values
+   * keyed by column name. Cast a row to the item type of a CSV type to access its fields in a type-safe manner:
+   * <pre><code>
+   *   try( Stream&lt;DataBindings&gt; rows = Csv.streamCsv( reader ) ) {
+   *     rows.map( row -> (PersonItem)row ).forEach( person -> ... );
+   *   }
+   * </code></pre>
+   * Closing the stream closes the reader.
+   */
+  public static Stream<DataBindings> streamCsv( Reader reader )
+  {
+    return streamCsv( reader, false );
+  }
+
+  /**
+   * Same as {@link #streamCsv(Reader)}, but if {@code reuseRow} is true a single {@link DataBindings} instance is
+   * refilled with each row, which avoids allocating a map per row. Use it only if a row is no longer referenced once
+   * the stream advances to the next row.
+   */
+  public static Stream<DataBindings> streamCsv( Reader reader, boolean reuseRow )
+  {
+    CsvCursor cursor = CsvParser.open( reader );
+    CsvHeader header = cursor.getHeader();
+    List<String> names = header == null
+      ? new ArrayList<>()
+      : header.getFields().stream().map( f -> f.getToken().getData() ).collect( Collectors.toList() );
+    DataBindings flyweight = reuseRow ? new DataBindings() : null;
+    return cursor.stream().map( record -> {
+      List<CsvField> fields = record.getFields();
+      if( header == null && names.isEmpty() )
+      {
+        // no header, label fields according to the first record
+        for( int i = 0; i < fields.size(); i++ )
+        {
+          names.add( "Field" + (i + 1) );
+        }
+      }
+      DataBindings bindings = flyweight == null ? new DataBindings() : flyweight;
+      bindings.clear();
+      for( int fieldNum = 0; fieldNum < fields.size(); fieldNum++ )
+      {
+        bindings.put( names.get( fieldNum ), fields.get( fieldNum ).getToken().getData() );
+      }
+      return bindings;
+    } );
+  }
+
   private static List<?> transformData( CsvDataSet dataSet )
   {
     CsvHeader header = dataSet.getHeader();
@@ -44,6 +44,12 @@ public class CsvBindingsTranslator implements IJsonBindingsTranslator
     Csv.toCsv( bindingsValue, name, target, indent );
   }
 
+  @Override
+  public void fromBindings( Object bindingsValue, Appendable target )
+  {
+    Csv.toCsv( bindingsValue, target );
+  }
+
   @Override
   public Object toBindings( String translation )
   {
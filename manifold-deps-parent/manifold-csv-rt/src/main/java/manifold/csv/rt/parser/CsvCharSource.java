@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.csv.rt.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * The characters tokenized by {@link CsvTokenizer}, either held entirely in memory or read incrementally from a
+ * {@link Reader}. When reading, characters are kept in a window that slides forward as the tokenizer releases positions
+ * it no longer needs, so the window holds little more than the token being read.
+ */
+class CsvCharSource
+{
+  private static final int INITIAL_SIZE = 8192;
+
+  private final CharSequence _content;
+  private final Reader _reader;
+  private char[] _buf;
+  private int _start; // position of _buf[0]
+  private int _count;
+  private int _released;
+  private boolean _eof;
+
+  CsvCharSource( CharSequence content )
+  {
+    _content = content;
+    _reader = null;
+  }
+
+  CsvCharSource( Reader reader )
+  {
+    _content = null;
+    _reader = reader;
+    _buf = new char[INITIAL_SIZE];
+  }
+
+  /**
+   * @return True if {@code pos} is at or beyond the end of the content
+   */
+  boolean isEnd( int pos )
+  {
+    if( _content != null )
+    {
+      return pos >= _content.length();
+    }
+    return !fill( pos );
+  }
+
+  char charAt( int pos )
+  {
+    if( _content != null )
+    {
+      return _content.charAt( pos );
+    }
+    if( pos < _start )
+    {
+      throw new IllegalStateException( "Position " + pos + " is released" );
+    }
+    if( !fill( pos ) )
+    {
+      throw new IndexOutOfBoundsException( "Position " + pos + " is beyond the end of the content" );
+    }
+    return _buf[pos - _start];
+  }
+
+  /**
+   * Characters before {@code pos} will not be read again and may be discarded.
+   */
+  void release( int pos )
+  {
+    _released = Math.max( _released, pos );
+  }
+
+  private boolean fill( int pos )
+  {
+    while( pos >= _start + _count )
+    {
+      if( _eof )
+      {
+        return false;
+      }
+      if( _count == _buf.length )
+      {
+        makeRoom();
+      }
+      try
+      {
+        int read = _reader.read( _buf, _count, _buf.length - _count );
+        if( read < 0 )
+        {
+          _eof = true;
+        }
+        else
+        {
+          _count += read;
+        }
+      }
+      catch( IOException e )
+      {
+        throw new RuntimeException( e );
+      }
+    }
+    return true;
+  }
+
+  private void makeRoom()
+  {
+    int discard = _released - _start;
+    if( discard >= _buf.length / 2 )
+    {
+      // slide the window
+      System.arraycopy( _buf, discard, _buf, 0, _count - discard );
+      _start += discard;
+      _count -= discard;
+    }
+    else
+    {
+      // the current token, or the sample, is large
+      _buf = Arrays.copyOf( _buf, _buf.length * 2 );
+    }
+  }
+}
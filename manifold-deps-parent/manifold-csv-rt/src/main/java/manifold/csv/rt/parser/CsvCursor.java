@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.csv.rt.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads CSV records one at a time from a {@link Reader}. Unlike {@link CsvParser#parse}, neither the content nor the
+ * records are held in memory, only the leading sample from which the separator, header, and column types are inferred,
+ * see {@link CsvTokenizer}. Use {@link #stream()} to process records as a {@link Stream}, closing the stream closes the
+ * reader.
+ */
+public class CsvCursor implements Iterator<CsvRecord>, Closeable
+{
+  private final Reader _reader;
+  private final CsvTokenizer _tokenizer;
+  private final CsvHeader _header;
+  private boolean _eof;
+
+  CsvCursor( Reader reader )
+  {
+    _reader = reader;
+    _tokenizer = new CsvTokenizer( reader, null );
+    _header = parseHeader();
+  }
+
+  /**
+   * @return The header record, or null if the content does not have a header
+   */
+  public CsvHeader getHeader()
+  {
+    return _header;
+  }
+
+  /**
+   * @return The column types inferred from the leading sample of the content
+   */
+  public List<Class> getTypes()
+  {
+    return _tokenizer.getTypes();
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    return !_eof;
+  }
+
+  @Override
+  public CsvRecord next()
+  {
+    if( _eof )
+    {
+      throw new NoSuchElementException();
+    }
+
+    List<CsvField> fields = new ArrayList<>();
+    while( true )
+    {
+      CsvToken token = _tokenizer.nextToken();
+      fields.add( new CsvField( token ) );
+      if( token.isLastInRecord() )
+      {
+        _eof = token.isEof();
+        return new CsvRecord( fields );
+      }
+    }
+  }
+
+  public Stream<CsvRecord> stream()
+  {
+    return StreamSupport.stream( Spliterators.spliteratorUnknownSize( this, Spliterator.ORDERED | Spliterator.NONNULL ), false )
+      .onClose( this::closeUnchecked );
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    _reader.close();
+  }
+
+  private void closeUnchecked()
+  {
+    try
+    {
+      close();
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  private CsvHeader parseHeader()
+  {
+    if( _tokenizer.hasHeader() )
+    {
+      List<CsvField> fields = new ArrayList<>();
+      while( true )
+      {
+        CsvToken token = _tokenizer.nextToken();
+        fields.add( new CsvField( token ) );
+        if( token.isLastInRecord() )
+        {
+          return new CsvHeader( fields );
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -19,28 +19,24 @@ package manifold.csv.rt.parser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
-import manifold.rt.api.util.StreamUtil;
 
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class CsvParser
 {
-  private final CsvTokenizer _tokenizer;
-
   public static CsvDataSet parse( InputStream inputStream )
   {
-    return new CsvParser( inputStream ).parse();
-  }
-
-  private CsvParser( InputStream inputStream )
-  {
-    try
+    try( CsvCursor cursor = open( new InputStreamReader( inputStream, UTF_8 ) ) )
     {
-      String content = StreamUtil.getContent( new InputStreamReader( inputStream, UTF_8 ) );
-      _tokenizer = new CsvTokenizer( content );
+      List<CsvRecord> records = new ArrayList<>();
+      cursor.forEachRemaining( records::add );
+      return new CsvDataSet( cursor.getHeader(), records, cursor.getTypes() );
     }
     catch( IOException e )
     {
@@ -48,50 +44,20 @@ public class CsvParser
     }
   }
 
-  private CsvDataSet parse()
+  /**
+   * Open a cursor over the records read from {@code reader}, records are parsed as the cursor advances.
+   */
+  public static CsvCursor open( Reader reader )
   {
-    return new CsvDataSet( parseHeader(), parseRecords(), _tokenizer.getTypes() );
+    return new CsvCursor( reader );
   }
 
-  private List<CsvRecord> parseRecords()
+  /**
+   * Open a cursor over the records of UTF-8 encoded CSV read from {@code channel}, records are parsed as the cursor
+   * advances.
+   */
+  public static CsvCursor open( ReadableByteChannel channel )
   {
-    List<CsvRecord> records = new ArrayList<>();
-    List<CsvField> fields = new ArrayList<>();
-    while( true )
-    {
-      CsvToken token = _tokenizer.nextToken();
-      fields.add( new CsvField( token ) );
-      if( token.isLastInRecord() )
-      {
-        records.add( new CsvRecord( fields ) );
-        if( token.isEof() )
-        {
-          break;
-        }
-        else
-        {
-          fields = new ArrayList<>();
-        }
-      }
-    }
-    return records;
-  }
-
-  private CsvHeader parseHeader()
-  {
-    if( _tokenizer.hasHeader() )
-    {
-      List<CsvField> fields = new ArrayList<>();
-      while( true )
-      {
-        CsvToken token = _tokenizer.nextToken();
-        fields.add( new CsvField( token ) );
-        if( token.isLastInRecord() )
-        {
-          return new CsvHeader( fields );
-        }
-      }
-    }
-    return null;
+    return new CsvCursor( Channels.newReader( channel, UTF_8.newDecoder(), -1 ) );
   }
 }
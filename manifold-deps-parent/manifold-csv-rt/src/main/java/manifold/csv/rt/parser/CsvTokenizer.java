@@ -16,6 +16,7 @@
 
 package manifold.csv.rt.parser;
 
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -37,7 +38,7 @@ public class CsvTokenizer
 {
   private static final char[] SEPARATORS = {',', ';', ':', '|', '\t'};
 
-  private CharSequence _content;
+  private final CsvCharSource _source;
   private Boolean _hasHeader;
   private char _separator;
   private boolean _indented;
@@ -45,7 +46,6 @@ public class CsvTokenizer
   private List<Class> _types;
   private boolean _sampling;
 
-  private int _length;
   private int _pos;
   private int _line;
   private CsvToken _prevToken;
@@ -57,8 +57,21 @@ public class CsvTokenizer
 
   public CsvTokenizer( CharSequence content, Boolean header )
   {
-    _content = content;
-    _length = content.length();
+    this( new CsvCharSource( content ), header );
+  }
+
+  /**
+   * Tokenizes content from {@code reader} as it is consumed. Only the leading sample used to infer the separator,
+   * header, and data types is held in memory along with the current token.
+   */
+  public CsvTokenizer( Reader reader, Boolean header )
+  {
+    this( new CsvCharSource( reader ), header );
+  }
+
+  private CsvTokenizer( CsvCharSource source, Boolean header )
+  {
+    _source = source;
     _hasHeader = header;
     resetPos();
     sample();
@@ -78,6 +91,12 @@ public class CsvTokenizer
 
   public CsvToken nextToken()
   {
+    if( !_sampling && _pos >= 0 )
+    {
+      // content preceding the last token is no longer needed
+      _source.release( _pos );
+    }
+
     char c = nextChar();
 
     // skip whitespace
@@ -161,7 +180,7 @@ public class CsvTokenizer
           {
             int end = _pos == 0
                       ? 0
-                      : _content.charAt( _pos - 1 ) == '\r'
+                      : _source.charAt( _pos - 1 ) == '\r'
                         ? _pos - 1
                         : _pos;
             int length = end - offset;
@@ -758,20 +777,20 @@ public class CsvTokenizer
     {
       return false;
     }
-    if( _content.charAt( _pos ) == '\n' )
+    if( _source.charAt( _pos ) == '\n' )
     {
       return true;
     }
-    if( _content.charAt( _pos ) == '\r' )
+    if( _source.charAt( _pos ) == '\r' )
     {
-      return _length-1 == _pos || _content.charAt( _pos+1 ) != '\n';
+      return _source.isEnd( _pos+1 ) || _source.charAt( _pos+1 ) != '\n';
     }
     return false;
   }
 
   public boolean isEof()
   {
-    return _pos == _content.length();
+    return _source.isEnd( _pos );
   }
 
   private int sampleSeparator( char separator )
@@ -838,22 +857,17 @@ public class CsvTokenizer
 
   private char _rawNextChar()
   {
-    if( _pos < _length )
+    if( !_source.isEnd( _pos ) )
     {
       _pos++;
     }
 
-    if( _pos == _length )
+    if( _source.isEnd( _pos ) )
     {
       return '\0'; // EOF
     }
 
-    if( _pos > _length )
-    {
-      throw new IllegalStateException( "position > length" );
-    }
-
-    return _content.charAt( _pos );
+    return _source.charAt( _pos );
   }
 
   public List<Class> getTypes()
@@ -27,6 +27,7 @@ import abc.csv.Cake;
 import abc.csv.Cake.CakeItem;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URISyntaxException;
@@ -34,12 +35,20 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import manifold.csv.rt.Csv;
+import manifold.json.rt.api.DataBindings;
 
 import org.junit.Test;
 
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 public class CsvTest
 {
@@ -102,4 +111,69 @@ public class CsvTest
       assertEquals(data[i][2], item.getCake());
     }
   }
+
+  @Test
+  public void testStreamCsv() throws IOException
+  {
+    insurance_sample_comma items = insurance_sample_comma.fromSource();
+    try( Stream<DataBindings> rows = Csv.streamCsv( new InputStreamReader(
+      CsvTest.class.getResourceAsStream( "/abc/csv/insurance_sample_comma.csv" ), UTF_8 ) ) )
+    {
+      List<insurance_sample_commaItem> streamed = rows.map( row -> (insurance_sample_commaItem)row ).collect( Collectors.toList() );
+      assertEquals( items.size(), streamed.size() );
+      for( int i = 0; i < items.size(); i++ )
+      {
+        assertEquals( items.get( i ).getPolicyID(), streamed.get( i ).getPolicyID() );
+        assertEquals( items.get( i ).getTiv_2012(), streamed.get( i ).getTiv_2012() );
+      }
+    }
+  }
+
+  @Test
+  public void testStreamCsvReuseRow()
+  {
+    int rowCount = 100_000;
+    Reader reader = new Reader()
+    {
+      int _row = -1;
+      String _line = "";
+      int _pos;
+
+      @Override
+      public int read( char[] cbuf, int off, int len )
+      {
+        if( _pos == _line.length() )
+        {
+          if( _row == rowCount )
+          {
+            return -1;
+          }
+          _line = _row < 0 ? "id,name,amount\n" : _row + ",name" + _row + "," + (_row * 1.5) + "\n";
+          _row++;
+          _pos = 0;
+        }
+        int count = Math.min( len, _line.length() - _pos );
+        _line.getChars( _pos, _pos + count, cbuf, off );
+        _pos += count;
+        return count;
+      }
+
+      @Override
+      public void close()
+      {
+      }
+    };
+
+    long[] sum = {0};
+    DataBindings[] first = {null};
+    Csv.streamCsv( reader, true ).forEach( row -> {
+      if( first[0] == null )
+      {
+        first[0] = row;
+      }
+      assertSame( first[0], row );
+      sum[0] += Integer.parseInt( (String)row.get( "id" ) );
+    } );
+    assertEquals( (long)rowCount * (rowCount - 1) / 2, sum[0] );
+  }
 }
@@ -18,6 +18,7 @@ package manifold.csv.rt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.time.LocalDate;
 
 import manifold.csv.rt.parser.CsvToken;
@@ -68,6 +69,45 @@ public class CsvTokenizerTest
     }
   }
 
+  @Test
+  public void testReaderMatchesContent() throws IOException
+  {
+    String[] samples = {"insurance_sample_comma", "insurance_sample_semicolon", "insurance_sample_tab",
+      "insurance_sample_noheader", "PRECIP_HLY_sample", "Nnndss", "SampleCSVFile_2kb", "TechCrunchcontinentalUSA",
+      "empty", "empty_leading_linebreak", "leading_whitespace", "trailing_whitespace"};
+    for( String sample: samples )
+    {
+      InputStream stream = CsvTokenizerTest.class.getResourceAsStream( "/sample/csv/" + sample + ".csv" );
+      String content = new String( StreamUtil.getContent( stream ) );
+      CsvTokenizer expected = new CsvTokenizer( content );
+      // a reader returning a few chars per read exercises the sliding window
+      CsvTokenizer actual = new CsvTokenizer( new StringReader( content )
+      {
+        @Override
+        public int read( char[] cbuf, int off, int len ) throws IOException
+        {
+          return super.read( cbuf, off, Math.min( len, 7 ) );
+        }
+      }, null );
+      assertEquals( expected.hasHeader(), actual.hasHeader() );
+      assertEquals( expected.getTypes(), actual.getTypes() );
+      while( true )
+      {
+        CsvToken token = expected.nextToken();
+        CsvToken actualToken = actual.nextToken();
+        assertEquals( token.getValue(), actualToken.getValue() );
+        assertEquals( token.getOffset(), actualToken.getOffset() );
+        assertEquals( token.getLine(), actualToken.getLine() );
+        assertEquals( token.isLastInRecord(), actualToken.isLastInRecord() );
+        assertEquals( token.isEof(), actualToken.isEof() );
+        if( token.isEof() )
+        {
+          break;
+        }
+      }
+    }
+  }
+
   @Test
   public void testPositiveHeaderInferenceMisc() throws IOException
   {
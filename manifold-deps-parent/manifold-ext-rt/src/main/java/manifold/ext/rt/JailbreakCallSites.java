@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext.rt;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import manifold.util.ReflectUtil;
+
+/**
+ * Bootstrap methods for {@code @Jailbreak} access compiled as {@code invokedynamic}, which the compiler emits in place
+ * of {@link ReflectionRuntimeMethods} calls when the {@code manifold.jailbreak.indy} option is set.
+ * <p/>
+ * Each call site is linked once to a method handle for the member, so steady-state access neither allocates argument
+ * arrays nor looks up the member. The call site type erases reference types to {@code Object} because the member's
+ * types may not be accessible to the caller. Where the JVM refuses a method handle, for instance to write a static
+ * final field, the call site falls back to the same reflective call {@link ReflectionRuntimeMethods} makes.
+ */
+@SuppressWarnings( "unused" )
+public class JailbreakCallSites
+{
+  private static final MethodHandle INVOKE;
+  private static final MethodHandle INVOKE_STATIC;
+  private static final MethodHandle GET_FIELD;
+  private static final MethodHandle GET_FIELD_STATIC;
+  private static final MethodHandle SET_FIELD;
+  private static final MethodHandle SET_FIELD_STATIC;
+  private static final MethodHandle CONSTRUCT;
+
+  static
+  {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try
+    {
+      Class<?> rt = ReflectionRuntimeMethods.class;
+      INVOKE = lookup.findStatic( rt, "invoke_Object",
+        MethodType.methodType( Object.class, Object.class, String.class, Class[].class, Object[].class ) );
+      INVOKE_STATIC = lookup.findStatic( rt, "invokeStatic_Object",
+        MethodType.methodType( Object.class, Class.class, String.class, Class[].class, Object[].class ) );
+      GET_FIELD = lookup.findStatic( rt, "getField_Object",
+        MethodType.methodType( Object.class, Object.class, String.class ) );
+      GET_FIELD_STATIC = lookup.findStatic( rt, "getFieldStatic_Object",
+        MethodType.methodType( Object.class, Class.class, String.class ) );
+      SET_FIELD = lookup.findStatic( rt, "setField_Object",
+        MethodType.methodType( Object.class, Object.class, String.class, Object.class ) );
+      SET_FIELD_STATIC = lookup.findStatic( rt, "setFieldStatic_Object",
+        MethodType.methodType( Object.class, Class.class, String.class, Object.class ) );
+      CONSTRUCT = lookup.findStatic( rt, "construct",
+        MethodType.methodType( Object.class, Class.class, Class[].class, Object[].class ) );
+    }
+    catch( ReflectiveOperationException e )
+    {
+      throw new ExceptionInInitializerError( e );
+    }
+  }
+
+  /**
+   * Links a method call. For an instance method the first parameter of {@code type} is the receiver.
+   *
+   * @param owner      The name of the class declaring the method
+   * @param paramTypes The comma separated names of the method's erased parameter types
+   */
+  public static CallSite invoke( MethodHandles.Lookup caller, String name, MethodType type, String owner,
+                                 String paramTypes ) throws ReflectiveOperationException
+  {
+    Class<?> ownerClass = type( caller, owner );
+    Class<?>[] params = types( caller, paramTypes );
+    Method method = ReflectUtil.method( ownerClass, name, params ).getMethod();
+    MethodHandle handle;
+    try
+    {
+      handle = MethodHandles.lookup().unreflect( method );
+    }
+    catch( IllegalAccessException e )
+    {
+      handle = Modifier.isStatic( method.getModifiers() )
+               ? MethodHandles.insertArguments( INVOKE_STATIC, 0, ownerClass, name, params )
+               : MethodHandles.insertArguments( INVOKE, 1, name, params );
+      handle = handle.asCollector( Object[].class, params.length );
+    }
+    return new ConstantCallSite( handle.asType( type ) );
+  }
+
+  /**
+   * Links a field read. For an instance field {@code type} has the receiver as its single parameter.
+   *
+   * @param owner The name of the class declaring the field
+   */
+  public static CallSite getField( MethodHandles.Lookup caller, String name, MethodType type, String owner )
+    throws ReflectiveOperationException
+  {
+    Class<?> ownerClass = type( caller, owner );
+    Field field = ReflectUtil.field( ownerClass, name ).getField();
+    MethodHandle handle;
+    try
+    {
+      handle = MethodHandles.lookup().unreflectGetter( field );
+    }
+    catch( IllegalAccessException e )
+    {
+      handle = Modifier.isStatic( field.getModifiers() )
+               ? MethodHandles.insertArguments( GET_FIELD_STATIC, 0, ownerClass, name )
+               : MethodHandles.insertArguments( GET_FIELD, 1, name );
+    }
+    return new ConstantCallSite( handle.asType( type ) );
+  }
+
+  /**
+   * Links a field assignment, the call site returns the assigned value. For an instance field the first parameter of
+   * {@code type} is the receiver.
+   *
+   * @param owner The name of the class declaring the field
+   */
+  public static CallSite setField( MethodHandles.Lookup caller, String name, MethodType type, String owner )
+    throws ReflectiveOperationException
+  {
+    Class<?> ownerClass = type( caller, owner );
+    Field field = ReflectUtil.field( ownerClass, name ).getField();
+    boolean isStatic = Modifier.isStatic( field.getModifiers() );
+    MethodHandle handle;
+    try
+    {
+      MethodHandle setter = MethodHandles.lookup().unreflectSetter( field );
+      // (receiver, value)void -> (receiver, value)value
+      MethodHandle value = MethodHandles.identity( field.getType() );
+      if( !isStatic )
+      {
+        value = MethodHandles.dropArguments( value, 0, ownerClass );
+      }
+      handle = MethodHandles.foldArguments( value, setter );
+    }
+    catch( IllegalAccessException e )
+    {
+      // e.g., a final field
+      handle = isStatic
+               ? MethodHandles.insertArguments( SET_FIELD_STATIC, 0, ownerClass, name )
+               : MethodHandles.insertArguments( SET_FIELD, 1, name );
+    }
+    return new ConstantCallSite( handle.asType( type ) );
+  }
+
+  /**
+   * Links a constructor call, {@code name} is ignored.
+   *
+   * @param owner      The name of the class to construct
+   * @param paramTypes The comma separated names of the constructor's erased parameter types
+   */
+  public static CallSite construct( MethodHandles.Lookup caller, String name, MethodType type, String owner,
+                                    String paramTypes ) throws ReflectiveOperationException
+  {
+    Class<?> ownerClass = type( caller, owner );
+    Class<?>[] params = types( caller, paramTypes );
+    Constructor<?> constructor = ReflectUtil.constructor( ownerClass, params ).getConstructor();
+    MethodHandle handle;
+    try
+    {
+      handle = MethodHandles.lookup().unreflectConstructor( constructor );
+    }
+    catch( IllegalAccessException e )
+    {
+      handle = MethodHandles.insertArguments( CONSTRUCT, 0, ownerClass, params )
+        .asCollector( Object[].class, params.length );
+    }
+    return new ConstantCallSite( handle.asType( type ) );
+  }
+
+  private static Class<?> type( MethodHandles.Lookup caller, String fqn ) throws ClassNotFoundException
+  {
+    Class<?> cls = ReflectUtil.type( fqn, caller.lookupClass().getClassLoader() );
+    if( cls == null )
+    {
+      throw new ClassNotFoundException( fqn );
+    }
+    return cls;
+  }
+
+  private static Class<?>[] types( MethodHandles.Lookup caller, String fqns ) throws ClassNotFoundException
+  {
+    if( fqns.isEmpty() )
+    {
+      return new Class<?>[0];
+    }
+    String[] names = fqns.split( "," );
+    Class<?>[] types = new Class<?>[names.length];
+    for( int i = 0; i < names.length; i++ )
+    {
+      types[i] = type( caller, names[i] );
+    }
+    return types;
+  }
+}
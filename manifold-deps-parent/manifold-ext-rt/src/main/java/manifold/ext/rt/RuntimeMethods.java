@@ -16,6 +16,7 @@
 
 package manifold.ext.rt;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -36,11 +37,36 @@ import manifold.ext.rt.api.*;
 import manifold.rt.api.util.ServiceUtil;
 import manifold.util.ReflectUtil;
 import manifold.util.ReflectUtil.FakeProxy;
+import manifold.util.concurrent.ConcurrentWeakHashMap;
 import manifold.util.concurrent.LocklessLazyVar;
 
 public class RuntimeMethods
 {
   private static Map<Class, Map<Class, IProxyFactory<?,?>>> PROXY_CACHE = new ConcurrentHashMap<>();
+  /**
+   * Coercers by target type and value class for target types whose classes this class's loader sees, such as
+   * {@code String} or {@code List<Integer>}. Coercers are made by this class, so keeping them here, instead of with a
+   * bootstrap class that never unloads, keeps them from pinning this class's loader. Coercers don't refer to the
+   * value class, which is a weak key.
+   */
+  private static final Map<Type, Map<Class<?>, Function<Object, Object>>> SHARED_COERCERS = new ConcurrentHashMap<>();
+  /**
+   * Coercers of the other target types, kept with a class of the target type that sees all the classes of the type,
+   * see {@link #getCoercerOwner(Type)}. The coercers are collected with that class's loader.
+   */
+  private static final ClassValue<Map<Type, Map<Class<?>, Function<Object, Object>>>> COERCERS =
+    new ClassValue<Map<Type, Map<Class<?>, Function<Object, Object>>>>()
+    {
+      @Override
+      protected Map<Type, Map<Class<?>, Function<Object, Object>>> computeValue( Class<?> owner )
+      {
+        return new ConcurrentHashMap<>();
+      }
+    };
+  /**
+   * Memoizes {@link #getCoercerOwner(Type)} for target types other than classes, both weakly referenced.
+   */
+  private static final Map<Type, WeakReference<Class<?>>> COERCER_OWNERS = new ConcurrentWeakHashMap<>();
   private static final LocklessLazyVar<Set<IProxyFactory>> _registeredProxyFactories =
     LocklessLazyVar.make( () -> {
       Set<IProxyFactory> registered = new HashSet<>();
@@ -63,7 +89,7 @@ public class RuntimeMethods
   @SuppressWarnings({"UnusedDeclaration", "WeakerAccess"})
   public static Object constructProxy( Object root, Class iface )
   {
-    // return findCachedProxy( root, iface ); // this is only beneficial when structural invocation happens in a loop, otherwise too costly
+    // proxies are not cached by default, see ProxyCache for opt-in caching by root identity
     return createNewProxy( root, iface );
   }
 
@@ -85,12 +111,14 @@ public class RuntimeMethods
    * Coerce a value e.g., from a JSON bindings, to a more specific a Java value, using {@link ICoercionProvider}
    * where applicable. Note, for {@code List} the {@code type} corresponds with the deepest component type of the list,
    * see {@code ListCoercer}.
+   * <p/>
+   * The coercion is resolved once per value class and type, see {@link #makeCoercer(Class, Type)}.
    */
   public static Object coerce( Object value, Type t )
   {
-    Class<?> type = t instanceof ParameterizedType ? (Class<?>)((ParameterizedType)t).getRawType() : (Class)t;
     if( value == null )
     {
+      Class<?> type = t instanceof ParameterizedType ? (Class<?>)((ParameterizedType)t).getRawType() : (Class)t;
       if( type.isPrimitive() )
       {
         return defaultPrimitiveValue( type );
@@ -98,93 +126,256 @@ public class RuntimeMethods
       return null;
     }
 
-    if( value instanceof List )
+    Map<Class<?>, Function<Object, Object>> coercerByValueClass = SHARED_COERCERS.get( t );
+    if( coercerByValueClass == null )
     {
-      Object result = callCoercionProviders( value, t );
-      if( result != ICallHandler.UNHANDLED )
+      coercerByValueClass = getCoercers( t );
+      if( coercerByValueClass == null )
       {
-        return result;
+        // no class of the type can hold the coercer
+        return makeCoercer( value.getClass(), t ).apply( value );
       }
-      return value;
     }
-
-    if( type.isPrimitive() )
+    Function<Object, Object> coercer = coercerByValueClass.get( value.getClass() );
+    if( coercer == null )
     {
-      type = ManClassUtil.box( type );
+      coercer = makeCoercer( value.getClass(), t );
+      coercerByValueClass.put( value.getClass(), coercer );
     }
+    return coercer.apply( value );
+  }
 
-    Class<?> valueClass = value.getClass();
-    if( valueClass == type || type.isAssignableFrom( valueClass ) )
+  /**
+   * @return The coercers of {@code t} by value class, or null if they can't be cached
+   */
+  private static Map<Class<?>, Function<Object, Object>> getCoercers( Type t )
+  {
+    Class<?> owner;
+    if( t instanceof Class )
     {
-      return value;
+      owner = (Class<?>)t;
+    }
+    else
+    {
+      WeakReference<Class<?>> ownerRef = COERCER_OWNERS.get( t );
+      if( ownerRef == null )
+      {
+        ownerRef = new WeakReference<>( getCoercerOwner( t ) );
+        COERCER_OWNERS.put( t, ownerRef );
+      }
+      owner = ownerRef.get();
+    }
+    if( owner == null )
+    {
+      return null;
     }
 
-    Object result = callCoercionProviders( value, t );
-    if( result != ICallHandler.UNHANDLED )
+    if( isAncestorLoader( owner.getClassLoader(), RuntimeMethods.class.getClassLoader() ) )
+    {
+      return SHARED_COERCERS.computeIfAbsent( t, key -> new ConcurrentWeakHashMap<>() );
+    }
+    Map<Class<?>, Function<Object, Object>> coercerByValueClass = COERCERS.get( owner ).get( t );
+    if( coercerByValueClass == null )
     {
-      return result;
+      coercerByValueClass = COERCERS.get( owner ).computeIfAbsent( t, key -> new ConcurrentWeakHashMap<>() );
     }
+    return coercerByValueClass;
+  }
 
-    if( value instanceof String && ((String)value).isEmpty() && type != String.class )
+  /**
+   * @return The class of {@code t} whose class loader sees all the other classes of {@code t}, or null if there is no
+   * such class or if {@code t} has type variables.
+   */
+  private static Class<?> getCoercerOwner( Type t )
+  {
+    if( t instanceof Class )
+    {
+      return (Class<?>)t;
+    }
+    Type[] types;
+    if( t instanceof ParameterizedType )
+    {
+      ParameterizedType parameterizedType = (ParameterizedType)t;
+      types = Arrays.copyOf( parameterizedType.getActualTypeArguments(),
+        parameterizedType.getActualTypeArguments().length + 1 );
+      types[types.length - 1] = parameterizedType.getRawType();
+    }
+    else if( t instanceof WildcardType )
+    {
+      WildcardType wildcardType = (WildcardType)t;
+      types = new Type[wildcardType.getUpperBounds().length + wildcardType.getLowerBounds().length];
+      System.arraycopy( wildcardType.getUpperBounds(), 0, types, 0, wildcardType.getUpperBounds().length );
+      System.arraycopy( wildcardType.getLowerBounds(), 0, types, wildcardType.getUpperBounds().length,
+        wildcardType.getLowerBounds().length );
+    }
+    else if( t instanceof GenericArrayType )
+    {
+      types = new Type[] {((GenericArrayType)t).getGenericComponentType()};
+    }
+    else
     {
-      // empty string is null e.g., CSV empty values are empty strings
       return null;
     }
 
-    Object boxedValue = coerceBoxed( value, type );
-    if( boxedValue != null )
+    Class<?> owner = Object.class;
+    for( Type type: types )
     {
-      return boxedValue;
+      Class<?> cls = getCoercerOwner( type );
+      if( cls == null )
+      {
+        return null;
+      }
+      if( isAncestorLoader( owner.getClassLoader(), cls.getClassLoader() ) )
+      {
+        owner = cls;
+      }
+      else if( !isAncestorLoader( cls.getClassLoader(), owner.getClassLoader() ) )
+      {
+        return null;
+      }
     }
+    return owner;
+  }
 
-    if( type == BigInteger.class )
+  private static boolean isAncestorLoader( ClassLoader ancestor, ClassLoader loader )
+  {
+    if( ancestor == null )
     {
-      if( value instanceof Number )
+      // bootstrap
+      return true;
+    }
+    for( ; loader != null; loader = loader.getParent() )
+    {
+      if( loader == ancestor )
       {
-        return BigInteger.valueOf( ((Number)value).longValue() );
+        return true;
       }
-      if( value instanceof Boolean )
+    }
+    return false;
+  }
+
+  /**
+   * Resolves the coercion of {@code valueClass} values to {@code t}. Coercion providers are still called per value
+   * since their results may depend on the value, but only the ones that {@link ICoercionProvider#handles} the pair.
+   */
+  private static Function<Object, Object> makeCoercer( Class<?> valueClass, Type t )
+  {
+    Class<?> type = t instanceof ParameterizedType ? (Class<?>)((ParameterizedType)t).getRawType() : (Class)t;
+    ICoercionProvider[] providers = CoercionProviders.get().stream()
+      .filter( provider -> provider.handles( valueClass, t ) )
+      .toArray( ICoercionProvider[]::new );
+
+    if( List.class.isAssignableFrom( valueClass ) )
+    {
+      return withCoercionProviders( providers, t, Function.identity() );
+    }
+
+    if( type.isPrimitive() )
+    {
+      type = ManClassUtil.box( type );
+    }
+
+    if( valueClass == type || type.isAssignableFrom( valueClass ) )
+    {
+      return Function.identity();
+    }
+
+    Function<Object, Object> coercer = makeBuiltinCoercer( valueClass, type );
+    if( valueClass == String.class && type != String.class )
+    {
+      // empty string is null e.g., CSV empty values are empty strings
+      Function<Object, Object> nonEmptyCoercer = coercer;
+      coercer = value -> ((String)value).isEmpty() ? null : nonEmptyCoercer.apply( value );
+    }
+    return withCoercionProviders( providers, t, coercer );
+  }
+
+  private static Function<Object, Object> withCoercionProviders( ICoercionProvider[] providers, Type t,
+                                                                 Function<Object, Object> unhandled )
+  {
+    if( providers.length == 0 )
+    {
+      return unhandled;
+    }
+    return value -> {
+      for( ICoercionProvider coercer: providers )
       {
-        return ((Boolean)value) ? BigInteger.ONE : BigInteger.ZERO;
+        Object coercedValue = coercer.coerce( value, t );
+        if( coercedValue != ICallHandler.UNHANDLED )
+        {
+          return coercedValue;
+        }
       }
-      return new BigInteger( value.toString() );
+      return unhandled.apply( value );
+    };
+  }
+
+  private static Function<Object, Object> makeBuiltinCoercer( Class<?> valueClass, Class<?> type )
+  {
+    if( isBoxed( type ) )
+    {
+      return value -> coerceBoxed( value, type );
+    }
+
+    if( type == BigInteger.class )
+    {
+      return value -> {
+        if( value instanceof Number )
+        {
+          return BigInteger.valueOf( ((Number)value).longValue() );
+        }
+        if( value instanceof Boolean )
+        {
+          return ((Boolean)value) ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        return new BigInteger( value.toString() );
+      };
     }
 
     if( type == BigDecimal.class )
     {
-      if( value instanceof Boolean )
-      {
-        return ((Boolean)value) ? BigDecimal.ONE : BigDecimal.ZERO;
-      }
-      return new BigDecimal( value.toString() );
+      return value -> {
+        if( value instanceof Boolean )
+        {
+          return ((Boolean)value) ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+        return new BigDecimal( value.toString() );
+      };
     }
 
     if( type == String.class )
     {
-      return String.valueOf( value );
+      return String::valueOf;
     }
 
     if( type.isEnum() )
     {
-      String name = String.valueOf( value );
       //noinspection unchecked
-      return Enum.valueOf( (Class<Enum>)type, name );
+      return value -> Enum.valueOf( (Class<Enum>)type, String.valueOf( value ) );
     }
 
     if( type.isArray() && valueClass.isArray() )
     {
-      int length = Array.getLength( value );
       Class<?> componentType = type.getComponentType();
-      Object array = Array.newInstance( componentType, length );
-      for( int i = 0; i < length; i++ )
-      {
-        Array.set( array, i, coerce( Array.get( value, i ), componentType ) );
-      }
-      return array;
+      return value -> {
+        int length = Array.getLength( value );
+        Object array = Array.newInstance( componentType, length );
+        for( int i = 0; i < length; i++ )
+        {
+          Array.set( array, i, coerce( Array.get( value, i ), componentType ) );
+        }
+        return array;
+      };
     }
 
     // let the ClassCastException happen
-    return value;
+    return Function.identity();
+  }
+
+  private static boolean isBoxed( Class<?> type )
+  {
+    return type == Boolean.class || type == Byte.class || type == Character.class || type == Short.class ||
+           type == Integer.class || type == Long.class || type == Float.class || type == Double.class;
   }
 
   private static Object defaultPrimitiveValue( Class<?> type )
@@ -326,19 +517,6 @@ public class RuntimeMethods
     return null;
   }
 
-  private static Object callCoercionProviders( Object value, Type type )
-  {
-    for( ICoercionProvider coercer: CoercionProviders.get() )
-    {
-      Object coercedValue = coercer.coerce( value, type );
-      if( coercedValue != ICallHandler.UNHANDLED )
-      {
-        return coercedValue;
-      }
-    }
-    return ICallHandler.UNHANDLED;
-  }
-
   private static Method findMethod( Class<?> iface, String name, Class[] paramTypes )
   {
     try
@@ -380,6 +558,16 @@ public class RuntimeMethods
       return root;
     }
 
+    boolean cacheProxy = ProxyCache.isEnabled();
+    if( cacheProxy )
+    {
+      Object proxy = ProxyCache.get( root, iface );
+      if( proxy != null )
+      {
+        return proxy;
+      }
+    }
+
     Map<Class, IProxyFactory<?,?>> proxyByClass = PROXY_CACHE.get( iface );
     if( proxyByClass == null )
     {
@@ -397,7 +585,8 @@ public class RuntimeMethods
       // therefore we need to make it accessible from the manifold module before
       // calling newInstance()
       //noinspection unchecked
-      return proxyFactory.proxy( root, iface );
+      Object proxy = proxyFactory.proxy( root, iface );
+      return cacheProxy && proxy != root ? ProxyCache.putIfAbsent( root, iface, proxy ) : proxy;
     }
     catch( Exception e )
     {
@@ -421,6 +610,31 @@ public class RuntimeMethods
     return proxyFactory;
   }
 
+  /**
+   * Finds the method a structural call to {@code method} on an instance of {@code rootClass} executes, without making
+   * a proxy.
+   *
+   * @return {@code method} itself if {@code rootClass} nominally implements {@code iface}, otherwise the public method
+   * of {@code rootClass} the proxy would forward {@code method} to as-is, or null if the call must go through the proxy
+   */
+  public static Method findStructuralTarget( Class<?> iface, Class<?> rootClass, Method method )
+  {
+    if( iface.isAssignableFrom( rootClass ) )
+    {
+      return method;
+    }
+    if( maybeSelfProxyClass( rootClass, iface ) != null )
+    {
+      return null;
+    }
+    IDynamicProxyFactory dynamicProxyFactory = _dynamicProxyFactory.get();
+    if( dynamicProxyFactory == null || rootClass.isAnonymousClass() )
+    {
+      return null;
+    }
+    return dynamicProxyFactory.findForwardingMethod( iface, rootClass, method );
+  }
+
   private static IProxyFactory makeDynamicProxyNoManifoldRuntimeHost( Class rootClass, Class intface )
   {
     if( Map.class.isAssignableFrom( rootClass ) )
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext.rt;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import manifold.util.ManExceptionUtil;
+
+/**
+ * Links structural interface calls compiled as {@code invokedynamic}, which the compiler emits in place of
+ * {@code ((Iface)RuntimeMethods.constructProxy(root, Iface.class)).method(args)} when the
+ * {@code manifold.structural.indy} option is set.
+ * <p/>
+ * Each call site keeps an inline cache of up to {@link #MAX_DEPTH} receiver classes, beyond that the site is
+ * megamorphic and dispatches through a per-class table. For a given receiver class the call is linked to one of:
+ * <ul>
+ * <li>the interface method, if the class nominally implements the interface</li>
+ * <li>the root class method the proxy would forward to, invoked directly on the receiver without making a proxy</li>
+ * <li>the interface method invoked on a proxy, same as the non-indy call, for everything else such as field
+ * accessors, extension methods, default methods, and call handlers</li>
+ * </ul>
+ */
+@SuppressWarnings( "unused" )
+public class StructuralCallSites
+{
+  private static final int MAX_DEPTH = 8;
+
+  private static final MethodHandle CHECK_CLASS;
+  private static final MethodHandle RELINK;
+  private static final MethodHandle DISPATCH;
+  private static final MethodHandle COERCE;
+  private static final MethodHandle CONSTRUCT_PROXY;
+
+  static
+  {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try
+    {
+      CHECK_CLASS = lookup.findStatic( StructuralCallSites.class, "checkClass",
+        MethodType.methodType( boolean.class, Class.class, Object.class ) );
+      RELINK = lookup.findVirtual( InlineCache.class, "relink",
+        MethodType.methodType( MethodHandle.class, Object.class ) );
+      DISPATCH = lookup.findVirtual( InlineCache.class, "dispatch",
+        MethodType.methodType( MethodHandle.class, Object.class ) );
+      COERCE = lookup.findStatic( RuntimeMethods.class, "coerce",
+        MethodType.methodType( Object.class, Object.class, Type.class ) );
+      CONSTRUCT_PROXY = lookup.findStatic( RuntimeMethods.class, "constructProxy",
+        MethodType.methodType( Object.class, Object.class, Class.class ) );
+    }
+    catch( ReflectiveOperationException e )
+    {
+      throw new ExceptionInInitializerError( e );
+    }
+  }
+
+  /**
+   * @param type The call site type, the first parameter is the erased structural interface the call is made on
+   */
+  public static CallSite bootstrap( MethodHandles.Lookup caller, String name, MethodType type )
+    throws NoSuchMethodException
+  {
+    Class<?> iface = type.parameterType( 0 );
+    Method method = iface.getMethod( name, type.dropParameterTypes( 0, 1 ).parameterArray() );
+    return new InlineCache( caller, iface, method, type );
+  }
+
+  private static boolean checkClass( Class<?> cls, Object receiver )
+  {
+    return receiver != null && receiver.getClass() == cls;
+  }
+
+  private static class InlineCache extends MutableCallSite
+  {
+    private final MethodHandles.Lookup _caller;
+    private final Class<?> _iface;
+    private final Method _method;
+    /** The call site type with an Object receiver, all linked handles have this type */
+    private final MethodType _genericType;
+    private final ClassValue<MethodHandle> _handles;
+    private int _depth;
+
+    private InlineCache( MethodHandles.Lookup caller, Class<?> iface, Method method, MethodType type )
+    {
+      super( type );
+      _caller = caller;
+      _iface = iface;
+      _method = method;
+      _genericType = type.changeParameterType( 0, Object.class );
+      _handles = new ClassValue<MethodHandle>()
+      {
+        @Override
+        protected MethodHandle computeValue( Class<?> cls )
+        {
+          return link( cls );
+        }
+      };
+      // note the arguments are never cast to their parameter types, a structural argument is likely not an instance
+      // of its interface type
+      setTarget( MethodHandles.foldArguments( MethodHandles.exactInvoker( type ),
+        RELINK.bindTo( this ).asType( MethodType.methodType( MethodHandle.class, iface ) ) ) );
+    }
+
+    /**
+     * Links the receiver's class and adds it to the inline cache
+     *
+     * @return The handle to invoke for the receiver
+     */
+    synchronized MethodHandle relink( Object receiver )
+    {
+      if( receiver == null )
+      {
+        throw new NullPointerException();
+      }
+      Class<?> cls = receiver.getClass();
+      MethodHandle handle = _handles.get( cls ).asType( type() );
+      if( _depth < MAX_DEPTH )
+      {
+        MethodHandle test = CHECK_CLASS.bindTo( cls ).asType( MethodType.methodType( boolean.class, _iface ) );
+        setTarget( MethodHandles.guardWithTest( test, handle, getTarget() ) );
+      }
+      else if( _depth == MAX_DEPTH )
+      {
+        // megamorphic
+        MethodHandle invoker = MethodHandles.foldArguments(
+          MethodHandles.exactInvoker( _genericType ), DISPATCH.bindTo( this ) );
+        setTarget( invoker.asType( type() ) );
+      }
+      _depth++;
+      return handle;
+    }
+
+    MethodHandle dispatch( Object receiver )
+    {
+      return _handles.get( receiver.getClass() );
+    }
+
+    private MethodHandle link( Class<?> cls )
+    {
+      String name = _method.getName();
+      MethodType methodType = MethodType.methodType( _method.getReturnType(), _method.getParameterTypes() );
+      try
+      {
+        Method target = RuntimeMethods.findStructuralTarget( _iface, cls, _method );
+        if( _method.equals( target ) )
+        {
+          // nominal call
+          return _caller.findVirtual( _iface, name, methodType ).asType( _genericType );
+        }
+        if( target != null )
+        {
+          MethodHandle handle = linkDirect( cls, target );
+          if( handle != null )
+          {
+            return handle;
+          }
+        }
+
+        // call through the proxy
+        MethodHandle proxy = MethodHandles.insertArguments( CONSTRUCT_PROXY, 1, _iface )
+          .asType( MethodType.methodType( _iface, Object.class ) );
+        return MethodHandles.filterArguments( _caller.findVirtual( _iface, name, methodType ), 0, proxy )
+          .asType( _genericType );
+      }
+      catch( ReflectiveOperationException e )
+      {
+        throw ManExceptionUtil.unchecked( e );
+      }
+    }
+
+    /**
+     * Invokes {@code target} directly on the receiver, converting the result the same way the proxy does
+     */
+    private MethodHandle linkDirect( Class<?> cls, Method target )
+    {
+      MethodHandle handle;
+      try
+      {
+        handle = _caller.findVirtual( cls, target.getName(),
+          MethodType.methodType( target.getReturnType(), target.getParameterTypes() ) );
+      }
+      catch( ReflectiveOperationException e )
+      {
+        // not accessible from the caller, the proxy can still make the call
+        return null;
+      }
+
+      Class<?> returnType = _method.getReturnType();
+      if( !returnType.isPrimitive() )
+      {
+        handle = MethodHandles.filterReturnValue( handle.asType( handle.type().changeReturnType( Object.class ) ),
+          MethodHandles.insertArguments( COERCE, 1, returnType ) );
+      }
+      return handle.asType( _genericType );
+    }
+  }
+}
@@ -38,6 +38,20 @@ public interface ICoercionProvider
    */
   Object coerce( Object value, Type type );
 
+  /**
+   * Answers whether this provider may coerce values of class {@code valueClass} to {@code type}. The answer is cached
+   * per class and type pair, if false {@link #coerce(Object, Type)} is never called for the pair. Override this method
+   * to skip providers whose coercions are determined by class, the default implementation returns true.
+   * @param valueClass The class of values to coerce.
+   * @param type The type to convert to.
+   * @return False only if {@link #coerce(Object, Type)} returns {@link ICallHandler#UNHANDLED} for all values of
+   * {@code valueClass}.
+   */
+  default boolean handles( Class<?> valueClass, Type type )
+  {
+    return true;
+  }
+
   /**
    * Coerce {@code value} parameter to a value suitable for a {@link manifold.rt.api.Bindings} e.g., a JSON bindings.
    * It is imperative that this method coerces only between the JSON types and Java types it explicitly
@@ -16,7 +16,19 @@
 
 package manifold.ext.rt.api;
 
+import java.lang.reflect.Method;
+
 public interface IDynamicProxyFactory
 {
   IProxyFactory makeProxyFactory( Class iface, Class rootClass );
+
+  /**
+   * @return The public method of {@code rootClass} a proxy made by this factory forwards {@code method} to as-is, or
+   * null if the proxy does anything else with {@code method}. Callers may invoke the returned method directly on the
+   * root object in place of calling {@code method} on a proxy.
+   */
+  default Method findForwardingMethod( Class iface, Class rootClass, Method method )
+  {
+    return null;
+  }
 }
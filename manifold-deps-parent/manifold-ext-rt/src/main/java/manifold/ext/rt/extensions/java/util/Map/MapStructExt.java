@@ -17,9 +17,12 @@
 package manifold.ext.rt.extensions.java.util.Map;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import manifold.ext.rt.api.IBindingsBacked;
 import manifold.rt.api.ActualName;
@@ -28,6 +31,7 @@ import manifold.ext.rt.RuntimeMethods;
 import manifold.ext.rt.api.Extension;
 import manifold.ext.rt.api.ICallHandler;
 import manifold.ext.rt.api.This;
+import manifold.rt.api.util.ManClassUtil;
 import manifold.util.ReflectUtil;
 
 /**
@@ -48,23 +52,13 @@ public abstract class MapStructExt implements ICallHandler
   {
     assert method.getParameterCount() == (args == null ? 0 : args.length);
 
-    String methodName = method.getName();
-    Object result;
-    if( method.isDefault() )
+    Map<Method, AccessorPlan> plans = PLANS.get( method.getDeclaringClass() );
+    AccessorPlan plan = plans.get( method );
+    if( plan == null )
     {
-      result = ReflectUtil.invokeDefault( proxy, method, args );
+      plan = plans.computeIfAbsent( method, AccessorPlan::new );
     }
-    else
-    {
-      String actualName = null;
-      if( methodName.startsWith( "get" ) || methodName.startsWith( "is" ) || methodName.startsWith( "set" ) ||
-        methodName.startsWith( "with" ) )
-      {
-        actualName = getActualName( method );
-      }
-      result = invoke( bindings, proxy, method.getName(), actualName, method.getReturnType(), method.getGenericReturnType(), method.getParameterTypes(), args );
-    }
-    return result;
+    return plan.invoke( bindings, proxy, args );
   }
 
   private static Object invoke( Map bindings, Object proxy, String methodName, String actualName, Class<?> returnType, Type genReturnType, Class[] paramTypes, Object[] args )
@@ -239,6 +233,29 @@ public abstract class MapStructExt implements ICallHandler
     return ReflectUtil.lambdaMethod( value.getClass() ).invoke( value, args );
   }
 
+  /**
+   * Index of the property name following {@code prefix} in accessor {@code name}, or -1 if {@code name} is not an
+   * accessor with the prefix.
+   */
+  private static int propertyStart( String name, String prefix )
+  {
+    int len = prefix.length();
+    if( name.length() > len && name.startsWith( prefix ) )
+    {
+      char c = name.charAt( len );
+      if( c == '_' && name.length() > len + 1 )
+      {
+        len++;
+        c = Character.toUpperCase( name.charAt( len ) );
+      }
+      if( Character.isUpperCase( c ) )
+      {
+        return len;
+      }
+    }
+    return -1;
+  }
+
   private static String getActualName( Method method )
   {
     ActualName actualNameAnno = method.getAnnotation( ActualName.class );
@@ -261,4 +278,151 @@ public abstract class MapStructExt implements ICallHandler
       ? obj.equals( bindings )
       : obj instanceof IBindingsBacked && bindings.equals( ((IBindingsBacked)obj).getBindings() );
   }
+
+  private static final ClassValue<Map<Method, AccessorPlan>> PLANS = new ClassValue<Map<Method, AccessorPlan>>()
+  {
+    @Override
+    protected Map<Method, AccessorPlan> computeValue( Class<?> type )
+    {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * The decoded form of an interface method called on a map. Decoding the accessor prefix, the property key, and the
+   * {@link ActualName} annotation happens once per method, so a getter call is a map lookup followed by coercion of
+   * the value, which is skipped if the value is already an instance of the return type.
+   * <p/>
+   * Note the property key is resolved against the map's keys on each call, since the map's content may change.
+   */
+  private static class AccessorPlan
+  {
+    private enum Kind
+    {
+      Default, Getter, Setter, Other
+    }
+
+    private final Method _method;
+    private final Kind _kind;
+    private final String _actualName;
+    private final String _upperKey;
+    private final String _lowerKey;
+    private final Class<?>[] _paramTypes;
+    private final Type _genReturnType;
+    private final Class<?> _returnClass;
+
+    private AccessorPlan( Method method )
+    {
+      _method = method;
+      _paramTypes = method.getParameterTypes();
+      _genReturnType = method.getGenericReturnType();
+      Class<?> returnType = method.getReturnType();
+      _returnClass = _genReturnType instanceof Class || _genReturnType instanceof ParameterizedType
+        ? returnType.isPrimitive() && returnType != void.class ? ManClassUtil.box( returnType ) : returnType
+        : null;
+
+      String name = method.getName();
+      _actualName = name.startsWith( "get" ) || name.startsWith( "is" ) || name.startsWith( "set" ) || name.startsWith( "with" )
+        ? getActualName( method )
+        : null;
+
+      int start = -1;
+      if( method.isDefault() )
+      {
+        _kind = Kind.Default;
+      }
+      else if( returnType != void.class && _paramTypes.length == 0 && !name.equals( "getBindings" ) &&
+        ((start = propertyStart( name, "get" )) >= 0 || (start = propertyStart( name, "is" )) >= 0) )
+      {
+        _kind = Kind.Getter;
+      }
+      else if( returnType == void.class && _paramTypes.length == 1 &&
+        ((start = propertyStart( name, "set" )) >= 0 || (start = propertyStart( name, "with" )) >= 0) )
+      {
+        _kind = Kind.Setter;
+      }
+      else
+      {
+        _kind = Kind.Other;
+      }
+
+      if( start >= 0 )
+      {
+        char c = name.charAt( start );
+        if( name.charAt( start - 1 ) == '_' )
+        {
+          c = Character.toUpperCase( c );
+        }
+        _upperKey = name.substring( start );
+        _lowerKey = Character.toLowerCase( c ) + name.substring( 1 );
+      }
+      else
+      {
+        _upperKey = _lowerKey = null;
+      }
+    }
+
+    private Object invoke( Map bindings, Object proxy, Object[] args )
+    {
+      switch( _kind )
+      {
+        case Default:
+          return ReflectUtil.invokeDefault( proxy, _method, args );
+        case Getter:
+          return coerce( getValue( bindings ) );
+        case Setter:
+          Object arg = args[0];
+          if( bindings instanceof Bindings )
+          {
+            arg = RuntimeMethods.coerceToBindingValue( arg );
+          }
+          //noinspection unchecked
+          bindings.put( findKey( bindings ), arg );
+          return null;
+        default:
+          return MapStructExt.invoke( bindings, proxy, _method.getName(), _actualName, _method.getReturnType(),
+            _genReturnType, _paramTypes, args );
+      }
+    }
+
+    private Object getValue( Map bindings )
+    {
+      if( _actualName != null )
+      {
+        return bindings.get( _actualName );
+      }
+      Object value = bindings.get( _upperKey );
+      if( value != null || bindings.containsKey( _upperKey ) )
+      {
+        return value;
+      }
+      return bindings.containsKey( _lowerKey ) ? bindings.get( _lowerKey ) : null;
+    }
+
+    private String findKey( Map bindings )
+    {
+      if( _actualName != null )
+      {
+        return _actualName;
+      }
+      if( bindings.containsKey( _upperKey ) )
+      {
+        return _upperKey;
+      }
+      if( bindings.containsKey( _lowerKey ) )
+      {
+        return _lowerKey;
+      }
+      return _upperKey;
+    }
+
+    private Object coerce( Object value )
+    {
+      if( value != null && _returnClass != null && !(value instanceof List) && _returnClass.isInstance( value ) )
+      {
+        return value;
+      }
+      return RuntimeMethods.coerceFromBindingsValue( value, _genReturnType );
+    }
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import manifold.ext.rt.RuntimeMethods;
+
+public class CoercionCacheTest extends TestCase
+{
+  @SuppressWarnings( "unused" )
+  private static List<Integer> _listOfInteger;
+
+  public void testCachedCoercion() throws Exception
+  {
+    Type listOfInteger = CoercionCacheTest.class.getDeclaredField( "_listOfInteger" ).getGenericType();
+    for( int i = 0; i < 2; i++ )
+    {
+      assertEquals( "5", RuntimeMethods.coerce( 5, String.class ) );
+      assertEquals( 5L, RuntimeMethods.coerce( "5", Long.class ) );
+      assertEquals( Arrays.asList( 1, 2 ), RuntimeMethods.coerce( Arrays.asList( 1, 2 ), listOfInteger ) );
+    }
+  }
+
+  public void testLoaderUnloadsAfterBootstrapTargetCoercion() throws Exception
+  {
+    WeakReference<ClassLoader> loader = coerceInThrowawayLoader();
+    for( int i = 0; i < 50 && loader.get() != null; i++ )
+    {
+      System.gc();
+      Thread.sleep( 10 );
+    }
+    assertNull( "the coercer cache pins the loader of RuntimeMethods", loader.get() );
+  }
+
+  /**
+   * Coerces to bootstrap target types with a copy of RuntimeMethods defined by a new loader.
+   */
+  private static WeakReference<ClassLoader> coerceInThrowawayLoader() throws Exception
+  {
+    List<URL> urls = new ArrayList<>();
+    for( String path : System.getProperty( "java.class.path" ).split( File.pathSeparator ) )
+    {
+      urls.add( new File( path ).toURI().toURL() );
+    }
+    // the system loader's parent, so RuntimeMethods and its dependencies are defined by the throwaway loader
+    try( URLClassLoader loader = new URLClassLoader( urls.toArray( new URL[0] ),
+      ClassLoader.getSystemClassLoader().getParent() ) )
+    {
+      Class<?> runtimeMethods = loader.loadClass( RuntimeMethods.class.getName() );
+      assertSame( loader, runtimeMethods.getClassLoader() );
+      Method coerce = runtimeMethods.getMethod( "coerce", Object.class, Type.class );
+      Type listOfInteger = CoercionCacheTest.class.getDeclaredField( "_listOfInteger" ).getGenericType();
+      for( int i = 0; i < 2; i++ )
+      {
+        assertEquals( "5", coerce.invoke( null, 5, String.class ) );
+        assertEquals( 5L, coerce.invoke( null, "5", Long.class ) );
+        assertEquals( 5, coerce.invoke( null, 5L, int.class ) );
+        assertEquals( Arrays.asList( 1, 2 ), coerce.invoke( null, Arrays.asList( 1, 2 ), listOfInteger ) );
+      }
+      return new WeakReference<>( loader );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+}
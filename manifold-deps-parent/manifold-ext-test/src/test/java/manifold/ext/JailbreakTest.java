@@ -1,10 +1,14 @@
 package manifold.ext;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 import junit.framework.TestCase;
+import manifold.ext.rt.JailbreakCallSites;
 import manifold.ext.rt.api.Jailbreak;
 import manifold.ext.stuff.Leaf;
 import manifold.ext.stuff.Sample;
@@ -193,4 +197,26 @@ public class JailbreakTest extends TestCase
     HashMap.Entry<String, String> entry = new HashMap.SimpleEntry<>( "k", "v" );
     assertSame( entry, s.innerClassParam( entry ) );
   }
-}
\ No newline at end of file
+
+  public void testCallSites() throws Throwable
+  {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle construct = JailbreakCallSites.construct( lookup, "new",
+      MethodType.methodType( Object.class ), "manifold.ext.stuff.Sample", "" ).dynamicInvoker();
+    Object s = construct.invoke();
+    assertTrue( s instanceof Sample );
+
+    MethodHandle setField = JailbreakCallSites.setField( lookup, "_intField",
+      MethodType.methodType( int.class, Object.class, int.class ), "manifold.ext.stuff.Sample" ).dynamicInvoker();
+    MethodHandle getField = JailbreakCallSites.getField( lookup, "_intField",
+      MethodType.methodType( int.class, Object.class ), "manifold.ext.stuff.Sample" ).dynamicInvoker();
+    assertEquals( 7, (int)setField.invokeExact( s, 7 ) );
+    assertEquals( 7, (int)getField.invokeExact( s ) );
+
+    MethodHandle invoke = JailbreakCallSites.invoke( lookup, "primArrayParam",
+      MethodType.methodType( Object.class, Object.class, Object.class ), "manifold.ext.stuff.Sample", "int[][]" )
+      .dynamicInvoker();
+    int[][] param = new int[][]{{1}};
+    assertSame( param, invoke.invoke( s, param ) );
+  }
+}
@@ -59,6 +59,24 @@ public class MapStructTest extends TestCase
     assertEquals( 1.0, mapStuff.get_Double() );
   }
 
+  public void testKeyResolvedPerCall()
+  {
+    HashMap<String, Object> map = new HashMap<>();
+    IStuff mapStuff = (IStuff)map;
+
+    assertEquals( 0, mapStuff.get_int() );
+    assertNull( mapStuff.get_Integer() );
+    map.put( "int", 5 );
+    assertEquals( 5, mapStuff.get_int() );
+    map.put( "Integer", "7" );
+    assertEquals( Integer.valueOf( 7 ), mapStuff.get_Integer() );
+
+    assertFalse( mapStuff.isReady() );
+    mapStuff.setReady( true );
+    assertEquals( true, map.get( "Ready" ) );
+    assertTrue( mapStuff.isReady() );
+  }
+
   @Structural
   interface IStuff
   {
@@ -68,6 +86,8 @@ public class MapStructTest extends TestCase
     void set_Double( Double d );
     int get_int();
     Integer get_Integer();
+    boolean isReady();
+    void setReady( boolean ready );
   }
 
 }
@@ -0,0 +1,96 @@
+package manifold.ext.indy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.HashMap;
+
+import junit.framework.TestCase;
+import manifold.ext.rt.api.Jailbreak;
+import manifold.ext.stuff.Sample;
+import manifold.util.ReflectUtil;
+
+/**
+ * Compiled with {@code -Amanifold.jailbreak.indy=true}, see the {@code indy-testCompile} execution in this module's
+ * pom, so {@code @Jailbreak} access here is linked by {@code JailbreakCallSites}.
+ */
+public class JailbreakIndyTest extends TestCase
+{
+  public void testCompiledAsInvokedynamic() throws IOException
+  {
+    String constants = readClassFile();
+    assertTrue( constants.contains( "manifold/ext/rt/JailbreakCallSites" ) );
+    assertFalse( constants.contains( "manifold/ext/rt/ReflectionRuntimeMethods" ) );
+  }
+
+  public void testConstructor()
+  {
+    manifold.ext.stuff.@Jailbreak SecretParam secretParam =
+      new manifold.ext.stuff.@Jailbreak SecretParam();
+    manifold.ext.stuff.@Jailbreak SecretClass secret =
+      new manifold.ext.stuff.@Jailbreak SecretClass( secretParam );
+    assertSame( secretParam, secret.getParam() );
+  }
+
+  public void testFieldGetSet()
+  {
+    @Jailbreak Sample s = new Sample();
+    s._intField = 7;
+    assertEquals( 7, s._intField );
+    int i = s._intField = 8;
+    assertEquals( 8, i );
+    s._longField = Long.MAX_VALUE;
+    assertEquals( Long.MAX_VALUE, s._longField );
+    s._doubleField = 1.5;
+    assertEquals( 1.5, s._doubleField, 0 );
+    s._stringField = "hello";
+    assertEquals( "hello", s._stringField );
+
+    manifold.ext.stuff.@Jailbreak SecretParam secretParam =
+      new manifold.ext.stuff.@Jailbreak SecretParam();
+    secretParam._foo = 9;
+    assertEquals( 9, secretParam._foo );
+
+    // static field
+    @Jailbreak LocalTime staticTime = null;
+    assertEquals( ReflectUtil.field( LocalTime.class, "HOURS_PER_DAY" ).getStatic(), staticTime.HOURS_PER_DAY );
+  }
+
+  public void testMethodCall()
+  {
+    @Jailbreak Sample s = new Sample();
+    assertEquals( 5, s.primParam( 5 ) );
+    assertEquals( "hi", s.classParam( "hi" ) );
+    int[][] ints = {{1}};
+    assertSame( ints, s.primArrayParam( ints ) );
+    String[][] strings = {{"a"}};
+    assertSame( strings, s.classArrayParam( strings ) );
+    HashMap.Entry<String, String> entry = new HashMap.SimpleEntry<>( "k", "v" );
+    assertSame( entry, s.innerClassParam( entry ) );
+
+    // static method
+    @Jailbreak LocalTime staticTime = null;
+    LocalTime localTime = staticTime.create( 7, 59, 30, 99 );
+    assertEquals( LocalTime.of( 7, 59, 30, 99 ), localTime );
+
+    // nested calls through the same call sites
+    assertEquals( 3, s.primParam( s.primParam( 3 ) ) );
+  }
+
+  private static String readClassFile() throws IOException
+  {
+    try( InputStream in = JailbreakIndyTest.class.getResourceAsStream( "JailbreakIndyTest.class" ) )
+    {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buf = new byte[4096];
+      for( int read; (read = in.read( buf )) > 0; )
+      {
+        out.write( buf, 0, read );
+      }
+      // class file constants are modified UTF-8, ascii names read back as is
+      return new String( out.toByteArray(), StandardCharsets.ISO_8859_1 );
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext.rt;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+public class ProxyCacheTest extends TestCase
+{
+  // enough entries in one stripe to resize its table of 16 twice
+  private static final int ROOTS = 64;
+
+  @Override
+  protected void setUp() throws Exception
+  {
+    ProxyCache.clear();
+  }
+
+  @Override
+  protected void tearDown() throws Exception
+  {
+    ProxyCache.clear();
+  }
+
+  public void testResizeAndExpunge() throws InterruptedException
+  {
+    List<Object> roots = rootsInOneStripe( ROOTS + 1 );
+    Object lastRoot = roots.remove( ROOTS );
+    List<Object> proxies = new ArrayList<>();
+    for( Object root: roots )
+    {
+      Object proxy = new FakeProxy( root );
+      assertSame( proxy, ProxyCache.putIfAbsent( root, Runnable.class, proxy ) );
+      proxies.add( proxy );
+    }
+    assertEquals( ROOTS, ProxyCache.size() );
+    assertAllHit( roots, proxies );
+
+    // drop every other root and its proxy
+    List<WeakReference<Object>> dropped = new ArrayList<>();
+    for( int i = ROOTS - 2; i >= 0; i -= 2 )
+    {
+      dropped.add( new WeakReference<>( roots.remove( i ) ) );
+      proxies.remove( i );
+    }
+    for( int i = 0; i < 50 && !allCleared( dropped ); i++ )
+    {
+      System.gc();
+      Thread.sleep( 10 );
+    }
+    assertTrue( allCleared( dropped ) );
+
+    // a write to the stripe expunges the cleared entries
+    Object lastProxy = new FakeProxy( lastRoot );
+    ProxyCache.putIfAbsent( lastRoot, Runnable.class, lastProxy );
+    assertEquals( ROOTS / 2 + 1, ProxyCache.size() );
+    assertAllHit( roots, proxies );
+    assertSame( lastProxy, ProxyCache.get( lastRoot, Runnable.class ) );
+  }
+
+  public void testClearedProxyMisses() throws InterruptedException
+  {
+    Object root = new Object();
+    WeakReference<Object> proxy = new WeakReference<>( ProxyCache.putIfAbsent( root, Runnable.class, new FakeProxy( root ) ) );
+    for( int i = 0; i < 50 && proxy.get() != null; i++ )
+    {
+      System.gc();
+      Thread.sleep( 10 );
+    }
+    assertNull( proxy.get() );
+    assertNull( ProxyCache.get( root, Runnable.class ) );
+
+    Object newProxy = new FakeProxy( root );
+    assertSame( newProxy, ProxyCache.putIfAbsent( root, Runnable.class, newProxy ) );
+    assertEquals( 1, ProxyCache.size() );
+  }
+
+  private static void assertAllHit( List<Object> roots, List<Object> proxies )
+  {
+    for( int i = 0; i < roots.size(); i++ )
+    {
+      assertSame( proxies.get( i ), ProxyCache.get( roots.get( i ), Runnable.class ) );
+      assertNull( ProxyCache.get( roots.get( i ), Comparable.class ) );
+    }
+  }
+
+  private static boolean allCleared( List<WeakReference<Object>> refs )
+  {
+    for( WeakReference<Object> ref: refs )
+    {
+      if( ref.get() != null )
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<Object> rootsInOneStripe( int count )
+  {
+    List<Object> roots = new ArrayList<>();
+    while( roots.size() < count )
+    {
+      Object root = new Object();
+      if( ProxyCache.stripeIndex( root ) == 0 )
+      {
+        roots.add( root );
+      }
+    }
+    return roots;
+  }
+
+  /**
+   * References its root like a structural proxy does.
+   */
+  private static class FakeProxy
+  {
+    private final Object _root;
+
+    FakeProxy( Object root )
+    {
+      _root = root;
+    }
+  }
+}
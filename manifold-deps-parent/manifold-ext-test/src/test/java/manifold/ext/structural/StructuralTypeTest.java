@@ -18,11 +18,14 @@ package manifold.ext.structural;
 
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import junit.framework.TestCase;
+import manifold.ext.rt.ProxyCache;
+import manifold.ext.rt.RuntimeMethods;
 
 /**
  */
@@ -168,4 +171,90 @@ public class StructuralTypeTest extends TestCase
       return _coord.getX();
     }
   }
+
+  public void testForwardingProxy()
+  {
+    MyTally root = new MyTally();
+    Tally tally = (Tally)root;
+    tally.setCount( 3 );
+    assertEquals( 3L, tally.getCount() );
+    assertEquals( 8L, tally.add( 5 ) );
+    assertEquals( 8L, tally.total() );
+    assertEquals( "tally8", tally.label( "tally" ) );
+    assertEquals( "tally8: 8", tally.describe() );
+    tally.reset();
+    assertEquals( 0, root.count );
+
+    Tally other = (Tally)new MyTally();
+    assertEquals( tally.getClass(), other.getClass() );
+    assertEquals( 0L, other.getCount() );
+  }
+
+  public void testFindStructuralTarget() throws NoSuchMethodException
+  {
+    Method length = CharSequence.class.getMethod( "length" );
+    assertSame( length, RuntimeMethods.findStructuralTarget( CharSequence.class, String.class, length ) );
+
+    assertEquals( MyTally.class.getMethod( "add", long.class ),
+      RuntimeMethods.findStructuralTarget( Tally.class, MyTally.class, Tally.class.getMethod( "add", long.class ) ) );
+    assertEquals( MyTally.class.getMethod( "label", CharSequence.class ),
+      RuntimeMethods.findStructuralTarget( Tally.class, MyTally.class, Tally.class.getMethod( "label", String.class ) ) );
+
+    // field accessor and default method go through the proxy
+    assertNull( RuntimeMethods.findStructuralTarget( Tally.class, MyTally.class, Tally.class.getMethod( "getCount" ) ) );
+    assertNull( RuntimeMethods.findStructuralTarget( Tally.class, MyTally.class, Tally.class.getMethod( "describe" ) ) );
+  }
+
+  public void testProxyCache()
+  {
+    boolean enabled = ProxyCache.isEnabled();
+    ProxyCache.setEnabled( false );
+    Point point = new Point( 8, 9 );
+    assertNotSame( RuntimeMethods.constructProxy( point, Coordinate.class ),
+      RuntimeMethods.constructProxy( point, Coordinate.class ) );
+
+    ProxyCache.setEnabled( true );
+    try
+    {
+      Object proxy = RuntimeMethods.constructProxy( point, Coordinate.class );
+      assertSame( proxy, RuntimeMethods.constructProxy( point, Coordinate.class ) );
+      assertEquals( 1, ProxyCache.getMisses() );
+      assertEquals( 1, ProxyCache.getHits() );
+
+      // identity, not equality
+      assertNotSame( proxy, RuntimeMethods.constructProxy( new Point( 8, 9 ), Coordinate.class ) );
+      assertEquals( 8.0, ((Coordinate)proxy).getX() );
+    }
+    finally
+    {
+      ProxyCache.setEnabled( enabled );
+    }
+  }
+
+  public static class MyTally // structurally implements Tally
+  {
+    public int count;
+
+    public long add( long amount )
+    {
+      return count += amount;
+    }
+
+    public long total()
+    {
+      return count;
+    }
+
+    public String label( CharSequence prefix )
+    {
+      return prefix.toString() + count;
+    }
+
+    public int reset()
+    {
+      int old = count;
+      count = 0;
+      return old;
+    }
+  }
 }
@@ -0,0 +1,19 @@
+package manifold.ext.structural;
+
+import manifold.ext.rt.api.Structural;
+
+@Structural
+public interface Tally
+{
+  long getCount();
+  void setCount( int count );
+  long add( long amount );
+  Number total();
+  String label( String prefix );
+  void reset();
+
+  default String describe()
+  {
+    return label( "tally" ) + ": " + getCount();
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext.structural.indy;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import manifold.ext.structural.Coordinate;
+import manifold.ext.structural.StructuralTypeTest.MyTally;
+import manifold.ext.structural.Tally;
+import manifold.rt.api.Bindings;
+
+/**
+ * Compiled with {@code -Amanifold.structural.indy=true}, see the {@code structural-indy-testCompile} execution in
+ * this module's pom, so structural calls here are linked by {@code StructuralCallSites}.
+ */
+public class StructuralIndyTest extends TestCase
+{
+  public void testCompiledAsInvokedynamic() throws IOException
+  {
+    assertTrue( readClassFile().contains( "manifold/ext/rt/StructuralCallSites" ) );
+  }
+
+  public void testMonomorphic()
+  {
+    MyTally root = new MyTally();
+    Tally tally = (Tally)root;
+    for( int i = 1; i <= 3; i++ )
+    {
+      // direct call
+      assertEquals( 5L * i, tally.add( 5 ) );
+      // return value coerced from long
+      assertEquals( 5L * i, tally.total() );
+      assertEquals( "tally" + 5 * i, tally.label( "tally" ) );
+      // field accessor and default method through the proxy
+      assertEquals( 5L * i, tally.getCount() );
+      assertEquals( "tally" + 5 * i + ": " + 5 * i, tally.describe() );
+    }
+    tally.reset();
+    assertEquals( 0, root.count );
+  }
+
+  public void testPolymorphic()
+  {
+    Map<String, Object> map = new HashMap<>();
+    map.put( "x", 1.0 );
+    map.put( "y", 2.0 );
+    MyBindings bindings = new MyBindings();
+    bindings.put( "x", 1 );
+    bindings.put( "y", "2" );
+    // more receiver classes than the inline cache holds, so the site goes megamorphic
+    Object[] roots = {
+      new Point( 1, 2 ),
+      new Point2D.Double( 1, 2 ),
+      new Point2D.Float( 1, 2 ),
+      new Rectangle( 1, 2, 3, 4 ),
+      new Rectangle2D.Double( 1, 2, 3, 4 ),
+      new Rectangle2D.Float( 1, 2, 3, 4 ),
+      new Ellipse2D.Double( 1, 2, 3, 4 ),
+      new Ellipse2D.Float( 1, 2, 3, 4 ),
+      new RoundRectangle2D.Double( 1, 2, 3, 4, 1, 1 ),
+      new Arc2D.Double( 1, 2, 3, 4, 0, 90, Arc2D.OPEN ),
+      new NominalCoordinate(),
+      map,
+      bindings,
+    };
+    // twice, the second pass dispatches classes linked before and after the site went megamorphic
+    for( int i = 0; i < 2; i++ )
+    {
+      for( Object root : roots )
+      {
+        Coordinate coord = (Coordinate)root;
+        assertEquals( root.getClass().getName(), 1.0, coord.getX() );
+        assertEquals( root.getClass().getName(), 2.0, coord.getY() );
+      }
+    }
+  }
+
+  public void testMapAndBindings()
+  {
+    Map<String, Object> map = new HashMap<>();
+    Coordinate mapCoord = (Coordinate)map;
+    map.put( "x", 3.0 );
+    assertEquals( 3.0, mapCoord.getX() );
+    map.put( "x", 4 );
+    assertEquals( 4.0, mapCoord.getX() );
+
+    MyBindings bindings = new MyBindings();
+    Tally tally = (Tally)bindings;
+    tally.setCount( 7 );
+    assertEquals( 7, bindings.get( "count" ) );
+    assertEquals( 7L, tally.getCount() );
+  }
+
+  public void testNullReceiver()
+  {
+    Coordinate coord = (Coordinate)(Object)null;
+    try
+    {
+      coord.getX();
+      fail();
+    }
+    catch( NullPointerException ignore )
+    {
+    }
+  }
+
+  private static String readClassFile() throws IOException
+  {
+    try( InputStream in = StructuralIndyTest.class.getResourceAsStream( "StructuralIndyTest.class" ) )
+    {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buf = new byte[4096];
+      for( int read; (read = in.read( buf )) > 0; )
+      {
+        out.write( buf, 0, read );
+      }
+      // class file constants are modified UTF-8, ascii names read back as is
+      return new String( out.toByteArray(), StandardCharsets.ISO_8859_1 );
+    }
+  }
+
+  public static class NominalCoordinate implements Coordinate
+  {
+    @Override
+    public double getX()
+    {
+      return 1;
+    }
+
+    @Override
+    public double getY()
+    {
+      return 2;
+    }
+  }
+
+  public static class MyBindings extends HashMap<String, Object> implements Bindings
+  {
+  }
+}
@@ -26,8 +26,16 @@ import com.sun.tools.javac.util.List;
 import com.sun.tools.javac.util.Name;
 import com.sun.tools.javac.util.Names;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import javax.lang.model.type.NoType;
+import manifold.api.fs.IFile;
+import manifold.api.host.IModule;
+import manifold.api.type.ITypeManifold;
+import manifold.api.util.PerfLogUtil;
 import manifold.ext.rt.api.ICallHandler;
 import manifold.ext.rt.api.IDynamicProxyFactory;
 import manifold.ext.rt.api.IProxyFactory;
@@ -55,13 +63,31 @@ public class DynamicProxyFactory implements IDynamicProxyFactory
     }
     else
     {
-      proxyClass = StructuralTypeProxyGenerator.makeProxy( iface, rootClass, relativeProxyName );
+      proxyClass = StructuralTypeProxyEmitter.makeProxy( iface, rootClass, relativeProxyName );
+      if( proxyClass == null )
+      {
+        // the proxy needs javac e.g., to resolve extension methods
+        PerfLogUtil.count( "structuralProxy.compiled" );
+        proxyClass = StructuralTypeProxyGenerator.makeProxy( iface, rootClass, relativeProxyName );
+      }
+      else
+      {
+        PerfLogUtil.count( "structuralProxy.emitted" );
+      }
     }
     Constructor constructor = proxyClass.getConstructors()[0];
     ReflectUtil.setAccessible( constructor );
     return new Factory( constructor );
   }
 
+  @Override
+  public Method findForwardingMethod( Class iface, Class rootClass, Method method )
+  {
+    return hasCallHandlerMethod( rootClass )
+           ? null
+           : StructuralTypeProxyEmitter.findForwardingMethod( iface, rootClass, method );
+  }
+
   public static class Factory implements IProxyFactory
   {
     private final Constructor _constructor;
@@ -110,6 +136,13 @@ public class DynamicProxyFactory implements IDynamicProxyFactory
       return isCallHandler;
     }
 
+    if( !hasCallHandlerExtensionClass( rootClass, new HashSet<>() ) )
+    {
+      // no extension class can add ICallHandler, avoid loading the class symbol with javac
+      ICALL_HANDLER_MAP.put( rootClass, false );
+      return false;
+    }
+
     String fqn = rootClass.getCanonicalName();
     BasicJavacTask javacTask = RuntimeManifoldHost.get().getJavaParser().getJavacTask();
     Pair<Symbol.ClassSymbol, JCTree.JCCompilationUnit> classSymbol = ClassSymbols.instance( RuntimeManifoldHost.get().getSingleModule() ).getClassSymbol( javacTask, fqn );
@@ -128,6 +161,55 @@ public class DynamicProxyFactory implements IDynamicProxyFactory
     return isCallHandler;
   }
 
+  /**
+   * Checks the compiled extension classes of {@code cls} and its supertypes for anything that could make {@code cls}
+   * an ICallHandler: an extension interface or a {@code call} extension method. Answers true when unsure, for
+   * instance if an extension class is not compiled.
+   */
+  private static boolean hasCallHandlerExtensionClass( Class<?> cls, Set<Class<?>> visited )
+  {
+    if( cls == null || !visited.add( cls ) )
+    {
+      return false;
+    }
+    String fqn = cls.getCanonicalName();
+    if( fqn == null )
+    {
+      return true;
+    }
+
+    IModule module = RuntimeManifoldHost.get().getSingleModule();
+    for( ITypeManifold tm : module.findTypeManifoldsFor( fqn, tm -> tm instanceof ExtensionManifold ) )
+    {
+      for( IFile file : tm.findFilesForType( fqn ) )
+      {
+        for( String extensionFqn : module.getPathCache().getFqnForFile( file ) )
+        {
+          Class<?> extensionClass = ReflectUtil.type( extensionFqn, DynamicProxyFactory.class.getClassLoader() );
+          if( extensionClass == null ||
+              ICallHandler.class.isAssignableFrom( extensionClass ) ||
+              Arrays.stream( extensionClass.getDeclaredMethods() ).anyMatch( m -> m.getName().equals( "call" ) ) )
+          {
+            return true;
+          }
+        }
+      }
+    }
+
+    if( hasCallHandlerExtensionClass( cls.getSuperclass(), visited ) )
+    {
+      return true;
+    }
+    for( Class<?> iface : cls.getInterfaces() )
+    {
+      if( hasCallHandlerExtensionClass( iface, visited ) )
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static boolean hasCallMethod( BasicJavacTask javacTask, Symbol.ClassSymbol classSymbol )
   {
     Name call = Names.instance( javacTask.getContext() ).fromString( "call" );
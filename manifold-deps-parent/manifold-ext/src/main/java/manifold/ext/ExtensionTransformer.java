@@ -24,11 +24,14 @@ import com.sun.tools.javac.comp.AttrContext;
 import com.sun.tools.javac.comp.AttrContextEnv;
 import com.sun.tools.javac.comp.Env;
 import com.sun.tools.javac.comp.Resolve;
+import com.sun.tools.javac.jvm.ClassFile;
 import com.sun.tools.javac.model.JavacElements;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCExpression;
 import com.sun.tools.javac.tree.JCTree.JCTypeCast;
 import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.tree.TreeTranslator;
 import com.sun.tools.javac.util.List;
 import com.sun.tools.javac.util.*;
@@ -39,8 +42,10 @@ import manifold.api.host.IManifoldHost;
 import manifold.api.type.ContributorKind;
 import manifold.api.type.ITypeManifold;
 import manifold.ext.rt.ExtensionMethod;
+import manifold.ext.rt.JailbreakCallSites;
 import manifold.ext.rt.ReflectionRuntimeMethods;
 import manifold.ext.rt.RuntimeMethods;
+import manifold.ext.rt.StructuralCallSites;
 import manifold.ext.rt.api.*;
 import manifold.internal.javac.*;
 import manifold.rt.api.Array;
@@ -71,14 +76,42 @@ import static manifold.internal.javac.HostKind.TEXT_BLOCK_LITERAL;
  */
 public class ExtensionTransformer extends TreeTranslator
 {
+  /**
+   * Compiles structural interface calls as {@code invokedynamic} linked by {@link StructuralCallSites}, in place of
+   * making a proxy for every call. Set as a javac {@code -A} option or as a system property.
+   */
+  public static final String STRUCTURAL_INDY = "manifold.structural.indy";
+  /**
+   * Compiles {@code @Jailbreak} access as {@code invokedynamic} linked by {@link JailbreakCallSites}, in place of
+   * reflective calls via {@link ReflectionRuntimeMethods}. Set as a javac {@code -A} option or as a system property.
+   */
+  public static final String JAILBREAK_INDY = "manifold.jailbreak.indy";
+
   private final ExtensionManifold _sp;
   private final TypeProcessor _tp;
+  private final boolean _structuralIndy;
+  private final boolean _jailbreakIndy;
   private boolean _bridgeMethod;
 
   public ExtensionTransformer( ExtensionManifold sp, TypeProcessor typeProcessor )
   {
     _sp = sp;
     _tp = typeProcessor;
+    _structuralIndy = isOptionEnabled( STRUCTURAL_INDY );
+    _jailbreakIndy = isOptionEnabled( JAILBREAK_INDY );
+  }
+
+  private static boolean isOptionEnabled( String option )
+  {
+    JavacPlugin javacPlugin = JavacPlugin.instance();
+    String value = javacPlugin == null
+                   ? null
+                   : JavacProcessingEnvironment.instance( javacPlugin.getContext() ).getOptions().get( option );
+    if( value == null )
+    {
+      value = System.getProperty( option );
+    }
+    return Boolean.parseBoolean( value );
   }
 
   @SuppressWarnings( "WeakerAccess" )
@@ -1134,6 +1167,186 @@ public class ExtensionTransformer extends TreeTranslator
     }
   }
 
+  @Override
+  public void visitForeachLoop( JCTree.JCEnhancedForLoop tree )
+  {
+    super.visitForeachLoop( tree );
+
+    if( _tp.isGenerate() && !shouldProcessForGeneration() )
+    {
+      // Don't process tree during GENERATE, unless the tree was generated e.g., a bridge method
+      return;
+    }
+
+    JCTree.JCForLoop rangeLoop = maybeLowerRangeLoop( tree );
+    if( rangeLoop != null )
+    {
+      result = rangeLoop;
+    }
+  }
+
+  /**
+   * Lowers a for-each loop over an {@code IntegerRange} or {@code LongRange} to a counted loop, avoiding the iterator
+   * and boxing:
+   * <pre>
+   *   for( IntegerRange $range = range, int $value = $range.iterationStart(), int $step = $range.iterationStep(),
+   *        long $count = $range.iterationCount(); $count != 0; $count = $count - 1, $value = $value + $step )
+   *   {
+   *     int i = $value;
+   *     ...
+   *   }
+   * </pre>
+   * A loop over a {@code DoubleRange} tests {@code $value} against {@code $range.iterationEnd()} instead of counting,
+   * so the values are computed exactly as the range's iterator computes them.
+   */
+  private JCTree.JCForLoop maybeLowerRangeLoop( JCTree.JCEnhancedForLoop tree )
+  {
+    Symtab symbols = _tp.getSymtab();
+    Type rangeType = tree.expr.type;
+    Type valueType;
+    switch( rangeType.tsym.getQualifiedName().toString() )
+    {
+      case "manifold.collections.api.range.IntegerRange":
+        valueType = symbols.intType;
+        break;
+      case "manifold.collections.api.range.LongRange":
+        valueType = symbols.longType;
+        break;
+      case "manifold.collections.api.range.DoubleRange":
+        valueType = symbols.doubleType;
+        break;
+      default:
+        return null;
+    }
+    boolean counted = valueType != symbols.doubleType;
+
+    Context ctx = _tp.getContext();
+    TreeMaker make = _tp.getTreeMaker();
+    make.at( tree.pos );
+    Symbol owner = tree.var.sym.owner;
+    tempVarIndex++;
+
+    JCTree.JCVariableDecl rangeVar = makeTempVar( "$range", rangeType, tree.expr, owner, FINAL );
+    JCTree.JCVariableDecl valueVar = makeTempVar( "$value", valueType,
+      callRangeMethod( rangeVar, "iterationStart", valueType ), owner, 0 );
+    JCTree.JCVariableDecl stepVar = makeTempVar( "$step", valueType,
+      callRangeMethod( rangeVar, "iterationStep", valueType ), owner, FINAL );
+    JCTree.JCVariableDecl boundVar = counted
+      ? makeTempVar( "$count", symbols.longType, callRangeMethod( rangeVar, "iterationCount", symbols.longType ), owner, 0 )
+      : makeTempVar( "$end", valueType, callRangeMethod( rangeVar, "iterationEnd", valueType ), owner, FINAL );
+
+    JCExpression cond;
+    List<JCTree.JCExpressionStatement> step = List.of( make.Exec( makeAssign( valueVar,
+      makeBinary( JCTree.Tag.PLUS, "+", make.Ident( valueVar ), make.Ident( stepVar ), valueType ) ) ) );
+    if( counted )
+    {
+      // the count is unsigned
+      cond = makeBinary( JCTree.Tag.NE, "!=", make.Ident( boundVar ), makeLiteral( LONG, 0L, symbols.longType ),
+        symbols.booleanType );
+      step = step.prepend( make.Exec( makeAssign( boundVar, makeBinary( JCTree.Tag.MINUS, "-", make.Ident( boundVar ),
+        makeLiteral( LONG, 1L, symbols.longType ), symbols.longType ) ) ) );
+    }
+    else
+    {
+      // $step > 0 ? $value <= $end : $value >= $end
+      cond = make.Conditional(
+        makeBinary( JCTree.Tag.GT, ">", make.Ident( stepVar ), makeLiteral( DOUBLE, 0d, valueType ), symbols.booleanType ),
+        makeBinary( JCTree.Tag.LE, "<=", make.Ident( valueVar ), make.Ident( boundVar ), symbols.booleanType ),
+        makeBinary( JCTree.Tag.GE, ">=", make.Ident( valueVar ), make.Ident( boundVar ), symbols.booleanType ) );
+      cond.type = symbols.booleanType;
+    }
+
+    // the loop variable is assigned from $value, Lower boxes it if necessary
+    tree.var.init = make.Ident( valueVar );
+    JCTree.JCBlock body = make.Block( 0, List.of( tree.var, tree.body ) );
+
+    JCTree.JCForLoop loop = make.ForLoop( List.of( rangeVar, valueVar, stepVar, boundVar ), cond, step, body );
+    retargetJumps( tree.body, tree, loop );
+    return loop;
+  }
+
+  private JCTree.JCVariableDecl makeTempVar( String name, Type type, JCExpression init, Symbol owner, long flags )
+  {
+    TreeMaker make = _tp.getTreeMaker();
+    Symbol.VarSymbol sym = new Symbol.VarSymbol( flags | SYNTHETIC,
+      Names.instance( _tp.getContext() ).fromString( name + tempVarIndex ), type, owner );
+    JCTree.JCVariableDecl var = make.VarDef( sym, init );
+    var.type = type;
+    return var;
+  }
+
+  private JCTree.JCMethodInvocation callRangeMethod( JCTree.JCVariableDecl rangeVar, String name, Type returnType )
+  {
+    TreeMaker make = _tp.getTreeMaker();
+    Symbol.MethodSymbol methodSym = resolveMethod( rangeVar.pos(), Names.instance( _tp.getContext() ).fromString( name ),
+      rangeVar.type, List.nil() );
+    JCTree.JCMethodInvocation call = make.Apply( List.nil(), make.Select( make.Ident( rangeVar ), methodSym ), List.nil() );
+    call.type = returnType;
+    return call;
+  }
+
+  private JCTree.JCAssign makeAssign( JCTree.JCVariableDecl var, JCExpression rhs )
+  {
+    JCTree.JCAssign assign = _tp.getTreeMaker().Assign( _tp.getTreeMaker().Ident( var ), rhs );
+    assign.type = var.type;
+    return assign;
+  }
+
+  private JCTree.JCBinary makeBinary( JCTree.Tag tag, String op, JCExpression lhs, JCExpression rhs, Type type )
+  {
+    JCTree.JCBinary binary = _tp.getTreeMaker().Binary( tag, lhs, rhs );
+    binary.type = type;
+    IDynamicJdk.instance().setOperatorSymbol( _tp.getContext(), binary, tag, op, lhs.type.tsym );
+    return binary;
+  }
+
+  private JCTree.JCLiteral makeLiteral( TypeTag tag, Object value, Type type )
+  {
+    JCTree.JCLiteral literal = _tp.getTreeMaker().Literal( tag, value );
+    literal.type = type;
+    return literal;
+  }
+
+  /**
+   * Points break and continue statements targeting {@code from} to {@code to}, same as javac's Lower does when it
+   * translates a for-each loop
+   */
+  private static void retargetJumps( JCTree body, JCTree from, JCTree to )
+  {
+    new TreeScanner()
+    {
+      @Override
+      public void visitBreak( JCTree.JCBreak tree )
+      {
+        if( tree.target == from )
+        {
+          tree.target = to;
+        }
+      }
+
+      @Override
+      public void visitContinue( JCTree.JCContinue tree )
+      {
+        if( tree.target == from )
+        {
+          tree.target = to;
+        }
+      }
+
+      @Override
+      public void visitClassDef( JCTree.JCClassDecl tree )
+      {
+        // jumps can't leave a class
+      }
+
+      @Override
+      public void visitLambda( JCTree.JCLambda tree )
+      {
+        // jumps can't leave a lambda
+      }
+    }.scan( body );
+  }
+
   public void visitVarDef( JCTree.JCVariableDecl tree )
   {
     super.visitVarDef( tree );
@@ -2433,6 +2646,11 @@ public class ExtensionTransformer extends TreeTranslator
     JCExpression methodSelect = theCall.getMethodSelect();
     if( methodSelect instanceof JCTree.JCFieldAccess )
     {
+      if( _structuralIndy )
+      {
+        return makeStructuralIndyCall( theCall, (JCTree.JCFieldAccess)methodSelect );
+      }
+
       int pos = theCall.pos;
 
       Symtab symbols = _tp.getSymtab();
@@ -2479,6 +2697,131 @@ public class ExtensionTransformer extends TreeTranslator
     return null;
   }
 
+  /**
+   * Replaces {@code iface.method(args)} with {@code invokedynamic method(iface, args)} bootstrapped by
+   * {@link StructuralCallSites#bootstrap}. The tree is built the same way LambdaToMethod builds lambda call sites,
+   * except the select is typed with the full method type since TransTypes, which runs after this and before
+   * LambdaToMethod, reads the argument types from it.
+   */
+  private JCTree.JCMethodInvocation makeStructuralIndyCall( JCTree.JCMethodInvocation theCall, JCTree.JCFieldAccess m )
+  {
+    int pos = theCall.pos;
+
+    Symtab symbols = _tp.getSymtab();
+    Types types = _tp.getTypes();
+    Names names = Names.instance( _tp.getContext() );
+    TreeMaker make = _tp.getTreeMaker();
+
+    Symbol.ClassSymbol callSitesClassSym = getRtClassSym( StructuralCallSites.class );
+    Symbol.MethodSymbol bootstrapMethod = resolveMethod( theCall.pos(), names.fromString( "bootstrap" ), callSitesClassSym.type,
+      List.of( symbols.methodHandleLookupType, symbols.stringType, symbols.methodTypeType ) );
+
+    Type erasedMethodType = m.sym.erasure( types );
+    Type.MethodType indyType = new Type.MethodType(
+      erasedMethodType.getParameterTypes().prepend( types.erasure( m.selected.type ) ),
+      erasedMethodType.getReturnType(), List.nil(), symbols.methodClass );
+
+    JCTree.JCFieldAccess indySelect = make.Select( make.QualIdent( callSitesClassSym ), m.sym.name );
+    indySelect.sym = makeDynamicMethodSymbol( m.sym.name, bootstrapMethod, indyType );
+    indySelect.type = indyType;
+    indySelect.pos = pos;
+
+    JCTree.JCMethodInvocation indyCall = make.Apply( List.nil(), indySelect, theCall.args.prepend( m.selected ) );
+    indyCall.varargsElement = theCall.varargsElement;
+    indyCall.type = theCall.type;
+    indyCall.pos = pos;
+    return indyCall;
+  }
+
+  private Symbol.DynamicMethodSymbol makeDynamicMethodSymbol( Name name, Symbol.MethodSymbol bootstrapMethod, Type indyType,
+                                                              String... staticArgs )
+  {
+    Symtab symbols = _tp.getSymtab();
+    ReflectUtil.ConstructorRef ctor = ReflectUtil.constructor( Symbol.DynamicMethodSymbol.class,
+      Name.class, Symbol.class, int.class, Symbol.MethodSymbol.class, Type.class, Object[].class );
+    if( ctor != null )
+    {
+      // Java 8 - 12
+      return (Symbol.DynamicMethodSymbol)ctor.newInstance(
+        name, symbols.noSymbol, ClassFile.REF_invokeStatic, bootstrapMethod, indyType, staticArgs );
+    }
+
+    // Java 13+: new DynamicMethodSymbol( name, owner, new MethodHandleSymbol( bsm ), type, LoadableConstant[] )
+    Object bootstrapHandle = ReflectUtil.constructor( "com.sun.tools.javac.code.Symbol$MethodHandleSymbol", Symbol.class )
+      .newInstance( bootstrapMethod );
+    Class<?> loadableConstant = ReflectUtil.type( "com.sun.tools.javac.jvm.PoolConstant$LoadableConstant" );
+    Object loadableArgs = java.lang.reflect.Array.newInstance( loadableConstant, staticArgs.length );
+    for( int i = 0; i < staticArgs.length; i++ )
+    {
+      java.lang.reflect.Array.set( loadableArgs, i,
+        ReflectUtil.method( loadableConstant, "String", String.class ).invokeStatic( staticArgs[i] ) );
+    }
+    return (Symbol.DynamicMethodSymbol)ReflectUtil.constructor( Symbol.DynamicMethodSymbol.class,
+      Name.class, Symbol.class, bootstrapHandle.getClass(), Type.class, loadableArgs.getClass() )
+      .newInstance( name, symbols.noSymbol, bootstrapHandle, indyType, loadableArgs );
+  }
+
+  /**
+   * Makes {@code invokedynamic name(args)} bootstrapped by {@code JailbreakCallSites.<bootstrap>}. Reference types are
+   * erased to Object in the call site type since the member's types are not necessarily accessible here.
+   */
+  private JCTree.JCMethodInvocation makeJailbreakIndyCall( JCTree tree, String bootstrap, Name name, List<Type> paramTypes,
+                                                           Type returnType, List<JCExpression> args, Type resultType,
+                                                           String... staticArgs )
+  {
+    Symtab symbols = _tp.getSymtab();
+    Names names = Names.instance( _tp.getContext() );
+    TreeMaker make = _tp.getTreeMaker();
+
+    Symbol.ClassSymbol callSitesClassSym = getRtClassSym( JailbreakCallSites.class );
+    ListBuffer<Type> bootstrapParams = new ListBuffer<>();
+    bootstrapParams.append( symbols.methodHandleLookupType ).append( symbols.stringType ).append( symbols.methodTypeType );
+    for( String ignored : staticArgs )
+    {
+      bootstrapParams.append( symbols.stringType );
+    }
+    Symbol.MethodSymbol bootstrapMethod = resolveMethod( tree.pos(), names.fromString( bootstrap ), callSitesClassSym.type,
+      bootstrapParams.toList() );
+
+    ListBuffer<Type> indyParams = new ListBuffer<>();
+    for( Type paramType : paramTypes )
+    {
+      indyParams.append( eraseForIndy( paramType ) );
+    }
+    Type.MethodType indyType = new Type.MethodType( indyParams.toList(), eraseForIndy( returnType ), List.nil(),
+      symbols.methodClass );
+
+    JCTree.JCFieldAccess indySelect = make.Select( make.QualIdent( callSitesClassSym ), name );
+    indySelect.sym = makeDynamicMethodSymbol( name, bootstrapMethod, indyType, staticArgs );
+    indySelect.type = indyType;
+    indySelect.pos = tree.pos;
+
+    JCTree.JCMethodInvocation indyCall = make.Apply( List.nil(), indySelect, args );
+    indyCall.type = resultType;
+    indyCall.pos = tree.pos;
+    return indyCall;
+  }
+
+  private Type eraseForIndy( Type type )
+  {
+    type = _tp.getTypes().erasure( type );
+    return type.isPrimitive() || type.hasTag( VOID ) ? type : _tp.getSymtab().objectType;
+  }
+
+  private String makeLiteralNames( List<Type> types )
+  {
+    StringBuilder sb = new StringBuilder();
+    for( Type type : types )
+    {
+      if( sb.length() > 0 )
+      {
+        sb.append( ',' );
+      }
+      sb.append( makeLiteralName( _tp.getTypes().erasure( type ) ) );
+    }
+    return sb.toString();
+  }
+
   private JCTypeCast makeCast( JCExpression expression, Type type )
   {
     TreeMaker make = _tp.getTreeMaker();
@@ -2609,6 +2952,19 @@ public class ExtensionTransformer extends TreeTranslator
         return tree;
       }
       Type returnType = ((Symbol.MethodSymbol)m.sym).getReturnType();
+      if( _jailbreakIndy && tree.varargsElement == null )
+      {
+        Type methodType = m.sym.erasure( _tp.getTypes() );
+        List<Type> paramTypes = methodType.getParameterTypes();
+        List<JCExpression> args = tree.getArguments();
+        if( !isStatic )
+        {
+          paramTypes = paramTypes.prepend( _tp.getSymtab().objectType );
+          args = args.prepend( m.selected );
+        }
+        return makeJailbreakIndyCall( tree, "invoke", m.sym.name, paramTypes, methodType.getReturnType(), args, tree.type,
+          makeLiteralName( _tp.getTypes().erasure( m.sym.owner.type ) ), makeLiteralNames( methodType.getParameterTypes() ) );
+      }
       Symbol.MethodSymbol reflectMethodSym = findReflectUtilMethod( tree, returnType, isStatic );
 
       List<Symbol.VarSymbol> parameters = ((Symbol.MethodSymbol)m.sym).getParameters();
@@ -2692,6 +3048,14 @@ public class ExtensionTransformer extends TreeTranslator
       return tree;
     }
 
+    if( _jailbreakIndy )
+    {
+      return makeJailbreakIndyCall( tree, "getField", tree.sym.name,
+        isStatic ? List.nil() : List.of( _tp.getSymtab().objectType ), type,
+        isStatic ? List.nil() : List.of( tree.selected ), tree.type.baseType(),
+        makeLiteralName( _tp.getTypes().erasure( tree.sym.owner.type ) ) );
+    }
+
     Symbol.MethodSymbol reflectMethodSym = findFieldAccessReflectUtilMethod( tree, type, isStatic, false );
 
     ArrayList<JCExpression> newArgs = new ArrayList<>();
@@ -2729,6 +3093,14 @@ public class ExtensionTransformer extends TreeTranslator
     }
 
     Type type = tree.sym.type;
+    if( _jailbreakIndy )
+    {
+      return makeJailbreakIndyCall( tree, "setField", tree.sym.name,
+        isStatic ? List.of( type ) : List.of( _tp.getSymtab().objectType, type ), type,
+        isStatic ? List.of( assignTree.rhs ) : List.of( tree.selected, assignTree.rhs ), tree.type.baseType(),
+        makeLiteralName( _tp.getTypes().erasure( tree.sym.owner.type ) ) );
+    }
+
     Symbol.MethodSymbol reflectMethodSym = findFieldAccessReflectUtilMethod( tree, type, isStatic, true );
 
     ArrayList<JCExpression> newArgs = new ArrayList<>();
@@ -2771,6 +3143,15 @@ public class ExtensionTransformer extends TreeTranslator
       return tree;
     }
 
+    if( _jailbreakIndy && tree.varargsElement == null && !type.getEnclosingType().hasTag( CLASS ) )
+    {
+      // note the constructor of an inner class takes the outer instance, which is not an argument here
+      List<Type> constructorParams = tree.constructor.erasure( _tp.getTypes() ).getParameterTypes();
+      return makeJailbreakIndyCall( tree, "construct", Names.instance( _tp.getContext() ).fromString( "new" ),
+        constructorParams, _tp.getSymtab().objectType, tree.getArguments(), type,
+        makeLiteralName( _tp.getTypes().erasure( type ) ), makeLiteralNames( constructorParams ) );
+    }
+
     List<Symbol.VarSymbol> parameters = ((Symbol.MethodSymbol)tree.constructor).getParameters();
     ArrayList<JCExpression> paramTypes = new ArrayList<>();
     for( Symbol.VarSymbol param : parameters )
@@ -0,0 +1,838 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.ext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import manifold.api.util.PerfLogUtil;
+import manifold.ext.rt.ExtensionMethod;
+import manifold.ext.rt.RuntimeMethods;
+import manifold.rt.api.util.ManClassUtil;
+import manifold.util.JreUtil;
+import manifold.util.ReflectUtil;
+
+import static manifold.ext.StructuralTypeProxyGenerator.Variance;
+
+/**
+ * Emits the class file for the same forwarding proxy {@link StructuralTypeProxyGenerator} produces as source, without
+ * compiling anything. Where the JVM supports them the proxy is defined as a hidden class of the interface's package,
+ * otherwise it is defined by name in a class loader that sees both the interface and the root class.
+ * <p/>
+ * Only proxies whose methods all forward directly to public members of the root class are emitted, {@link #makeProxy}
+ * returns null for anything that needs javac's help to resolve, such as extension methods, boxing or varargs
+ * conversions, or inaccessible root classes. In that case the caller falls back to compiling the generated source.
+ * <p/>
+ * Set the {@code manifold.proxy.emit} system property to {@code false} to always compile proxies from source.
+ */
+class StructuralTypeProxyEmitter
+{
+  static final String EMIT = "manifold.proxy.emit";
+  private static final boolean ENABLED = Boolean.parseBoolean( System.getProperty( EMIT, "true" ) );
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int ALOAD_0 = 0x2a;
+  private static final int ALOAD_1 = 0x2b;
+  private static final int ILOAD = 0x15;
+  private static final int LLOAD = 0x16;
+  private static final int FLOAD = 0x17;
+  private static final int DLOAD = 0x18;
+  private static final int ALOAD = 0x19;
+  private static final int LDC_W = 0x13;
+  private static final int POP = 0x57;
+  private static final int POP2 = 0x58;
+  private static final int I2L = 0x85;
+  private static final int I2F = 0x86;
+  private static final int I2D = 0x87;
+  private static final int L2F = 0x89;
+  private static final int L2D = 0x8a;
+  private static final int F2D = 0x8d;
+  private static final int IRETURN = 0xac;
+  private static final int LRETURN = 0xad;
+  private static final int FRETURN = 0xae;
+  private static final int DRETURN = 0xaf;
+  private static final int ARETURN = 0xb0;
+  private static final int RETURN = 0xb1;
+  private static final int GETFIELD = 0xb4;
+  private static final int PUTFIELD = 0xb5;
+  private static final int INVOKEVIRTUAL = 0xb6;
+  private static final int INVOKESPECIAL = 0xb7;
+  private static final int INVOKESTATIC = 0xb8;
+  private static final int CHECKCAST = 0xc0;
+
+  private final Class<?> _iface;
+  private final Class<?> _rootClass;
+  private final String _internalName;
+  private final String _rootInternalName;
+  private final ConstantPool _pool;
+  private final List<byte[]> _methods;
+
+  private StructuralTypeProxyEmitter( Class<?> iface, Class<?> rootClass, String fqn )
+  {
+    _iface = iface;
+    _rootClass = rootClass;
+    _internalName = fqn.replace( '.', '/' );
+    _rootInternalName = internalName( rootClass );
+    _pool = new ConstantPool();
+    _methods = new ArrayList<>();
+  }
+
+  /**
+   * @return The proxy class, or null if the proxy can't be emitted directly
+   */
+  static Class makeProxy( Class<?> iface, Class<?> rootClass, String name )
+  {
+    if( !ENABLED || !isForwardable( iface, rootClass ) )
+    {
+      return null;
+    }
+
+    try( PerfLogUtil.Span span = PerfLogUtil.span( "emitProxy", rootClass.getTypeName() ) )
+    {
+      String fqn = StructuralTypeProxyGenerator.getNamespace( iface ) + '.' + name;
+      byte[] bytes = new StructuralTypeProxyEmitter( iface, rootClass, fqn ).emit();
+      if( bytes == null )
+      {
+        return null;
+      }
+      Class<?> proxyClass = define( iface, rootClass, fqn, bytes );
+      if( proxyClass != null )
+      {
+        // links the class, verification errors surface here instead of on first use
+        proxyClass.getConstructors();
+      }
+      return proxyClass;
+    }
+    catch( LinkageError | RuntimeException e )
+    {
+      return null;
+    }
+  }
+
+  /**
+   * @return The public method of {@code rootClass} the proxy forwards {@code mi} to, or null if the proxy does anything
+   * else with {@code mi}, such as access a field, inherit a default method, or leave it to javac to resolve
+   */
+  static Method findForwardingMethod( Class<?> iface, Class<?> rootClass, Method mi )
+  {
+    if( !isForwardable( iface, rootClass ) )
+    {
+      return null;
+    }
+    StructuralTypeProxyEmitter emitter = new StructuralTypeProxyEmitter( iface, rootClass, iface.getName() );
+    if( !emitter.isImplemented( mi ) || emitter.findPropertyField( mi ) != null )
+    {
+      return null;
+    }
+    return emitter.findForwardingMethod( mi );
+  }
+
+  private static boolean isForwardable( Class<?> iface, Class<?> rootClass )
+  {
+    return Modifier.isPublic( rootClass.getModifiers() ) && !rootClass.isArray() &&
+           Modifier.isPublic( iface.getModifiers() );
+  }
+
+  private boolean isImplemented( Method mi )
+  {
+    return !((mi.isDefault() && !StructuralTypeProxyGenerator.isStructurallyAssignable( _rootClass, mi )) ||
+             Modifier.isStatic( mi.getModifiers() ) ||
+             mi.isBridge() || mi.isSynthetic() ||
+             mi.getAnnotation( ExtensionMethod.class ) != null ||
+             StructuralTypeProxyGenerator.isObjectMethod( mi ));
+  }
+
+  private byte[] emit()
+  {
+    emitConstructor();
+    Map<String, Method> signatures = new HashMap<>();
+    for( Method mi : _iface.getMethods() )
+    {
+      if( !isImplemented( mi ) )
+      {
+        continue;
+      }
+
+      String signature = mi.getName() + Arrays.toString( mi.getParameterTypes() );
+      Method existing = signatures.put( signature, mi );
+      if( existing != null )
+      {
+        if( existing.getReturnType() != mi.getReturnType() )
+        {
+          // javac decides which one wins
+          return null;
+        }
+        continue;
+      }
+
+      if( !emitField( mi ) && !emitMethod( mi ) )
+      {
+        return null;
+      }
+    }
+    return writeClass();
+  }
+
+  private void emitConstructor()
+  {
+    Code code = new Code( 2, 2 );
+    code.op( ALOAD_0 );
+    code.op( INVOKESPECIAL ).u2( _pool.methodRef( "java/lang/Object", "<init>", "()V" ) );
+    code.op( ALOAD_0 );
+    code.op( ALOAD_1 );
+    code.op( PUTFIELD ).u2( rootFieldRef() );
+    code.op( RETURN );
+    addMethod( "<init>", "(" + descriptor( _rootClass ) + ")V", code );
+  }
+
+  /**
+   * @return The root class field the proxy accesses for property getter or setter {@code mi}, or null if {@code mi}
+   * is not implemented as a field access
+   */
+  private Field findPropertyField( Method mi )
+  {
+    String propertyName = StructuralTypeProxyGenerator.getPropertyNameFromGetter( mi, this::hasPotentialMethod );
+    if( propertyName != null )
+    {
+      Field field = StructuralTypeProxyGenerator.findField( propertyName, _rootClass, mi.getReturnType(), Variance.Covariant );
+      return field == null || Modifier.isStatic( field.getModifiers() ) ? null : field;
+    }
+
+    propertyName = StructuralTypeProxyGenerator.getPropertyNameFromSetter( mi, this::hasPotentialMethod );
+    if( propertyName != null )
+    {
+      Field field = StructuralTypeProxyGenerator.findField( propertyName, _rootClass, mi.getParameterTypes()[0], Variance.Contravariant );
+      return field == null || Modifier.isFinal( field.getModifiers() ) || Modifier.isStatic( field.getModifiers() ) ? null : field;
+    }
+    return null;
+  }
+
+  private boolean emitField( Method mi )
+  {
+    Field field = findPropertyField( mi );
+    if( field == null )
+    {
+      return false;
+    }
+
+    if( mi.getParameterCount() == 0 )
+    {
+      Code code = new Code( 2, 1 );
+      code.op( ALOAD_0 );
+      code.op( GETFIELD ).u2( rootFieldRef() );
+      code.op( GETFIELD ).u2( _pool.fieldRef( _rootInternalName, field.getName(), descriptor( field.getType() ) ) );
+      emitReturn( code, field.getType(), mi.getReturnType() );
+      addMethod( mi, code );
+      return true;
+    }
+
+    Class<?> paramType = mi.getParameterTypes()[0];
+    Code code = new Code( 3, 1 + words( paramType ) );
+    code.op( ALOAD_0 );
+    code.op( GETFIELD ).u2( rootFieldRef() );
+    load( code, paramType, 1 );
+    widen( code, paramType, field.getType() );
+    code.op( PUTFIELD ).u2( _pool.fieldRef( _rootInternalName, field.getName(), descriptor( field.getType() ) ) );
+    code.op( RETURN );
+    addMethod( mi, code );
+    return true;
+  }
+
+  private boolean emitMethod( Method mi )
+  {
+    Method target = findForwardingMethod( mi );
+    if( target == null )
+    {
+      return false;
+    }
+    Class<?> returnType = mi.getReturnType();
+    Class<?> targetReturnType = target.getReturnType();
+
+    Class<?>[] params = mi.getParameterTypes();
+    int paramWords = 0;
+    for( Class<?> param : params )
+    {
+      paramWords += words( param );
+    }
+    Code code = new Code( Math.max( 1 + paramWords, 2 ), 1 + paramWords );
+    code.op( ALOAD_0 );
+    code.op( GETFIELD ).u2( rootFieldRef() );
+    int slot = 1;
+    for( Class<?> param : params )
+    {
+      load( code, param, slot );
+      slot += words( param );
+    }
+    code.op( INVOKEVIRTUAL ).u2( _pool.methodRef( _rootInternalName, target.getName(),
+      descriptor( target.getParameterTypes(), targetReturnType ) ) );
+    emitReturn( code, targetReturnType, returnType );
+    addMethod( mi, code );
+    return true;
+  }
+
+  private Method findForwardingMethod( Method mi )
+  {
+    Method target = findTarget( mi );
+    if( target == null )
+    {
+      return null;
+    }
+    Class<?> returnType = mi.getReturnType();
+    Class<?> targetReturnType = target.getReturnType();
+    if( (returnType.isPrimitive() && returnType != void.class && targetReturnType != returnType &&
+         !StructuralTypeProxyGenerator.arePrimitiveTypesAssignable( returnType, targetReturnType )) ||
+        (!returnType.isPrimitive() && targetReturnType == void.class) )
+    {
+      return null;
+    }
+    return target;
+  }
+
+  /**
+   * Finds the root class method javac would call for {@code _root.name(p0, ...)} given the parameter types of
+   * {@code mi}, considering only subtyping, the phase before boxing and varargs. Returns null if there is no public
+   * instance method applicable by subtyping or if the choice is ambiguous.
+   */
+  private Method findTarget( Method mi )
+  {
+    Class<?>[] params = mi.getParameterTypes();
+    List<Method> applicable = new ArrayList<>();
+    for( Method m : _rootClass.getMethods() )
+    {
+      if( m.getName().equals( mi.getName() ) && m.getParameterCount() == params.length && !m.isBridge() &&
+          isApplicable( m.getParameterTypes(), params ) )
+      {
+        if( Modifier.isStatic( m.getModifiers() ) )
+        {
+          return null;
+        }
+        applicable.add( m );
+      }
+    }
+
+    Method best = null;
+    for( Method m : applicable )
+    {
+      if( best == null || isMoreSpecific( m, best ) )
+      {
+        best = m;
+      }
+    }
+    for( Method m : applicable )
+    {
+      if( !isApplicable( m.getParameterTypes(), best.getParameterTypes() ) )
+      {
+        // no single most specific method
+        return null;
+      }
+    }
+    return best;
+  }
+
+  private static boolean isMoreSpecific( Method m, Method other )
+  {
+    Class<?>[] params = m.getParameterTypes();
+    Class<?>[] otherParams = other.getParameterTypes();
+    if( Arrays.equals( params, otherParams ) )
+    {
+      // same signature inherited along different paths, prefer the covariant return type
+      return other.getReturnType().isAssignableFrom( m.getReturnType() );
+    }
+    return isApplicable( otherParams, params );
+  }
+
+  private static boolean isApplicable( Class<?>[] paramTypes, Class<?>[] argTypes )
+  {
+    for( int i = 0; i < paramTypes.length; i++ )
+    {
+      Class<?> paramType = paramTypes[i];
+      Class<?> argType = argTypes[i];
+      if( paramType.isPrimitive() || argType.isPrimitive() ? paramType != argType : !paramType.isAssignableFrom( argType ) )
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasPotentialMethod( String name, int paramCount )
+  {
+    for( Class<?> cls = _rootClass; cls != null; cls = cls.getSuperclass() )
+    {
+      if( hasPotentialMethod( cls, name, paramCount ) )
+      {
+        return true;
+      }
+      for( Class<?> iface : cls.getInterfaces() )
+      {
+        if( hasPotentialMethod( iface, name, paramCount ) )
+        {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasPotentialMethod( Class<?> cls, String name, int paramCount )
+  {
+    for( Method m : cls.getDeclaredMethods() )
+    {
+      if( m.getName().equals( name ) && m.getParameterCount() == paramCount )
+      {
+        return true;
+      }
+    }
+    for( Class<?> iface : cls.getInterfaces() )
+    {
+      if( hasPotentialMethod( iface, name, paramCount ) )
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code valueType} on the stack as {@code returnType}. Reference results are passed through
+   * {@link RuntimeMethods#coerce} same as the generated source.
+   */
+  private void emitReturn( Code code, Class<?> valueType, Class<?> returnType )
+  {
+    if( returnType == void.class )
+    {
+      if( valueType != void.class )
+      {
+        code.op( words( valueType ) == 2 ? POP2 : POP );
+      }
+      code.op( RETURN );
+    }
+    else if( returnType.isPrimitive() )
+    {
+      widen( code, valueType, returnType );
+      code.op( returnOp( returnType ) );
+    }
+    else
+    {
+      if( valueType.isPrimitive() )
+      {
+        Class<?> boxed = ManClassUtil.box( valueType );
+        code.op( INVOKESTATIC ).u2( _pool.methodRef( internalName( boxed ), "valueOf",
+          descriptor( new Class[] {valueType}, boxed ) ) );
+      }
+      code.op( LDC_W ).u2( _pool.classRef( internalName( returnType ) ) );
+      code.op( INVOKESTATIC ).u2( _pool.methodRef( internalName( RuntimeMethods.class ), "coerce",
+        "(Ljava/lang/Object;Ljava/lang/reflect/Type;)Ljava/lang/Object;" ) );
+      code.op( CHECKCAST ).u2( _pool.classRef( internalName( returnType ) ) );
+      code.op( ARETURN );
+    }
+  }
+
+  /**
+   * Widening primitive conversion per {@link StructuralTypeProxyGenerator#arePrimitiveTypesAssignable}, conversions
+   * among int, short, char, and byte need no instruction.
+   */
+  private static void widen( Code code, Class<?> from, Class<?> to )
+  {
+    if( from == to || !to.isPrimitive() )
+    {
+      return;
+    }
+    if( from == long.class )
+    {
+      code.op( to == float.class ? L2F : L2D );
+    }
+    else if( from == float.class )
+    {
+      code.op( F2D );
+    }
+    else if( to == long.class )
+    {
+      code.op( I2L );
+    }
+    else if( to == float.class )
+    {
+      code.op( I2F );
+    }
+    else if( to == double.class )
+    {
+      code.op( I2D );
+    }
+  }
+
+  private static int returnOp( Class<?> type )
+  {
+    if( type == long.class )
+    {
+      return LRETURN;
+    }
+    if( type == float.class )
+    {
+      return FRETURN;
+    }
+    if( type == double.class )
+    {
+      return DRETURN;
+    }
+    return type.isPrimitive() ? IRETURN : ARETURN;
+  }
+
+  private static void load( Code code, Class<?> type, int slot )
+  {
+    int op;
+    if( type == long.class )
+    {
+      op = LLOAD;
+    }
+    else if( type == float.class )
+    {
+      op = FLOAD;
+    }
+    else if( type == double.class )
+    {
+      op = DLOAD;
+    }
+    else
+    {
+      op = type.isPrimitive() ? ILOAD : ALOAD;
+    }
+    code.op( op ).u1( slot );
+  }
+
+  private static int words( Class<?> type )
+  {
+    return type == long.class || type == double.class ? 2 : 1;
+  }
+
+  private int rootFieldRef()
+  {
+    return _pool.fieldRef( _internalName, "_root", descriptor( _rootClass ) );
+  }
+
+  private void addMethod( Method mi, Code code )
+  {
+    addMethod( mi.getName(), descriptor( mi.getParameterTypes(), mi.getReturnType() ), code );
+  }
+
+  private void addMethod( String name, String descriptor, Code code )
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream( bytes );
+    try
+    {
+      byte[] instructions = code._bytes.toByteArray();
+      out.writeShort( ACC_PUBLIC );
+      out.writeShort( _pool.utf8( name ) );
+      out.writeShort( _pool.utf8( descriptor ) );
+      out.writeShort( 1 );
+      out.writeShort( _pool.utf8( "Code" ) );
+      out.writeInt( 12 + instructions.length );
+      out.writeShort( code._maxStack );
+      out.writeShort( code._maxLocals );
+      out.writeInt( instructions.length );
+      out.write( instructions );
+      out.writeShort( 0 ); // exception table
+      out.writeShort( 0 ); // attributes
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+    _methods.add( bytes.toByteArray() );
+  }
+
+  private byte[] writeClass()
+  {
+    int thisClass = _pool.classRef( _internalName );
+    int superClass = _pool.classRef( "java/lang/Object" );
+    int iface = _pool.classRef( internalName( _iface ) );
+    int fieldName = _pool.utf8( "_root" );
+    int fieldType = _pool.utf8( descriptor( _rootClass ) );
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream( bytes );
+    try
+    {
+      out.writeInt( 0xCAFEBABE );
+      out.writeShort( 0 );
+      out.writeShort( 52 ); // no branches, so no stack maps are needed
+      _pool.write( out );
+      out.writeShort( ACC_PUBLIC | ACC_SUPER );
+      out.writeShort( thisClass );
+      out.writeShort( superClass );
+      out.writeShort( 1 );
+      out.writeShort( iface );
+
+      out.writeShort( 1 );
+      out.writeShort( ACC_PRIVATE | ACC_FINAL );
+      out.writeShort( fieldName );
+      out.writeShort( fieldType );
+      out.writeShort( 0 );
+
+      out.writeShort( _methods.size() );
+      for( byte[] method : _methods )
+      {
+        out.write( method );
+      }
+      out.writeShort( 0 );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Class<?> define( Class<?> iface, Class<?> rootClass, String fqn, byte[] bytes )
+  {
+    ClassLoader ifaceLoader = iface.getClassLoader();
+    if( JreUtil.isJava15orLater() && fqn.startsWith( iface.getPackage().getName() + '.' ) &&
+        canSee( ifaceLoader, rootClass ) && canSee( ifaceLoader, RuntimeMethods.class ) )
+    {
+      Class<?> proxyClass = defineHidden( iface, bytes );
+      if( proxyClass != null )
+      {
+        return proxyClass;
+      }
+    }
+
+    for( ClassLoader loader : new ClassLoader[] {ifaceLoader, rootClass.getClassLoader(),
+      StructuralTypeProxyEmitter.class.getClassLoader()} )
+    {
+      if( loader != null && canSee( loader, iface ) && canSee( loader, rootClass ) &&
+          canSee( loader, RuntimeMethods.class ) )
+      {
+        try
+        {
+          return (Class<?>)ReflectUtil.method( loader, "defineClass", String.class, byte[].class, int.class, int.class )
+            .invoke( fqn, bytes, 0, bytes.length );
+        }
+        catch( LinkageError e )
+        {
+          // another thread defined it first
+          try
+          {
+            return Class.forName( fqn, false, loader );
+          }
+          catch( ClassNotFoundException cnfe )
+          {
+            throw e;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A hidden class is only reachable through its Class object, which the proxy factory holds, so the proxy class is
+   * unloaded along with the factory.
+   */
+  private static Class<?> defineHidden( Class<?> iface, byte[] bytes )
+  {
+    try
+    {
+      Object lookup = ReflectUtil.method( MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class )
+        .invokeStatic( iface, MethodHandles.lookup() );
+      Class<?> classOption = ReflectUtil.type( "java.lang.invoke.MethodHandles$Lookup$ClassOption" );
+      Object options = Array.newInstance( classOption, 0 );
+      MethodHandles.Lookup hidden = (MethodHandles.Lookup)ReflectUtil.method( lookup, "defineHiddenClass",
+        byte[].class, boolean.class, options.getClass() ).invoke( bytes, true, options );
+      return hidden.lookupClass();
+    }
+    catch( RuntimeException e )
+    {
+      // e.g., the interface's module does not open its package to manifold
+      return null;
+    }
+  }
+
+  private static boolean canSee( ClassLoader loader, Class<?> cls )
+  {
+    try
+    {
+      return Class.forName( cls.getName(), false, loader ) == cls;
+    }
+    catch( ClassNotFoundException e )
+    {
+      return false;
+    }
+  }
+
+  private static String internalName( Class<?> cls )
+  {
+    return cls.isArray() ? descriptor( cls ) : cls.getName().replace( '.', '/' );
+  }
+
+  private static String descriptor( Class<?>[] params, Class<?> returnType )
+  {
+    StringBuilder sb = new StringBuilder( "(" );
+    for( Class<?> param : params )
+    {
+      sb.append( descriptor( param ) );
+    }
+    return sb.append( ')' ).append( descriptor( returnType ) ).toString();
+  }
+
+  private static String descriptor( Class<?> type )
+  {
+    if( type.isArray() )
+    {
+      return type.getName().replace( '.', '/' );
+    }
+    if( type.isPrimitive() )
+    {
+      return String.valueOf( type == void.class ? 'V'
+                             : type == boolean.class ? 'Z'
+                             : type == long.class ? 'J'
+                             : Character.toUpperCase( type.getName().charAt( 0 ) ) );
+    }
+    return 'L' + internalName( type ) + ';';
+  }
+
+  private static class Code
+  {
+    private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+    private final int _maxStack;
+    private final int _maxLocals;
+
+    private Code( int maxStack, int maxLocals )
+    {
+      _maxStack = maxStack;
+      _maxLocals = maxLocals;
+    }
+
+    private Code op( int opcode )
+    {
+      _bytes.write( opcode );
+      return this;
+    }
+
+    private Code u1( int value )
+    {
+      _bytes.write( value );
+      return this;
+    }
+
+    private void u2( int value )
+    {
+      _bytes.write( value >> 8 );
+      _bytes.write( value );
+    }
+  }
+
+  private static class ConstantPool
+  {
+    private static final int UTF8 = 1;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final Map<String, Integer> _indexes = new HashMap<>();
+    private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+    private final DataOutputStream _out = new DataOutputStream( _bytes );
+
+    private int utf8( String value )
+    {
+      return entry( "U" + value, out -> {
+        out.writeByte( UTF8 );
+        out.writeUTF( value );
+      } );
+    }
+
+    private int classRef( String internalName )
+    {
+      int name = utf8( internalName );
+      return entry( "C" + internalName, out -> {
+        out.writeByte( CLASS );
+        out.writeShort( name );
+      } );
+    }
+
+    private int fieldRef( String owner, String name, String descriptor )
+    {
+      return memberRef( FIELD_REF, owner, name, descriptor );
+    }
+
+    private int methodRef( String owner, String name, String descriptor )
+    {
+      return memberRef( METHOD_REF, owner, name, descriptor );
+    }
+
+    private int memberRef( int tag, String owner, String name, String descriptor )
+    {
+      int ownerIndex = classRef( owner );
+      int nameIndex = utf8( name );
+      int descriptorIndex = utf8( descriptor );
+      int nameAndType = entry( "N" + name + ' ' + descriptor, out -> {
+        out.writeByte( NAME_AND_TYPE );
+        out.writeShort( nameIndex );
+        out.writeShort( descriptorIndex );
+      } );
+      return entry( tag + owner + '.' + name + ' ' + descriptor, out -> {
+        out.writeByte( tag );
+        out.writeShort( ownerIndex );
+        out.writeShort( nameAndType );
+      } );
+    }
+
+    private int entry( String key, EntryWriter writer )
+    {
+      Integer index = _indexes.get( key );
+      if( index == null )
+      {
+        try
+        {
+          writer.write( _out );
+        }
+        catch( IOException e )
+        {
+          throw new RuntimeException( e );
+        }
+        index = _indexes.size() + 1;
+        _indexes.put( key, index );
+      }
+      return index;
+    }
+
+    private void write( DataOutputStream out ) throws IOException
+    {
+      out.writeShort( _indexes.size() + 1 );
+      out.write( _bytes.toByteArray() );
+    }
+
+    private interface EntryWriter
+    {
+      void write( DataOutputStream out ) throws IOException;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
+import java.util.function.BiPredicate;
 import javax.lang.model.type.NoType;
 
 import manifold.ext.rt.ExtensionMethod;
@@ -93,7 +94,7 @@ class StructuralTypeProxyGenerator
       .append( "}" );
   }
 
-  private static String getNamespace( Class ifaceType )
+  static String getNamespace( Class ifaceType )
   {
     String nspace = ifaceType.getPackage().getName();
     if( nspace.startsWith( "java." ) || nspace.startsWith( "javax." ) )
@@ -178,7 +179,9 @@ class StructuralTypeProxyGenerator
 
   private boolean handleField( StringBuilder sb, Method method )
   {
-    String propertyName = getPropertyNameFromGetter( method );
+    BiPredicate<String, Integer> hasPotentialMethod =
+      ( name, paramCount ) -> hasPotentialMethod( getRootClassSymbol(), name, paramCount );
+    String propertyName = getPropertyNameFromGetter( method, hasPotentialMethod );
     if( propertyName != null )
     {
       Field field = findField( propertyName, _rootClass, method.getReturnType(), Variance.Covariant );
@@ -190,7 +193,7 @@ class StructuralTypeProxyGenerator
     }
     else
     {
-      propertyName = getPropertyNameFromSetter( method );
+      propertyName = getPropertyNameFromSetter( method, hasPotentialMethod );
       if( propertyName != null )
       {
         Field field = findField( propertyName, _rootClass, method.getParameterTypes()[0], Variance.Contravariant );
@@ -209,7 +212,7 @@ class StructuralTypeProxyGenerator
     Covariant, Contravariant
   }
 
-  private Field findField( String name, Class rootType, Class<?> returnType, Variance variance )
+  static Field findField( String name, Class rootType, Class<?> returnType, Variance variance )
   {
     String nameUpper = Character.toUpperCase( name.charAt( 0 ) ) + (name.length() > 1 ? name.substring( 1 ) : "");
     String nameLower = Character.toLowerCase( name.charAt( 0 ) ) + (name.length() > 1 ? name.substring( 1 ) : "");
@@ -278,7 +281,11 @@ class StructuralTypeProxyGenerator
     return false;
   }
 
-  private String getPropertyNameFromGetter( Method method )
+  /**
+   * @param hasPotentialMethod Tests whether the root type has a method with a given name and parameter count, in which
+   *                           case the method is preferred over a field
+   */
+  static String getPropertyNameFromGetter( Method method, BiPredicate<String, Integer> hasPotentialMethod )
   {
     Class<?>[] params = method.getParameterTypes();
     if( params.length != 0 )
@@ -299,7 +306,7 @@ class StructuralTypeProxyGenerator
           break;
         }
 
-        if( hasPotentialMethod( getRootClassSymbol(), name, method.getParameterCount() ) )
+        if( hasPotentialMethod.test( name, method.getParameterCount() ) )
         {
           // try not to let a field match when a method should match
           break;
@@ -322,7 +329,7 @@ class StructuralTypeProxyGenerator
     return propertyName;
   }
 
-  private String getPropertyNameFromSetter( Method method )
+  static String getPropertyNameFromSetter( Method method, BiPredicate<String, Integer> hasPotentialMethod )
   {
     if( method.getReturnType() != void.class )
     {
@@ -340,7 +347,7 @@ class StructuralTypeProxyGenerator
     if( name.length() > "set".length() &&
         name.startsWith( "set" ) )
     {
-      if( hasPotentialMethod( getRootClassSymbol(), name, method.getParameterCount() ) )
+      if( hasPotentialMethod.test( name, method.getParameterCount() ) )
       {
         // try not to let a field match when a method should match
         return null;
@@ -441,7 +448,7 @@ class StructuralTypeProxyGenerator
     return paramTypes;
   }
 
-  private boolean isStructurallyAssignable( Class type, Method mi )
+  static boolean isStructurallyAssignable( Class type, Method mi )
   {
     //## todo: this does not take into account *extension methods* that may implement the method
     return ReflectUtil.findBestMethod( mi, type ) != null;
@@ -18,6 +18,8 @@ package manifold.graphql.rt.api.request;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -25,6 +27,7 @@ import manifold.ext.rt.RuntimeMethods;
 import manifold.rt.api.Bindings;
 
 import manifold.json.rt.api.Endpoint;
+import manifold.json.rt.api.HttpTransport;
 import manifold.json.rt.api.Requester;
 
 /**
@@ -193,6 +196,17 @@ public class Executor<T>
     return this;
   }
 
+  /**
+   * Set the transport sending the requests of {@link #postAsync()} and {@link #getAsync()}.
+   *
+   * @see Requester#withTransport(HttpTransport)
+   */
+  public Executor<T> withTransport( HttpTransport transport )
+  {
+    _requester.withTransport( transport );
+    return this;
+  }
+
   /**
    * @param handler An optional handler for processing the raw response as an arbitrary Bindings instance. The handler
    *                may return a custom bindings object which overrides the default, type-safe result instance. In any
@@ -267,6 +281,43 @@ public class Executor<T>
     return (T)_requester.getOne( "", _reqArgs.getBindings(), format );
   }
 
+  /**
+   * Asynchronous version of {@link #post()}. If the response contains errors, the future completes exceptionally with
+   * a {@link CompletionException} wrapping a {@link GqlRequestException}.
+   */
+  public CompletableFuture<T> postAsync()
+  {
+    return postAsync( _requester.getFormat() );
+  }
+
+  /**
+   * Asynchronous version of {@link #post(Requester.Format)}. If the response contains errors, the future completes
+   * exceptionally with a {@link CompletionException} wrapping a {@link GqlRequestException}.
+   */
+  public CompletableFuture<T> postAsync( Requester.Format format )
+  {
+    return _requester.postOneAsync( "", _reqArgs.getBindings(), format );
+  }
+
+  /**
+   * Asynchronous version of {@link #get()}. If the response contains errors, the future completes exceptionally with
+   * a {@link CompletionException} wrapping a {@link GqlRequestException}.
+   */
+  public CompletableFuture<T> getAsync()
+  {
+    return getAsync( _requester.getFormat() );
+  }
+
+  /**
+   * Asynchronous version of {@link #get(Requester.Format)}. If the response contains errors, the future completes
+   * exceptionally with a {@link CompletionException} wrapping a {@link GqlRequestException}.
+   */
+  public CompletableFuture<T> getAsync( Requester.Format format )
+  {
+    //noinspection unchecked
+    return (CompletableFuture<T>)(CompletableFuture<?>)_requester.getOneAsync( "", _reqArgs.getBindings(), format );
+  }
+
   private Object handleRawResponse( Bindings response )
   {
     Function<Bindings, Object> handler = _requester.getRawResponseHandler();
@@ -45,6 +45,19 @@ public class ImageTypeManifold extends JavaTypeManifold<Model>
     return FILE_EXTENSIONS.contains( fileExtension.toLowerCase() );
   }
 
+  @Override
+  public boolean isContributeThreadSafe()
+  {
+    // the generated class only references the image's URL, there is no shared state between types
+    return true;
+  }
+
+  @Override
+  public boolean isContributeCacheable()
+  {
+    return true;
+  }
+
   @Override
   public String getTypeNameForFile( String fqn, IFile file )
   {
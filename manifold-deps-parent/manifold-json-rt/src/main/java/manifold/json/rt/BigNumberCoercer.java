@@ -74,6 +74,14 @@ public class BigNumberCoercer implements IJsonFormatTypeCoercer
     return UNHANDLED;
   }
 
+  @Override
+  public boolean handles( Class<?> valueClass, Type type )
+  {
+    return (type == BigInteger.class || type == BigDecimal.class) && valueClass == String.class ||
+      type == String.class && (BigInteger.class.isAssignableFrom( valueClass ) ||
+                               BigDecimal.class.isAssignableFrom( valueClass ));
+  }
+
   @Override
   public Object toBindingValue( Object value )
   {
@@ -76,6 +76,14 @@ public class BinaryCoercer implements IJsonFormatTypeCoercer
     return UNHANDLED;
   }
 
+  @Override
+  public boolean handles( Class<?> valueClass, Type type )
+  {
+    return (type == OctetEncoding.class || type == Base64Encoding.class) && valueClass == String.class ||
+      type == String.class && (OctetEncoding.class.isAssignableFrom( valueClass ) ||
+                               Base64Encoding.class.isAssignableFrom( valueClass ));
+  }
+
   @Override
   public Object toBindingValue( Object value )
   {
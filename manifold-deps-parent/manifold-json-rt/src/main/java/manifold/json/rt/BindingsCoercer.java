@@ -65,6 +65,16 @@ public class BindingsCoercer implements ICoercionProvider
     return ICallHandler.UNHANDLED;
   }
 
+  @Override
+  public boolean handles( Class<?> valueClass, Type ifaceToProxyType )
+  {
+    Class<?> ifaceToProxy = ifaceToProxyType instanceof ParameterizedType
+      ? (Class)((ParameterizedType)ifaceToProxyType).getRawType()
+      : (Class)ifaceToProxyType;
+    return ifaceToProxy.isInterface() && ifaceToProxy.isAnnotationPresent( Structural.class ) &&
+      Bindings.class.isAssignableFrom( valueClass ) && IBindingsBacked.class.isAssignableFrom( ifaceToProxy );
+  }
+
   @Override
   public Object toBindingValue( Object value )
   {
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Collects the many small appends of a serializer in a char buffer and writes them to a {@link Writer} in chunks.
+ * Integral numbers are formatted directly in the buffer.
+ */
+final class BufferedAppender implements Appendable
+{
+  private static final int SIZE = 8 * 1024;
+
+  private final Writer _out;
+  private final char[] _buf;
+  private int _pos;
+
+  BufferedAppender( Writer out )
+  {
+    _out = out;
+    _buf = new char[SIZE];
+  }
+
+  @Override
+  public BufferedAppender append( char c ) throws IOException
+  {
+    if( _pos == SIZE )
+    {
+      flushBuffer();
+    }
+    _buf[_pos++] = c;
+    return this;
+  }
+
+  @Override
+  public BufferedAppender append( CharSequence csq ) throws IOException
+  {
+    if( csq == null )
+    {
+      csq = "null";
+    }
+    return append( csq, 0, csq.length() );
+  }
+
+  @Override
+  public BufferedAppender append( CharSequence csq, int start, int end ) throws IOException
+  {
+    if( csq == null )
+    {
+      csq = "null";
+    }
+    if( !(csq instanceof String) )
+    {
+      for( int i = start; i < end; i++ )
+      {
+        append( csq.charAt( i ) );
+      }
+      return this;
+    }
+
+    String s = (String)csq;
+    while( start < end )
+    {
+      if( _pos == SIZE )
+      {
+        flushBuffer();
+      }
+      int len = Math.min( end - start, SIZE - _pos );
+      s.getChars( start, start + len, _buf, _pos );
+      _pos += len;
+      start += len;
+    }
+    return this;
+  }
+
+  BufferedAppender append( long value ) throws IOException
+  {
+    if( value == Long.MIN_VALUE )
+    {
+      // can't be negated
+      return append( "-9223372036854775808" );
+    }
+    if( SIZE - _pos < 20 )
+    {
+      flushBuffer();
+    }
+    if( value < 0 )
+    {
+      _buf[_pos++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for( long v = value / 10; v != 0; v /= 10 )
+    {
+      digits++;
+    }
+    int pos = _pos + digits;
+    _pos = pos;
+    do
+    {
+      _buf[--pos] = (char)('0' + (int)(value % 10));
+      value /= 10;
+    } while( value != 0 );
+    return this;
+  }
+
+  /**
+   * Writes the buffered chars to the writer, without flushing the writer.
+   */
+  void flushBuffer() throws IOException
+  {
+    if( _pos > 0 )
+    {
+      _out.write( _buf, 0, _pos );
+      _pos = 0;
+    }
+  }
+}
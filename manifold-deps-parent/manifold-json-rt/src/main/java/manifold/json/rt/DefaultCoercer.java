@@ -156,6 +156,21 @@ public class DefaultCoercer implements IJsonFormatTypeCoercer
     return UNHANDLED;
   }
 
+  @Override
+  public boolean handles( Class<?> valueClass, Type type )
+  {
+    // mirrors the checks in coerce()
+    Class rawType = type instanceof ParameterizedType ? (Class)((ParameterizedType)type).getRawType() : (Class)type;
+    return rawType.isEnum() ||
+      type == LocalDateTime.class || type == LocalDate.class || type == LocalTime.class || type == Instant.class ||
+      (type == Long.class || type == long.class) &&
+        (Number.class.isAssignableFrom( valueClass ) || valueClass == String.class) ||
+      type == String.class &&
+        (valueClass == LocalDateTime.class || valueClass == LocalDate.class || valueClass == LocalTime.class) ||
+      valueClass == Instant.class && (Number.class.isAssignableFrom( rawType ) || type == String.class) ||
+      type == String.class && valueClass == Long.class;
+  }
+
   @Override
   public Object toBindingValue( Object value )
   {
@@ -24,12 +24,19 @@ import manifold.rt.api.util.Pair;
 import manifold.util.concurrent.LocklessLazyVar;
 
 import manifold.rt.api.ScriptException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Map;
 
 public class Json
 {
   private static String _parser = System.getProperty( "manifold.json.parser" );
+  private static volatile boolean _shapedBindings = Boolean.getBoolean( "manifold.json.shapedBindings" );
 
   public static String getParserName()
   {
@@ -43,6 +50,25 @@ public class Json
     PARSER.clear();
   }
 
+  /**
+   * @return True if JSON objects are parsed as {@link manifold.json.rt.api.ShapedBindings}
+   */
+  public static boolean isShapedBindings()
+  {
+    return _shapedBindings;
+  }
+
+  /**
+   * Parse JSON objects as {@link manifold.json.rt.api.ShapedBindings}, which store the values of objects having the same
+   * keys more compactly than {@code LinkedHashMap}. The default is the {@code manifold.json.shapedBindings} system
+   * property.
+   */
+  @SuppressWarnings("UnusedDeclaration")
+  public static void setShapedBindings( boolean shapedBindings )
+  {
+    _shapedBindings = shapedBindings;
+  }
+
   private static final LocklessLazyVar<IJsonParser> PARSER =
     new LocklessLazyVar<IJsonParser>()
     {
@@ -82,40 +108,14 @@ public class Json
    */
   public static void toJson( Map thisMap, StringBuilder sb, int indent )
   {
-    int iKey = 0;
-    if( isNewLine( sb ) )
+    try
     {
-      indent( sb, indent );
+      writeMap( thisMap, sb, indent, isNewLine( sb ), false );
     }
-    sb.append( "{\n" );
-    if( thisMap.size() > 0 )
+    catch( IOException e )
     {
-      for( Object key : thisMap.keySet() )
-      {
-        indent( sb, indent + 2 );
-        sb.append( '\"' ).append( key ).append( '\"' ).append( ": " );
-        Object value = thisMap.get( key );
-
-        value = toBindings( value );
-
-        if( value instanceof Map )
-        {
-          toJson( (Map)value, sb, indent + 2 );
-        }
-        else if( value instanceof Iterable )
-        {
-          listToJson( sb, indent + 2, (Iterable)value );
-        }
-        else
-        {
-          appendValue( sb, value );
-        }
-        appendCommaNewLine( sb, iKey < thisMap.size() - 1 );
-        iKey++;
-      }
+      throw new RuntimeException( e );
     }
-    indent( sb, indent );
-    sb.append( "}" );
   }
 
   public static Object toBindings( Object value )
@@ -132,41 +132,36 @@ public class Json
   }
 
   public static void indent( StringBuilder sb, int indent )
+  {
+    try
+    {
+      indent( (Appendable)sb, indent );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  public static void indent( Appendable target, int indent ) throws IOException
   {
     int i = 0;
     while( i < indent )
     {
-      sb.append( ' ' );
+      target.append( ' ' );
       i++;
     }
   }
 
   public static StringBuilder appendValue( StringBuilder sb, Object comp )
   {
-    if( comp instanceof String )
-    {
-      sb.append( '\"' );
-      sb.append( ManEscapeUtil.escapeForJavaStringLiteral( (String)comp ) );
-      sb.append( '\"' );
-    }
-    else if( comp instanceof Integer ||
-      comp instanceof Long ||
-      comp instanceof Double ||
-      comp instanceof Float ||
-      comp instanceof Short ||
-      comp instanceof Character ||
-      comp instanceof Byte ||
-      comp instanceof Boolean )
-    {
-      sb.append( comp );
-    }
-    else if( comp == null )
+    try
     {
-      sb.append( "null" );
+      writeValue( sb, comp );
     }
-    else
+    catch( IOException e )
     {
-      throw new IllegalStateException( "Unsupported expando type: " + comp.getClass() );
+      throw new RuntimeException( e );
     }
     return sb;
   }
@@ -196,6 +191,93 @@ public class Json
    * </lu>
    */
   public static void toJson( StringBuilder target, int margin, Object value )
+  {
+    try
+    {
+      writeJson( target, margin, value, isNewLine( target ), false );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  /**
+   * Write JSON for the specified {@code value} directly to {@code target}, without building the whole text first. If
+   * {@code target} is a {@link Writer}, the text is written in chunks. The writer is not flushed or closed.
+   *
+   * @param compact If true, the JSON is written without whitespace, otherwise it is the same text {@link #toJson(Object)}
+   *                produces.
+   */
+  public static void toJson( Object value, Appendable target, boolean compact )
+  {
+    try
+    {
+      if( target instanceof Writer )
+      {
+        BufferedAppender out = new BufferedAppender( (Writer)target );
+        writeJson( out, 0, value, false, compact );
+        out.flushBuffer();
+      }
+      else
+      {
+        writeJson( target, 0, value, false, compact );
+      }
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  /**
+   * Write JSON for the specified {@code value} to {@code out} encoded as UTF-8. The stream is flushed, not closed.
+   *
+   * @see #toJson(Object, Appendable, boolean)
+   */
+  public static void toJson( Object value, OutputStream out, boolean compact )
+  {
+    Writer writer = new OutputStreamWriter( out, StandardCharsets.UTF_8 );
+    toJson( value, writer, compact );
+    try
+    {
+      writer.flush();
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  private static boolean isNewLine( StringBuilder sb )
+  {
+    return sb.length() > 0 && sb.charAt( sb.length() - 1 ) == '\n';
+  }
+
+  public static void listToJson( StringBuilder sb, int indent, Iterable value )
+  {
+    try
+    {
+      writeList( sb, indent, value, false );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
+  /**
+   * Serializes a JSON-compatible List into a JSON formatted StringBuilder with the specified indent of spaces
+   */
+  public static String listToJson( Iterable list )
+  {
+    StringBuilder sb = new StringBuilder();
+    listToJson( sb, 0, list );
+    return sb.toString();
+  }
+
+  private static void writeJson( Appendable target, int margin, Object value, boolean indentFirst, boolean compact )
+    throws IOException
   {
     value = toBindings( value );
 
@@ -208,75 +290,210 @@ public class Json
 
     if( value instanceof Map )
     {
-      toJson( ((Map)value), target, margin );
+      writeMap( (Map)value, target, margin, indentFirst, compact );
     }
     else if( value instanceof Iterable )
     {
-      listToJson( target, margin, (Iterable)value );
+      writeList( target, margin, (Iterable)value, compact );
     }
     else
     {
-      appendValue( target, value );
+      writeValue( target, value );
     }
   }
 
-  private static boolean isNewLine( StringBuilder sb )
+  private static void writeMap( Map thisMap, Appendable target, int indent, boolean indentFirst, boolean compact )
+    throws IOException
   {
-    return sb.length() > 0 && sb.charAt( sb.length() - 1 ) == '\n';
+    if( compact )
+    {
+      target.append( '{' );
+      int iKey = 0;
+      for( Object key : thisMap.keySet() )
+      {
+        if( iKey++ > 0 )
+        {
+          target.append( ',' );
+        }
+        target.append( '\"' ).append( String.valueOf( key ) ).append( "\":" );
+        writeMember( target, indent, thisMap.get( key ), true );
+      }
+      target.append( '}' );
+      return;
+    }
+
+    int iKey = 0;
+    if( indentFirst )
+    {
+      indent( target, indent );
+    }
+    target.append( "{\n" );
+    if( thisMap.size() > 0 )
+    {
+      for( Object key : thisMap.keySet() )
+      {
+        indent( target, indent + 2 );
+        target.append( '\"' ).append( String.valueOf( key ) ).append( '\"' ).append( ": " );
+        writeMember( target, indent + 2, thisMap.get( key ), false );
+        appendCommaNewLine( target, iKey < thisMap.size() - 1 );
+        iKey++;
+      }
+    }
+    indent( target, indent );
+    target.append( "}" );
   }
 
-  public static void listToJson( StringBuilder sb, int indent, Iterable value )
+  private static void writeMember( Appendable target, int indent, Object value, boolean compact ) throws IOException
+  {
+    value = toBindings( value );
+
+    if( value instanceof Map )
+    {
+      writeMap( (Map)value, target, indent, false, compact );
+    }
+    else if( value instanceof Iterable )
+    {
+      writeList( target, indent, (Iterable)value, compact );
+    }
+    else
+    {
+      writeValue( target, value );
+    }
+  }
+
+  private static void writeList( Appendable target, int indent, Iterable value, boolean compact ) throws IOException
   {
-    sb.append( '[' );
+    target.append( '[' );
     int i = 0;
     for( Iterator iter = value.iterator(); iter.hasNext(); )
     {
       Object comp = iter.next();
-      if( i == 0 )
+      if( i == 0 && !compact )
       {
-        sb.append( "\n" );
+        target.append( "\n" );
       }
 
       comp = toBindings( comp );
 
       if( comp instanceof Map )
       {
-        toJson( (Map)comp, sb, indent + 2 );
+        writeMap( (Map)comp, target, indent + 2, true, compact );
       }
       else if( comp instanceof Iterable )
       {
-        listToJson( sb, indent + 2, (Iterable)comp );
+        writeList( target, indent + 2, (Iterable)comp, compact );
+      }
+      else
+      {
+        if( !compact )
+        {
+          indent( target, indent + 2 );
+        }
+        writeValue( target, comp );
+      }
+      if( compact )
+      {
+        if( iter.hasNext() )
+        {
+          target.append( ',' );
+        }
       }
       else
       {
-        indent( sb, indent + 2 );
-        appendValue( sb, comp );
+        appendCommaNewLine( target, iter.hasNext() );
       }
-      appendCommaNewLine( sb, iter.hasNext() );
       i++;
     }
-    indent( sb, indent );
-    sb.append( "]" );
+    if( !compact )
+    {
+      indent( target, indent );
+    }
+    target.append( "]" );
+  }
+
+  private static void writeValue( Appendable target, Object comp ) throws IOException
+  {
+    if( comp instanceof String )
+    {
+      target.append( '\"' );
+      writeEscaped( target, (String)comp );
+      target.append( '\"' );
+    }
+    else if( comp instanceof Integer ||
+      comp instanceof Long ||
+      comp instanceof Short ||
+      comp instanceof Byte )
+    {
+      // format integral numbers directly, without an intermediate String
+      long value = ((Number)comp).longValue();
+      if( target instanceof BufferedAppender )
+      {
+        ((BufferedAppender)target).append( value );
+      }
+      else if( target instanceof StringBuilder )
+      {
+        ((StringBuilder)target).append( value );
+      }
+      else
+      {
+        target.append( String.valueOf( value ) );
+      }
+    }
+    else if( comp instanceof Double ||
+      comp instanceof Float ||
+      comp instanceof Character ||
+      comp instanceof Boolean )
+    {
+      target.append( String.valueOf( comp ) );
+    }
+    else if( comp == null )
+    {
+      target.append( "null" );
+    }
+    else
+    {
+      throw new IllegalStateException( "Unsupported expando type: " + comp.getClass() );
+    }
   }
 
   /**
-   * Serializes a JSON-compatible List into a JSON formatted StringBuilder with the specified indent of spaces
+   * Same escapes as {@link ManEscapeUtil#escapeForJavaStringLiteral(String)}, but appends runs of unescaped chars
+   * directly to {@code target}.
    */
-  public static String listToJson( Iterable list )
+  private static void writeEscaped( Appendable target, String value ) throws IOException
   {
-    StringBuilder sb = new StringBuilder();
-    listToJson( sb, 0, list );
-    return sb.toString();
+    int start = 0;
+    for( int i = 0; i < value.length(); i++ )
+    {
+      char ch = value.charAt( i );
+      if( ch >= ' ' && ch <= '~' && ch != '\"' && ch != '\\' )
+      {
+        continue;
+      }
+      if( i > start )
+      {
+        target.append( value, start, i );
+      }
+      target.append( ManEscapeUtil.escapeForJavaStringLiteral( ch ) );
+      start = i + 1;
+    }
+    if( start == 0 )
+    {
+      target.append( value );
+    }
+    else if( start < value.length() )
+    {
+      target.append( value, start, value.length() );
+    }
   }
 
-
-  private static void appendCommaNewLine( StringBuilder sb, boolean bComma )
+  private static void appendCommaNewLine( Appendable target, boolean bComma ) throws IOException
   {
     if( bComma )
     {
-      sb.append( ',' );
+      target.append( ',' );
     }
-    sb.append( "\n" );
+    target.append( "\n" );
   }
 
   /**
@@ -292,10 +509,30 @@ public class Json
     return fromJson( json, false, false );
   }
   public static Object fromJson( String json, boolean withBigNumbers, boolean withTokens )
+  {
+    return fromJson( json, withBigNumbers, withTokens, isShapedBindings() );
+  }
+  /**
+   * Parse JSON text as it is read from {@code reader}. The reader is not closed.
+   *
+   * @return A JSON value (primitive/boxed type, String, List of JSON values, or Bindings of String/JSON value)
+   */
+  public static Object fromJson( Reader reader )
+  {
+    try
+    {
+      return PARSER.get().parseJson( reader, false, false, isShapedBindings() );
+    }
+    catch( ScriptException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+  public static Object fromJson( String json, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
   {
     try
     {
-      return PARSER.get().parseJson( json, withBigNumbers, withTokens );
+      return PARSER.get().parseJson( json, withBigNumbers, withTokens, shapedBindings );
     }
     catch( ScriptException e )
     {
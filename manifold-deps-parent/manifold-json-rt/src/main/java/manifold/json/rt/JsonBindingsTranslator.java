@@ -44,6 +44,12 @@ public class JsonBindingsTranslator implements IJsonBindingsTranslator
     Json.toJson( target, indent, bindingsValue );
   }
 
+  @Override
+  public void fromBindings( Object bindingsValue, Appendable target )
+  {
+    Json.toJson( bindingsValue, target, false );
+  }
+
   @Override
   public Object toBindings( String translation )
   {
@@ -276,7 +276,7 @@ public class DataBindings implements Bindings
     {
       return true;
     }
-    if( o == null || getClass() != o.getClass() )
+    if( !(o instanceof DataBindings) )
     {
       return false;
     }
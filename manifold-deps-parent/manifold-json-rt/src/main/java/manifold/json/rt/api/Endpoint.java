@@ -19,8 +19,10 @@ package manifold.json.rt.api;
 import manifold.json.rt.extensions.java.net.URL.ManUrlExt;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.*;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a URL endpoint with an optional proxy (HTTP, SOCKS, or direct if no proxy is specified).
@@ -206,4 +208,26 @@ public class Endpoint
       throw new RuntimeException( e );
     }
   }
+
+  /**
+   * Use HTTP GET, POST, PUT, PATCH, or DELETE to send JSON bindings to the endpoint with {@code transport}.
+   *
+   * @param httpMethod The HTTP method to use: "GET", "POST", "PUT", "PATCH", or "DELETE"
+   * @param jsonValue A JSON value to send (primitive/boxed type, String, List of JSON values, or Bindings of String/JSON value)
+   *
+   * @return A future completing with the response body, which the caller reads and closes.
+   */
+  public CompletableFuture<InputStream> sendRequestAsync( HttpTransport transport, String httpMethod, Object jsonValue,
+                                                          Map<String, String> headers, int timeout )
+  {
+    try
+    {
+      return ManUrlExt.sendRequestAsync( new URL( _urlBase ), _proxy, transport, httpMethod, jsonValue, headers,
+        timeout );
+    }
+    catch( MalformedURLException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.api;
+
+import java.io.InputStream;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the HTTP requests of the asynchronous {@link Requester} methods. The default transport,
+ * {@link UrlConnectionTransport}, works with any JDK. Implement this interface to plug in a different HTTP client, for
+ * instance one supporting HTTP/2 multiplexing such as {@code java.net.http.HttpClient}, and use it with
+ * {@link Requester#withTransport(HttpTransport)}.
+ */
+public interface HttpTransport
+{
+  /**
+   * Send an HTTP request.
+   *
+   * @param url        The complete request URL, including query arguments
+   * @param proxy      The proxy to connect through, {@link Proxy#NO_PROXY} for a direct connection
+   * @param httpMethod The HTTP method: "GET", "POST", "PUT", "PATCH", or "DELETE"
+   * @param headers    Request header name/value pairs
+   * @param body       The request's message body, or null if there is none
+   * @param timeout    Connection timeout in milliseconds, zero is interpreted as an infinite timeout
+   *
+   * @return A future completing with the response body when the response headers arrive. The body is decoded if it
+   * has a {@code Content-Encoding} and is read by the caller, who closes it. The future completes exceptionally if the
+   * request fails or the response status is an error.
+   */
+  CompletableFuture<InputStream> send( URL url, Proxy proxy, String httpMethod, Map<String, String> headers,
+                                       byte[] body, int timeout );
+
+  static HttpTransport getDefaultTransport()
+  {
+    return UrlConnectionTransport.instance();
+  }
+}
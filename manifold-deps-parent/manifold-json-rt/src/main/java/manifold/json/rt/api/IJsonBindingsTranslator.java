@@ -19,6 +19,7 @@ package manifold.json.rt.api;
 import manifold.rt.api.util.ServiceUtil;
 import manifold.util.concurrent.LocklessLazyVar;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -50,6 +51,22 @@ public interface IJsonBindingsTranslator
   void fromBindings( Object bindingsValue, StringBuilder target );
   void fromBindings( Object bindingsValue, String name, StringBuilder target, int indent );
 
+  /**
+   * Writes the translation to {@code target}. Translators that can stream override this to write the text as it is
+   * produced, the default appends {@link #fromBindings(Object)}.
+   */
+  default void fromBindings( Object bindingsValue, Appendable target )
+  {
+    try
+    {
+      target.append( fromBindings( bindingsValue ) );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
+
   Object toBindings( String translation );
   Object toBindings( String translation, boolean withTokens );
   Object toBindings( String translation, boolean withBigNumbers, boolean withTokens );
@@ -18,6 +18,8 @@ package manifold.json.rt.api;
 
 import manifold.json.rt.parser.DefaultParser;
 
+import java.io.IOException;
+import java.io.Reader;
 import manifold.rt.api.ScriptException;
 
 /**
@@ -38,6 +40,45 @@ public interface IJsonParser
    */
   Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens ) throws ScriptException;
 
+  /**
+   * Parse Json text, storing objects as {@link ShapedBindings} if {@code shapedBindings} is true. Parsers that do not
+   * support shaped bindings ignore it.
+   *
+   * @see #parseJson(String, boolean, boolean)
+   */
+  default Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    return parseJson( jsonText, withBigNumbers, withTokens );
+  }
+
+  /**
+   * Parse Json text from {@code reader}. Parsers that can read the text as they parse it override this, the default
+   * reads all the text first. The reader is not closed.
+   *
+   * @see #parseJson(String, boolean, boolean, boolean)
+   */
+  default Object parseJson( Reader reader, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    String jsonText;
+    try
+    {
+      StringBuilder sb = new StringBuilder();
+      char[] buf = new char[8 * 1024];
+      for( int count = reader.read( buf ); count >= 0; count = reader.read( buf ) )
+      {
+        sb.append( buf, 0, count );
+      }
+      jsonText = sb.toString();
+    }
+    catch( IOException e )
+    {
+      throw new ScriptException( e );
+    }
+    return parseJson( jsonText, withBigNumbers, withTokens, shapedBindings );
+  }
+
   static IJsonParser getDefaultParser()
   {
     return DefaultParser.instance();
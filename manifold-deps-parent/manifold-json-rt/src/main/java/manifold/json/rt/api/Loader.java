@@ -16,11 +16,18 @@
 
 package manifold.json.rt.api;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import manifold.json.rt.Json;
 import manifold.json.rt.extensions.java.net.URL.ManUrlExt;
+import manifold.json.rt.parser.CharBufferParser;
 import manifold.rt.api.util.StreamUtil;
 
 /**
@@ -34,9 +41,34 @@ import manifold.rt.api.util.StreamUtil;
  */
 public class Loader<E>
 {
+  private Boolean _shapedBindings;
+
+  /**
+   * Load JSON objects as {@link ShapedBindings} if {@code shapedBindings} is true, or as {@code LinkedHashMap} backed
+   * {@link DataBindings} if false. Shaped bindings use less memory when many objects have the same keys, such as the
+   * records of a large JSON array. If not called, {@link Json#isShapedBindings()} decides.
+   * <p/>
+   * Applies to the JSON methods of this loader e.g., {@code Person.load().withShapedBindings( true ).fromJsonFile( file )}.
+   */
+  public Loader<E> withShapedBindings( boolean shapedBindings )
+  {
+    _shapedBindings = shapedBindings;
+    return this;
+  }
+
+  private boolean isShapedBindings()
+  {
+    return _shapedBindings == null ? Json.isShapedBindings() : _shapedBindings;
+  }
+
+  private Object parseJson( String jsonText )
+  {
+    return Json.fromJson( jsonText, false, false, isShapedBindings() );
+  }
+
   public E fromJson( String jsonText )
   {
-    return (E)Json.fromJson( jsonText );
+    return (E)parseJson( jsonText );
   }
 
   //
@@ -53,7 +85,7 @@ public class Loader<E>
         Arrays.stream( urlSuffix ).forEach( url::append );
       }
 
-      return (E)ManUrlExt.getJsonContent( new java.net.URL( url.toString() ) );
+      return (E)parseJson( ManUrlExt.getTextContent( new java.net.URL( url.toString() ) ) );
     }
     catch( Exception e )
     {
@@ -63,7 +95,7 @@ public class Loader<E>
 
   public E fromJsonUrl( java.net.URL url )
   {
-    return (E)ManUrlExt.getJsonContent( url );
+    return (E)parseJson( ManUrlExt.getTextContent( url ) );
   }
 
   public E fromJsonFile( java.io.File file )
@@ -82,7 +114,7 @@ public class Loader<E>
   {
     try
     {
-      return (E)Json.fromJson( StreamUtil.getContent( reader ) );
+      return (E)parseJson( StreamUtil.getContent( reader ) );
     }
     catch( Exception e )
     {
@@ -90,6 +122,31 @@ public class Loader<E>
     }
   }
 
+  /**
+   * Streams the elements of a top-level JSON array, or of a sequence of JSON values such as newline delimited JSON, one
+   * element at a time. An element is parsed only when the stream requests it, so memory use is bounded by the largest
+   * element regardless of the size of the input.
+   * <p/>
+   * Each element is an instance of this loader's type e.g., {@code Person.load().streamFromJsonReader( reader )} streams
+   * {@code Person} instances. The elements are parsed with {@link CharBufferParser}. Closing the stream closes
+   * {@code reader}.
+   */
+  public Stream<E> streamFromJsonReader( Reader reader )
+  {
+    Iterator<E> elements = (Iterator<E>)new CharBufferParser().parseElements( reader, false, isShapedBindings() );
+    return StreamSupport.stream( Spliterators.spliteratorUnknownSize( elements, Spliterator.ORDERED ), false )
+      .onClose( () -> {
+        try
+        {
+          reader.close();
+        }
+        catch( IOException e )
+        {
+          throw new RuntimeException( e );
+        }
+      } );
+  }
+
 
   //
   // YAML methods
@@ -17,13 +17,19 @@
 package manifold.json.rt.api;
 
 import manifold.json.rt.Json;
+import manifold.rt.api.util.StreamUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 /**
@@ -43,6 +49,9 @@ import java.util.function.Function;
  * user.setName("Scott");
  * req.putOne("/$id", user);
  * </code></pre>
+ * The {@code xxxAsync()} methods make the same requests without blocking the calling thread, they return a
+ * {@link CompletableFuture} completing with the result. Asynchronous requests are sent with an {@link HttpTransport},
+ * see {@link #withTransport(HttpTransport)}.
  *
  * @param <T> The type corresponding with the HTTP requests made from this class.  For instance, this type is returned
  *            from GET calls and is also the type of the payload sent for POST, PUT, and PATCH calls. Since DELETE calls
@@ -57,6 +66,7 @@ public class Requester<T>
   private Map<String, String> _parameters;
   private Function<T, Object> _rawResponseHandler;
   private int _timeout;
+  private HttpTransport _transport;
 
   public enum Format
   {
@@ -88,6 +98,7 @@ public class Requester<T>
     _headers = new HashMap<>();
     _parameters = Collections.emptyMap();
     _timeout = 0;
+    _transport = HttpTransport.getDefaultTransport();
   }
   public Requester( Endpoint endpoint )
   {
@@ -101,6 +112,7 @@ public class Requester<T>
     _headers = new HashMap<>();
     _parameters = Collections.emptyMap();
     _timeout = 0;
+    _transport = HttpTransport.getDefaultTransport();
   }
 
   public Endpoint getEndpoint()
@@ -118,6 +130,11 @@ public class Requester<T>
     return _timeout;
   }
 
+  public HttpTransport getTransport()
+  {
+    return _transport;
+  }
+
   public Map<String, String> getHeaders()
   {
     return Collections.unmodifiableMap( _headers );
@@ -208,6 +225,16 @@ public class Requester<T>
     return this;
   }
 
+  /**
+   * Set the transport sending asynchronous requests. The default transport, {@link UrlConnectionTransport}, reuses
+   * kept-alive connections and accepts gzip encoded responses.
+   */
+  public Requester<T> withTransport( HttpTransport transport )
+  {
+    _transport = transport;
+    return this;
+  }
+
   /**
    * @param handler An optional handler for processing the raw response as an arbitrary Bindings instance. The handler
    *                may return a custom bindings object which overrides the default, type-safe result instance. In any
@@ -600,22 +627,23 @@ public class Requester<T>
     urlSuffix = appendParams( urlSuffix );
     Endpoint endpoint = urlSuffix != null ? _endpoint.withUrlSuffix( urlSuffix ) : _endpoint;
     Object result = null;
+    String accept = getAccept( format );
+    if( accept != null )
+    {
+      _headers.put( "Accept", accept );
+    }
     switch( format )
     {
       case Json:
-        _headers.put( "Accept", "application/json" );
         result = endpoint.sendJsonRequest( method.name(), jsonValue, _headers, _timeout );
         break;
       case Yaml:
-        _headers.put( "Accept", "application/x-yaml, application/yaml, text/yaml;q=0.9" );
         result = endpoint.sendYamlRequest( method.name(), jsonValue, _headers, _timeout );
         break;
       case Xml:
-        _headers.put( "Accept", "application/xml" );
         result = endpoint.sendXmlRequest( method.name(), jsonValue, _headers, _timeout );
         break;
       case Csv:
-        _headers.put( "Accept", "text/csv" );
         result = endpoint.sendCsvRequest( method.name(), jsonValue, _headers, _timeout );
         break;
       case Text:
@@ -629,6 +657,196 @@ public class Requester<T>
     return (R)result;
   }
 
+  /**
+   * Same as calling:
+   * {@link #getOneAsync(String, Object, Format)} with {@code getOneAsync(urlSuffix, null, _format)}
+   */
+  public CompletableFuture<T> getOneAsync( String urlSuffix )
+  {
+    return getOneAsync( urlSuffix, null, _format );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #getOneAsync(String, Object, Format)} with {@code getOneAsync(urlSuffix, arguments, _format)}
+   */
+  public CompletableFuture<T> getOneAsync( String urlSuffix, Object arguments )
+  {
+    return getOneAsync( urlSuffix, arguments, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #getOne(String, Object, Format)}.
+   */
+  public CompletableFuture<T> getOneAsync( String urlSuffix, Object arguments, Format format )
+  {
+    return requestAsync( urlSuffix, Http.GET.name(), format, arguments );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #getManyAsync(String, Object, Format)} with {@code getManyAsync(urlSuffix, null, _format)}
+   */
+  public CompletableFuture<IJsonList<T>> getManyAsync( String urlSuffix )
+  {
+    return getManyAsync( urlSuffix, null, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #getMany(String, Object, Format)}.
+   */
+  public CompletableFuture<IJsonList<T>> getManyAsync( String urlSuffix, Object arguments, Format format )
+  {
+    return requestAsync( urlSuffix, Http.GET.name(), format, arguments );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #postOneAsync(String, Object, Format)} with {@code postOneAsync(urlSuffix, payload, _format)}
+   */
+  public <R> CompletableFuture<R> postOneAsync( String urlSuffix, T payload )
+  {
+    return postOneAsync( urlSuffix, payload, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #postOne(String, Object, Format)}.
+   */
+  public <R> CompletableFuture<R> postOneAsync( String urlSuffix, T payload, Format format )
+  {
+    return requestAsync( urlSuffix, Http.POST.name(), format, payload );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #putOneAsync(String, Object, Format)} with {@code putOneAsync(urlSuffix, payload, _format)}
+   */
+  public <R> CompletableFuture<R> putOneAsync( String urlSuffix, T payload )
+  {
+    return putOneAsync( urlSuffix, payload, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #putOne(String, Object, Format)}.
+   */
+  public <R> CompletableFuture<R> putOneAsync( String urlSuffix, T payload, Format format )
+  {
+    return requestAsync( urlSuffix, Http.PUT.name(), format, payload );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #patchOneAsync(String, Object, Format)} with {@code patchOneAsync(urlSuffix, payload, _format)}
+   */
+  public <R> CompletableFuture<R> patchOneAsync( String urlSuffix, T payload )
+  {
+    return patchOneAsync( urlSuffix, payload, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #patchOne(String, Object, Format)}.
+   */
+  public <R> CompletableFuture<R> patchOneAsync( String urlSuffix, T payload, Format format )
+  {
+    return requestAsync( urlSuffix, Http.PATCH.name(), format, payload );
+  }
+
+  /**
+   * Same as calling:
+   * {@link #deleteAsync(String, Object, Format)} with {@code deleteAsync(urlSuffix, null, _format)}
+   */
+  public <R> CompletableFuture<R> deleteAsync( String urlSuffix )
+  {
+    return deleteAsync( urlSuffix, null, _format );
+  }
+
+  /**
+   * Asynchronous version of {@link #delete(String, Object, Format)}.
+   */
+  public <R> CompletableFuture<R> deleteAsync( String urlSuffix, Object arguments, Format format )
+  {
+    return requestAsync( urlSuffix, Http.DELETE.name(), format, arguments );
+  }
+
+  /**
+   * Make an HTTP request to {@code urlBase + urlSuffix} without blocking the calling thread. The request is sent with
+   * this requester's {@link HttpTransport}, and the response is parsed as it is read from the connection.
+   *
+   * @param <R>        The expected type of the response
+   * @param urlSuffix  A suffix, such as "/108", nullable
+   * @param httpMethod The HTTP method: "GET", "POST", "PUT", "PATCH", or "DELETE"
+   * @param format     The expected format of the response.  One of: {@code Json}, {@code Yaml}, {@code Xml}, {@code Csv}, or {@code Plain}
+   * @param jsonValue  A JSON value object, sent in the URL as JSON encoded arguments for GET and DELETE, otherwise sent
+   *                   as JSON encoded text in the request's message body, nullable
+   *
+   * @return A future completing with the JSON value parsed from the response. If the request or parsing fails, the
+   * future completes exceptionally with a {@link CompletionException} wrapping the cause.
+   */
+  public <R> CompletableFuture<R> requestAsync( String urlSuffix, String httpMethod, Format format, Object jsonValue )
+  {
+    jsonValue = Json.toBindings( jsonValue );
+    urlSuffix = appendParams( urlSuffix == null ? "" : urlSuffix );
+    Endpoint endpoint = _endpoint.withUrlSuffix( urlSuffix );
+    // copy the headers, the response is handled on another thread
+    Map<String, String> headers = new HashMap<>( _headers );
+    String accept = getAccept( format );
+    if( accept != null )
+    {
+      headers.put( "Accept", accept );
+    }
+    Function<Object, Object> resultCoercer = _resultCoercer;
+    return endpoint.sendRequestAsync( _transport, httpMethod, jsonValue, headers, _timeout )
+      .thenApply( body -> {
+        //noinspection unchecked
+        return (R)resultCoercer.apply( readResponse( body, format ) );
+      } );
+  }
+
+  private static Object readResponse( InputStream body, Format format )
+  {
+    try( Reader reader = StreamUtil.getInputStreamReader( body ) )
+    {
+      switch( format )
+      {
+        case Json:
+          return Json.fromJson( reader );
+        case Yaml:
+          return IJsonBindingsTranslator.get( "YAML" ).toBindings( StreamUtil.getContent( reader ) );
+        case Xml:
+          return IJsonBindingsTranslator.get( "XML" ).toBindings( StreamUtil.getContent( reader ) );
+        case Csv:
+          return IJsonBindingsTranslator.get( "CSV" ).toBindings( StreamUtil.getContent( reader ) );
+        case Text:
+          return StreamUtil.getContent( reader );
+        default:
+          throw new IllegalArgumentException( "format: " + format );
+      }
+    }
+    catch( IOException e )
+    {
+      throw new CompletionException( e );
+    }
+  }
+
+  private static String getAccept( Format format )
+  {
+    switch( format )
+    {
+      case Json:
+        return "application/json";
+      case Yaml:
+        return "application/x-yaml, application/yaml, text/yaml;q=0.9";
+      case Xml:
+        return "application/xml";
+      case Csv:
+        return "text/csv";
+      case Text:
+        return null;
+      default:
+        throw new IllegalArgumentException( "format: " + format );
+    }
+  }
+
   private String appendParams( String urlSuffix )
   {
     if( _parameters.isEmpty() )
@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.api;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import manifold.ext.rt.api.IBindingsBacked;
+
+/**
+ * A compact {@link DataBindings} for holding many JSON objects with the same keys, such as the records of a data feed.
+ * Instead of a {@code LinkedHashMap} with an entry object per name/value pair, values are stored in a flat
+ * {@code Object[]} and the keys are kept in a <i>shape</i> shared by all bindings having the same key sequence.
+ * <p/>
+ * Shapes are interned as a tree. Adding a key to a bindings moves it from its shape to the child shape for that key,
+ * so bindings built with the same keys in the same order share one shape. The tree references its shapes weakly, a
+ * shape is reclaimed once no bindings and no child shapes use it.
+ * <p/>
+ * Replacing a value, adding a key, or removing the last key keeps the compact layout. Other removals, and keys beyond
+ * the shape limits, convert the bindings to a {@code LinkedHashMap}, which is used from then on. Either way the bindings
+ * behave the same as a {@code DataBindings} backed by a {@code LinkedHashMap}, iteration follows insertion order.
+ * <p/>
+ * Parsed JSON uses shaped bindings if {@link manifold.json.rt.Json#setShapedBindings(boolean)} or the
+ * {@code manifold.json.shapedBindings} system property enables them, or per load with
+ * {@link Loader#withShapedBindings(boolean)}.
+ */
+public class ShapedBindings extends DataBindings
+{
+  private final ShapedMap _shapedMap;
+
+  public ShapedBindings()
+  {
+    this( new ShapedMap() );
+  }
+
+  /**
+   * Creates bindings from alternating keys and values, as collected by a parser. A repeated key keeps its last value.
+   *
+   * @param keysAndValues Alternating String keys and values
+   * @param from          The index of the first key
+   * @param to            The index after the last value
+   */
+  public ShapedBindings( Object[] keysAndValues, int from, int to )
+  {
+    this( new ShapedMap( keysAndValues, from, to ) );
+  }
+
+  private ShapedBindings( ShapedMap map )
+  {
+    super( map );
+    _shapedMap = map;
+  }
+
+  /**
+   * @return True if the values are stored in the compact layout, false if these bindings have converted to a map
+   */
+  public boolean isShaped()
+  {
+    return _shapedMap.isShaped();
+  }
+
+  /**
+   * An interned key sequence. Shapes are immutable except for their transitions to child shapes.
+   */
+  private static final class Shape
+  {
+    // keys are found by linear search, more keys than this are not the small records shapes are for
+    private static final int MAX_KEYS = 32;
+    // bound the tree for objects used as dictionaries, where keys vary per object
+    private static final int MAX_TRANSITIONS = 64;
+    // the number of live shapes, reclaimed shapes no longer count
+    private static final int MAX_SHAPES = 16 * 1024;
+
+    // holds the transitions until they are expunged, a reclaimed shape's own transitions would otherwise be lost with it
+    private static final Set<Transition> TRANSITIONS = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<Shape> RECLAIMED = new ReferenceQueue<>();
+    private static final Shape EMPTY = new Shape( null, new String[0] );
+
+    // children reference their parent strongly, so a live shape keeps its path to the root
+    private final Shape _parent;
+    private final String[] _keys;
+    private volatile ConcurrentHashMap<String, Transition> _transitions;
+
+    private Shape( Shape parent, String[] keys )
+    {
+      _parent = parent;
+      _keys = keys;
+    }
+
+    int size()
+    {
+      return _keys.length;
+    }
+
+    String key( int index )
+    {
+      return _keys[index];
+    }
+
+    Shape parent()
+    {
+      return _parent;
+    }
+
+    int indexOf( Object key )
+    {
+      String[] keys = _keys;
+      for( int i = 0; i < keys.length; i++ )
+      {
+        String k = keys[i];
+        //noinspection StringEquality
+        if( k == key || k.equals( key ) )
+        {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * @return The shape of this shape's keys followed by {@code key}, or null if the limits are exceeded
+     */
+    Shape withKey( String key )
+    {
+      ConcurrentHashMap<String, Transition> transitions = _transitions;
+      if( transitions != null )
+      {
+        Transition transition = transitions.get( key );
+        Shape shape = transition == null ? null : transition.get();
+        if( shape != null )
+        {
+          return shape;
+        }
+      }
+      return addTransition( key );
+    }
+
+    private synchronized Shape addTransition( String key )
+    {
+      expungeReclaimedShapes();
+
+      ConcurrentHashMap<String, Transition> transitions = _transitions;
+      if( transitions == null )
+      {
+        _transitions = transitions = new ConcurrentHashMap<>( 4 );
+      }
+      Transition transition = transitions.get( key );
+      Shape shape = transition == null ? null : transition.get();
+      if( shape == null &&
+          _keys.length < MAX_KEYS &&
+          transitions.size() < MAX_TRANSITIONS &&
+          TRANSITIONS.size() < MAX_SHAPES )
+      {
+        String[] keys = Arrays.copyOf( _keys, _keys.length + 1 );
+        keys[_keys.length] = key;
+        shape = new Shape( this, keys );
+        transition = new Transition( shape, key, transitions );
+        TRANSITIONS.add( transition );
+        transitions.put( key, transition );
+      }
+      return shape;
+    }
+
+    private static void expungeReclaimedShapes()
+    {
+      Transition transition;
+      while( (transition = (Transition)RECLAIMED.poll()) != null )
+      {
+        TRANSITIONS.remove( transition );
+        // unless the key already transitions to a new shape
+        transition._transitions.remove( transition._key, transition );
+      }
+    }
+  }
+
+  /**
+   * A weak reference from a shape to a child shape, enqueued when the child is reclaimed.
+   */
+  private static final class Transition extends WeakReference<Shape>
+  {
+    private final String _key;
+    private final ConcurrentHashMap<String, Transition> _transitions;
+
+    Transition( Shape shape, String key, ConcurrentHashMap<String, Transition> transitions )
+    {
+      super( shape, Shape.RECLAIMED );
+      _key = key;
+      _transitions = transitions;
+    }
+  }
+
+  /**
+   * The storage of a ShapedBindings. Values are in {@code _values} in the order of {@code _shape}'s keys until the map
+   * converts to {@code _map}.
+   */
+  private static final class ShapedMap extends AbstractMap<String, Object>
+  {
+    private static final Object[] NO_VALUES = {};
+
+    private Shape _shape;
+    private Object[] _values;
+    private LinkedHashMap<String, Object> _map;
+
+    ShapedMap()
+    {
+      _shape = Shape.EMPTY;
+      _values = NO_VALUES;
+    }
+
+    ShapedMap( Object[] keysAndValues, int from, int to )
+    {
+      Shape shape = Shape.EMPTY;
+      Object[] values = new Object[(to - from) / 2];
+      for( int i = from; i < to; i += 2 )
+      {
+        String key = (String)keysAndValues[i];
+        Object value = keysAndValues[i + 1];
+        checkEntry( key, value );
+        int index = shape.indexOf( key );
+        if( index >= 0 )
+        {
+          values[index] = value;
+          continue;
+        }
+        Shape next = shape.withKey( key );
+        if( next == null )
+        {
+          _shape = shape;
+          _values = values;
+          Map<String, Object> map = toMap();
+          for( ; i < to; i += 2 )
+          {
+            checkEntry( (String)keysAndValues[i], keysAndValues[i + 1] );
+            map.put( (String)keysAndValues[i], keysAndValues[i + 1] );
+          }
+          return;
+        }
+        values[shape.size()] = value;
+        shape = next;
+      }
+      _shape = shape;
+      _values = values;
+    }
+
+    // the same checks DataBindings#put() makes
+    private static void checkEntry( String key, Object value )
+    {
+      if( key == null )
+      {
+        throw new NullPointerException( "key can not be null" );
+      }
+      if( key.isEmpty() )
+      {
+        throw new IllegalArgumentException( "key can not be empty" );
+      }
+      if( value instanceof IBindingsBacked )
+      {
+        throw new IllegalArgumentException( "Non-raw bindings: " + value );
+      }
+    }
+
+    boolean isShaped()
+    {
+      return _map == null;
+    }
+
+    @Override
+    public int size()
+    {
+      return _map == null ? _shape.size() : _map.size();
+    }
+
+    @Override
+    public boolean containsKey( Object key )
+    {
+      return _map == null ? _shape.indexOf( key ) >= 0 : _map.containsKey( key );
+    }
+
+    @Override
+    public Object get( Object key )
+    {
+      if( _map != null )
+      {
+        return _map.get( key );
+      }
+      int index = _shape.indexOf( key );
+      return index < 0 ? null : _values[index];
+    }
+
+    @Override
+    public Object put( String key, Object value )
+    {
+      if( _map != null )
+      {
+        return _map.put( key, value );
+      }
+
+      int index = _shape.indexOf( key );
+      if( index >= 0 )
+      {
+        Object old = _values[index];
+        _values[index] = value;
+        return old;
+      }
+
+      Shape shape = _shape.withKey( key );
+      if( shape == null )
+      {
+        return toMap().put( key, value );
+      }
+      int size = _shape.size();
+      if( size == _values.length )
+      {
+        _values = Arrays.copyOf( _values, Math.max( 4, size + (size >> 1) ) );
+      }
+      _values[size] = value;
+      _shape = shape;
+      return null;
+    }
+
+    @Override
+    public Object remove( Object key )
+    {
+      if( _map != null )
+      {
+        return _map.remove( key );
+      }
+
+      int index = _shape.indexOf( key );
+      if( index < 0 )
+      {
+        return null;
+      }
+      if( index == _shape.size() - 1 )
+      {
+        // removing the last key is the reverse of a transition
+        Object old = _values[index];
+        _values[index] = null;
+        _shape = _shape.parent();
+        return old;
+      }
+      return toMap().remove( key );
+    }
+
+    @Override
+    public void clear()
+    {
+      _shape = Shape.EMPTY;
+      _values = NO_VALUES;
+      _map = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet()
+    {
+      return new EntrySet();
+    }
+
+    private Map<String, Object> toMap()
+    {
+      LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+      for( int i = 0; i < _shape.size(); i++ )
+      {
+        map.put( _shape.key( i ), _values[i] );
+      }
+      _map = map;
+      _shape = null;
+      _values = null;
+      return map;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>>
+    {
+      @Override
+      public Iterator<Entry<String, Object>> iterator()
+      {
+        return _map == null ? new ShapedIterator() : _map.entrySet().iterator();
+      }
+
+      @Override
+      public int size()
+      {
+        return ShapedMap.this.size();
+      }
+
+      @Override
+      public void clear()
+      {
+        ShapedMap.this.clear();
+      }
+    }
+
+    private class ShapedIterator implements Iterator<Entry<String, Object>>
+    {
+      private final Shape _iterShape = _shape;
+      private int _index;
+      private String _lastKey;
+
+      @Override
+      public boolean hasNext()
+      {
+        return _index < _iterShape.size();
+      }
+
+      @Override
+      public Entry<String, Object> next()
+      {
+        if( !hasNext() )
+        {
+          throw new NoSuchElementException();
+        }
+        int index = _index++;
+        _lastKey = _iterShape.key( index );
+        return new ShapedEntry( _lastKey, index );
+      }
+
+      @Override
+      public void remove()
+      {
+        if( _lastKey == null )
+        {
+          throw new IllegalStateException();
+        }
+        ShapedMap.this.remove( _lastKey );
+        _lastKey = null;
+      }
+    }
+
+    private class ShapedEntry implements Entry<String, Object>
+    {
+      private final String _key;
+      private final int _index;
+
+      ShapedEntry( String key, int index )
+      {
+        _key = key;
+        _index = index;
+      }
+
+      @Override
+      public String getKey()
+      {
+        return _key;
+      }
+
+      @Override
+      public Object getValue()
+      {
+        //noinspection StringEquality
+        return _map == null && _index < _shape.size() && _shape.key( _index ) == _key
+               ? _values[_index]
+               : get( _key );
+      }
+
+      @Override
+      public Object setValue( Object value )
+      {
+        return put( _key, value );
+      }
+
+      @Override
+      public boolean equals( Object o )
+      {
+        if( !(o instanceof Entry) )
+        {
+          return false;
+        }
+        Entry<?, ?> that = (Entry<?, ?>)o;
+        return _key.equals( that.getKey() ) && Objects.equals( getValue(), that.getValue() );
+      }
+
+      @Override
+      public int hashCode()
+      {
+        return _key.hashCode() ^ Objects.hashCode( getValue() );
+      }
+
+      @Override
+      public String toString()
+      {
+        return _key + "=" + getValue();
+      }
+    }
+  }
+}
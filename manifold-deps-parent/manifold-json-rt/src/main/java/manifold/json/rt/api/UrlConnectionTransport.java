@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An {@link HttpTransport} using {@link HttpURLConnection}. Requests run on an {@link Executor}, by default a shared
+ * pool of at most {@code manifold.http.threads} daemon threads (16 if not set), further requests wait for a thread.
+ * <p/>
+ * Responses are requested with {@code Accept-Encoding: gzip} and decompressed as they are read. The JDK keeps the
+ * connections of fully read responses alive for reuse with the same host, see the {@code http.keepAlive} and
+ * {@code http.maxConnections} system properties. HttpURLConnection does not support HTTP/2, plug in a different
+ * transport for that.
+ */
+public class UrlConnectionTransport implements HttpTransport
+{
+  public static final String THREADS = "manifold.http.threads";
+
+  private static final UrlConnectionTransport INSTANCE = new UrlConnectionTransport();
+
+  public static UrlConnectionTransport instance()
+  {
+    return INSTANCE;
+  }
+
+  private final Executor _executor;
+
+  /**
+   * Runs requests on the shared default pool.
+   */
+  public UrlConnectionTransport()
+  {
+    this( null );
+  }
+
+  /**
+   * @param executor Runs the requests, including reading the response, which is parsed on the executor's thread
+   */
+  public UrlConnectionTransport( Executor executor )
+  {
+    _executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<InputStream> send( URL url, Proxy proxy, String httpMethod, Map<String, String> headers,
+                                              byte[] body, int timeout )
+  {
+    return CompletableFuture.supplyAsync( () -> {
+      try
+      {
+        return sendRequest( url, proxy, httpMethod, headers, body, timeout );
+      }
+      catch( IOException e )
+      {
+        throw new CompletionException( e );
+      }
+    }, _executor == null ? DefaultExecutor.INSTANCE : _executor );
+  }
+
+  private InputStream sendRequest( URL url, Proxy proxy, String httpMethod, Map<String, String> headers,
+                                   byte[] body, int timeout ) throws IOException
+  {
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection( proxy );
+    conn.setRequestMethod( httpMethod );
+    conn.setRequestProperty( "Accept-Encoding", "gzip" );
+    headers.forEach( conn::setRequestProperty );
+    conn.setConnectTimeout( timeout );
+    if( body != null )
+    {
+      conn.setFixedLengthStreamingMode( body.length );
+      conn.setDoOutput( true );
+      try( OutputStream out = conn.getOutputStream() )
+      {
+        out.write( body );
+      }
+    }
+    InputStream in;
+    try
+    {
+      in = conn.getInputStream();
+    }
+    catch( IOException e )
+    {
+      // read the error response so the connection can be reused
+      discard( conn.getErrorStream() );
+      throw e;
+    }
+    if( "gzip".equalsIgnoreCase( conn.getContentEncoding() ) )
+    {
+      in = new GZIPInputStream( in );
+    }
+    return in;
+  }
+
+  private static void discard( InputStream in )
+  {
+    if( in == null )
+    {
+      return;
+    }
+    try( InputStream stream = in )
+    {
+      byte[] buf = new byte[1024];
+      //noinspection StatementWithEmptyBody
+      while( stream.read( buf ) >= 0 );
+    }
+    catch( IOException ignore )
+    {
+    }
+  }
+
+  // holder, so the pool is made only if the default executor is used
+  private static class DefaultExecutor
+  {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor INSTANCE = makeExecutor( Math.max( 1, Integer.getInteger( THREADS, 16 ) ) );
+
+    private static ThreadPoolExecutor makeExecutor( int threads )
+    {
+      // requests block on I/O, so the pool is not sized by CPU count, idle threads time out
+      ThreadPoolExecutor executor = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), r -> {
+          Thread thread = new Thread( r, "manifold-http-" + THREAD_COUNT.incrementAndGet() );
+          thread.setDaemon( true );
+          return thread;
+        } );
+      executor.allowCoreThreadTimeOut( true );
+      return executor;
+    }
+  }
+}
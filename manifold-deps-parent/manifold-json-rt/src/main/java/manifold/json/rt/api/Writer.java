@@ -19,11 +19,19 @@ package manifold.json.rt.api;
 import manifold.json.rt.Json;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 import manifold.rt.api.Bindings;
 
 /**
  * This class is used as part of the JSON API. It defines methods to write this JSON object
  * in various forms of formatted text including JSON, YAML, CSV, and XML.
+ * <p/>
+ * The {@code Appendable} and {@code OutputStream} methods write the text as it is produced, without building it in
+ * memory first. Pass a {@link java.io.Writer} or an {@code OutputStream} to serialize large values. Output streams are
+ * written as UTF-8 and are flushed, not closed.
  */
 public class Writer
 {
@@ -53,14 +61,31 @@ public class Writer
   }
   public void toJson( Appendable target )
   {
-    try
-    {
-      target.append( Json.toJson( _value ) );
-    }
-    catch( IOException e )
-    {
-      throw new RuntimeException( e );
-    }
+    Json.toJson( _value, target, false );
+  }
+  public void toJson( OutputStream target )
+  {
+    Json.toJson( _value, target, false );
+  }
+
+  /**
+   * Serializes this instance to JSON without indentation or line breaks
+   *
+   * @return This instance serialized to a compact JSON formatted String
+   */
+  public String toCompactJson()
+  {
+    StringBuilder sb = new StringBuilder();
+    Json.toJson( _value, sb, true );
+    return sb.toString();
+  }
+  public void toCompactJson( Appendable target )
+  {
+    Json.toJson( _value, target, true );
+  }
+  public void toCompactJson( OutputStream target )
+  {
+    Json.toJson( _value, target, true );
   }
 
   /**
@@ -77,14 +102,12 @@ public class Writer
   }
   public void toYaml( Appendable target )
   {
-    try
-    {
-      target.append( toYaml() );
-    }
-    catch( IOException e )
-    {
-      throw new RuntimeException( e );
-    }
+    IJsonBindingsTranslator yaml = IJsonBindingsTranslator.get( "YAML" );
+    yaml.fromBindings( _value, target );
+  }
+  public void toYaml( OutputStream target )
+  {
+    write( target, this::toYaml );
   }
 
   /**
@@ -99,15 +122,12 @@ public class Writer
   }
   public void toXml( Appendable target )
   {
-    try
-    {
-      IJsonBindingsTranslator xml = IJsonBindingsTranslator.get( "XML" );
-      target.append( xml.fromBindings( _value ) );
-    }
-    catch( IOException e )
-    {
-      throw new RuntimeException( e );
-    }
+    IJsonBindingsTranslator xml = IJsonBindingsTranslator.get( "XML" );
+    xml.fromBindings( _value, target );
+  }
+  public void toXml( OutputStream target )
+  {
+    write( target, this::toXml );
   }
 
   /**
@@ -137,15 +157,12 @@ public class Writer
   }
   public void toCsv( Appendable target )
   {
-    try
-    {
-      IJsonBindingsTranslator csv = IJsonBindingsTranslator.get( "CSV" );
-      target.append( csv.fromBindings( _value ) );
-    }
-    catch( IOException e )
-    {
-      throw new RuntimeException( e );
-    }
+    IJsonBindingsTranslator csv = IJsonBindingsTranslator.get( "CSV" );
+    csv.fromBindings( _value, target );
+  }
+  public void toCsv( OutputStream target )
+  {
+    write( target, this::toCsv );
   }
 
   /**
@@ -162,4 +179,18 @@ public class Writer
     csv.fromBindings( _value, name, sb, 0 );
     return sb.toString();
   }
+
+  private static void write( OutputStream target, Consumer<Appendable> serializer )
+  {
+    java.io.Writer writer = new OutputStreamWriter( target, StandardCharsets.UTF_8 );
+    serializer.accept( writer );
+    try
+    {
+      writer.flush();
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
+    }
+  }
 }
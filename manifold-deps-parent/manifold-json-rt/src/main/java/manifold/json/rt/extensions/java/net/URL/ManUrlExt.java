@@ -21,15 +21,19 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import manifold.ext.rt.api.Jailbreak;
 import manifold.json.rt.Json;
+import manifold.json.rt.api.HttpTransport;
 import manifold.json.rt.api.IJsonBindingsTranslator;
 import manifold.json.rt.extensions.manifold.rt.api.Bindings.ManBindingsExt;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import manifold.rt.api.Bindings;
 import manifold.ext.rt.api.Extension;
 import manifold.ext.rt.api.This;
@@ -175,6 +179,38 @@ public class ManUrlExt
     }
   }
 
+  /**
+   * Use HTTP GET, POST, PUT, PATCH, or DELETE to send JSON bindings to a URL with {@code transport}. The request is
+   * made the same way as the synchronous {@code sendXxxRequest} methods make it.
+   *
+   * @return A future completing with the response body, which the caller reads and closes.
+   *
+   * @see HttpTransport#send(URL, Proxy, String, Map, byte[], int)
+   */
+  public static CompletableFuture<InputStream> sendRequestAsync( URL url, Proxy proxy, HttpTransport transport,
+                                                                 String httpMethod, Object jsonValue,
+                                                                 Map<String, String> headers, int timeout )
+  {
+    byte[] body = null;
+    if( jsonValue != null )
+    {
+      if( httpMethod.equals( "GET" ) || httpMethod.equals( "DELETE" ) )
+      {
+        url = makeUrl( url.toString(), jsonValue );
+      }
+      else
+      {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Json.toJson( jsonValue, out, false );
+        body = out.toByteArray();
+      }
+    }
+    Map<String, String> allHeaders = new LinkedHashMap<>();
+    allHeaders.put( "Content-Type", "application/x-www-form-urlencoded" );
+    allHeaders.putAll( headers );
+    return transport.send( url, proxy, httpMethod, allHeaders, body, timeout );
+  }
+
   private static void sendJsonValue( Object jsonValue, HttpURLConnection conn ) throws IOException
   {
     String json = Json.toJson( jsonValue );
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.parser;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import manifold.json.rt.api.DataBindings;
+import manifold.json.rt.api.ShapedBindings;
+import manifold.rt.api.Bindings;
+
+/**
+ * Makes the bindings of the objects a parser parses, either {@link DataBindings} or {@link ShapedBindings}. Per object
+ * a parser calls {@link #begin()}, then {@link #put} for each member, then {@link #end}.
+ */
+final class BindingsBuilder
+{
+  private final boolean _shapedBindings;
+  // alternating keys and values of the objects being parsed, nested objects are above their parent's members
+  private Object[] _members;
+  private int _memberCount;
+
+  BindingsBuilder( boolean shapedBindings )
+  {
+    _shapedBindings = shapedBindings;
+    _members = shapedBindings ? new Object[32] : null;
+  }
+
+  /**
+   * @return The bindings to put the object's members in, or null if the members are collected here until {@link #end}
+   */
+  Bindings begin()
+  {
+    // using a LinkedHashMap to preserve insertion order, necessary for IJ plugin
+    // shaped bindings are made after the members are parsed, so their values array is sized exactly
+    return _shapedBindings ? null : new DataBindings( new LinkedHashMap<>() );
+  }
+
+  /**
+   * @return The position of the object's first member, to pass to {@link #end}
+   */
+  int mark()
+  {
+    return _memberCount;
+  }
+
+  void put( Bindings map, String key, Object val )
+  {
+    if( map == null )
+    {
+      if( _memberCount + 2 > _members.length )
+      {
+        _members = Arrays.copyOf( _members, _members.length * 2 );
+      }
+      _members[_memberCount++] = key;
+      _members[_memberCount++] = val;
+    }
+    else
+    {
+      map.put( key, val );
+    }
+  }
+
+  /**
+   * @param map   The bindings {@link #begin()} returned
+   * @param start The {@link #mark()} before the object's members
+   * @return The object's bindings
+   */
+  Bindings end( Bindings map, int start )
+  {
+    if( map != null )
+    {
+      return map;
+    }
+    map = new ShapedBindings( _members, start, _memberCount );
+    Arrays.fill( _members, start, _memberCount, null );
+    _memberCount = start;
+    return map;
+  }
+}
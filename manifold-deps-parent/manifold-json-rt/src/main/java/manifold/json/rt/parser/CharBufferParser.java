@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import manifold.json.rt.api.IJsonParser;
+import manifold.json.rt.api.ShapedBindings;
+import manifold.rt.api.Bindings;
+import manifold.rt.api.ScriptException;
+import manifold.rt.api.util.Pair;
+
+/**
+ * A JSON parser for high volume parsing. It produces the same values as {@link DefaultParser}, but scans the input with
+ * a {@link CharBufferTokenizer}, which allocates nothing for punctuation and shares the String instances of repeated
+ * object keys. Line and column positions are computed only if {@code withTokens} is requested.
+ * <p/>
+ * Select this parser with {@code Json.setParserName( CharBufferParser.class.getName() )} or with the
+ * {@code manifold.json.parser} system property.
+ * <p/>
+ * Unlike {@link DefaultParser}, which collects all errors, parsing stops at the first error.
+ */
+public class CharBufferParser implements IJsonParser
+{
+  private static final ThreadLocal<CharBufferTokenizer> TOKENIZER = ThreadLocal.withInitial( CharBufferTokenizer::new );
+
+  private CharBufferTokenizer _tokenizer;
+  private TokenType _token;
+  private boolean _useBig;
+  private boolean _withTokens;
+  private BindingsBuilder _bindings;
+
+  public CharBufferParser()
+  {
+  }
+
+  private CharBufferParser( CharBufferTokenizer tokenizer, boolean useBig, boolean withTokens, boolean shapedBindings )
+  {
+    _tokenizer = tokenizer;
+    _useBig = useBig;
+    _withTokens = withTokens;
+    _bindings = new BindingsBuilder( shapedBindings );
+  }
+
+  @Override
+  public Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens ) throws ScriptException
+  {
+    return parseJson( jsonText, withBigNumbers, withTokens, false );
+  }
+
+  @Override
+  public Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    CharBufferTokenizer tokenizer = TOKENIZER.get();
+    tokenizer.reset( jsonText, withTokens );
+    return parse( tokenizer, withBigNumbers, withTokens, shapedBindings );
+  }
+
+  /**
+   * Parse Json text from {@code reader}. The reader is not closed.
+   *
+   * @see #parseJson(String, boolean, boolean)
+   */
+  public Object parseJson( Reader reader, boolean withBigNumbers, boolean withTokens ) throws ScriptException
+  {
+    return parseJson( reader, withBigNumbers, withTokens, false );
+  }
+
+  @Override
+  public Object parseJson( Reader reader, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    CharBufferTokenizer tokenizer = TOKENIZER.get();
+    tokenizer.reset( reader, withTokens );
+    return parse( tokenizer, withBigNumbers, withTokens, shapedBindings );
+  }
+
+  /**
+   * Parse the elements of a top-level JSON array, or a sequence of JSON values such as newline delimited JSON, one at a
+   * time. The iterator parses an element only when it is requested and holds no reference to elements it has returned,
+   * so memory use does not depend on the size of the input. Input starting with {@code [} is a top-level array.
+   * <p/>
+   * Parse and I/O errors are thrown from the iterator as RuntimeExceptions. The reader is not closed.
+   */
+  public Iterator<Object> parseElements( Reader reader, boolean withBigNumbers )
+  {
+    return parseElements( reader, withBigNumbers, false );
+  }
+
+  /**
+   * Parse elements as with {@link #parseElements(Reader, boolean)}, storing objects as {@link ShapedBindings} if
+   * {@code shapedBindings} is true.
+   */
+  public Iterator<Object> parseElements( Reader reader, boolean withBigNumbers, boolean shapedBindings )
+  {
+    // not the thread's tokenizer, the iterator may be used across threads and interleaved with other parsing
+    CharBufferTokenizer tokenizer = new CharBufferTokenizer();
+    tokenizer.reset( reader, false );
+    return new ElementIterator( new CharBufferParser( tokenizer, withBigNumbers, false, shapedBindings ) );
+  }
+
+  private Object parse( CharBufferTokenizer tokenizer, boolean withBigNumbers, boolean withTokens,
+                        boolean shapedBindings ) throws ScriptException
+  {
+    try
+    {
+      return new CharBufferParser( tokenizer, withBigNumbers, withTokens, shapedBindings ).parse();
+    }
+    catch( IOException e )
+    {
+      throw new ScriptException( e );
+    }
+    finally
+    {
+      tokenizer.release();
+    }
+  }
+
+  // jsonText = value.
+  private Object parse() throws IOException, ScriptException
+  {
+    advance();
+    return parseValue();
+  }
+
+  private void advance() throws IOException
+  {
+    _token = _tokenizer.next();
+  }
+
+  // array = "[" [ value { "," value } ] "]".
+  private Object parseArray() throws IOException, ScriptException
+  {
+    ArrayList<Object> arr = new ArrayList<>();
+    advance();
+    if( _token != TokenType.RSQUARE )
+    {
+      arr.add( parseValue() );
+      while( _token == TokenType.COMMA )
+      {
+        advance();
+        arr.add( parseValue() );
+      }
+    }
+    check( TokenType.RSQUARE, "]" );
+    return arr;
+  }
+
+  // object = "{" [ member { "," member } ] "}".
+  private Object parseObject() throws IOException, ScriptException
+  {
+    Bindings map = _bindings.begin();
+    int start = _bindings.mark();
+
+    advance();
+    if( _token == TokenType.STRING )
+    {
+      parseMember( map );
+      while( _token == TokenType.COMMA )
+      {
+        advance();
+        parseMember( map );
+      }
+    }
+    check( TokenType.RCURLY, "}" );
+    return _bindings.end( map, start );
+  }
+
+  // member = string ":" value.
+  private void parseMember( Bindings map ) throws IOException, ScriptException
+  {
+    if( _token != TokenType.STRING )
+    {
+      throw error( "expecting 'a string'" );
+    }
+    String key = _tokenizer.getKey();
+    Token keyToken = _withTokens ? makeToken( key ) : null;
+    advance();
+    check( TokenType.COLON, ":" );
+    Token valueToken = _withTokens ? makeToken( null ) : null;
+    Object val = parseValue();
+    val = _withTokens ? new Pair<>( new Token[] {keyToken, valueToken}, val ) : val;
+    _bindings.put( map, key, val );
+  }
+
+  // value = object | array | number | string | "true" | "false" | "null" .
+  private Object parseValue() throws IOException, ScriptException
+  {
+    Object val;
+    switch( _token )
+    {
+      case LCURLY:
+        return parseObject();
+      case LSQUARE:
+        return parseArray();
+      case INTEGER:
+        val = _tokenizer.getInteger( _useBig );
+        break;
+      case DOUBLE:
+        val = _tokenizer.getDouble( _useBig );
+        break;
+      case STRING:
+        val = _tokenizer.getString();
+        break;
+      case TRUE:
+        val = true;
+        break;
+      case FALSE:
+        val = false;
+        break;
+      case NULL:
+        val = null;
+        break;
+      default:
+        throw error( "Unexpected token" );
+    }
+    advance();
+    return val;
+  }
+
+  private void check( TokenType type, String s ) throws IOException, ScriptException
+  {
+    if( _token != type )
+    {
+      throw error( "expecting '" + s + "'" );
+    }
+    advance();
+  }
+
+  private Token makeToken( String string )
+  {
+    if( string == null )
+    {
+      switch( _token )
+      {
+        case LCURLY:
+          string = "{";
+          break;
+        case LSQUARE:
+          string = "[";
+          break;
+        default:
+          string = _tokenizer.getString();
+      }
+    }
+    return new Token( _token, string, _tokenizer.getOffset(), _tokenizer.getLine(), _tokenizer.getColumn() );
+  }
+
+  private ScriptException error( String msg )
+  {
+    String found;
+    switch( _token )
+    {
+      case EOF:
+        found = "EOF";
+        break;
+      case LCURLY:
+        found = "{";
+        break;
+      case RCURLY:
+        found = "}";
+        break;
+      case LSQUARE:
+        found = "[";
+        break;
+      case RSQUARE:
+        found = "]";
+        break;
+      case COMMA:
+        found = ",";
+        break;
+      case COLON:
+        found = ":";
+        break;
+      default:
+        found = _tokenizer.getString();
+    }
+    String position = _withTokens
+                      ? _tokenizer.getLine() + ":" + _tokenizer.getColumn()
+                      : "offset " + _tokenizer.getOffset();
+    return new ScriptException( "Found errors:\n[" + position + "] " + msg + ", found '" + found + "'\n" );
+  }
+
+  private static class ElementIterator implements Iterator<Object>
+  {
+    private final CharBufferParser _parser;
+    private boolean _started;
+    private boolean _array;
+    private boolean _fetched;
+    private boolean _done;
+    private Object _next;
+
+    ElementIterator( CharBufferParser parser )
+    {
+      _parser = parser;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if( !_fetched && !_done )
+      {
+        try
+        {
+          fetch();
+        }
+        catch( IOException | ScriptException e )
+        {
+          _done = true;
+          throw new RuntimeException( e );
+        }
+      }
+      return !_done;
+    }
+
+    @Override
+    public Object next()
+    {
+      if( !hasNext() )
+      {
+        throw new NoSuchElementException();
+      }
+      Object next = _next;
+      _next = null;
+      _fetched = false;
+      return next;
+    }
+
+    private void fetch() throws IOException, ScriptException
+    {
+      CharBufferParser parser = _parser;
+      if( !_started )
+      {
+        _started = true;
+        parser.advance();
+        if( parser._token == TokenType.LSQUARE )
+        {
+          _array = true;
+          parser.advance();
+          if( parser._token == TokenType.RSQUARE )
+          {
+            endArray();
+            return;
+          }
+        }
+      }
+      else if( _array )
+      {
+        if( parser._token != TokenType.COMMA )
+        {
+          endArray();
+          return;
+        }
+        parser.advance();
+      }
+
+      if( !_array && parser._token == TokenType.EOF )
+      {
+        _done = true;
+        return;
+      }
+      _next = parser.parseValue();
+      _fetched = true;
+    }
+
+    private void endArray() throws IOException, ScriptException
+    {
+      _done = true;
+      _parser.check( TokenType.RSQUARE, "]" );
+      if( _parser._token != TokenType.EOF )
+      {
+        throw _parser.error( "expecting 'EOF'" );
+      }
+    }
+  }
+}
@@ -0,0 +1,656 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.json.rt.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A JSON tokenizer that scans a reusable {@code char[]} window. Unlike {@link Tokenizer} it does not allocate a token per
+ * lexeme, {@link #next()} returns the kind of the token and the parser pulls the value of a string or number token from
+ * the tokenizer only when it needs it. Punctuation and constants allocate nothing.
+ * <p/>
+ * The window is filled from either a String or a Reader, a token may span refills. Strings and numbers that do not fit
+ * in the window, or that contain escapes, are assembled in a reusable scratch array.
+ * <p/>
+ * Positions are tracked only when requested, otherwise the tokenizer knows just the offset of the current token.
+ * <p/>
+ * Instances are reused per thread, see {@link CharBufferParser}.
+ */
+final class CharBufferTokenizer
+{
+  private static final int WINDOW_SIZE = 8192;
+  private static final int MAX_RETAINED_SCRATCH = 64 * 1024;
+  private static final int KEY_CACHE_SIZE = 1024;
+  private static final int MAX_CACHED_KEY_LENGTH = 64;
+
+  private final char[] _window = new char[WINDOW_SIZE];
+  private char[] _scratch = new char[256];
+  private final String[] _keys = new String[KEY_CACHE_SIZE];
+
+  private String _text;
+  private int _textPos;
+  private Reader _reader;
+
+  // the window, _base is the offset of _window[0] in the input
+  private int _pos;
+  private int _limit;
+  private int _base;
+
+  // the current string or number lexeme, either a range of the window or of the scratch array
+  private char[] _lexBuf;
+  private int _lexStart;
+  private int _lexLength;
+  private boolean _isLong;
+  private long _longValue;
+
+  // start of the current token
+  private int _tokenOffset;
+  private boolean _withPositions;
+  private int _line;
+  private int _lineStart;
+  private int _tokenLine;
+  private int _tokenColumn;
+
+  void reset( String text, boolean withPositions )
+  {
+    _text = text;
+    _textPos = 0;
+    _reader = null;
+    reset( withPositions );
+  }
+
+  void reset( Reader reader, boolean withPositions )
+  {
+    _text = null;
+    _reader = reader;
+    reset( withPositions );
+  }
+
+  private void reset( boolean withPositions )
+  {
+    _pos = 0;
+    _limit = 0;
+    _base = 0;
+    _withPositions = withPositions;
+    _line = 1;
+    _lineStart = -1;
+  }
+
+  /**
+   * Releases the input so it is not retained with the tokenizer
+   */
+  void release()
+  {
+    _text = null;
+    _reader = null;
+    _lexBuf = null;
+    if( _scratch.length > MAX_RETAINED_SCRATCH )
+    {
+      _scratch = new char[256];
+    }
+  }
+
+  TokenType next() throws IOException
+  {
+    int ch = skipWhiteSpace();
+    _tokenOffset = _base + _pos;
+    if( _withPositions )
+    {
+      _tokenLine = _line;
+      _tokenColumn = _tokenOffset - _lineStart;
+    }
+    switch( ch )
+    {
+      case '{':
+        _pos++;
+        return TokenType.LCURLY;
+      case '}':
+        _pos++;
+        return TokenType.RCURLY;
+      case '[':
+        _pos++;
+        return TokenType.LSQUARE;
+      case ']':
+        _pos++;
+        return TokenType.RSQUARE;
+      case ',':
+        _pos++;
+        return TokenType.COMMA;
+      case ':':
+        _pos++;
+        return TokenType.COLON;
+      case '"':
+      case '\'':
+        _pos++;
+        return consumeString( (char)ch );
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        return consumeNumber();
+      case -1:
+        return TokenType.EOF;
+      default:
+        if( ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' )
+        {
+          return consumeConstant();
+        }
+        _pos++;
+        _lexBuf = _scratch;
+        _lexStart = 0;
+        _lexLength = 1;
+        _scratch[0] = (char)ch;
+        return TokenType.ERROR;
+    }
+  }
+
+  /**
+   * @return The offset of the current token, one-based as with {@link Token#getOffset()}
+   */
+  int getOffset()
+  {
+    return _tokenOffset + 1;
+  }
+
+  /**
+   * @return The line of the current token, or -1 if positions are not tracked
+   */
+  int getLine()
+  {
+    return _withPositions ? _tokenLine : -1;
+  }
+
+  /**
+   * @return The column of the current token, or -1 if positions are not tracked
+   */
+  int getColumn()
+  {
+    return _withPositions ? _tokenColumn : -1;
+  }
+
+  /**
+   * @return The text of the current string, number, constant or error token
+   */
+  String getString()
+  {
+    return new String( _lexBuf, _lexStart, _lexLength );
+  }
+
+  /**
+   * @return The current string token as an object key. Repeated keys share the same String instance.
+   */
+  String getKey()
+  {
+    char[] buf = _lexBuf;
+    int start = _lexStart;
+    int length = _lexLength;
+    if( length > MAX_CACHED_KEY_LENGTH )
+    {
+      return new String( buf, start, length );
+    }
+
+    int hash = 0;
+    for( int i = start, end = start + length; i < end; i++ )
+    {
+      hash = 31 * hash + buf[i];
+    }
+    int index = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+    String key = _keys[index];
+    if( key == null || key.hashCode() != hash || !matches( key, buf, start, length ) )
+    {
+      key = new String( buf, start, length );
+      _keys[index] = key;
+    }
+    return key;
+  }
+
+  private static boolean matches( String key, char[] buf, int start, int length )
+  {
+    if( key.length() != length )
+    {
+      return false;
+    }
+    for( int i = 0; i < length; i++ )
+    {
+      if( key.charAt( i ) != buf[start + i] )
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The current INTEGER token as an Integer or a Long, or as a BigInteger if {@code big}
+   */
+  Object getInteger( boolean big )
+  {
+    if( big )
+    {
+      return new BigInteger( getString() );
+    }
+    if( _isLong )
+    {
+      long value = _longValue;
+      return value == (int)value ? (Object)(int)value : (Object)value;
+    }
+    try
+    {
+      return Long.parseLong( getString() );
+    }
+    catch( NumberFormatException e )
+    {
+      // overflow, DefaultParser also answers 0
+      return 0;
+    }
+  }
+
+  /**
+   * @return The current DOUBLE token as a Double, or as a BigDecimal if {@code big}
+   */
+  Object getDouble( boolean big )
+  {
+    return big
+           ? new BigDecimal( _lexBuf, _lexStart, _lexLength )
+           : (Object)Double.parseDouble( getString() );
+  }
+
+  /*
+    string = '"' {char} '"' | "'" {char} "'".
+    char = unescaped | "\" ('"' | "\" | "/" | "b" | "f" | "n" | "r" | "t" | "u" hex hex hex hex).
+  */
+  private TokenType consumeString( char quote ) throws IOException
+  {
+    // fast path, the string is in the window and has no escapes
+    char[] buf = _window;
+    int start = _pos;
+    for( int i = start, limit = _limit; i < limit; i++ )
+    {
+      char c = buf[i];
+      if( c == quote )
+      {
+        if( _withPositions )
+        {
+          countLines( start, i );
+        }
+        _lexBuf = buf;
+        _lexStart = start;
+        _lexLength = i - start;
+        _pos = i + 1;
+        return TokenType.STRING;
+      }
+      if( c == '\\' )
+      {
+        break;
+      }
+    }
+
+    // slow path, assemble the string in the scratch array
+    int length = 0;
+    while( true )
+    {
+      int ch = peek();
+      if( ch == -1 )
+      {
+        return error( length );
+      }
+      int pos = _pos;
+      if( ch == quote )
+      {
+        _pos++;
+        _lexBuf = _scratch;
+        _lexStart = 0;
+        _lexLength = length;
+        return TokenType.STRING;
+      }
+      if( ch == '\\' )
+      {
+        _pos++;
+        int escaped = unescape();
+        if( escaped < 0 )
+        {
+          return error( length );
+        }
+        length = append( length, (char)escaped );
+        continue;
+      }
+
+      // copy the run of plain chars up to the next quote, escape or end of window
+      int end = pos;
+      for( int limit = _limit; end < limit; end++ )
+      {
+        char c = buf[end];
+        if( c == quote || c == '\\' )
+        {
+          break;
+        }
+      }
+      if( _withPositions )
+      {
+        countLines( pos, end );
+      }
+      int run = end - pos;
+      ensureScratch( length + run );
+      System.arraycopy( buf, pos, _scratch, length, run );
+      length += run;
+      _pos = end;
+    }
+  }
+
+  private int unescape() throws IOException
+  {
+    int ch = peek();
+    if( ch < 0 )
+    {
+      return -1;
+    }
+    _pos++;
+    switch( ch )
+    {
+      case '"':
+      case '\\':
+      case '/':
+        return ch;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        int u = 0;
+        for( int i = 0; i < 4; i++ )
+        {
+          int digit = hexDigit( peek() );
+          if( digit < 0 )
+          {
+            return -1;
+          }
+          _pos++;
+          u = u * 16 + digit;
+        }
+        return u;
+      default:
+        return -1;
+    }
+  }
+
+  /*
+    number = [ "-" ] int [ frac ] [ exp ].
+    exp = ("e" | "E") [ "-" | "+" ] digit {digit}.
+    frac = "." digit {digit}.
+    int = "0" |  digit19 {digit}.
+  */
+  private TokenType consumeNumber() throws IOException
+  {
+    int length = 0;
+    boolean negative = false;
+    boolean isDouble = false;
+    int ch = peek();
+    if( ch == '-' )
+    {
+      negative = true;
+      length = appendNext( length, ch );
+      ch = peek();
+    }
+
+    // accumulate the value negated, it is used only if it fits
+    long value = 0;
+    int intStart = length;
+    if( ch == '0' )
+    {
+      length = appendNext( length, ch );
+      ch = peek();
+    }
+    else if( isDigit( ch ) )
+    {
+      do
+      {
+        value = value * 10 - (ch - '0');
+        length = appendNext( length, ch );
+        ch = peek();
+      } while( isDigit( ch ) );
+    }
+    else
+    {
+      return error( length );
+    }
+    int intDigits = length - intStart;
+
+    if( ch == '.' )
+    {
+      isDouble = true;
+      length = appendNext( length, ch );
+      ch = peek();
+      if( !isDigit( ch ) )
+      {
+        return error( length );
+      }
+      do
+      {
+        length = appendNext( length, ch );
+        ch = peek();
+      } while( isDigit( ch ) );
+    }
+    if( ch == 'E' || ch == 'e' )
+    {
+      isDouble = true;
+      length = appendNext( length, ch );
+      ch = peek();
+      if( ch == '-' || ch == '+' )
+      {
+        length = appendNext( length, ch );
+        ch = peek();
+      }
+      if( !isDigit( ch ) )
+      {
+        return error( length );
+      }
+      do
+      {
+        length = appendNext( length, ch );
+        ch = peek();
+      } while( isDigit( ch ) );
+    }
+
+    _lexBuf = _scratch;
+    _lexStart = 0;
+    _lexLength = length;
+    if( isDouble )
+    {
+      return TokenType.DOUBLE;
+    }
+    // 18 digits always fit
+    _isLong = intDigits <= 18;
+    _longValue = negative ? value : -value;
+    return TokenType.INTEGER;
+  }
+
+  private TokenType consumeConstant() throws IOException
+  {
+    int length = 0;
+    int ch = peek();
+    do
+    {
+      length = appendNext( length, ch );
+      ch = peek();
+    } while( ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' );
+
+    _lexBuf = _scratch;
+    _lexStart = 0;
+    _lexLength = length;
+    if( matches( "true", _scratch, 0, length ) )
+    {
+      return TokenType.TRUE;
+    }
+    if( matches( "false", _scratch, 0, length ) )
+    {
+      return TokenType.FALSE;
+    }
+    if( matches( "null", _scratch, 0, length ) )
+    {
+      return TokenType.NULL;
+    }
+    return TokenType.ERROR;
+  }
+
+  private int skipWhiteSpace() throws IOException
+  {
+    while( true )
+    {
+      char[] buf = _window;
+      for( int i = _pos, limit = _limit; i < limit; i++ )
+      {
+        char c = buf[i];
+        if( c == '\n' )
+        {
+          if( _withPositions )
+          {
+            newLine( i );
+          }
+        }
+        else if( c != ' ' && c != '\t' && c != '\r' )
+        {
+          _pos = i;
+          return c;
+        }
+      }
+      _pos = _limit;
+      if( !fill() )
+      {
+        return -1;
+      }
+    }
+  }
+
+  private void countLines( int start, int end )
+  {
+    for( int i = start; i < end; i++ )
+    {
+      if( _window[i] == '\n' )
+      {
+        newLine( i );
+      }
+    }
+  }
+
+  private void newLine( int index )
+  {
+    _line++;
+    _lineStart = _base + index;
+  }
+
+  private TokenType error( int length )
+  {
+    _lexBuf = _scratch;
+    _lexStart = 0;
+    _lexLength = length;
+    return TokenType.ERROR;
+  }
+
+  private int peek() throws IOException
+  {
+    return _pos < _limit || fill() ? _window[_pos] : -1;
+  }
+
+  private int appendNext( int length, int ch )
+  {
+    _pos++;
+    return append( length, (char)ch );
+  }
+
+  private int append( int length, char c )
+  {
+    ensureScratch( length + 1 );
+    _scratch[length] = c;
+    return length + 1;
+  }
+
+  private void ensureScratch( int capacity )
+  {
+    if( capacity > _scratch.length )
+    {
+      char[] scratch = new char[Math.max( capacity, _scratch.length * 2 )];
+      System.arraycopy( _scratch, 0, scratch, 0, _scratch.length );
+      _scratch = scratch;
+    }
+  }
+
+  private boolean fill() throws IOException
+  {
+    _base += _limit;
+    _pos = 0;
+    _limit = 0;
+    int count;
+    if( _text != null )
+    {
+      count = Math.min( _window.length, _text.length() - _textPos );
+      _text.getChars( _textPos, _textPos + count, _window, 0 );
+      _textPos += count;
+    }
+    else if( _reader != null )
+    {
+      count = _reader.read( _window, 0, _window.length );
+    }
+    else
+    {
+      count = -1;
+    }
+    if( count <= 0 )
+    {
+      return false;
+    }
+    _limit = count;
+    return true;
+  }
+
+  private static int hexDigit( int ch )
+  {
+    if( ch >= '0' && ch <= '9' )
+    {
+      return ch - '0';
+    }
+    if( ch >= 'a' && ch <= 'f' )
+    {
+      return ch - 'a' + 10;
+    }
+    if( ch >= 'A' && ch <= 'F' )
+    {
+      return ch - 'A' + 10;
+    }
+    return -1;
+  }
+
+  private static boolean isDigit( int ch )
+  {
+    return ch >= '0' && ch <= '9';
+  }
+}
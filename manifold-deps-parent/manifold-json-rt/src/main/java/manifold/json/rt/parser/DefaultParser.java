@@ -16,6 +16,8 @@
 
 package manifold.json.rt.parser;
 
+import java.io.BufferedReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.List;
 import manifold.rt.api.ScriptException;
@@ -35,7 +37,32 @@ public class DefaultParser implements IJsonParser
   @Override
   public Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens ) throws ScriptException
   {
-    SimpleParserImpl parser = new SimpleParserImpl( new Tokenizer( new StringReader( jsonText ) ), withBigNumbers );
+    return parseJson( jsonText, withBigNumbers, withTokens, false );
+  }
+
+  @Override
+  public Object parseJson( String jsonText, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    return parse( new StringReader( jsonText ), withBigNumbers, withTokens, shapedBindings );
+  }
+
+  /**
+   * Parses the text as it is read from {@code reader}, the text is not read into a String first.
+   */
+  @Override
+  public Object parseJson( Reader reader, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    // the tokenizer reads a char at a time
+    return parse( reader instanceof BufferedReader ? reader : new BufferedReader( reader ),
+      withBigNumbers, withTokens, shapedBindings );
+  }
+
+  private Object parse( Reader reader, boolean withBigNumbers, boolean withTokens, boolean shapedBindings )
+    throws ScriptException
+  {
+    SimpleParserImpl parser = new SimpleParserImpl( new Tokenizer( reader ), withBigNumbers, shapedBindings );
     Object result = parser.parse( withTokens );
     List<String> errors = parser.getErrors();
     if( errors.size() != 0 )
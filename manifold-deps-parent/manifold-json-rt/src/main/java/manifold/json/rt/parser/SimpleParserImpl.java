@@ -19,10 +19,8 @@ package manifold.json.rt.parser;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import manifold.rt.api.Bindings;
-import manifold.json.rt.api.DataBindings;
 import manifold.rt.api.util.Pair;
 
 /*
@@ -53,11 +51,18 @@ final class SimpleParserImpl
   private final List<String> _errors;
   private boolean _useBig;
   private boolean _withTokens;
+  private final BindingsBuilder _bindings;
 
   SimpleParserImpl( Tokenizer tokenizer, boolean useBig )
+  {
+    this( tokenizer, useBig, false );
+  }
+
+  SimpleParserImpl( Tokenizer tokenizer, boolean useBig, boolean shapedBindings )
   {
     _tokenizer = tokenizer;
     _useBig = useBig;
+    _bindings = new BindingsBuilder( shapedBindings );
     _errors = new ArrayList<>();
     advance();
   }
@@ -108,8 +113,8 @@ final class SimpleParserImpl
   // object = "{" [ member { "," member } ] "}".
   private Object parseObject()
   {
-    // using a LinkedHashMap to preserve insertion order, necessary for IJ plugin
-    Bindings map = new DataBindings( new LinkedHashMap<>() );
+    Bindings map = _bindings.begin();
+    int start = _bindings.mark();
 
     advance();
     if( _token.getType() == TokenType.STRING )
@@ -122,7 +127,7 @@ final class SimpleParserImpl
       }
     }
     checkAndSkip( TokenType.RCURLY, "}" );
-    return map;
+    return _bindings.end( map, start );
   }
 
   // member = string ":" value.
@@ -134,7 +139,8 @@ final class SimpleParserImpl
     check( TokenType.COLON, ":" );
     Token valueToken = _token;
     Object val = parseValue();
-    map.put( key, _withTokens ? new Pair<>( new Token[] {keyToken, valueToken}, val ) : val );
+    val = _withTokens ? new Pair<>( new Token[] {keyToken, valueToken}, val ) : val;
+    _bindings.put( map, key, val );
   }
 
   // value = object | array | number | string | "true" | "false" | "null" .
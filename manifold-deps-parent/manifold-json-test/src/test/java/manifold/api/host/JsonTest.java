@@ -15,6 +15,10 @@ import manifold.rt.api.Bindings;
 
 import abc.*;
 import junit.framework.TestCase;
+import manifold.ext.rt.CoercionProviders;
+import manifold.ext.rt.RuntimeMethods;
+import manifold.ext.rt.api.ICallHandler;
+import manifold.ext.rt.api.ICoercionProvider;
 import manifold.json.rt.api.Base64Encoding;
 import manifold.json.rt.api.OctetEncoding;
 import manifold.util.ReflectUtil;
@@ -787,4 +791,39 @@ public class JsonTest extends TestCase
       assertEquals("innerFoo", s.innerFoo());
     }
   }
+
+  public void testCoercion()
+  {
+    // repeated to use the cached coercions
+    for( int i = 0; i < 2; i++ )
+    {
+      assertEquals( 5L, RuntimeMethods.coerce( "5", long.class ) );
+      assertEquals( 5L, RuntimeMethods.coerce( 5, Long.class ) );
+      assertEquals( Instant.ofEpochMilli( 5 ), RuntimeMethods.coerce( 5L, Instant.class ) );
+      assertEquals( 5L, RuntimeMethods.coerce( Instant.ofEpochMilli( 5 ), Long.class ) );
+      assertEquals( "5", RuntimeMethods.coerce( 5L, String.class ) );
+      assertEquals( LocalDate.of( 2020, 1, 2 ), RuntimeMethods.coerce( "2020-01-02", LocalDate.class ) );
+      assertEquals( new BigInteger( "5" ), RuntimeMethods.coerce( "5", BigInteger.class ) );
+      assertEquals( 5, RuntimeMethods.coerce( 5L, int.class ) );
+      assertEquals( 0, RuntimeMethods.coerce( null, int.class ) );
+      assertNull( RuntimeMethods.coerce( "", Integer.class ) );
+      assertEquals( "", RuntimeMethods.coerce( "", String.class ) );
+    }
+
+    // a provider that does not handle a pair must not coerce it
+    Object[][] pairs = {{"5", Long.class}, {5, Long.class}, {5L, String.class}, {5, String.class}, {"5", Integer.class},
+                        {Instant.ofEpochMilli( 5 ), Long.class}, {Instant.ofEpochMilli( 5 ), long.class},
+                        {"5", BigDecimal.class}, {BigDecimal.ONE, String.class}, {"aGk=", Base64Encoding.class}};
+    for( ICoercionProvider provider: CoercionProviders.get() )
+    {
+      for( Object[] pair: pairs )
+      {
+        if( !provider.handles( pair[0].getClass(), (Class)pair[1] ) )
+        {
+          assertSame( provider + " " + Arrays.toString( pair ),
+            ICallHandler.UNHANDLED, provider.coerce( pair[0], (Class)pair[1] ) );
+        }
+      }
+    }
+  }
 }
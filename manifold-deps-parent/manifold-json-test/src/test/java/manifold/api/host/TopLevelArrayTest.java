@@ -16,6 +16,10 @@
 
 package manifold.api.host;
 
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import junit.framework.TestCase;
 
 import abc.TopLevelArray;
@@ -47,6 +51,26 @@ public class TopLevelArrayTest extends TestCase
     assertEquals( "bye", array.get(1).getFoo() );
   }
 
+  public void testStreamFromJsonReader()
+  {
+    try( Stream<TopLevelArray.TopLevelArrayItem> items =
+           TopLevelArray.TopLevelArrayItem.load().streamFromJsonReader( new StringReader( makeJsonArray() ) ) )
+    {
+      List<String> foos = items.map( item -> item.getFoo() ).collect( Collectors.toList() );
+      assertEquals( 2, foos.size() );
+      assertEquals( "hi", foos.get( 0 ) );
+      assertEquals( "bye", foos.get( 1 ) );
+    }
+
+    String ndjson = "{\"foo\": \"hi\"}\n{\"foo\": \"bye\"}\n";
+    try( Stream<TopLevelArray.TopLevelArrayItem> items =
+           TopLevelArray.TopLevelArrayItem.load().streamFromJsonReader( new StringReader( ndjson ) ) )
+    {
+      TopLevelArray.TopLevelArrayItem last = items.reduce( ( a, b ) -> b ).get();
+      assertEquals( "bye", last.getFoo() );
+    }
+  }
+
   public void testWriteJson()
   {
     String jsonArray = makeJsonArray();
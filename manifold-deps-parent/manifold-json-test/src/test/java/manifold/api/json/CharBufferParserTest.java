@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.api.json;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import manifold.json.rt.Json;
+import manifold.json.rt.api.IJsonParser;
+import manifold.json.rt.parser.CharBufferParser;
+import manifold.json.rt.parser.Token;
+import manifold.rt.api.ScriptException;
+import manifold.rt.api.util.Pair;
+
+public class CharBufferParserTest extends TestCase
+{
+  private static final String SAMPLE =
+    "{\n" +
+    "  \"name\": \"Scott\",\n" +
+    "  'single': 'quoted \\\"string\\\"',\n" +
+    "  \"escapes\": \"tab\\t newline\\n slash\\/ unicode\\u00E9\\u20AC backslash\\\\\",\n" +
+    "  \"ints\": [0, -0, 7, -7, 2147483647, -2147483648, 2147483648, -2147483649, 123456789012345678],\n" +
+    "  \"longs\": [9223372036854775807, -9223372036854775808, 99999999999999999999],\n" +
+    "  \"doubles\": [0.5, -1.25, 1e3, 2E-2, -3.5e+10, 0.1],\n" +
+    "  \"constants\": [true, false, null],\n" +
+    "  \"empty\": {},\n" +
+    "  \"emptyList\": [],\n" +
+    "  \"nested\": {\"a\": {\"b\": [{\"c\": 1}, {\"c\": 2}]}},\n" +
+    "  \"multi\r\nline\": \"x\ny\"\n" +
+    "}";
+
+  private final IJsonParser _default = IJsonParser.getDefaultParser();
+  private final CharBufferParser _parser = new CharBufferParser();
+
+  public void testSameValuesAsDefaultParser() throws ScriptException
+  {
+    assertEquals( _default.parseJson( SAMPLE, false, false ), _parser.parseJson( SAMPLE, false, false ) );
+    assertEquals( _default.parseJson( SAMPLE, true, false ), _parser.parseJson( SAMPLE, true, false ) );
+
+    for( String json: new String[] {"1", "-2.5", "\"str\"", "true", "null", "[]", "[1,[2,[3]]]", " { } "} )
+    {
+      assertEquals( json, _default.parseJson( json, false, false ), _parser.parseJson( json, false, false ) );
+    }
+  }
+
+  public void testNumberTypes() throws ScriptException
+  {
+    Map<?, ?> map = (Map<?, ?>)_parser.parseJson( SAMPLE, false, false );
+    List<?> ints = (List<?>)map.get( "ints" );
+    assertEquals( Integer.class, ints.get( 5 ).getClass() );
+    assertEquals( Long.class, ints.get( 6 ).getClass() );
+    List<?> longs = (List<?>)map.get( "longs" );
+    assertEquals( Long.MAX_VALUE, longs.get( 0 ) );
+    assertEquals( Long.MIN_VALUE, longs.get( 1 ) );
+  }
+
+  public void testSameTokensAsDefaultParser() throws ScriptException
+  {
+    assertSameTokens( _default.parseJson( SAMPLE, false, true ), _parser.parseJson( SAMPLE, false, true ) );
+  }
+
+  public void testLargeInputAcrossWindows() throws ScriptException
+  {
+    StringBuilder sb = new StringBuilder( "[" );
+    for( int i = 0; i < 2000; i++ )
+    {
+      if( i > 0 )
+      {
+        sb.append( ",\n" );
+      }
+      sb.append( "{\"id\": " ).append( i * 1000003L )
+        .append( ", \"value\": " ).append( i / 7.0 )
+        .append( ", \"text\": \"" );
+      for( int j = 0; j < i % 37; j++ )
+      {
+        sb.append( j % 5 == 0 ? "\\u0041" : j % 3 == 0 ? "\\n" : "abc" );
+      }
+      sb.append( "\"}" );
+    }
+    sb.append( "]" );
+    String json = sb.toString();
+
+    Object expected = _default.parseJson( json, false, false );
+    assertEquals( expected, _parser.parseJson( json, false, false ) );
+    assertEquals( expected, _parser.parseJson( new StringReader( json ), false, false ) );
+    assertEquals( expected, _parser.parseJson( new TrickleReader( json ), false, false ) );
+    assertSameTokens( _default.parseJson( json, false, true ), _parser.parseJson( new TrickleReader( json ), false, true ) );
+  }
+
+  public void testKeysAreShared() throws ScriptException
+  {
+    List<?> list = (List<?>)_parser.parseJson( "[{\"id\": 1}, {\"id\": 2}]", false, false );
+    String key1 = (String)((Map<?, ?>)list.get( 0 )).keySet().iterator().next();
+    String key2 = (String)((Map<?, ?>)list.get( 1 )).keySet().iterator().next();
+    assertSame( key1, key2 );
+  }
+
+  public void testErrors()
+  {
+    for( String json: new String[] {"", "{", "[1,", "{\"a\" 1}", "{\"a\": tru}", "[1 2]", "\"open", "-", "1.", "[\"\\x\"]"} )
+    {
+      try
+      {
+        _parser.parseJson( json, false, false );
+        fail( "expected error: " + json );
+      }
+      catch( ScriptException e )
+      {
+        assertTrue( e.getMessage().startsWith( "Found errors:" ) );
+      }
+    }
+  }
+
+  public void testParseElements() throws ScriptException
+  {
+    String array = "[{\"a\": 1}, [2], \"three\", 4, null]";
+    assertEquals( _default.parseJson( array, false, false ), elements( array ) );
+    assertEquals( _default.parseJson( array, false, false ), elements( "{\"a\": 1}\n[2]\n\"three\"\n4\nnull\n" ) );
+    assertEquals( Arrays.asList(), elements( "[]" ) );
+    assertEquals( Arrays.asList(), elements( " \n" ) );
+
+    for( String json: new String[] {"[1, 2", "[1 2]", "[1] 2", "{\"a\": 1} ]"} )
+    {
+      try
+      {
+        elements( json );
+        fail( "expected error: " + json );
+      }
+      catch( RuntimeException e )
+      {
+        assertTrue( e.getCause() instanceof ScriptException );
+      }
+    }
+  }
+
+  public void testParseElementsIsLazy()
+  {
+    // an endless array
+    Reader endless = new Reader()
+    {
+      private int _count;
+
+      @Override
+      public int read( char[] cbuf, int off, int len )
+      {
+        String element = _count++ == 0 ? "[{\"id\": 0}" : ",{\"id\": " + _count + "}";
+        element.getChars( 0, element.length(), cbuf, off );
+        return element.length();
+      }
+
+      @Override
+      public void close()
+      {
+      }
+    };
+    Iterator<Object> elements = _parser.parseElements( endless, false );
+    for( int i = 0; i < 100000; i++ )
+    {
+      assertTrue( elements.hasNext() );
+      elements.next();
+    }
+    assertTrue( elements.hasNext() );
+  }
+
+  private List<Object> elements( String json )
+  {
+    List<Object> result = new ArrayList<>();
+    _parser.parseElements( new TrickleReader( json ), false ).forEachRemaining( result::add );
+    return result;
+  }
+
+  public void testSelectedWithParserName()
+  {
+    try
+    {
+      Json.setParserName( CharBufferParser.class.getName() );
+      assertEquals( Json.fromJson( "{\"a\": [1, 2.5]}" ), Json.fromJson( "{\"a\": [1, 2.5]}" ) );
+      try
+      {
+        Json.fromJson( "{\"a\" 1}" );
+        fail();
+      }
+      catch( RuntimeException e )
+      {
+        assertTrue( e.getCause() instanceof ScriptException );
+      }
+    }
+    finally
+    {
+      Json.setParserName( null );
+    }
+  }
+
+  private void assertSameTokens( Object expected, Object actual )
+  {
+    if( expected instanceof Pair )
+    {
+      Token[] expectedTokens = (Token[])((Pair)expected).getFirst();
+      Token[] actualTokens = (Token[])((Pair)actual).getFirst();
+      for( int i = 0; i < 2; i++ )
+      {
+        assertEquals( expectedTokens[i].getType(), actualTokens[i].getType() );
+        assertEquals( expectedTokens[i].getString(), actualTokens[i].getString() );
+        assertEquals( expectedTokens[i].getLineNumber(), actualTokens[i].getLineNumber() );
+        assertEquals( expectedTokens[i].getColumn(), actualTokens[i].getColumn() );
+      }
+      assertEquals( expectedTokens[0].getOffset(), actualTokens[0].getOffset() );
+      assertSameTokens( ((Pair)expected).getSecond(), ((Pair)actual).getSecond() );
+    }
+    else if( expected instanceof Map )
+    {
+      Map<?, ?> expectedMap = (Map<?, ?>)expected;
+      Map<?, ?> actualMap = (Map<?, ?>)actual;
+      assertEquals( expectedMap.keySet(), actualMap.keySet() );
+      for( Object key: expectedMap.keySet() )
+      {
+        assertSameTokens( expectedMap.get( key ), actualMap.get( key ) );
+      }
+    }
+    else if( expected instanceof List )
+    {
+      List<?> expectedList = (List<?>)expected;
+      List<?> actualList = (List<?>)actual;
+      assertEquals( expectedList.size(), actualList.size() );
+      for( int i = 0; i < expectedList.size(); i++ )
+      {
+        assertSameTokens( expectedList.get( i ), actualList.get( i ) );
+      }
+    }
+    else
+    {
+      assertEquals( expected, actual );
+    }
+  }
+
+  /**
+   * Returns at most 5 chars per read so tokens span reads
+   */
+  private static class TrickleReader extends Reader
+  {
+    private final String _text;
+    private int _pos;
+
+    TrickleReader( String text )
+    {
+      _text = text;
+    }
+
+    @Override
+    public int read( char[] cbuf, int off, int len )
+    {
+      if( _pos == _text.length() )
+      {
+        return -1;
+      }
+      int count = Math.min( Math.min( len, 5 ), _text.length() - _pos );
+      _text.getChars( _pos, _pos + count, cbuf, off );
+      _pos += count;
+      return count;
+    }
+
+    @Override
+    public void close()
+    {
+    }
+  }
+}
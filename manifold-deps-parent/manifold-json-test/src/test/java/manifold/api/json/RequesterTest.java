@@ -16,6 +16,7 @@
 
 package manifold.api.json;
 
+import manifold.json.rt.api.DataBindings;
 import manifold.json.rt.api.Requester;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -24,7 +25,16 @@ import org.junit.Test;
 import abc.Dummy;
 import spark.Spark;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class RequesterTest
 {
@@ -79,4 +89,67 @@ public class RequesterTest
     Object queryString = req.getOne( "testGet_QueryString?firstParam=firstValue", Dummy.create(), Requester.Format.Text );
     assertEquals( "firstParam=firstValue&foo=bar&abc=8", queryString );
   }
+
+  @Test
+  public void httpPostAsyncEcho()
+  {
+    Requester<Object> req = new Requester<>( "http://localhost:4567/" );
+    DataBindings payload = new DataBindings();
+    payload.put( "name", "Scott" );
+    payload.put( "ids", Arrays.asList( 1, 2, 3 ) );
+    Object result = req.postOneAsync( "testPost_Echo", payload ).join();
+    assertEquals( payload, result );
+  }
+
+  @Test
+  public void httpGetAsyncWithParams()
+  {
+    Requester<Dummy> req = Dummy.request( "http://localhost:4567/" )
+      .withParam( "foo", "bar" )
+      .withParam( "abc", "8" );
+    Object queryString = req.getOneAsync( "testGet_QueryString", Dummy.create(), Requester.Format.Text ).join();
+    assertEquals( "foo=bar&abc=8", queryString );
+  }
+
+  @Test
+  public void httpGetAsyncGzip()
+  {
+    Requester<Object> req = new Requester<>( "http://localhost:4567/" );
+    Object result = req.getOneAsync( "testGet_Gzip" ).join();
+    DataBindings expected = new DataBindings();
+    expected.put( "gzipped", true );
+    assertEquals( expected, result );
+  }
+
+  @Test
+  public void httpPostAsyncConcurrent()
+  {
+    Requester<Object> req = new Requester<>( "http://localhost:4567/" );
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for( int i = 0; i < 50; i++ )
+    {
+      DataBindings payload = new DataBindings();
+      payload.put( "id", i );
+      futures.add( req.postOneAsync( "testPost_Echo", payload ) );
+    }
+    for( int i = 0; i < futures.size(); i++ )
+    {
+      assertEquals( i, ((DataBindings)futures.get( i ).join()).get( "id" ) );
+    }
+  }
+
+  @Test
+  public void httpAsyncError()
+  {
+    Requester<Object> req = new Requester<>( "http://localhost:4567/" );
+    try
+    {
+      req.getOneAsync( "testGet_NotFound" ).join();
+      fail();
+    }
+    catch( CompletionException e )
+    {
+      assertTrue( e.getCause() instanceof IOException );
+    }
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.api.json;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import manifold.json.rt.Json;
+import manifold.json.rt.api.DataBindings;
+import manifold.json.rt.api.IJsonParser;
+import manifold.json.rt.api.ShapedBindings;
+import manifold.json.rt.parser.CharBufferParser;
+import manifold.rt.api.ScriptException;
+
+public class ShapedBindingsTest extends TestCase
+{
+  private static final String RECORDS =
+    "[\n" +
+    "  {\"id\": 1, \"name\": \"Scott\", \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"Oakland\", \"zip\": \"94610\"}},\n" +
+    "  {\"id\": 2, \"name\": \"Carson\", \"tags\": [], \"address\": {\"city\": \"Berkeley\", \"zip\": \"94703\"}},\n" +
+    "  {\"id\": 3, \"name\": null, \"extra\": true, \"address\": {}},\n" +
+    "  {\"id\": 4, \"id\": 5}\n" +
+    "]";
+
+  public void testSameValuesAsDataBindings() throws ScriptException
+  {
+    for( IJsonParser parser: new IJsonParser[] {IJsonParser.getDefaultParser(), new CharBufferParser()} )
+    {
+      Object expected = parser.parseJson( RECORDS, false, false, false );
+      Object shaped = parser.parseJson( RECORDS, false, false, true );
+      assertEquals( expected, shaped );
+      assertEquals( expected.hashCode(), shaped.hashCode() );
+
+      List<?> records = (List<?>)shaped;
+      for( Object record: records )
+      {
+        assertTrue( record instanceof ShapedBindings );
+        assertTrue( ((ShapedBindings)record).isShaped() );
+      }
+      assertEquals( 5, ((Map<?, ?>)records.get( 3 )).get( "id" ) );
+      assertEquals( 1, ((Map<?, ?>)records.get( 3 )).size() );
+    }
+  }
+
+  public void testSameKeysShareShape() throws ScriptException
+  {
+    IJsonParser parser = IJsonParser.getDefaultParser();
+    List<?> records = (List<?>)parser.parseJson( RECORDS, false, false, true );
+    Map<?, ?> first = (Map<?, ?>)records.get( 0 );
+    Map<?, ?> second = (Map<?, ?>)records.get( 1 );
+    assertSame( first.keySet().iterator().next(), second.keySet().iterator().next() );
+    assertEquals( Arrays.asList( "id", "name", "tags", "address" ), new ArrayList<>( second.keySet() ) );
+  }
+
+  public void testMutation()
+  {
+    ShapedBindings bindings = new ShapedBindings();
+    Map<String, Object> expected = new DataBindings();
+    for( String key: new String[] {"a", "b", "c", "d", "e"} )
+    {
+      assertEquals( expected.put( key, key.length() ), bindings.put( key, key.length() ) );
+    }
+    assertEquals( expected, bindings );
+    assertTrue( bindings.isShaped() );
+
+    // replacing a value and removing the last key keep the compact layout
+    assertEquals( expected.put( "b", "bee" ), bindings.put( "b", "bee" ) );
+    assertEquals( expected.remove( "e" ), bindings.remove( "e" ) );
+    assertEquals( expected, bindings );
+    assertTrue( bindings.isShaped() );
+
+    for( Map.Entry<String, Object> entry: bindings.entrySet() )
+    {
+      entry.setValue( entry.getKey() + "!" );
+    }
+    for( Map.Entry<String, Object> entry: expected.entrySet() )
+    {
+      entry.setValue( entry.getKey() + "!" );
+    }
+    assertEquals( expected, bindings );
+
+    // removing from the middle converts to a map, preserving order
+    assertEquals( expected.remove( "b" ), bindings.remove( "b" ) );
+    assertFalse( bindings.isShaped() );
+    assertEquals( expected, bindings );
+    assertEquals( new ArrayList<>( expected.keySet() ), new ArrayList<>( bindings.keySet() ) );
+    assertEquals( expected.put( "f", 6 ), bindings.put( "f", 6 ) );
+    assertEquals( new ArrayList<>( expected.values() ), new ArrayList<>( bindings.values() ) );
+
+    bindings.clear();
+    assertTrue( bindings.isEmpty() );
+    assertTrue( bindings.isShaped() );
+  }
+
+  public void testIteratorRemove()
+  {
+    ShapedBindings bindings = new ShapedBindings();
+    bindings.put( "a", 1 );
+    bindings.put( "b", 2 );
+    bindings.put( "c", 3 );
+    Iterator<String> keys = bindings.keySet().iterator();
+    keys.next();
+    keys.remove();
+    assertEquals( 2, bindings.size() );
+    assertNull( bindings.get( "a" ) );
+    assertEquals( 3, bindings.get( "c" ) );
+  }
+
+  public void testKeyChecks()
+  {
+    ShapedBindings bindings = new ShapedBindings();
+    try
+    {
+      bindings.put( "", 1 );
+      fail();
+    }
+    catch( IllegalArgumentException ignore )
+    {
+    }
+    try
+    {
+      bindings.put( null, 1 );
+      fail();
+    }
+    catch( NullPointerException ignore )
+    {
+    }
+  }
+
+  public void testManyKeysConvertToMap()
+  {
+    Map<String, Object> expected = new LinkedHashMap<>();
+    ShapedBindings bindings = new ShapedBindings();
+    for( int i = 0; i < 100; i++ )
+    {
+      expected.put( "key" + i, i );
+      bindings.put( "key" + i, i );
+    }
+    assertFalse( bindings.isShaped() );
+    assertEquals( new ArrayList<>( expected.entrySet() ), new ArrayList<>( bindings.entrySet() ) );
+  }
+
+  public void testUnusedShapesAreReclaimed()
+  {
+    // more key sequences than the shape limit, each sequence used only while the bindings is reachable
+    int unshaped = 0;
+    for( int i = 0; i < 64; i++ )
+    {
+      for( int j = 0; j < 64; j++ )
+      {
+        for( int k = 0; k < 8; k++ )
+        {
+          ShapedBindings bindings = new ShapedBindings();
+          bindings.put( "a" + i, i );
+          bindings.put( "b" + j, j );
+          bindings.put( "c" + k, k );
+          if( !bindings.isShaped() )
+          {
+            unshaped++;
+            System.gc();
+          }
+        }
+      }
+    }
+    // a few may convert while the collector catches up, not the bulk of them
+    assertTrue( "unshaped: " + unshaped, unshaped < 64 * 64 * 8 / 4 );
+
+    ShapedBindings bindings = new ShapedBindings();
+    bindings.put( "fresh", 1 );
+    assertTrue( bindings.isShaped() );
+  }
+
+  public void testJsonSetting()
+  {
+    boolean shaped = Json.isShapedBindings();
+    try
+    {
+      Json.setShapedBindings( true );
+      assertTrue( Json.fromJson( "{\"a\": {\"b\": 1}}" ) instanceof ShapedBindings );
+      Json.setShapedBindings( false );
+      assertFalse( Json.fromJson( "{\"a\": {\"b\": 1}}" ) instanceof ShapedBindings );
+      assertTrue( Json.fromJson( "{\"a\": {\"b\": 1}}", false, false, true ) instanceof ShapedBindings );
+    }
+    finally
+    {
+      Json.setShapedBindings( shaped );
+    }
+  }
+
+  public void testStreamedElements()
+  {
+    Iterator<Object> elements = new CharBufferParser().parseElements( new StringReader( RECORDS ), false, true );
+    int count = 0;
+    while( elements.hasNext() )
+    {
+      Object element = elements.next();
+      assertTrue( element instanceof ShapedBindings );
+      count++;
+    }
+    assertEquals( 4, count );
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.api.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import manifold.json.rt.Json;
+import manifold.json.rt.api.DataBindings;
+import manifold.json.rt.api.Writer;
+
+public class StreamingWriterTest extends TestCase
+{
+  public void testStreamedSameAsString()
+  {
+    DataBindings value = makeValue();
+    String expected = Json.toJson( value );
+
+    StringWriter writer = new StringWriter();
+    new Writer( value ).toJson( writer );
+    assertEquals( expected, writer.toString() );
+
+    StringBuilder sb = new StringBuilder();
+    new Writer( value ).toJson( sb );
+    assertEquals( expected, sb.toString() );
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new Writer( value ).toJson( out );
+    assertEquals( expected, new String( out.toByteArray(), StandardCharsets.UTF_8 ) );
+  }
+
+  public void testCompact()
+  {
+    DataBindings value = makeValue();
+    String compact = new Writer( value ).toCompactJson();
+    assertEquals( -1, compact.indexOf( '\n' ) );
+    assertTrue( compact.startsWith( "{\"name\":\"Scott \\\"Mc\\\" \\u00e9\",\"long\":-9223372036854775808," ) );
+    assertEquals( Json.fromJson( Json.toJson( value ) ), Json.fromJson( compact ) );
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new Writer( value ).toCompactJson( out );
+    assertEquals( compact, new String( out.toByteArray(), StandardCharsets.UTF_8 ) );
+  }
+
+  public void testLargeValueAcrossChunks()
+  {
+    List<Object> list = new ArrayList<>();
+    for( int i = 0; i < 5000; i++ )
+    {
+      DataBindings row = new DataBindings();
+      row.put( "id", i * 1000003L );
+      row.put( "text", "row " + i );
+      list.add( row );
+    }
+    StringWriter writer = new StringWriter();
+    new Writer( list ).toJson( writer );
+    assertEquals( Json.toJson( list ), writer.toString() );
+  }
+
+  private DataBindings makeValue()
+  {
+    DataBindings value = new DataBindings();
+    value.put( "name", "Scott \"Mc\" \u00e9" );
+    value.put( "long", Long.MIN_VALUE );
+    value.put( "int", -42 );
+    value.put( "double", 0.25 );
+    value.put( "flag", true );
+    value.put( "none", null );
+    value.put( "list", Arrays.asList( 1, "two", Arrays.asList( 3 ), new DataBindings() ) );
+    DataBindings nested = new DataBindings();
+    nested.put( "x", 1 );
+    value.put( "nested", nested );
+    return value;
+  }
+}
@@ -31,6 +31,15 @@ public class TestServer {
     // return the Query String of the POST request
     post("/testPost_QueryString", (req, res) -> req.raw().getQueryString() );
 
+    // return the body of the POST request
+    post("/testPost_Echo", (req, res) -> req.body() );
+
+    // return a gzip encoded response, Spark compresses the body if this header is set
+    get("/testGet_Gzip", (req, res) -> {
+      res.header("Content-Encoding", "gzip");
+      return "{\"gzipped\": true}";
+    });
+
     // Error response for IllegalStateException
     exception(IllegalArgumentException.class, (e, req, res) -> {
       res.status(400);
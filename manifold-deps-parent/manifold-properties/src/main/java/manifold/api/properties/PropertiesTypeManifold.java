@@ -46,6 +46,19 @@ public class PropertiesTypeManifold extends JavaTypeManifold<Model>
     return FILE_EXTENSIONS.contains( fileExtension.toLowerCase() );
   }
 
+  @Override
+  public boolean isContributeThreadSafe()
+  {
+    // PropertiesCodeGen only reads the key tree parsed from the type's own properties file
+    return true;
+  }
+
+  @Override
+  public boolean isContributeCacheable()
+  {
+    return true;
+  }
+
   @Override
   protected Map<String, LocklessLazyVar<Model>> getPeripheralTypes()
   {
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science;
+
+import manifold.science.measures.*;
+import org.junit.Test;
+
+import static manifold.science.util.UnitConstants.*;
+import static org.junit.Assert.*;
+
+public class DoubleMeasureTest
+{
+  @Test
+  public void testArithmetic()
+  {
+    DoubleLength distance = new DoubleLength( 80, LengthUnit.Mile );
+    DoubleTime time = new DoubleTime( 2, TimeUnit.Hour );
+    DoubleVelocity speed = distance / time;
+    assertEquals( 40, speed.toNumber(), 1e-12 );
+    assertEquals( mph, speed.getDisplayUnit() );
+    assertEquals( 40 * 1609.344 / 3600, speed.toBaseNumber(), 1e-12 );
+    assertEquals( distance.toBaseNumber(), (speed * time).toBaseNumber(), 1e-9 );
+    assertEquals( time.toBaseNumber(), (distance / speed).toBaseNumber(), 1e-9 );
+
+    DoubleAcceleration acc = speed / time;
+    assertEquals( speed.toBaseNumber(), (acc * time).toBaseNumber(), 1e-12 );
+    assertEquals( time.toBaseNumber(), (speed / acc).toBaseNumber(), 1e-9 );
+
+    DoubleMass mass = new DoubleMass( 3, MassUnit.Kilogram );
+    DoubleForce force = mass * acc;
+    assertEquals( force.toBaseNumber(), (acc * mass).toBaseNumber(), 0 );
+    assertEquals( acc.toBaseNumber(), (force / mass).toBaseNumber(), 1e-12 );
+    assertEquals( mass.toBaseNumber(), (force / acc).toBaseNumber(), 1e-12 );
+
+    DoubleLength twice = distance + distance;
+    assertEquals( 160, twice.toNumber(), 1e-12 );
+    assertEquals( 0, (twice - distance * 2).toBaseNumber(), 0 );
+    assertEquals( 2, twice / distance, 0 );
+    assertEquals( -80, (-distance).toNumber(), 1e-12 );
+    assertEquals( 40, (distance / 2).toNumber(), 1e-12 );
+    assertTrue( twice > distance );
+    assertTrue( distance == new DoubleLength( 80 * 1609.344, LengthUnit.Meter ) );
+  }
+
+  @Test
+  public void testUnits()
+  {
+    DoubleLength length = new DoubleLength( 1, LengthUnit.Foot );
+    assertEquals( 0.3048, length.toBaseNumber(), 1e-15 );
+    assertEquals( 12, length.toNumber( LengthUnit.Inch ), 1e-12 );
+    assertEquals( 12, length.to( LengthUnit.Inch ).toNumber(), 1e-12 );
+    assertEquals( "2.5 m", new DoubleLength( 2.5, LengthUnit.Meter ).toString() );
+
+    Length exact = 5 ft + 9.5 in;
+    DoubleLength approx = new DoubleLength( exact );
+    assertEquals( exact.toBaseNumber().doubleValue(), approx.toBaseNumber(), 0 );
+    assertEquals( exact.getDisplayUnit(), approx.getDisplayUnit() );
+    assertEquals( exact, approx.toLength() );
+
+    DoubleVelocity speed = new DoubleVelocity( 100, VelocityUnit.get( LengthUnit.Kilometer, TimeUnit.Hour ) );
+    assertEquals( 100 / 3.6, speed.toBaseNumber(), 1e-12 );
+    assertEquals( 100, speed.toNumber(), 1e-12 );
+  }
+
+  @Test
+  public void testNonFinite()
+  {
+    DoubleLength nan = new DoubleLength( Double.NaN, LengthUnit.Foot );
+    assertTrue( Double.isNaN( nan.toBaseNumber() ) );
+    assertTrue( Double.isNaN( nan.toNumber() ) );
+    DoubleLength infinite = new DoubleLength( 1, LengthUnit.Meter ) / 0;
+    assertEquals( Double.POSITIVE_INFINITY, infinite.toBaseNumber(), 0 );
+    DoubleTime zero = new DoubleTime( 0, TimeUnit.Second );
+
+    for( Runnable toExact: new Runnable[] {
+      nan::toLength,
+      infinite::toLength,
+      (-infinite)::toLength,
+      () -> (infinite / zero).toVelocity()} )
+    {
+      try
+      {
+        toExact.run();
+        fail();
+      }
+      catch( ArithmeticException e )
+      {
+        assertTrue( e.getMessage(), e.getMessage().startsWith( "No exact equivalent" ) );
+      }
+    }
+  }
+}
@@ -16,6 +16,12 @@
 
 package manifold.science;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import manifold.science.api.Dimension;
 import manifold.science.api.Unit;
 import manifold.science.api.UnitCache;
@@ -239,6 +245,32 @@ public class ScienceUnitMathTest {
     assertEquals( 5 J, 5 kg m/s/s m );
   }
 
+  @Test
+  public void testUnitsAreInterned() throws Exception {
+    assertSame( VelocityUnit.mph, VelocityUnit.get( LengthUnit.Mile, TimeUnit.Hour ) );
+    assertSame( VelocityUnit.BASE, LengthUnit.Meter / TimeUnit.Second );
+    assertSame( AreaUnit.get( LengthUnit.Foot, LengthUnit.Inch ), LengthUnit.Foot * LengthUnit.Inch );
+    assertSame( (1 mi/hr).getDisplayUnit(), (2 mi/hr).getDisplayUnit() );
+
+    // concurrent lookups of a new unit agree on one instance
+    LengthUnit furlongs = LengthUnit.get( 201.168r, "Furlong", "fur" );
+    TimeUnit fortnights = TimeUnit.get( 14 r * 24 * 60 * 60, Duration.ofDays( 14 ), true, true, "Fortnight", "ftn" );
+    ExecutorService pool = Executors.newFixedThreadPool( 8 );
+    try {
+      List<Future<VelocityUnit>> futures = new ArrayList<>();
+      for( int i = 0; i < 64; i++ ) {
+        futures.add( pool.submit( () -> VelocityUnit.get( furlongs, fortnights ) ) );
+      }
+      VelocityUnit first = futures.get( 0 ).get();
+      for( Future<VelocityUnit> future : futures ) {
+        assertSame( first, future.get() );
+      }
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
   private <D extends Dimension<D>, U extends Unit<D, U>> Iterable<U> values( Class<U> unitType )
   {
     UnitCache<U> cache = (UnitCache<U>)ReflectUtil.field( unitType, "CACHE" ).getStatic();
@@ -60,6 +60,64 @@ public class RationalTest
     }
   }
 
+  @Test
+  public void testLongArithmeticMatchesBigInteger()
+  {
+    long[] values = {1, -1, 2, 3, -7, 10, 1000000007, -(1L << 31), 1L << 40, 3037000499L, Long.MAX_VALUE,
+                     Long.MAX_VALUE - 1, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+    for( long n1: values )
+    {
+      for( long d1: values )
+      {
+        Rational a = Rational.get( n1, d1 );
+        for( long n2: values )
+        {
+          for( long d2: values )
+          {
+            Rational b = Rational.get( n2, d2 );
+            BigInteger bn1 = BigInteger.valueOf( n1 );
+            BigInteger bd1 = BigInteger.valueOf( d1 );
+            BigInteger bn2 = BigInteger.valueOf( n2 );
+            BigInteger bd2 = BigInteger.valueOf( d2 );
+            assertFraction( bn1.multiply( bd2 ).add( bn2.multiply( bd1 ) ), bd1.multiply( bd2 ), a + b );
+            assertFraction( bn1.multiply( bd2 ).subtract( bn2.multiply( bd1 ) ), bd1.multiply( bd2 ), a - b );
+            assertFraction( bn1.multiply( bn2 ), bd1.multiply( bd2 ), a * b );
+            assertFraction( bn1.multiply( bd2 ), bd1.multiply( bn2 ), a / b );
+            int sign = bn1.multiply( bd2 ).subtract( bn2.multiply( bd1 ) ).signum() * bd1.signum() * bd2.signum();
+            assertEquals( sign, Integer.signum( a.compareTo( b ) ) );
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRepresentationsAreEqual()
+  {
+    // promoted to BigInteger by overflow, then reduced back to longs
+    Rational big = Rational.get( Long.MAX_VALUE ) * 4 / 2;
+    Rational half = big / Rational.get( Long.MAX_VALUE ) / 4;
+    assertEquals( Rational.HALF, half );
+    assertEquals( Rational.HALF.hashCode(), half.hashCode() );
+    assertEquals( Rational.get( 2, 4 ), Rational.HALF );
+    assertEquals( Rational.get( 2, 4 ).hashCode(), Rational.HALF.hashCode() );
+    assertEquals( "2 / 4", Rational.get( 2, 4 ).toString() );
+    assertEquals( "1/2", Rational.get( 2, 4 ).toFractionString() );
+    assertEquals( 0.1, Rational.get( 1, 10 ).doubleValue(), 0 );
+    assertEquals( Long.MIN_VALUE, Rational.get( Long.MIN_VALUE ).longValue() );
+    assertEquals( "9223372036854775808 / 1", (-Rational.get( Long.MIN_VALUE )).toString() );
+  }
+
+  private void assertFraction( BigInteger numerator, BigInteger denominator, Rational actual )
+  {
+    BigInteger gcd = numerator.gcd( denominator );
+    if( denominator.signum() < 0 )
+    {
+      gcd = gcd.negate();
+    }
+    assertEquals( numerator.divide( gcd ) + "/" + denominator.divide( gcd ), actual.toFractionString() );
+  }
+
 //  @Test
 //  public void testSequence() {
 //    StringBuilder sb = new StringBuilder();
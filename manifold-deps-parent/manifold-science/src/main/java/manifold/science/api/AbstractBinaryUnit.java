@@ -40,6 +40,10 @@ public abstract class AbstractBinaryUnit<A extends Unit,
   private final Rational _factor;
   private final String _name;
   private final String _symbol;
+  /** Lazily computed, zero until then */
+  private double _doubleBaseFactor;
+  /** Lazily computed, zero until then */
+  private transient int _hashCode;
 
   protected AbstractBinaryUnit( A leftUnit, B rightUnit )
   {
@@ -96,6 +100,29 @@ public abstract class AbstractBinaryUnit<A extends Unit,
     return r.toBaseNumber() / toBaseUnits( Rational.ONE );
   }
 
+  @Override
+  public double toBaseUnits( double theseUnits )
+  {
+    return getDoubleBaseFactor() * theseUnits;
+  }
+
+  @Override
+  public double fromBaseUnits( double baseUnits )
+  {
+    return baseUnits / getDoubleBaseFactor();
+  }
+
+  private double getDoubleBaseFactor()
+  {
+    double factor = _doubleBaseFactor;
+    if( factor == 0 )
+    {
+      // racy but idempotent
+      _doubleBaseFactor = factor = toBaseUnits( Rational.ONE ).doubleValue();
+    }
+    return factor;
+  }
+
   @Override
   public String toString()
   {
@@ -105,12 +132,23 @@ public abstract class AbstractBinaryUnit<A extends Unit,
   @Override
   public int hashCode()
   {
-    return 31 * (31 * _leftUnit.hashCode() + _rightUnit.hashCode()) + _factor.hashCode();
+    // units are interned by hash, so avoid hashing the Rational factor per lookup
+    int hashCode = _hashCode;
+    if( hashCode == 0 )
+    {
+      _hashCode = hashCode = 31 * (31 * _leftUnit.hashCode() + _rightUnit.hashCode()) + _factor.hashCode();
+    }
+    return hashCode;
   }
 
   @Override
   public boolean equals( Object obj )
   {
+    if( this == obj )
+    {
+      // units are interned, so this is the common case
+      return true;
+    }
     if( obj.getClass() != getClass() )
     {
       return false;
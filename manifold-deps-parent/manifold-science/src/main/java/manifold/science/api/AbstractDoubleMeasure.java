@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.api;
+
+import java.io.Serializable;
+import java.util.Objects;
+import manifold.ext.rt.api.ComparableUsing;
+import manifold.science.measures.DoubleLength;
+import manifold.science.measures.DoubleVelocity;
+import manifold.science.util.Rational;
+
+/**
+ * This class serves as the base class for a measured quantity stored as a {@code double}. See {@link DoubleLength},
+ * {@link DoubleVelocity}, etc. for examples.
+ * <p/>
+ * Double measures are the counterparts of {@link AbstractMeasure} types for code that performs many unit-checked
+ * operations and does not need exact arithmetic. They use the same units and provide the same operators, but arithmetic
+ * is {@code double} arithmetic and is subject to rounding.
+ * <p/>
+ * Like {@link AbstractMeasure}, instances store the value of the measure in terms of base units and maintain a
+ * "display unit", which is used for display purposes and for working with other systems requiring specific units.
+ * <p/>
+ * @param <U> The unit corresponding with the type e.g., DoubleLength specifies LengthUnit.
+ * @param <T> This type. Note this type is recursive to enforce type-safety.
+ */
+public abstract class AbstractDoubleMeasure<U extends Unit<?, U>, T extends AbstractDoubleMeasure<U, T>>
+  implements ComparableUsing<T>, Serializable
+{
+  /** The magnitude stored in Base units */
+  private final double _value;
+
+  /** The unit used to display the value of this instance */
+  private final U _displayUnit;
+
+  /**
+   * @param value       The value (or magnitude) of this measure instance
+   * @param unit        The unit corresponding to the provided {@code value}
+   * @param displayUnit The unit in which to display this measure
+   */
+  public AbstractDoubleMeasure( double value, U unit, U displayUnit )
+  {
+    _displayUnit = displayUnit;
+    _value = unit.toBaseUnits( value );
+  }
+
+  /**
+   * The unit on which all instances of this type are based.
+   */
+  public abstract U getBaseUnit();
+
+  /**
+   * Creates a new instance using the specified parameters.
+   */
+  public abstract T make( double value, U unit, U displayUnit );
+
+  /**
+   * Copies this instance with a new display unit.
+   */
+  public T copy( U displayUnit )
+  {
+    return make( _value, getBaseUnit(), displayUnit );
+  }
+
+  /**
+   * Creates a new instance from a value in Base units with this instance's display unit.
+   */
+  public T fromBaseNumber( double value )
+  {
+    return make( value, getBaseUnit(), _displayUnit );
+  }
+
+  /**
+   * @return The value of this measure in Base units.
+   */
+  public double getValue()
+  {
+    return _value;
+  }
+
+  /**
+   * @return The unit in which this measure displays.
+   */
+  public U getDisplayUnit()
+  {
+    return _displayUnit;
+  }
+
+  /**
+   * @return The magnitude of this measure in terms of Display units.
+   */
+  public double toNumber()
+  {
+    return toNumber( _displayUnit );
+  }
+
+  /**
+   * @return The magnitude of this measure in terms of Base units.
+   */
+  public double toBaseNumber()
+  {
+    return _value;
+  }
+
+  /**
+   * @return The magnitude of this measure in terms of Base units as an exact {@link Rational}.
+   * @throws ArithmeticException If the magnitude is NaN or infinite, which have no exact equivalent.
+   */
+  public Rational toBaseRational()
+  {
+    if( !Double.isFinite( _value ) )
+    {
+      throw new ArithmeticException( "No exact equivalent of the non-finite measure: " + this );
+    }
+    return Rational.get( _value );
+  }
+
+  /**
+   * Get the magnitude of this measure in terms of the specified {@code unit}.
+   */
+  public double toNumber( U unit )
+  {
+    return unit.fromBaseUnits( _value );
+  }
+
+  /**
+   * Copy this measure using the specified {@code displayUnit}.
+   */
+  public T to( U displayUnit )
+  {
+    return copy( displayUnit );
+  }
+
+  public T unaryMinus()
+  {
+    return fromBaseNumber( -_value );
+  }
+
+  public T plus( T operand )
+  {
+    return fromBaseNumber( _value + operand.toBaseNumber() );
+  }
+
+  public T minus( T operand )
+  {
+    return fromBaseNumber( _value - operand.toBaseNumber() );
+  }
+
+  public double div( T operand )
+  {
+    return _value / operand.toBaseNumber();
+  }
+
+  public double rem( T operand )
+  {
+    return _value % operand.toBaseNumber();
+  }
+
+  public T times( double operand )
+  {
+    return fromBaseNumber( _value * operand );
+  }
+
+  public T div( double operand )
+  {
+    return fromBaseNumber( _value / operand );
+  }
+
+  public T rem( double operand )
+  {
+    return fromBaseNumber( _value % operand );
+  }
+
+  @Override
+  public String toString()
+  {
+    return toNumber() + " " + getDisplayUnit().getSymbol();
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash( _value, _displayUnit );
+  }
+
+  @Override
+  public boolean equals( Object o )
+  {
+    if( this == o )
+    {
+      return true;
+    }
+    if( o == null || getClass() != o.getClass() )
+    {
+      return false;
+    }
+    AbstractDoubleMeasure<?, ?> that = (AbstractDoubleMeasure<?, ?>)o;
+    return Double.compare( _value, that._value ) == 0 &&
+           _displayUnit.equals( that._displayUnit );
+  }
+
+  /**
+   * Use {@link #compareTo(T)} to implement the {@code ==} operator as it does not take into account the
+   * {@code _displayUnit} which is inconsequential wrt the measure.
+   */
+  @Override
+  public EqualityMode equalityMode()
+  {
+    return EqualityMode.CompareTo;
+  }
+
+  @Override
+  public int compareTo( T that )
+  {
+    return Double.compare( _value, that.toBaseNumber() );
+  }
+}
@@ -22,12 +22,16 @@ import manifold.science.util.Rational;
 public abstract class AbstractPrimaryUnit<D extends Dimension<D>, U extends Unit<D, U>> implements Unit<D, U>
 {
   private final Rational _baseFactor;
+  private final double _doubleBaseFactor;
   private final String _name;
   private final String _symbol;
+  /** Lazily computed, zero until then */
+  private transient int _hashCode;
 
   protected AbstractPrimaryUnit( Rational baseFactor, String name, String symbol )
   {
     _baseFactor = baseFactor;
+    _doubleBaseFactor = baseFactor.doubleValue();
     _name = name;
     _symbol = symbol;
   }
@@ -56,6 +60,18 @@ public abstract class AbstractPrimaryUnit<D extends Dimension<D>, U extends Unit
     return dim.toBaseNumber() / _baseFactor;
   }
 
+  @Override
+  public double toBaseUnits( double theseUnits )
+  {
+    return _doubleBaseFactor * theseUnits;
+  }
+
+  @Override
+  public double fromBaseUnits( double baseUnits )
+  {
+    return baseUnits / _doubleBaseFactor;
+  }
+
   @Override
   public final Rational toNumber()
   {
@@ -84,6 +100,12 @@ public abstract class AbstractPrimaryUnit<D extends Dimension<D>, U extends Unit
   @Override
   public int hashCode()
   {
-    return Objects.hash( _baseFactor );
+    // units are interned by hash, so avoid hashing the Rational factor per lookup
+    int hashCode = _hashCode;
+    if( hashCode == 0 )
+    {
+      _hashCode = hashCode = Objects.hash( _baseFactor );
+    }
+    return hashCode;
   }
 }
@@ -44,6 +44,35 @@ public interface Unit<D extends Dimension<D>, U extends Unit<D, U>> extends Dime
 
   Rational from( D dim );
 
+  /**
+   * The {@code double} counterpart of {@link #toBaseUnits(Rational)}, used by {@link AbstractDoubleMeasure}. Units
+   * with a constant base factor override this method to avoid {@code Rational} arithmetic.
+   * <p/>
+   * @param theseUnits A magnitude of these units to convert to base units.
+   * @return The {@code theseUnits} converted to the base units of this unit type.
+   */
+  default double toBaseUnits( double theseUnits )
+  {
+    if( !Double.isFinite( theseUnits ) )
+    {
+      // NaN and infinity have no Rational equivalent, and convert to themselves
+      return theseUnits;
+    }
+    return toBaseUnits( Rational.get( theseUnits ) ).doubleValue();
+  }
+
+  /**
+   * The inverse of {@link #toBaseUnits(double)}. The default implementation assumes a constant base factor, units
+   * with an offset such as temperature units must override this method.
+   * <p/>
+   * @param baseUnits A magnitude of base units to convert to these units.
+   * @return The {@code baseUnits} converted to these units.
+   */
+  default double fromBaseUnits( double baseUnits )
+  {
+    return baseUnits / toBaseUnits( 1d );
+  }
+
   D makeDimension( Number amount );
 
   @Override
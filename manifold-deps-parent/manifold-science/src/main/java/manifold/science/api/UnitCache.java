@@ -16,12 +16,168 @@
 
 package manifold.science.api;
 
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import manifold.util.concurrent.Cache;
 
+/**
+ * Interns units so that equal units share a single canonical instance. Units are not evicted, a unit obtained from a
+ * unit type's {@code get()} method is the same instance for the life of the class loader, thus comparing units is
+ * typically an identity check.
+ * <p/>
+ * Lookups do not lock. Statistics are off by default, enable them with the {@code manifold.science.unitcache.stats}
+ * system property.
+ */
 public class UnitCache<U extends Unit> extends Cache<U, U>
 {
+  public static final String STATS = "manifold.science.unitcache.stats";
+
+  private static final boolean STATS_ENABLED = Boolean.getBoolean( STATS );
+
+  private final ConcurrentMap<U, U> _units = new ConcurrentHashMap<>();
+  private final LongAdder _hits = STATS_ENABLED ? new LongAdder() : null;
+  private final LongAdder _misses = STATS_ENABLED ? new LongAdder() : null;
+
   public UnitCache()
   {
+    // the superclass's bounded map is unused, its size only reported by getConfiguredSize()
     super( "Unit Cache", 1000, unit -> unit );
   }
+
+  /**
+   * @return The canonical instance of {@code unit}, which is {@code unit} itself if no equal unit was interned before
+   */
+  @Override
+  public U get( U unit )
+  {
+    U interned = _units.get( unit );
+    if( interned == null )
+    {
+      interned = _units.putIfAbsent( unit, unit );
+      if( interned == null )
+      {
+        interned = unit;
+      }
+      if( STATS_ENABLED )
+      {
+        _misses.increment();
+      }
+    }
+    else if( STATS_ENABLED )
+    {
+      _hits.increment();
+    }
+    return interned;
+  }
+
+  /**
+   * @deprecated Replacing an interned unit breaks identity with instances already handed out
+   */
+  @Deprecated
+  @Override
+  public U put( U key, U value )
+  {
+    return _units.put( key, value );
+  }
+
+  /**
+   * @deprecated Evicting an interned unit breaks identity with instances already handed out
+   */
+  @Deprecated
+  @Override
+  public U evict( U key )
+  {
+    return _units.remove( key );
+  }
+
+  @Override
+  public void clear()
+  {
+    _units.clear();
+    if( STATS_ENABLED )
+    {
+      _hits.reset();
+      _misses.reset();
+    }
+  }
+
+  @Override
+  public Iterable<U> getCachedValues()
+  {
+    return Collections.unmodifiableCollection( _units.values() );
+  }
+
+  @Override
+  public int getUtilizedSize()
+  {
+    return _units.size();
+  }
+
+  /**
+   * @return The number of lookups that found an interned unit, zero if statistics are not enabled
+   */
+  public long getHitCount()
+  {
+    return STATS_ENABLED ? _hits.sum() : 0;
+  }
+
+  /**
+   * @return The number of lookups that interned a new unit, zero if statistics are not enabled
+   */
+  public long getMissCount()
+  {
+    return STATS_ENABLED ? _misses.sum() : 0;
+  }
+
+  public long getRequestCount()
+  {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * @return {@link #getHitCount()} saturated to an int
+   */
+  @Override
+  public int getHits()
+  {
+    return saturate( getHitCount() );
+  }
+
+  /**
+   * @return {@link #getMissCount()} saturated to an int
+   */
+  @Override
+  public int getMisses()
+  {
+    return saturate( getMissCount() );
+  }
+
+  /**
+   * @return {@link #getRequestCount()} saturated to an int
+   */
+  @Override
+  public int getRequests()
+  {
+    return saturate( getRequestCount() );
+  }
+
+  @Override
+  public double getHitRate()
+  {
+    long requests = getRequestCount();
+    return requests == 0 ? 0.0 : ((double)getHitCount()) / requests;
+  }
+
+  private static int saturate( long count )
+  {
+    return (int)Math.min( count, Integer.MAX_VALUE );
+  }
+
+  @Override
+  public String toString()
+  {
+    return "UnitCache( Units:" + getUtilizedSize() + ", Hits:" + getHitCount() + ", Misses:" + getMissCount() + " )";
+  }
 }
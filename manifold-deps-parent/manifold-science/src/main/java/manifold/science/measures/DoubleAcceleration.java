@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of acceleration in units of {@link AccelerationUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Acceleration}. See {@link AbstractDoubleMeasure}.
+ */
+public final class DoubleAcceleration extends AbstractDoubleMeasure<AccelerationUnit, DoubleAcceleration>
+{
+  public DoubleAcceleration( double value, AccelerationUnit unit, AccelerationUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleAcceleration( double value, AccelerationUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleAcceleration( Acceleration acceleration )
+  {
+    this( acceleration.toBaseNumber().doubleValue(), AccelerationUnit.BASE, acceleration.getDisplayUnit() );
+  }
+
+  @Override
+  public AccelerationUnit getBaseUnit()
+  {
+    return AccelerationUnit.BASE;
+  }
+
+  @Override
+  public DoubleAcceleration make( double value, AccelerationUnit unit, AccelerationUnit displayUnit )
+  {
+    return new DoubleAcceleration( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Acceleration}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Acceleration toAcceleration()
+  {
+    return new Acceleration( toBaseRational(), AccelerationUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleVelocity times( DoubleTime time )
+  {
+    return new DoubleVelocity( toBaseNumber() * time.toBaseNumber(), VelocityUnit.BASE, getDisplayUnit().getVelocityUnit() );
+  }
+
+  public DoubleForce times( DoubleMass mass )
+  {
+    return new DoubleForce( toBaseNumber() * mass.toBaseNumber(), ForceUnit.BASE, ForceUnit.get( mass.getDisplayUnit(), getDisplayUnit() ) );
+  }
+}
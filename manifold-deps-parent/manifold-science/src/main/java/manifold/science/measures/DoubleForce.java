@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of force in units of {@link ForceUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Force}. See {@link AbstractDoubleMeasure}.
+ */
+public final class DoubleForce extends AbstractDoubleMeasure<ForceUnit, DoubleForce>
+{
+  public DoubleForce( double value, ForceUnit unit, ForceUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleForce( double value, ForceUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleForce( Force force )
+  {
+    this( force.toBaseNumber().doubleValue(), ForceUnit.BASE, force.getDisplayUnit() );
+  }
+
+  @Override
+  public ForceUnit getBaseUnit()
+  {
+    return ForceUnit.BASE;
+  }
+
+  @Override
+  public DoubleForce make( double value, ForceUnit unit, ForceUnit displayUnit )
+  {
+    return new DoubleForce( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Force}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Force toForce()
+  {
+    return new Force( toBaseRational(), ForceUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleAcceleration div( DoubleMass mass )
+  {
+    return new DoubleAcceleration( toBaseNumber() / mass.toBaseNumber(), AccelerationUnit.BASE, getDisplayUnit().getAccUnit() );
+  }
+
+  public DoubleMass div( DoubleAcceleration acceleration )
+  {
+    return new DoubleMass( toBaseNumber() / acceleration.toBaseNumber(), MassUnit.BASE, getDisplayUnit().getMassUnit() );
+  }
+}
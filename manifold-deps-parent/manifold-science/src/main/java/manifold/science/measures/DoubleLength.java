@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of length in units of {@link LengthUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Length}. See {@link AbstractDoubleMeasure}.
+ * <p/>
+ * Use values of {@code DoubleLength} directly in arithmetic expressions with other double measures such as:
+ * <pre><code>
+ *   DoubleLength distance = new DoubleLength( 80, LengthUnit.Mile );
+ *   DoubleTime time = new DoubleTime( 2.5, TimeUnit.Hour );
+ *   DoubleVelocity speed = distance / time;
+ * </code></pre>
+ */
+public final class DoubleLength extends AbstractDoubleMeasure<LengthUnit, DoubleLength>
+{
+  public DoubleLength( double value, LengthUnit unit, LengthUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleLength( double value, LengthUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleLength( Length length )
+  {
+    this( length.toBaseNumber().doubleValue(), LengthUnit.BASE, length.getDisplayUnit() );
+  }
+
+  @Override
+  public LengthUnit getBaseUnit()
+  {
+    return LengthUnit.BASE;
+  }
+
+  @Override
+  public DoubleLength make( double value, LengthUnit unit, LengthUnit displayUnit )
+  {
+    return new DoubleLength( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Length}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Length toLength()
+  {
+    return new Length( toBaseRational(), LengthUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleVelocity div( DoubleTime time )
+  {
+    return new DoubleVelocity( toBaseNumber() / time.toBaseNumber(), VelocityUnit.BASE, VelocityUnit.get( getDisplayUnit(), time.getDisplayUnit() ) );
+  }
+
+  public DoubleTime div( DoubleVelocity velocity )
+  {
+    return new DoubleTime( toBaseNumber() / velocity.toBaseNumber(), TimeUnit.BASE, velocity.getDisplayUnit().getTimeUnit() );
+  }
+}
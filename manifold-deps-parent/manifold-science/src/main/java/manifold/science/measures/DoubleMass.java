@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of mass in units of {@link MassUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Mass}. See {@link AbstractDoubleMeasure}.
+ */
+public final class DoubleMass extends AbstractDoubleMeasure<MassUnit, DoubleMass>
+{
+  public DoubleMass( double value, MassUnit unit, MassUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleMass( double value, MassUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleMass( Mass mass )
+  {
+    this( mass.toBaseNumber().doubleValue(), MassUnit.BASE, mass.getDisplayUnit() );
+  }
+
+  @Override
+  public MassUnit getBaseUnit()
+  {
+    return MassUnit.BASE;
+  }
+
+  @Override
+  public DoubleMass make( double value, MassUnit unit, MassUnit displayUnit )
+  {
+    return new DoubleMass( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Mass}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Mass toMass()
+  {
+    return new Mass( toBaseRational(), MassUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleForce times( DoubleAcceleration acceleration )
+  {
+    return new DoubleForce( toBaseNumber() * acceleration.toBaseNumber(), ForceUnit.BASE, ForceUnit.get( getDisplayUnit(), acceleration.getDisplayUnit() ) );
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of time in units of {@link TimeUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Time}. See {@link AbstractDoubleMeasure}.
+ */
+public final class DoubleTime extends AbstractDoubleMeasure<TimeUnit, DoubleTime>
+{
+  public DoubleTime( double value, TimeUnit unit, TimeUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleTime( double value, TimeUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleTime( Time time )
+  {
+    this( time.toBaseNumber().doubleValue(), TimeUnit.BASE, time.getDisplayUnit() );
+  }
+
+  @Override
+  public TimeUnit getBaseUnit()
+  {
+    return TimeUnit.BASE;
+  }
+
+  @Override
+  public DoubleTime make( double value, TimeUnit unit, TimeUnit displayUnit )
+  {
+    return new DoubleTime( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Time}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Time toTime()
+  {
+    return new Time( toBaseRational(), TimeUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleLength times( DoubleVelocity velocity )
+  {
+    return new DoubleLength( toBaseNumber() * velocity.toBaseNumber(), LengthUnit.BASE, velocity.getDisplayUnit().getLengthUnit() );
+  }
+
+  public DoubleVelocity times( DoubleAcceleration acceleration )
+  {
+    return new DoubleVelocity( toBaseNumber() * acceleration.toBaseNumber(), VelocityUnit.BASE, acceleration.getDisplayUnit().getVelocityUnit() );
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 - Manifold Systems LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package manifold.science.measures;
+
+import manifold.science.api.AbstractDoubleMeasure;
+
+/**
+ * Models a measure of velocity in units of {@link VelocityUnit} as a {@code double}, the {@code double}
+ * counterpart of {@link Velocity}. See {@link AbstractDoubleMeasure}.
+ */
+public final class DoubleVelocity extends AbstractDoubleMeasure<VelocityUnit, DoubleVelocity>
+{
+  public DoubleVelocity( double value, VelocityUnit unit, VelocityUnit displayUnit )
+  {
+    super( value, unit, displayUnit );
+  }
+
+  public DoubleVelocity( double value, VelocityUnit unit )
+  {
+    this( value, unit, unit );
+  }
+
+  public DoubleVelocity( Velocity velocity )
+  {
+    this( velocity.toBaseNumber().doubleValue(), VelocityUnit.BASE, velocity.getDisplayUnit() );
+  }
+
+  @Override
+  public VelocityUnit getBaseUnit()
+  {
+    return VelocityUnit.BASE;
+  }
+
+  @Override
+  public DoubleVelocity make( double value, VelocityUnit unit, VelocityUnit displayUnit )
+  {
+    return new DoubleVelocity( value, unit, displayUnit );
+  }
+
+  /**
+   * @return This measure as an exact {@link Velocity}
+   * @throws ArithmeticException If this measure is NaN or infinite
+   */
+  public Velocity toVelocity()
+  {
+    return new Velocity( toBaseRational(), VelocityUnit.BASE, getDisplayUnit() );
+  }
+
+  public DoubleLength times( DoubleTime time )
+  {
+    return new DoubleLength( toBaseNumber() * time.toBaseNumber(), LengthUnit.BASE, getDisplayUnit().getLengthUnit() );
+  }
+
+  public DoubleAcceleration div( DoubleTime time )
+  {
+    return new DoubleAcceleration( toBaseNumber() / time.toBaseNumber(), AccelerationUnit.BASE, AccelerationUnit.get( getDisplayUnit(), time.getDisplayUnit() ) );
+  }
+
+  public DoubleTime div( DoubleAcceleration acceleration )
+  {
+    return new DoubleTime( toBaseNumber() / acceleration.toBaseNumber(), TimeUnit.BASE, acceleration.getDisplayUnit().getTimeUnit() );
+  }
+}
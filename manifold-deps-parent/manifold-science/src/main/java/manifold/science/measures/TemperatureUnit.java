@@ -110,6 +110,17 @@ public final class TemperatureUnit implements Unit<Temperature, TemperatureUnit>
     return _fromK.apply( t.toBaseNumber() );
   }
 
+  @Override
+  public double fromBaseUnits( double baseUnits )
+  {
+    if( !Double.isFinite( baseUnits ) )
+    {
+      // NaN and infinity have no Rational equivalent, and convert to themselves
+      return baseUnits;
+    }
+    return _fromK.apply( Rational.get( baseUnits ) ).doubleValue();
+  }
+
   public EnergyUnit times( HeatCapacityUnit c )
   {
     return c.getEnergyUnit();
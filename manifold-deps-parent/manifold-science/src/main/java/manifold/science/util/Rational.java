@@ -29,10 +29,14 @@ import manifold.collections.api.range.Sequential;
 import manifold.science.measures.MetricScaleUnit;
 
 /**
- * Models rational numbers as an immutable fraction using {@link BigInteger} to maintain arbitrary precision. Note as a
- * performance measure this class does <i>not</i> maintain its value in reduced form. You must call {@link #reduce()}
- * to get a separate instance for the reduced form. Call {@link #isReduced()} to determine if an instance is in reduced
- * form.
+ * Models rational numbers as an immutable fraction with arbitrary precision. A fraction whose numerator and
+ * denominator fit in a {@code long} is stored as two longs and uses overflow-checked {@code long} arithmetic, only when
+ * an operation overflows does the result use {@link BigInteger}. Results of {@code long} arithmetic are in reduced form.
+ * <p/>
+ * Note as a performance measure this class does <i>not</i> otherwise maintain its value in reduced form, a
+ * {@code BigInteger} result is reduced only after its denominator grows past 128 bits. You must call
+ * {@link #reduce()} to get a separate instance for the reduced form. Call {@link #isReduced()} to determine if an
+ * instance is in reduced form.
  * <p/>
  * This class implements arithmetic, negation, and relational operators via <i>operator overloading</i> provided by the
  * manifold-ext dependency.
@@ -54,33 +58,41 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 {
   private static final int VERSION_1 = 1;
 
-  public static final Rational ZERO = new Rational( BigInteger.ZERO, BigInteger.ONE, true );
-  public static final Rational ONE = new Rational( BigInteger.ONE, BigInteger.ONE, true );
-  public static final Rational TEN = new Rational( BigInteger.valueOf( 10 ), BigInteger.ONE, true );
-  public static final Rational HALF = new Rational( BigInteger.ONE, BigInteger.valueOf( 2 ), true );
+  /**
+   * A {@code BigInteger} arithmetic result with a denominator longer than this is reduced
+   */
+  private static final int REDUCE_BITS = 128;
+
+  public static final Rational ZERO = new Rational( 0, 1, true );
+  public static final Rational ONE = new Rational( 1, 1, true );
+  public static final Rational TEN = new Rational( 10, 1, true );
+  public static final Rational HALF = new Rational( 1, 2, true );
 
+  // if _numerator is null, the value is _num/_den where _den > 0 and neither is Long.MIN_VALUE
+  private final long _num;
+  private final long _den;
   private final BigInteger _numerator;
   private final BigInteger _denominator;
   private boolean _reduced;
 
   public static Rational get( int numerator )
   {
-    return get( BigInteger.valueOf( numerator ), BigInteger.ONE );
+    return get( numerator, 1L, false );
   }
 
   public static Rational get( int numerator, int denominator )
   {
-    return get( BigInteger.valueOf( numerator ), BigInteger.valueOf( denominator ) );
+    return get( numerator, (long)denominator, false );
   }
 
   public static Rational get( long numerator )
   {
-    return get( BigInteger.valueOf( numerator ), BigInteger.ONE );
+    return get( numerator, 1L, false );
   }
 
   public static Rational get( long numerator, long denominator )
   {
-    return get( BigInteger.valueOf( numerator ), BigInteger.valueOf( denominator ) );
+    return get( numerator, denominator, false );
   }
 
   public static Rational get( float f )
@@ -177,11 +189,99 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ONE;
     }
+    if( fitsLong( numerator ) && fitsLong( denominator ) )
+    {
+      return get( numerator.longValue(), denominator.longValue(), reduced );
+    }
+    return new Rational( numerator, denominator, reduced );
+  }
+
+  private static Rational get( long numerator, long denominator, boolean reduced )
+  {
+    if( numerator == 0 )
+    {
+      return ZERO;
+    }
+    if( denominator == 0 )
+    {
+      throw new ArithmeticException( "Divide by zero" );
+    }
+    if( numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE )
+    {
+      // can't negate
+      return new Rational( BigInteger.valueOf( numerator ), BigInteger.valueOf( denominator ), reduced );
+    }
+    if( denominator < 0 )
+    {
+      numerator = -numerator;
+      denominator = -denominator;
+    }
+    if( numerator == 1 && denominator == 1 )
+    {
+      return ONE;
+    }
     return new Rational( numerator, denominator, reduced );
   }
 
+  /**
+   * @return The reduced form of {@code numerator/denominator}
+   */
+  private static Rational getReduced( long numerator, long denominator )
+  {
+    if( numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE )
+    {
+      return get( BigInteger.valueOf( numerator ), BigInteger.valueOf( denominator ), false ).reduce();
+    }
+    long gcd = gcd( Math.abs( numerator ), Math.abs( denominator ) );
+    return get( numerator / gcd, denominator / gcd, true );
+  }
+
+  /**
+   * @return The result of {@code BigInteger} arithmetic, reduced if its denominator is large
+   */
+  private static Rational getResult( BigInteger numerator, BigInteger denominator )
+  {
+    if( denominator.bitLength() > REDUCE_BITS && numerator.signum() != 0 )
+    {
+      BigInteger gcd = numerator.gcd( denominator );
+      return get( numerator.divide( gcd ), denominator.divide( gcd ), true );
+    }
+    return get( numerator, denominator, false );
+  }
+
+  private static boolean fitsLong( BigInteger value )
+  {
+    return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+  }
+
+  /**
+   * @return The greatest common divisor of non-negative {@code a} and {@code b}, or 1 if both are zero
+   */
+  private static long gcd( long a, long b )
+  {
+    while( b != 0 )
+    {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a == 0 ? 1 : a;
+  }
+
+  private Rational( long numerator, long denominator, boolean reduced )
+  {
+    _num = numerator;
+    _den = denominator;
+    _numerator = null;
+    _denominator = null;
+    _reduced = reduced;
+  }
+
   private Rational( BigInteger numerator, BigInteger denominator, boolean reduced )
   {
+    _num = 0;
+    _den = 0;
+
     if( denominator.signum() == 0 )
     {
       throw new ArithmeticException( "Divide by zero" );
@@ -220,7 +320,16 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
    */
   public Rational reduce()
   {
-    if( !_reduced )
+    if( !_reduced && isSmall() )
+    {
+      long gcd = gcd( Math.abs( _num ), _den );
+      if( gcd > 1 )
+      {
+        return get( _num / gcd, _den / gcd, true );
+      }
+      _reduced = true;
+    }
+    else if( !_reduced )
     {
       BigInteger gcd = _numerator.gcd( _denominator );
       if( gcd.compareTo( BigInteger.ONE ) > 0 )
@@ -232,23 +341,33 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     return this;
   }
 
+  private boolean isSmall()
+  {
+    return _numerator == null;
+  }
+
   public BigInteger getNumerator()
   {
-    return _numerator;
+    return isSmall() ? BigInteger.valueOf( _num ) : _numerator;
   }
 
   public BigInteger getDenominator()
   {
-    return _denominator;
+    return isSmall() ? BigInteger.valueOf( _den ) : _denominator;
   }
 
   public BigInteger wholePart()
   {
-    return _numerator.divide( _denominator );
+    return isSmall() ? BigInteger.valueOf( _num / _den ) : _numerator.divide( _denominator );
   }
 
   public Rational fractionPart()
   {
+    if( isSmall() )
+    {
+      long rem = _num % _den;
+      return rem == 0 ? ZERO : get( rem, _den, false );
+    }
     BigInteger rem = _numerator.remainder( _denominator );
     if( rem.signum() == 0 )
     {
@@ -260,18 +379,23 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
   @Override
   public int intValue()
   {
-    return _numerator.divide( _denominator ).intValue();
+    return isSmall() ? (int)(_num / _den) : _numerator.divide( _denominator ).intValue();
   }
 
   @Override
   public long longValue()
   {
-    return _numerator.divide( _denominator ).longValue();
+    return isSmall() ? _num / _den : _numerator.divide( _denominator ).longValue();
   }
 
   @Override
   public double doubleValue()
   {
+    if( isSmall() && Math.abs( _num ) <= 1L << 53 && _den <= 1L << 53 )
+    {
+      // both are exact doubles, so the quotient is correctly rounded
+      return (double)_num / _den;
+    }
     return toBigDecimal().doubleValue();
   }
 
@@ -293,8 +417,12 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public BigDecimal toBigDecimal( MathContext mc )
   {
-    return equals( ZERO )
-           ? BigDecimal.ZERO
+    if( signum() == 0 )
+    {
+      return BigDecimal.ZERO;
+    }
+    return isSmall()
+           ? BigDecimal.valueOf( _num ).divide( BigDecimal.valueOf( _den ), mc )
            : new BigDecimal( _numerator ).divide( new BigDecimal( _denominator ), mc );
   }
 
@@ -328,10 +456,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return this;
     }
-
-    return bg.equals( BigInteger.ZERO )
-           ? this
-           : get( _numerator.add( _denominator.multiply( bg ) ), _denominator );
+    return plus( get( bg ) );
   }
 
   public Rational plus( BigDecimal bd )
@@ -349,24 +474,55 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return rational;
     }
+    return add( rational, false );
+  }
+
+  /**
+   * @return {@code this + rational}, or {@code this - rational} if {@code subtract}
+   */
+  private Rational add( Rational rational, boolean subtract )
+  {
+    if( isSmall() && rational.isSmall() )
+    {
+      try
+      {
+        long num = subtract ? -rational._num : rational._num;
+        if( _den == rational._den )
+        {
+          return getReduced( Math.addExact( _num, num ), _den );
+        }
+        // use the lcm of the denominators
+        long gcd = gcd( _den, rational._den );
+        long thisFactor = rational._den / gcd;
+        long thatFactor = _den / gcd;
+        return getReduced( Math.addExact( Math.multiplyExact( _num, thisFactor ), Math.multiplyExact( num, thatFactor ) ),
+          Math.multiplyExact( _den, thisFactor ) );
+      }
+      catch( ArithmeticException overflow )
+      {
+        // use BigInteger
+      }
+    }
 
+    BigInteger thisNum = getNumerator();
+    BigInteger thisDen = getDenominator();
+    BigInteger thatNum = subtract ? rational.getNumerator().negate() : rational.getNumerator();
+    BigInteger thatDen = rational.getDenominator();
     BigInteger numerator;
     BigInteger denominator;
-
-    if( _denominator.equals( rational._denominator ) )
+    if( thisDen.equals( thatDen ) )
     {
-      numerator = _numerator.add( rational._numerator );
-      denominator = _denominator;
+      numerator = thisNum.add( thatNum );
+      denominator = thisDen;
     }
     else
     {
-      numerator = (_numerator.multiply( rational._denominator )).add( (rational._numerator).multiply( _denominator ) );
-      denominator = _denominator.multiply( rational._denominator );
+      numerator = thisNum.multiply( thatDen ).add( thatNum.multiply( thisDen ) );
+      denominator = thisDen.multiply( thatDen );
     }
-
     return numerator.signum() == 0
            ? ZERO
-           : get( numerator, denominator );
+           : getResult( numerator, denominator );
   }
 
   public Rational plus( Number n )
@@ -407,12 +563,12 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational minus( int i )
   {
-    return minus( BigInteger.valueOf( i ) );
+    return i == 0 ? this : minus( get( i ) );
   }
 
   public Rational minus( long l )
   {
-    return minus( BigInteger.valueOf( l ) );
+    return l == 0 ? this : minus( get( l ) );
   }
 
   public Rational minus( float f )
@@ -435,7 +591,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return get( bi.negate() );
     }
-    return get( _numerator.subtract( _denominator.multiply( bi ) ), _denominator );
+    return minus( get( bi ) );
   }
 
   public Rational minus( BigDecimal bd )
@@ -453,22 +609,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return rational.unaryMinus();
     }
-
-    BigInteger numerator;
-    BigInteger denominator;
-    if( _denominator.equals( rational._denominator ) )
-    {
-      numerator = _numerator.subtract( rational._numerator );
-      denominator = _denominator;
-    }
-    else
-    {
-      numerator = (_numerator.multiply( rational._denominator )).subtract( (rational._numerator).multiply( _denominator ) );
-      denominator = _denominator.multiply( rational._denominator );
-    }
-    return numerator.signum() == 0
-           ? ZERO
-           : get( numerator, denominator );
+    return add( rational, true );
   }
 
   public Rational minus( Number n )
@@ -513,7 +654,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
-    return times( BigInteger.valueOf( i ) );
+    return times( get( i ) );
   }
 
   public Rational times( long l )
@@ -522,7 +663,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
-    return times( BigInteger.valueOf( l ) );
+    return times( get( l ) );
   }
 
   public Rational times( float f )
@@ -549,7 +690,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
-    return get( bi.multiply( _numerator ), _denominator );
+    return times( get( bi ) );
   }
 
   public Rational times( BigDecimal bd )
@@ -567,8 +708,36 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
-    return get( _numerator.multiply( rational._numerator ),
-      _denominator.multiply( rational._denominator ) );
+    if( isSmall() && rational.isSmall() )
+    {
+      try
+      {
+        return multiply( _num, _den, rational._num, rational._den, _reduced && rational._reduced );
+      }
+      catch( ArithmeticException overflow )
+      {
+        // use BigInteger
+      }
+    }
+    return getResult( getNumerator().multiply( rational.getNumerator() ),
+      getDenominator().multiply( rational.getDenominator() ) );
+  }
+
+  /**
+   * Cancels common factors across the fractions before multiplying, which keeps the products small and, if both
+   * fractions are reduced, the result reduced.
+   *
+   * @throws ArithmeticException if the product overflows
+   */
+  private static Rational multiply( long num1, long den1, long num2, long den2, boolean reduced )
+  {
+    long gcd1 = gcd( Math.abs( num1 ), Math.abs( den2 ) );
+    long gcd2 = gcd( Math.abs( num2 ), Math.abs( den1 ) );
+    long numerator = Math.multiplyExact( num1 / gcd1, num2 / gcd2 );
+    long denominator = Math.multiplyExact( den1 / gcd2, den2 / gcd1 );
+    return reduced
+           ? get( numerator, denominator, true )
+           : getReduced( numerator, denominator );
   }
 
   public Rational times( Number n )
@@ -609,12 +778,12 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational div( int i )
   {
-    return div( BigInteger.valueOf( i ) );
+    return div( get( i ) );
   }
 
   public Rational div( long l )
   {
-    return div( BigInteger.valueOf( l ) );
+    return div( get( l ) );
   }
 
   public Rational div( float f )
@@ -637,7 +806,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
-    return get( _numerator, _denominator.multiply( bi ) );
+    return div( get( bi ) );
   }
 
   public Rational div( BigDecimal bd )
@@ -655,7 +824,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational div( Rational rational )
   {
-    if( rational.equals( ZERO ) )
+    if( rational.signum() == 0 )
     {
       throw new ArithmeticException( "Divide by zero" );
     }
@@ -663,6 +832,18 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return ZERO;
     }
+    if( isSmall() && rational.isSmall() )
+    {
+      try
+      {
+        // multiply by the reciprocal without making it
+        return multiply( _num, _den, rational._den, rational._num, _reduced && rational._reduced );
+      }
+      catch( ArithmeticException overflow )
+      {
+        // use BigInteger
+      }
+    }
     return times( rational.invert() );
   }
 
@@ -704,12 +885,12 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational rem( int i )
   {
-    return rem( BigInteger.valueOf( i ) );
+    return rem( get( i ) );
   }
 
   public Rational rem( long l )
   {
-    return rem( BigInteger.valueOf( l ) );
+    return rem( get( l ) );
   }
 
   public Rational rem( float f )
@@ -784,7 +965,9 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational unaryMinus()
   {
-    return get( _numerator.negate(), _denominator );
+    return isSmall()
+           ? get( -_num, _den, _reduced )
+           : get( _numerator.negate(), _denominator, _reduced );
   }
 
   /**
@@ -805,7 +988,9 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public Rational invert()
   {
-    return get( _denominator, _numerator );
+    return isSmall()
+           ? get( _den, _num, _reduced )
+           : get( _denominator, _numerator, _reduced );
   }
 
   public Rational abs()
@@ -819,7 +1004,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return exponent == 0 ? ONE : this;
     }
-    return Rational.get( _numerator.pow( exponent ), _denominator.pow( exponent ) );
+    return Rational.get( getNumerator().pow( exponent ), getDenominator().pow( exponent ) );
   }
 
   @Deprecated
@@ -831,7 +1016,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public boolean isInteger()
   {
-    return _denominator.equals( BigInteger.ONE );
+    return isSmall() ? _den == 1 : _denominator.equals( BigInteger.ONE );
   }
 
   @Override
@@ -864,7 +1049,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
 
   public int signum()
   {
-    return _numerator.signum();
+    return isSmall() ? Long.signum( _num ) : _numerator.signum();
   }
 
   @Override
@@ -888,8 +1073,23 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return thisSign - thatSign;
     }
-    BigInteger crossNum = _numerator.multiply( that._denominator );
-    BigInteger crossDen = _denominator.multiply( that._numerator );
+    if( isSmall() && that.isSmall() )
+    {
+      if( _den == that._den )
+      {
+        return Long.compare( _num, that._num );
+      }
+      try
+      {
+        return Long.compare( Math.multiplyExact( _num, that._den ), Math.multiplyExact( _den, that._num ) );
+      }
+      catch( ArithmeticException overflow )
+      {
+        // use BigInteger
+      }
+    }
+    BigInteger crossNum = getNumerator().multiply( that.getDenominator() );
+    BigInteger crossDen = getDenominator().multiply( that.getNumerator() );
     return crossNum.compareTo( crossDen );
   }
 
@@ -914,8 +1114,13 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
       return false;
     }
 
+    // a reduced value that fits in longs is always stored as longs
     Rational me = reduce();
     Rational that = ((Rational)o).reduce();
+    if( me.isSmall() || that.isSmall() )
+    {
+      return me.isSmall() && that.isSmall() && me._num == that._num && me._den == that._den;
+    }
     if( !me._denominator.equals( that._denominator ) )
     {
       return false;
@@ -926,9 +1131,13 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
   @Override
   public int hashCode()
   {
-    reduce();
-    int result = _numerator.hashCode();
-    result = 31 * result + _denominator.hashCode();
+    Rational me = reduce();
+    if( me.isSmall() )
+    {
+      return 31 * Long.hashCode( me._num ) + Long.hashCode( me._den );
+    }
+    int result = me._numerator.hashCode();
+    result = 31 * result + me._denominator.hashCode();
     return result;
   }
 
@@ -938,7 +1147,7 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     {
       return reduce().toFractionString();
     }
-    return _numerator + "/" + _denominator;
+    return getNumerator() + "/" + getDenominator();
   }
 
   public String toMixedString()
@@ -948,9 +1157,9 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
       return reduce().toMixedString();
     }
 
-    if( _denominator.equals( BigInteger.ONE ) )
+    if( isInteger() )
     {
-      return _numerator.toString();
+      return getNumerator().toString();
     }
     BigInteger whole = wholePart();
     if( whole.signum() == 0 )
@@ -987,7 +1196,9 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
   @Override
   public String toString()
   {
-    return _numerator + " / " + _denominator;
+    return isSmall()
+           ? _num + " / " + _den
+           : _numerator + " / " + _denominator;
   }
 
   private Object writeReplace()
@@ -1012,8 +1223,8 @@ final public class Rational extends Number implements Sequential<Rational, Ratio
     public void writeExternal( ObjectOutput out ) throws IOException
     {
       out.writeInt( VERSION_1 );
-      out.writeObject( _rational._numerator );
-      out.writeObject( _rational._denominator );
+      out.writeObject( _rational.getNumerator() );
+      out.writeObject( _rational.getDenominator() );
       out.writeBoolean( _rational._reduced );
     }
 
@@ -48,25 +48,51 @@ public class Xml
   public static String toXml( Object jsonValue )
   {
     StringBuilder sb = new StringBuilder();
+    toXml( jsonValue, sb );
+    return sb.toString();
+  }
 
+  /**
+   * Writes the XML for {@code jsonValue} to {@code target} as it is produced, as with {@link #toXml(Object)}.
+   */
+  public static void toXml( Object jsonValue, Appendable target )
+  {
     jsonValue = toBindings( jsonValue );
 
-    if( jsonValue instanceof Map )
+    try
     {
-      toXml( jsonValue, null, sb, 0 );
+      if( jsonValue instanceof Map )
+      {
+        writeXml( jsonValue, null, target, 0 );
+      }
+      else if( jsonValue instanceof Iterable )
+      {
+        writeXml( jsonValue, "list", target, 0 );
+      }
+      else
+      {
+        writeXml( jsonValue, "item", target, 0 );
+      }
     }
-    else if( jsonValue instanceof Iterable )
+    catch( IOException e )
     {
-      toXml( jsonValue, "list", sb, 0 );
+      throw new RuntimeException( e );
     }
-    else
+  }
+
+  public static void toXml( Object jsonValue, String name, StringBuilder target, int indent )
+  {
+    try
     {
-      toXml( jsonValue, "item", sb, 0 );
+      writeXml( jsonValue, name, target, indent );
+    }
+    catch( IOException e )
+    {
+      throw new RuntimeException( e );
     }
-    return sb.toString();
   }
 
-  public static void toXml( Object jsonValue, String name, StringBuilder target, int indent )
+  private static void writeXml( Object jsonValue, String name, Appendable target, int indent ) throws IOException
   {
     jsonValue = toBindings( jsonValue );
 
@@ -84,7 +110,7 @@ public class Xml
           {
             rootValue = ((Pair)rootValue).getSecond();
           }
-          toXml( rootValue, rootKey.toString(), target, indent );
+          writeXml( rootValue, rootKey.toString(), target, indent );
           return;
         }
         else
@@ -93,27 +119,27 @@ public class Xml
           name = "root_object";
         }
       }
-      toXml( (Map)jsonValue, name, target, indent );
+      writeXml( (Map)jsonValue, name, target, indent );
     }
     else if( jsonValue instanceof Iterable )
     {
-      toXml( (Iterable)jsonValue, name, target, indent );
+      writeXml( (Iterable)jsonValue, name, target, indent );
     }
     else
     {
-      toXml( String.valueOf( jsonValue ), name, target, indent );
+      writeXml( String.valueOf( jsonValue ), name, target, indent );
     }
   }
 
   /**
-   * Serializes this {@link Map} instance into an XML formatted StringBuilder {@code target}
+   * Serializes this {@link Map} instance into an XML formatted {@code target}
    * with the specified {@code indent} of spaces.
    *
    * @param name   The name of the root element to nest the Map XML
-   * @param target A {@link StringBuilder} to write the XML in
+   * @param target An {@link Appendable} to write the XML in
    * @param indent The margin of spaces to indent the XML
    */
-  private static void toXml( Map bindings, String name, StringBuilder target, int indent )
+  private static void writeXml( Map bindings, String name, Appendable target, int indent ) throws IOException
   {
     indent( target, indent );
     target.append( '<' ).append( name );
@@ -131,7 +157,8 @@ public class Xml
 
         if( !(value instanceof Map) && !(value instanceof Iterable) && !key.equals( XML_ELEM_CONTENT ) )
         {
-          target.append( " " ).append( key ).append( "=\"" ).append( value ).append( '"' );
+          target.append( " " ).append( String.valueOf( key ) ).append( "=\"" ).append( String.valueOf( value ) )
+            .append( '"' );
         }
       }
       int count = 0;
@@ -152,7 +179,7 @@ public class Xml
             target.append( ">\n" );
           }
 
-          toXml( (Map)value, key.toString(), target, indent + 2 );
+          writeXml( (Map)value, key.toString(), target, indent + 2 );
 
           count++;
         }
@@ -163,7 +190,7 @@ public class Xml
             target.append( ">\n" );
           }
 
-          toXml( (Iterable)value, key.toString(), target, indent + 2 );
+          writeXml( (Iterable)value, key.toString(), target, indent + 2 );
 
           count++;
         }
@@ -175,7 +202,7 @@ public class Xml
           }
 
           indent( target, indent + 2 );
-          target.append( value ).append( "\n" );
+          target.append( (String)value ).append( "\n" );
 
           count++;
         }
@@ -197,7 +224,7 @@ public class Xml
     }
   }
 
-  private static void toXml( Iterable value, String name, StringBuilder target, int indent )
+  private static void writeXml( Iterable value, String name, Appendable target, int indent ) throws IOException
   {
     for( Object comp: value )
     {
@@ -210,20 +237,20 @@ public class Xml
 
       if( comp instanceof Map )
       {
-        toXml( (Map)comp, name, target, indent );
+        writeXml( (Map)comp, name, target, indent );
       }
       else if( comp instanceof Iterable )
       {
-        toXml( (Iterable)comp, name, target, indent );
+        writeXml( (Iterable)comp, name, target, indent );
       }
       else
       {
-        toXml( String.valueOf( comp ), name, target, indent );
+        writeXml( String.valueOf( comp ), name, target, indent );
       }
     }
   }
 
-  private static void toXml( String value, String name, StringBuilder target, int indent )
+  private static void writeXml( String value, String name, Appendable target, int indent ) throws IOException
   {
     indent( target, indent );
     target.append( '<' ).append( name ).append( ">" );
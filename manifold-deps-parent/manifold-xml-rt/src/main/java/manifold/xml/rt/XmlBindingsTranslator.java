@@ -44,6 +44,12 @@ public class XmlBindingsTranslator implements IJsonBindingsTranslator
     Xml.toXml( bindingsValue, name, target, indent );
   }
 
+  @Override
+  public void fromBindings( Object bindingsValue, Appendable target )
+  {
+    Xml.toXml( bindingsValue, target );
+  }
+
   @Override
   public Object toBindings( String translation )
   {
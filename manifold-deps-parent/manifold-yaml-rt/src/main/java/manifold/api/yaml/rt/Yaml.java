@@ -16,6 +16,8 @@
 
 package manifold.api.yaml.rt;
 
+import java.io.IOException;
+
 import manifold.rt.api.ScriptException;
 import manifold.api.yaml.rt.parser.YamlParser;
 import org.snakeyaml.engine.v1.api.Dump;
@@ -63,6 +65,16 @@ public class Yaml
    * @param target A {@link StringBuilder} to write the YAML in
    */
   public static void toYaml( Object jsonValue, StringBuilder target )
+  {
+    toYaml( jsonValue, (Appendable)target );
+  }
+
+  /**
+   * Serializes a JSON value to YAML 1.2, writing the text to {@code target} as it is produced.
+   *
+   * @param target An {@link Appendable} such as a {@link java.io.Writer} to write the YAML to
+   */
+  public static void toYaml( Object jsonValue, Appendable target )
   {
     DumpSettings settings = new DumpSettingsBuilder()
       .setBestLineBreak( "\n" )
@@ -76,13 +88,27 @@ public class Yaml
         @Override
         public void write( String str )
         {
-          target.append( str );
+          try
+          {
+            target.append( str );
+          }
+          catch( IOException e )
+          {
+            throw new RuntimeException( e );
+          }
         }
 
         @Override
         public void write( String str, int offset, int length )
         {
-          target.append( str, offset, offset + length );
+          try
+          {
+            target.append( str, offset, offset + length );
+          }
+          catch( IOException e )
+          {
+            throw new RuntimeException( e );
+          }
         }
       } );
   }
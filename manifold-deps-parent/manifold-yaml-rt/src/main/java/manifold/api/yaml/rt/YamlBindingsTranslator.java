@@ -46,6 +46,12 @@ public class YamlBindingsTranslator implements IJsonBindingsTranslator
     Yaml.toYaml( bindingsValue, target );
   }
 
+  @Override
+  public void fromBindings( Object bindingsValue, Appendable target )
+  {
+    Yaml.toYaml( bindingsValue, target );
+  }
+
   @Override
   public Object toBindings( String translation )
   {
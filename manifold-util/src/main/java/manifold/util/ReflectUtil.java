@@ -21,6 +21,8 @@ import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.*;
 import java.net.URI;
 import java.nio.file.Files;
@@ -58,7 +60,33 @@ public class ReflectUtil
   private static final ConcurrentWeakHashMap<Class, ConcurrentMap<String, ConcurrentHashSet<Method>>> _methodsByName = new ConcurrentWeakHashMap<>();
   private static final ConcurrentWeakHashMap<Class, ConcurrentMap<String, Field>> _fieldsByName = new ConcurrentWeakHashMap<>();
   private static final ConcurrentWeakHashMap<Class, Set<Constructor>> _constructorsByClass = new ConcurrentWeakHashMap<>();
-  private static final ConcurrentWeakHashMap<Method, ConcurrentMap<Class, Method>> _structuralCall = new ConcurrentWeakHashMap<>();
+  private static final ClassValue<ConcurrentMap<Method, StructuralCallSite>> _structuralCall = new ClassValue<ConcurrentMap<Method, StructuralCallSite>>()
+  {
+    @Override
+    protected ConcurrentMap<Method, StructuralCallSite> computeValue( Class<?> structIface )
+    {
+      return new ConcurrentHashMap<>();
+    }
+  };
+  private static final ClassValue<ConcurrentMap<Method, StructuralTarget>> _structuralTargets = new ClassValue<ConcurrentMap<Method, StructuralTarget>>()
+  {
+    @Override
+    protected ConcurrentMap<Method, StructuralTarget> computeValue( Class<?> receiverClass )
+    {
+      return new ConcurrentWeakHashMap<>();
+    }
+  };
+  private static final LocklessLazyVar<MethodHandle> _methodInvoke = LocklessLazyVar.make( () -> {
+    try
+    {
+      return MethodHandles.lookup().findVirtual( Method.class, "invoke",
+        MethodType.methodType( Object.class, Object.class, Object[].class ) ).asFixedArity();
+    }
+    catch( Exception e )
+    {
+      throw ManExceptionUtil.unchecked( e );
+    }
+  } );
   private static final LocklessLazyVar<ClassContextSecurityManager> _sm = LocklessLazyVar.make( () -> new ClassContextSecurityManager() );
   private static final String LAMBDA_METHOD = "lambda method";
   private static final Object UNHANDLED = new Object() {};
@@ -973,6 +1001,11 @@ public class ReflectUtil
       _field = f;
     }
 
+    public Field getField()
+    {
+      return _field;
+    }
+
     public Object get( Object receiver )
     {
       try
@@ -1460,8 +1493,8 @@ public class ReflectUtil
   }
   public static Object structuralCallByProxy( Method structMethod, Object proxy, Object receiver, Object... args )
   {
-    Method bestMethod = findBestMethod( structMethod, receiver.getClass() );
-    if( bestMethod == null )
+    StructuralTarget target = findStructuralTarget( structMethod, receiver.getClass() );
+    if( target._method == null )
     {
       if( proxy != null && structMethod.isDefault() )
       {
@@ -1482,13 +1515,115 @@ public class ReflectUtil
 
     try
     {
-      return bestMethod.invoke( receiver, args );
+      return (Object)target._handle.invokeExact( receiver, args );
+    }
+    catch( InvocationTargetException ite )
+    {
+      throw ManExceptionUtil.unchecked( ite.getCause() );
     }
     catch( Throwable t )
     {
       throw ManExceptionUtil.unchecked( t );
     }
+  }
 
+  private static StructuralTarget findStructuralTarget( Method structMethod, Class receiverClass )
+  {
+    ConcurrentMap<Method, StructuralCallSite> callSites = _structuralCall.get( structMethod.getDeclaringClass() );
+    StructuralCallSite callSite = callSites.get( structMethod );
+    if( callSite == null )
+    {
+      callSite = callSites.computeIfAbsent( structMethod, StructuralCallSite::new );
+    }
+    return callSite.find( receiverClass );
+  }
+
+  /**
+   * Finds the best methods for a structural method. The targets are kept with their receiver classes, weakly keyed by
+   * the structural method, and this call site refers to the most recent target weakly. Since targets don't refer to the
+   * structural interface and the interface doesn't strongly refer to targets, neither class keeps the other's class
+   * loader from being collected. Most structural calls to a method are made with a single receiver class, so the most
+   * recent target is checked first.
+   */
+  private static class StructuralCallSite
+  {
+    private final Method _structMethod;
+    private volatile WeakReference<StructuralTarget> _last;
+
+    private StructuralCallSite( Method structMethod )
+    {
+      _structMethod = structMethod;
+    }
+
+    private StructuralTarget find( Class<?> receiverClass )
+    {
+      WeakReference<StructuralTarget> last = _last;
+      StructuralTarget target = last == null ? null : last.get();
+      if( target != null && target._receiverClass == receiverClass )
+      {
+        return target;
+      }
+      ConcurrentMap<Method, StructuralTarget> targets = _structuralTargets.get( receiverClass );
+      target = targets.get( _structMethod );
+      if( target == null )
+      {
+        target = targets.computeIfAbsent( _structMethod,
+          sm -> new StructuralTarget( receiverClass, sm, findBestMethodImpl( sm, receiverClass ) ) );
+      }
+      _last = new WeakReference<>( target );
+      return target;
+    }
+  }
+
+  /**
+   * The best method for a structural method and receiver class along with a method handle of type
+   * {@code (Object, Object[])Object} calling it. Arguments and the return value are adapted through the primitive types
+   * of the structural method, for instance an {@code int} argument widens to a {@code long} parameter. If the best
+   * method's signature can't be adapted, or if it isn't accessible to method handles, the handle calls it reflectively.
+   * <p/>
+   * A target must not refer to the structural method's class, see {@link StructuralCallSite}.
+   */
+  private static class StructuralTarget
+  {
+    private final Class _receiverClass;
+    private final Method _method;
+    private final MethodHandle _handle;
+
+    private StructuralTarget( Class receiverClass, Method structMethod, Method method )
+    {
+      _receiverClass = receiverClass;
+      _method = method;
+      _handle = method == null ? null : makeStructuralCallHandle( structMethod, method );
+    }
+  }
+
+  private static MethodHandle makeStructuralCallHandle( Method structMethod, Method bestMethod )
+  {
+    // reference types are erased, the handle must not refer to classes of the structural interface
+    Class<?>[] paramTypes = structMethod.getParameterTypes();
+    for( int i = 0; i < paramTypes.length; i++ )
+    {
+      paramTypes[i] = paramTypes[i].isPrimitive() ? paramTypes[i] : Object.class;
+    }
+    Class<?> returnType = structMethod.getReturnType().isPrimitive() ? structMethod.getReturnType() : Object.class;
+    try
+    {
+      MethodHandle handle = MethodHandles.lookup().unreflect( bestMethod );
+      if( Modifier.isStatic( bestMethod.getModifiers() ) )
+      {
+        handle = MethodHandles.dropArguments( handle, 0, Object.class );
+      }
+      MethodType structType = MethodType.methodType( returnType, paramTypes )
+        .insertParameterTypes( 0, Object.class );
+      return handle
+        .asType( structType )
+        .asType( structType.generic() )
+        .asSpreader( Object[].class, paramTypes.length );
+    }
+    catch( IllegalAccessException | WrongMethodTypeException e )
+    {
+      return _methodInvoke.get().bindTo( bestMethod );
+    }
   }
 
   enum Variance
@@ -1610,30 +1745,32 @@ public class ReflectUtil
 
   public static Method findBestMethod( Method structMethod, Class receiverClass )
   {
-    ConcurrentMap<Class, Method> map = _structuralCall.computeIfAbsent( structMethod, cls -> new ConcurrentWeakHashMap<>() );
-    return map.computeIfAbsent( receiverClass, rc -> {
-      List<Method> methods = new ArrayList<>();
-      for( Method m : rc.getMethods() )
+    return findStructuralTarget( structMethod, receiverClass )._method;
+  }
+
+  private static Method findBestMethodImpl( Method structMethod, Class<?> receiverClass )
+  {
+    List<Method> methods = new ArrayList<>();
+    for( Method m : receiverClass.getMethods() )
+    {
+      if( m.getName().equals( structMethod.getName() ) )
       {
-        if( m.getName().equals( structMethod.getName() ) )
-        {
-          methods.add( m );
-        }
+        methods.add( m );
       }
-      List<MethodScore> methodScores = MethodScorer.instance()
-        .scoreMethods( methods, Arrays.asList( structMethod.getParameterTypes() ), structMethod.getReturnType() );
-      for( MethodScore score : methodScores )
+    }
+    List<MethodScore> methodScores = MethodScorer.instance()
+      .scoreMethods( methods, Arrays.asList( structMethod.getParameterTypes() ), structMethod.getReturnType() );
+    for( MethodScore score : methodScores )
+    {
+      if( !score.isErrant() )
       {
-        if( !score.isErrant() )
-        {
-          Method method = score.getMethod();
-          setAccessible( method );
-          return method;
-        }
-        //todo: post a compile error indicating the errant method
+        Method method = score.getMethod();
+        setAccessible( method );
+        return method;
       }
-      return null;
-    } );
+      //todo: post a compile error indicating the errant method
+    }
+    return null;
   }
 
   public static class FakeProxy implements InvocationHandler
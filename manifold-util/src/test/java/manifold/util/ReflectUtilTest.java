@@ -1,6 +1,11 @@
 package manifold.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
 import junit.framework.TestCase;
 
 public class ReflectUtilTest extends TestCase
@@ -63,6 +68,102 @@ public class ReflectUtilTest extends TestCase
     assertEquals( "two", res );
   }
 
+  public void testStructuralCallAdaptsSignature()
+  {
+    Object res = ReflectUtil.structuralCall( ReflectUtil.method( IFoo.class, "staticMethod", int.class ).getMethod(), new Foo(), 5 );
+    assertEquals( 5L, res );
+    res = ReflectUtil.structuralCall( ReflectUtil.method( IFoo.class, "voidMethod" ).getMethod(), new Foo() );
+    assertNull( res );
+    try
+    {
+      ReflectUtil.structuralCall( ReflectUtil.method( IFoo.class, "throwMe" ).getMethod(), new Foo() );
+      fail();
+    }
+    catch( IllegalStateException e )
+    {
+      assertEquals( "thrown", e.getMessage() );
+    }
+  }
+
+  public void testStructuralCallReleasesReceiverClassLoader() throws Exception
+  {
+    WeakReference<ClassLoader> loader = structuralCallWithIsolatedReceiver();
+    for( int i = 0; i < 20 && loader.get() != null; i++ )
+    {
+      System.gc();
+      Thread.sleep( 10 );
+    }
+    assertNull( loader.get() );
+  }
+
+  private WeakReference<ClassLoader> structuralCallWithIsolatedReceiver() throws Exception
+  {
+    ClassLoader loader = new IsolatingLoader( Foo.class.getName() );
+    Class<?> fooClass = Class.forName( Foo.class.getName(), true, loader );
+    assertNotSame( Foo.class, fooClass );
+    Constructor<?> constructor = fooClass.getDeclaredConstructor();
+    constructor.setAccessible( true );
+    Object res = ReflectUtil.structuralCall( ReflectUtil.method( IFoo.class, "staticMethod", int.class ).getMethod(),
+      constructor.newInstance(), 5 );
+    assertEquals( 5L, res );
+    return new WeakReference<>( loader );
+  }
+
+  /**
+   * Defines its own copy of a single class, other classes are loaded from the parent loader.
+   */
+  private static class IsolatingLoader extends ClassLoader
+  {
+    private final String _className;
+
+    IsolatingLoader( String className )
+    {
+      super( ReflectUtilTest.class.getClassLoader() );
+      _className = className;
+    }
+
+    @Override
+    protected Class<?> loadClass( String name, boolean resolve ) throws ClassNotFoundException
+    {
+      if( !name.equals( _className ) )
+      {
+        return super.loadClass( name, resolve );
+      }
+      synchronized( getClassLoadingLock( name ) )
+      {
+        Class<?> cls = findLoadedClass( name );
+        if( cls == null )
+        {
+          byte[] bytes = readClassFile( name );
+          cls = defineClass( name, bytes, 0, bytes.length );
+        }
+        return cls;
+      }
+    }
+
+    private byte[] readClassFile( String name ) throws ClassNotFoundException
+    {
+      try( InputStream in = getParent().getResourceAsStream( name.replace( '.', '/' ) + ".class" ) )
+      {
+        if( in == null )
+        {
+          throw new ClassNotFoundException( name );
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        for( int read; (read = in.read( buf )) >= 0; )
+        {
+          out.write( buf, 0, read );
+        }
+        return out.toByteArray();
+      }
+      catch( IOException e )
+      {
+        throw new ClassNotFoundException( name, e );
+      }
+    }
+  }
+
   interface IFoo
   {
     String callMe( CharSequence p );
@@ -76,6 +177,10 @@ public class ReflectUtilTest extends TestCase
     CharSequence returnCharSequence( int n );
 
     String callMe( Three three );
+
+    long staticMethod( int i );
+    void voidMethod();
+    void throwMe();
   }
   static class Foo
   {
@@ -126,6 +231,20 @@ public class ReflectUtilTest extends TestCase
       return "String";
     }
 
+    public static int staticMethod( int i )
+    {
+      return i;
+    }
+
+    public void voidMethod()
+    {
+    }
+
+    public void throwMe()
+    {
+      throw new IllegalStateException( "thrown" );
+    }
+
   }
 
   static class One {}